@@ -0,0 +1,727 @@
+package com.IndiChess.Chess;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Mailbox chess position with full legal move generation, FEN and SAN support.
+ * Moves are ints in the 16-bit {@link MoveCodec} format. Not thread-safe.
+ */
+public final class Board {
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    /* ================= PIECES ================= */
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int EMPTY = 0;
+    public static final int PAWN = 1;
+    public static final int KNIGHT = 2;
+    public static final int BISHOP = 3;
+    public static final int ROOK = 4;
+    public static final int QUEEN = 5;
+    public static final int KING = 6;
+
+    public static final int BLACK_BIT = 8; // piece = type | (color << 3)
+
+    private static final String PIECE_CHARS = ".PNBRQK..pnbrqk";
+
+    private static final int CASTLE_WK = 1;
+    private static final int CASTLE_WQ = 2;
+    private static final int CASTLE_BK = 4;
+    private static final int CASTLE_BQ = 8;
+
+    /* ================= PRECOMPUTED TABLES ================= */
+
+    private static final int[][] KNIGHT_TARGETS = new int[64][];
+    private static final int[][] KING_TARGETS = new int[64][];
+    // 0-3 orthogonal (N, S, E, W), 4-7 diagonal (NE, NW, SE, SW)
+    private static final int[][][] RAYS = new int[64][8][];
+    private static final int[] CASTLE_MASK = new int[64];
+
+    // Zobrist keys come from a fixed seed: hashes are persisted by the position index
+    private static final long[][] PIECE_KEYS = new long[16][64];
+    private static final long[] CASTLE_KEYS = new long[16];
+    private static final long[] EP_KEYS = new long[8];
+    private static final long SIDE_KEY;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x1D1C4E55L);
+        for (long[] keys : PIECE_KEYS) {
+            for (int sq = 0; sq < 64; sq++) keys[sq] = random.nextLong();
+        }
+        for (int i = 0; i < 16; i++) CASTLE_KEYS[i] = random.nextLong();
+        for (int i = 0; i < 8; i++) EP_KEYS[i] = random.nextLong();
+        SIDE_KEY = random.nextLong();
+    }
+
+    static {
+        int[][] knightSteps = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+        int[][] kingSteps = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}, {1, 1}, {-1, 1}, {1, -1}, {-1, -1}};
+        for (int sq = 0; sq < 64; sq++) {
+            KNIGHT_TARGETS[sq] = targets(sq, knightSteps, false);
+            KING_TARGETS[sq] = targets(sq, kingSteps, false);
+            for (int d = 0; d < 8; d++) {
+                RAYS[sq][d] = targets(sq, new int[][]{kingSteps[d]}, true);
+            }
+        }
+        Arrays.fill(CASTLE_MASK, 15);
+        CASTLE_MASK[0] = 15 & ~CASTLE_WQ;
+        CASTLE_MASK[7] = 15 & ~CASTLE_WK;
+        CASTLE_MASK[4] = 15 & ~(CASTLE_WK | CASTLE_WQ);
+        CASTLE_MASK[56] = 15 & ~CASTLE_BQ;
+        CASTLE_MASK[63] = 15 & ~CASTLE_BK;
+        CASTLE_MASK[60] = 15 & ~(CASTLE_BK | CASTLE_BQ);
+    }
+
+    private static int[] targets(int sq, int[][] steps, boolean slide) {
+        int[] buf = new int[8];
+        int n = 0;
+        for (int[] step : steps) {
+            int f = (sq & 7) + step[0];
+            int r = (sq >>> 3) + step[1];
+            while (f >= 0 && f < 8 && r >= 0 && r < 8) {
+                buf[n++] = f + (r << 3);
+                if (!slide) break;
+                f += step[0];
+                r += step[1];
+            }
+        }
+        return Arrays.copyOf(buf, n);
+    }
+
+    /* ================= STATE ================= */
+
+    private final int[] squares = new int[64];
+    private final int[] kingSquare = new int[2];
+    private int sideToMove;
+    private int castling;
+    private int epSquare = -1;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    private long hash;
+
+    // Undo stack: the move plus captured piece, castling, ep square and halfmove clock
+    private int[] undoMoves = new int[128];
+    private int[] undoState = new int[128];
+    private long[] undoHash = new long[128];
+    private int undoSize;
+
+    private Board() {
+    }
+
+    public static Board startPosition() {
+        return fromFen(START_FEN);
+    }
+
+    public static Board fromFen(String fen) {
+        if (fen == null) throw new IllegalArgumentException("FEN is null");
+        String[] parts = fen.trim().split("\\s+");
+        if (parts.length < 2) throw new IllegalArgumentException("Invalid FEN: " + fen);
+
+        Board b = new Board();
+        b.kingSquare[WHITE] = -1;
+        b.kingSquare[BLACK] = -1;
+        String[] rows = parts[0].split("/");
+        if (rows.length != 8) throw new IllegalArgumentException("Invalid FEN board: " + fen);
+        for (int r = 0; r < 8; r++) {
+            int rank = 7 - r;
+            int file = 0;
+            for (char ch : rows[r].toCharArray()) {
+                if (ch >= '1' && ch <= '8') {
+                    file += ch - '0';
+                } else {
+                    int piece = PIECE_CHARS.indexOf(ch);
+                    if (piece <= 0 || ch == '.' || file > 7) {
+                        throw new IllegalArgumentException("Invalid FEN board: " + fen);
+                    }
+                    if ((piece & 7) == PAWN && (rank == 0 || rank == 7)) {
+                        throw new IllegalArgumentException("Pawn on back rank: " + fen);
+                    }
+                    int sq = file + (rank << 3);
+                    b.squares[sq] = piece;
+                    if ((piece & 7) == KING) b.kingSquare[piece >>> 3] = sq;
+                    file++;
+                }
+            }
+            if (file != 8) throw new IllegalArgumentException("Invalid FEN board: " + fen);
+        }
+        if (b.kingSquare[WHITE] < 0 || b.kingSquare[BLACK] < 0) {
+            throw new IllegalArgumentException("FEN must contain both kings: " + fen);
+        }
+
+        if (parts[1].equals("w")) b.sideToMove = WHITE;
+        else if (parts[1].equals("b")) b.sideToMove = BLACK;
+        else throw new IllegalArgumentException("Invalid side to move: " + fen);
+
+        if (parts.length > 2 && !parts[2].equals("-")) {
+            for (char ch : parts[2].toCharArray()) {
+                switch (ch) {
+                    case 'K': b.castling |= CASTLE_WK; break;
+                    case 'Q': b.castling |= CASTLE_WQ; break;
+                    case 'k': b.castling |= CASTLE_BK; break;
+                    case 'q': b.castling |= CASTLE_BQ; break;
+                    default: throw new IllegalArgumentException("Invalid castling rights: " + fen);
+                }
+            }
+            b.castling &= b.validCastlingRights();
+        }
+        if (parts.length > 3 && !parts[3].equals("-")) {
+            int ep = MoveCodec.parseSquare(parts[3], 0);
+            if (ep >= 0 && (ep >>> 3) == (b.sideToMove == WHITE ? 5 : 2)) {
+                int pawnSq = ep + (b.sideToMove == WHITE ? -8 : 8);
+                b.epSquare = b.canCaptureEnPassant(pawnSq, b.sideToMove) ? ep : -1;
+            }
+        }
+        if (parts.length > 4) b.halfmoveClock = Integer.parseInt(parts[4]);
+        if (parts.length > 5) b.fullmoveNumber = Math.max(1, Integer.parseInt(parts[5]));
+        b.hash = b.computeHash();
+        return b;
+    }
+
+    private long computeHash() {
+        long h = CASTLE_KEYS[castling];
+        for (int sq = 0; sq < 64; sq++) {
+            if (squares[sq] != EMPTY) h ^= PIECE_KEYS[squares[sq]][sq];
+        }
+        if (epSquare >= 0) h ^= EP_KEYS[epSquare & 7];
+        if (sideToMove == BLACK) h ^= SIDE_KEY;
+        return h;
+    }
+
+    // An ep square is only recorded when a pawn of {@code capturer} can use it, so
+    // transpositions hash (and print) identically
+    private boolean canCaptureEnPassant(int pawnSq, int capturer) {
+        int enemyPawn = PAWN | (capturer << 3);
+        int file = pawnSq & 7;
+        return (file > 0 && squares[pawnSq - 1] == enemyPawn) || (file < 7 && squares[pawnSq + 1] == enemyPawn);
+    }
+
+    // Drop rights whose king or rook is not on its home square (lenient FEN input)
+    private int validCastlingRights() {
+        int valid = 0;
+        if (squares[4] == KING) {
+            if (squares[7] == ROOK) valid |= CASTLE_WK;
+            if (squares[0] == ROOK) valid |= CASTLE_WQ;
+        }
+        if (squares[60] == (KING | BLACK_BIT)) {
+            if (squares[63] == (ROOK | BLACK_BIT)) valid |= CASTLE_BK;
+            if (squares[56] == (ROOK | BLACK_BIT)) valid |= CASTLE_BQ;
+        }
+        return valid;
+    }
+
+    public Board copy() {
+        Board b = new Board();
+        System.arraycopy(squares, 0, b.squares, 0, 64);
+        b.kingSquare[WHITE] = kingSquare[WHITE];
+        b.kingSquare[BLACK] = kingSquare[BLACK];
+        b.sideToMove = sideToMove;
+        b.castling = castling;
+        b.epSquare = epSquare;
+        b.halfmoveClock = halfmoveClock;
+        b.fullmoveNumber = fullmoveNumber;
+        b.hash = hash;
+        return b;
+    }
+
+    public String toFen() {
+        StringBuilder sb = new StringBuilder(90);
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                int piece = squares[file + (rank << 3)];
+                if (piece == EMPTY) {
+                    empty++;
+                } else {
+                    if (empty > 0) {
+                        sb.append(empty);
+                        empty = 0;
+                    }
+                    sb.append(PIECE_CHARS.charAt(piece));
+                }
+            }
+            if (empty > 0) sb.append(empty);
+            if (rank > 0) sb.append('/');
+        }
+        sb.append(sideToMove == WHITE ? " w " : " b ");
+        if (castling == 0) {
+            sb.append('-');
+        } else {
+            if ((castling & CASTLE_WK) != 0) sb.append('K');
+            if ((castling & CASTLE_WQ) != 0) sb.append('Q');
+            if ((castling & CASTLE_BK) != 0) sb.append('k');
+            if ((castling & CASTLE_BQ) != 0) sb.append('q');
+        }
+        sb.append(' ').append(epSquare < 0 ? "-" : MoveCodec.squareName(epSquare));
+        sb.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return sb.toString();
+    }
+
+    /* ================= ACCESSORS ================= */
+
+    public int pieceAt(int square) {
+        return squares[square];
+    }
+
+    public int sideToMove() {
+        return sideToMove;
+    }
+
+    public int kingSquare(int color) {
+        return kingSquare[color];
+    }
+
+    public int halfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int fullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /** 64-bit Zobrist key of the position (pieces, side, castling, ep); clocks are not included. */
+    public long hash() {
+        return hash;
+    }
+
+    public static int typeOf(int piece) {
+        return piece & 7;
+    }
+
+    public static int colorOf(int piece) {
+        return piece >>> 3;
+    }
+
+    public boolean inCheck() {
+        return isAttacked(kingSquare[sideToMove], sideToMove ^ 1);
+    }
+
+    /* ================= ATTACKS ================= */
+
+    public boolean isAttacked(int sq, int byColor) {
+        int colorBit = byColor << 3;
+        int file = sq & 7;
+        if (byColor == WHITE) {
+            if (sq >= 9 && file > 0 && squares[sq - 9] == PAWN) return true;
+            if (sq >= 7 && file < 7 && squares[sq - 7] == PAWN) return true;
+        } else {
+            if (sq <= 56 && file > 0 && squares[sq + 7] == (PAWN | BLACK_BIT)) return true;
+            if (sq <= 54 && file < 7 && squares[sq + 9] == (PAWN | BLACK_BIT)) return true;
+        }
+        for (int t : KNIGHT_TARGETS[sq]) {
+            if (squares[t] == (KNIGHT | colorBit)) return true;
+        }
+        for (int t : KING_TARGETS[sq]) {
+            if (squares[t] == (KING | colorBit)) return true;
+        }
+        for (int d = 0; d < 8; d++) {
+            int slider = d < 4 ? ROOK : BISHOP;
+            for (int t : RAYS[sq][d]) {
+                int p = squares[t];
+                if (p == EMPTY) continue;
+                if (p == (slider | colorBit) || p == (QUEEN | colorBit)) return true;
+                break;
+            }
+        }
+        return false;
+    }
+
+    /* ================= MOVE GENERATION ================= */
+
+    /** Pseudo-legal moves into {@code out} (256 is always enough), returns the count. */
+    public int generatePseudoLegal(int[] out) {
+        int n = 0;
+        int us = sideToMove;
+        for (int sq = 0; sq < 64; sq++) {
+            int p = squares[sq];
+            if (p == EMPTY || (p >>> 3) != us) continue;
+            switch (p & 7) {
+                case PAWN: n = pawnMoves(sq, out, n); break;
+                case KNIGHT: n = stepMoves(sq, KNIGHT_TARGETS[sq], out, n); break;
+                case BISHOP: n = slideMoves(sq, 4, 8, out, n); break;
+                case ROOK: n = slideMoves(sq, 0, 4, out, n); break;
+                case QUEEN: n = slideMoves(sq, 0, 8, out, n); break;
+                case KING:
+                    n = stepMoves(sq, KING_TARGETS[sq], out, n);
+                    n = castleMoves(out, n);
+                    break;
+                default: break;
+            }
+        }
+        return n;
+    }
+
+    public int[] legalMoves() {
+        int[] buf = new int[256];
+        int n = generatePseudoLegal(buf);
+        int legal = 0;
+        for (int i = 0; i < n; i++) {
+            if (makeMove(buf[i])) {
+                unmakeMove();
+                buf[legal++] = buf[i];
+            }
+        }
+        return Arrays.copyOf(buf, legal);
+    }
+
+    public boolean hasLegalMoves() {
+        int[] buf = new int[256];
+        int n = generatePseudoLegal(buf);
+        for (int i = 0; i < n; i++) {
+            if (makeMove(buf[i])) {
+                unmakeMove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isCheckmate() {
+        return inCheck() && !hasLegalMoves();
+    }
+
+    public boolean isStalemate() {
+        return !inCheck() && !hasLegalMoves();
+    }
+
+    private int pawnMoves(int sq, int[] out, int n) {
+        int us = sideToMove;
+        int dir = us == WHITE ? 8 : -8;
+        int startRank = us == WHITE ? 1 : 6;
+        int promoRank = us == WHITE ? 7 : 0;
+        int one = sq + dir;
+        if (squares[one] == EMPTY) {
+            if ((one >>> 3) == promoRank) {
+                n = promotions(sq, one, 0, out, n);
+            } else {
+                out[n++] = MoveCodec.encode(sq, one, MoveCodec.QUIET);
+                if ((sq >>> 3) == startRank && squares[one + dir] == EMPTY) {
+                    out[n++] = MoveCodec.encode(sq, one + dir, MoveCodec.DOUBLE_PUSH);
+                }
+            }
+        }
+        int file = sq & 7;
+        for (int df = -1; df <= 1; df += 2) {
+            if (file + df < 0 || file + df > 7) continue;
+            int t = one + df;
+            int q = squares[t];
+            if (q != EMPTY && (q >>> 3) != us) {
+                if ((t >>> 3) == promoRank) {
+                    n = promotions(sq, t, MoveCodec.CAPTURE, out, n);
+                } else {
+                    out[n++] = MoveCodec.encode(sq, t, MoveCodec.CAPTURE);
+                }
+            } else if (t == epSquare) {
+                out[n++] = MoveCodec.encode(sq, t, MoveCodec.EP_CAPTURE);
+            }
+        }
+        return n;
+    }
+
+    private static int promotions(int from, int to, int captureFlag, int[] out, int n) {
+        for (int f = MoveCodec.PROMO_QUEEN; f >= MoveCodec.PROMO_KNIGHT; f--) {
+            out[n++] = MoveCodec.encode(from, to, f | captureFlag);
+        }
+        return n;
+    }
+
+    private int stepMoves(int sq, int[] targets, int[] out, int n) {
+        for (int t : targets) {
+            int q = squares[t];
+            if (q == EMPTY) {
+                out[n++] = MoveCodec.encode(sq, t, MoveCodec.QUIET);
+            } else if ((q >>> 3) != sideToMove) {
+                out[n++] = MoveCodec.encode(sq, t, MoveCodec.CAPTURE);
+            }
+        }
+        return n;
+    }
+
+    private int slideMoves(int sq, int fromDir, int toDir, int[] out, int n) {
+        for (int d = fromDir; d < toDir; d++) {
+            for (int t : RAYS[sq][d]) {
+                int q = squares[t];
+                if (q == EMPTY) {
+                    out[n++] = MoveCodec.encode(sq, t, MoveCodec.QUIET);
+                } else {
+                    if ((q >>> 3) != sideToMove) {
+                        out[n++] = MoveCodec.encode(sq, t, MoveCodec.CAPTURE);
+                    }
+                    break;
+                }
+            }
+        }
+        return n;
+    }
+
+    private int castleMoves(int[] out, int n) {
+        int us = sideToMove;
+        int them = us ^ 1;
+        int base = us == WHITE ? 0 : 56;
+        int kingSide = us == WHITE ? CASTLE_WK : CASTLE_BK;
+        int queenSide = us == WHITE ? CASTLE_WQ : CASTLE_BQ;
+        if ((castling & (kingSide | queenSide)) == 0 || isAttacked(base + 4, them)) return n;
+
+        if ((castling & kingSide) != 0
+                && squares[base + 5] == EMPTY && squares[base + 6] == EMPTY
+                && !isAttacked(base + 5, them) && !isAttacked(base + 6, them)) {
+            out[n++] = MoveCodec.encode(base + 4, base + 6, MoveCodec.KING_CASTLE);
+        }
+        if ((castling & queenSide) != 0
+                && squares[base + 3] == EMPTY && squares[base + 2] == EMPTY && squares[base + 1] == EMPTY
+                && !isAttacked(base + 3, them) && !isAttacked(base + 2, them)) {
+            out[n++] = MoveCodec.encode(base + 4, base + 2, MoveCodec.QUEEN_CASTLE);
+        }
+        return n;
+    }
+
+    /* ================= MAKE / UNMAKE ================= */
+
+    /**
+     * Plays a pseudo-legal move. Returns false (and leaves the board unchanged)
+     * if the move would leave the mover's king in check.
+     */
+    public boolean makeMove(int move) {
+        int from = MoveCodec.from(move);
+        int to = MoveCodec.to(move);
+        int flags = MoveCodec.flags(move);
+        int us = sideToMove;
+        int piece = squares[from];
+
+        int capSq = flags == MoveCodec.EP_CAPTURE ? to + (us == WHITE ? -8 : 8) : to;
+        int captured = squares[capSq];
+        pushUndo(move, captured);
+
+        long h = hash ^ PIECE_KEYS[piece][from] ^ SIDE_KEY ^ CASTLE_KEYS[castling];
+        if (captured != EMPTY) h ^= PIECE_KEYS[captured][capSq];
+        if (epSquare >= 0) h ^= EP_KEYS[epSquare & 7];
+
+        squares[capSq] = EMPTY;
+        squares[from] = EMPTY;
+        int placed = (flags & 8) != 0 ? (MoveCodec.promotionPiece(move) | (us << 3)) : piece;
+        squares[to] = placed;
+        h ^= PIECE_KEYS[placed][to];
+
+        if (flags == MoveCodec.KING_CASTLE) {
+            int rook = squares[to + 1];
+            squares[to - 1] = rook;
+            squares[to + 1] = EMPTY;
+            h ^= PIECE_KEYS[rook][to + 1] ^ PIECE_KEYS[rook][to - 1];
+        } else if (flags == MoveCodec.QUEEN_CASTLE) {
+            int rook = squares[to - 2];
+            squares[to + 1] = rook;
+            squares[to - 2] = EMPTY;
+            h ^= PIECE_KEYS[rook][to - 2] ^ PIECE_KEYS[rook][to + 1];
+        }
+        if ((piece & 7) == KING) kingSquare[us] = to;
+
+        castling &= CASTLE_MASK[from] & CASTLE_MASK[to];
+        epSquare = flags == MoveCodec.DOUBLE_PUSH && canCaptureEnPassant(to, us ^ 1) ? (from + to) >>> 1 : -1;
+        h ^= CASTLE_KEYS[castling];
+        if (epSquare >= 0) h ^= EP_KEYS[epSquare & 7];
+        hash = h;
+        halfmoveClock = ((piece & 7) == PAWN || captured != EMPTY) ? 0 : halfmoveClock + 1;
+        if (us == BLACK) fullmoveNumber++;
+        sideToMove = us ^ 1;
+
+        if (isAttacked(kingSquare[us], us ^ 1)) {
+            unmakeMove();
+            return false;
+        }
+        return true;
+    }
+
+    public void unmakeMove() {
+        undoSize--;
+        int move = undoMoves[undoSize];
+        int state = undoState[undoSize];
+        int from = MoveCodec.from(move);
+        int to = MoveCodec.to(move);
+        int flags = MoveCodec.flags(move);
+
+        sideToMove ^= 1;
+        int us = sideToMove;
+        if (us == BLACK) fullmoveNumber--;
+
+        hash = undoHash[undoSize];
+        int captured = state & 0xF;
+        castling = (state >>> 4) & 0xF;
+        epSquare = ((state >>> 8) & 0x7F) - 1;
+        halfmoveClock = state >>> 15;
+
+        int piece = (flags & 8) != 0 ? (PAWN | (us << 3)) : squares[to];
+        squares[from] = piece;
+        if (flags == MoveCodec.EP_CAPTURE) {
+            squares[to] = EMPTY;
+            squares[to + (us == WHITE ? -8 : 8)] = captured;
+        } else {
+            squares[to] = captured;
+        }
+
+        if (flags == MoveCodec.KING_CASTLE) {
+            squares[to + 1] = squares[to - 1];
+            squares[to - 1] = EMPTY;
+        } else if (flags == MoveCodec.QUEEN_CASTLE) {
+            squares[to - 2] = squares[to + 1];
+            squares[to + 1] = EMPTY;
+        }
+        if ((piece & 7) == KING) kingSquare[us] = from;
+    }
+
+    private void pushUndo(int move, int captured) {
+        if (undoSize == undoMoves.length) {
+            undoMoves = Arrays.copyOf(undoMoves, undoSize * 2);
+            undoState = Arrays.copyOf(undoState, undoSize * 2);
+            undoHash = Arrays.copyOf(undoHash, undoSize * 2);
+        }
+        undoHash[undoSize] = hash;
+        undoMoves[undoSize] = move;
+        undoState[undoSize] = captured | (castling << 4) | ((epSquare + 1) << 8) | (halfmoveClock << 15);
+        undoSize++;
+    }
+
+    /** Plays a move known to be legal and forgets how to undo it. */
+    public void play(int move) {
+        if (!makeMove(move)) {
+            throw new IllegalArgumentException("Illegal move: " + MoveCodec.toUci(move));
+        }
+        undoSize = 0;
+    }
+
+    /* ================= UCI / SAN ================= */
+
+    /** Resolves a UCI string against the legal moves, or returns {@link MoveCodec#NONE}. */
+    public int parseUci(String uci) {
+        if (uci == null || uci.length() < 4 || uci.length() > 5) return MoveCodec.NONE;
+        int from = MoveCodec.parseSquare(uci, 0);
+        int to = MoveCodec.parseSquare(uci, 2);
+        if (from < 0 || to < 0) return MoveCodec.NONE;
+        int promo = uci.length() == 5 ? MoveCodec.promotionPieceFromChar(uci.charAt(4)) : QUEEN;
+        if (promo == 0) return MoveCodec.NONE;
+
+        for (int move : legalMoves()) {
+            if (MoveCodec.from(move) != from || MoveCodec.to(move) != to) continue;
+            if (MoveCodec.isPromotion(move) && MoveCodec.promotionPiece(move) != promo) continue;
+            return move;
+        }
+        return MoveCodec.NONE;
+    }
+
+    /** Resolves a SAN string ("Nbd2", "exd6", "e8=Q+", "O-O") or returns {@link MoveCodec#NONE}. */
+    public int parseSan(String san) {
+        if (san == null) return MoveCodec.NONE;
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) end--;
+        String s = san.substring(0, end);
+        if (s.isEmpty()) return MoveCodec.NONE;
+
+        if (s.equals("O-O") || s.equals("0-0") || s.equals("O-O-O") || s.equals("0-0-0")) {
+            int flag = s.length() == 3 ? MoveCodec.KING_CASTLE : MoveCodec.QUEEN_CASTLE;
+            for (int move : legalMoves()) {
+                if (MoveCodec.flags(move) == flag) return move;
+            }
+            return MoveCodec.NONE;
+        }
+
+        int promo = 0;
+        int eq = s.indexOf('=');
+        if (eq >= 0) {
+            if (eq + 1 >= s.length()) return MoveCodec.NONE;
+            promo = MoveCodec.promotionPieceFromChar(s.charAt(eq + 1));
+            s = s.substring(0, eq);
+        } else if (s.length() > 2 && "NBRQ".indexOf(s.charAt(s.length() - 1)) >= 0
+                && Character.isDigit(s.charAt(s.length() - 2))) {
+            promo = MoveCodec.promotionPieceFromChar(s.charAt(s.length() - 1));
+            s = s.substring(0, s.length() - 1);
+        }
+
+        int type = PAWN;
+        int start = 0;
+        int typeIdx = "NBRQK".indexOf(s.charAt(0));
+        if (typeIdx >= 0) {
+            type = KNIGHT + typeIdx;
+            start = 1;
+        }
+        if (s.length() - start < 2) return MoveCodec.NONE;
+        int to = MoveCodec.parseSquare(s, s.length() - 2);
+        if (to < 0) return MoveCodec.NONE;
+
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < s.length() - 2; i++) {
+            char c = s.charAt(i);
+            if (c >= 'a' && c <= 'h') fromFile = c - 'a';
+            else if (c >= '1' && c <= '8') fromRank = c - '1';
+            else if (c != 'x' && c != '-') return MoveCodec.NONE;
+        }
+
+        int found = MoveCodec.NONE;
+        for (int move : legalMoves()) {
+            int from = MoveCodec.from(move);
+            if (MoveCodec.to(move) != to || (squares[from] & 7) != type) continue;
+            if (fromFile >= 0 && (from & 7) != fromFile) continue;
+            if (fromRank >= 0 && (from >>> 3) != fromRank) continue;
+            if (MoveCodec.isPromotion(move) && MoveCodec.promotionPiece(move) != (promo == 0 ? QUEEN : promo)) continue;
+            if (found != MoveCodec.NONE) return MoveCodec.NONE; // ambiguous
+            found = move;
+        }
+        return found;
+    }
+
+    /** SAN for a legal move in the current position, including the check/mate suffix. */
+    public String toSan(int move) {
+        StringBuilder sb = new StringBuilder(8);
+        appendSan(sb, move);
+        return sb.toString();
+    }
+
+    public void appendSan(StringBuilder sb, int move) {
+        int from = MoveCodec.from(move);
+        int to = MoveCodec.to(move);
+        int flags = MoveCodec.flags(move);
+        int type = squares[from] & 7;
+
+        if (flags == MoveCodec.KING_CASTLE) {
+            sb.append("O-O");
+        } else if (flags == MoveCodec.QUEEN_CASTLE) {
+            sb.append("O-O-O");
+        } else if (type == PAWN) {
+            if (MoveCodec.isCapture(move)) sb.append((char) ('a' + (from & 7))).append('x');
+            sb.append(MoveCodec.squareName(to));
+            if (MoveCodec.isPromotion(move)) {
+                sb.append('=').append(PIECE_CHARS.charAt(MoveCodec.promotionPiece(move)));
+            }
+        } else {
+            sb.append(PIECE_CHARS.charAt(type));
+            boolean ambiguous = false;
+            boolean sameFile = false;
+            boolean sameRank = false;
+            for (int other : legalMoves()) {
+                int otherFrom = MoveCodec.from(other);
+                if (otherFrom == from || MoveCodec.to(other) != to || (squares[otherFrom] & 7) != type) continue;
+                ambiguous = true;
+                if ((otherFrom & 7) == (from & 7)) sameFile = true;
+                if ((otherFrom >>> 3) == (from >>> 3)) sameRank = true;
+            }
+            if (ambiguous) {
+                if (!sameFile) {
+                    sb.append((char) ('a' + (from & 7)));
+                } else if (!sameRank) {
+                    sb.append((char) ('1' + (from >>> 3)));
+                } else {
+                    sb.append(MoveCodec.squareName(from));
+                }
+            }
+            if (MoveCodec.isCapture(move)) sb.append('x');
+            sb.append(MoveCodec.squareName(to));
+        }
+
+        if (makeMove(move)) {
+            if (inCheck()) sb.append(hasLegalMoves() ? '+' : '#');
+            unmakeMove();
+        }
+    }
+}
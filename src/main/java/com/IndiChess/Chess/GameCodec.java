@@ -0,0 +1,58 @@
+package com.IndiChess.Chess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk decoder that replays a packed game once and produces UCI, SAN and FEN per ply.
+ */
+public final class GameCodec {
+
+    public record DecodedMove(int ply, int move, String uci, String san, String fenBefore, String fenAfter) {
+    }
+
+    private GameCodec() {
+    }
+
+    public static List<DecodedMove> decode(byte[] packed) {
+        return decode(Board.START_FEN, packed);
+    }
+
+    public static List<DecodedMove> decode(String startFen, byte[] packed) {
+        int n = PackedMoves.size(packed);
+        List<DecodedMove> out = new ArrayList<>(n);
+        Board board = Board.fromFen(startFen);
+        String fenBefore = board.toFen();
+        for (int i = 0; i < n; i++) {
+            int move = PackedMoves.get(packed, i);
+            String san = board.toSan(move);
+            board.play(move);
+            String fenAfter = board.toFen();
+            out.add(new DecodedMove(i + 1, move, MoveCodec.toUci(move), san, fenBefore, fenAfter));
+            fenBefore = fenAfter;
+        }
+        return out;
+    }
+
+    public static List<String> toSan(byte[] packed) {
+        int n = PackedMoves.size(packed);
+        List<String> out = new ArrayList<>(n);
+        Board board = Board.startPosition();
+        for (int i = 0; i < n; i++) {
+            int move = PackedMoves.get(packed, i);
+            out.add(board.toSan(move));
+            board.play(move);
+        }
+        return out;
+    }
+
+    /** Position after {@code ply} half-moves (0 = start position). */
+    public static Board replay(String startFen, byte[] packed, int ply) {
+        Board board = Board.fromFen(startFen);
+        int n = Math.min(ply, PackedMoves.size(packed));
+        for (int i = 0; i < n; i++) {
+            board.play(PackedMoves.get(packed, i));
+        }
+        return board;
+    }
+}
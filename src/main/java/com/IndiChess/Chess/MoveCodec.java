@@ -0,0 +1,102 @@
+package com.IndiChess.Chess;
+
+/**
+ * 16-bit move encoding: bits 0-5 from square, bits 6-11 to square, bits 12-15 flags.
+ * Squares are numbered a1 = 0 ... h8 = 63.
+ */
+public final class MoveCodec {
+
+    /* ================= FLAGS ================= */
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EP_CAPTURE = 5;
+    public static final int PROMO_KNIGHT = 8;
+    public static final int PROMO_BISHOP = 9;
+    public static final int PROMO_ROOK = 10;
+    public static final int PROMO_QUEEN = 11;
+    public static final int PROMO_CAPTURE_FLAG = 12; // promotion flags | CAPTURE
+
+    public static final int NONE = 0; // a1a1 quiet, never a legal move
+
+    private static final char[] PROMO_CHARS = {'n', 'b', 'r', 'q'};
+
+    private MoveCodec() {
+    }
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (flags(move) & 8) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        int f = flags(move);
+        return f == KING_CASTLE || f == QUEEN_CASTLE;
+    }
+
+    /** Piece type (Board.KNIGHT..Board.QUEEN) the pawn promotes to, or 0. */
+    public static int promotionPiece(int move) {
+        return isPromotion(move) ? Board.KNIGHT + (flags(move) & 3) : 0;
+    }
+
+    /* ================= UCI ================= */
+
+    public static String toUci(int move) {
+        StringBuilder sb = new StringBuilder(5);
+        appendUci(sb, move);
+        return sb.toString();
+    }
+
+    public static void appendUci(StringBuilder sb, int move) {
+        sb.append(squareName(from(move))).append(squareName(to(move)));
+        if (isPromotion(move)) {
+            sb.append(PROMO_CHARS[flags(move) & 3]);
+        }
+    }
+
+    public static String squareName(int square) {
+        return new String(new char[]{(char) ('a' + (square & 7)), (char) ('1' + (square >>> 3))});
+    }
+
+    /** Parses "e4" style names, returns -1 when malformed. */
+    public static int parseSquare(CharSequence s, int offset) {
+        if (s.length() < offset + 2) return -1;
+        char file = s.charAt(offset);
+        char rank = s.charAt(offset + 1);
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') return -1;
+        return (file - 'a') + ((rank - '1') << 3);
+    }
+
+    /** Maps 'n','b','r','q' (either case) to a piece type, or 0. */
+    public static int promotionPieceFromChar(char c) {
+        switch (Character.toLowerCase(c)) {
+            case 'n': return Board.KNIGHT;
+            case 'b': return Board.BISHOP;
+            case 'r': return Board.ROOK;
+            case 'q': return Board.QUEEN;
+            default: return 0;
+        }
+    }
+}
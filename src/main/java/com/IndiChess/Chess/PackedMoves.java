@@ -0,0 +1,63 @@
+package com.IndiChess.Chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A game's move list stored as a flat byte array, two bytes (big-endian) per ply.
+ * This is what the {@code matches.packed_moves} column holds.
+ */
+public final class PackedMoves {
+
+    public static final byte[] EMPTY = new byte[0];
+
+    private PackedMoves() {
+    }
+
+    public static int size(byte[] packed) {
+        return packed == null ? 0 : packed.length >>> 1;
+    }
+
+    /** Move at the given zero-based index (ply - 1). */
+    public static int get(byte[] packed, int index) {
+        int i = index << 1;
+        return ((packed[i] & 0xFF) << 8) | (packed[i + 1] & 0xFF);
+    }
+
+    public static byte[] append(byte[] packed, int move) {
+        int len = packed == null ? 0 : packed.length;
+        byte[] out = packed == null ? new byte[2] : Arrays.copyOf(packed, len + 2);
+        out[len] = (byte) (move >>> 8);
+        out[len + 1] = (byte) move;
+        return out;
+    }
+
+    public static byte[] pack(int[] moves, int count) {
+        byte[] out = new byte[count << 1];
+        for (int i = 0; i < count; i++) {
+            out[i << 1] = (byte) (moves[i] >>> 8);
+            out[(i << 1) + 1] = (byte) moves[i];
+        }
+        return out;
+    }
+
+    public static int[] unpack(byte[] packed) {
+        int n = size(packed);
+        int[] moves = new int[n];
+        for (int i = 0; i < n; i++) {
+            moves[i] = get(packed, i);
+        }
+        return moves;
+    }
+
+    /** UCI strings need no board, so this is the cheapest way to list a game. */
+    public static List<String> toUci(byte[] packed) {
+        int n = size(packed);
+        List<String> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(MoveCodec.toUci(get(packed, i)));
+        }
+        return out;
+    }
+}
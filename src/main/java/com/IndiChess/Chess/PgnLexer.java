@@ -0,0 +1,104 @@
+package com.IndiChess.Chess;
+
+/**
+ * Tokenizer for the text of a single PGN game. Comments, escape lines and
+ * move annotations (!, ?) are skipped; everything else comes back as a token.
+ */
+public final class PgnLexer {
+
+    public enum Token {
+        TAG_START, TAG_END, STRING, SYMBOL, MOVE_NUMBER, NAG, RESULT,
+        VARIATION_START, VARIATION_END, EOF
+    }
+
+    private final CharSequence in;
+    private int pos;
+    private String text;
+
+    public PgnLexer(CharSequence in) {
+        this.in = in;
+    }
+
+    /** Text of the last STRING, SYMBOL, MOVE_NUMBER, NAG or RESULT token. */
+    public String text() {
+        return text;
+    }
+
+    public Token next() {
+        int len = in.length();
+        while (pos < len) {
+            char c = in.charAt(pos);
+            if (Character.isWhitespace(c) || c == '.' || c == '!' || c == '?') {
+                pos++;
+            } else if (c == '{') {
+                while (pos < len && in.charAt(pos) != '}') pos++;
+                pos++;
+            } else if (c == ';' || (c == '%' && (pos == 0 || in.charAt(pos - 1) == '\n'))) {
+                while (pos < len && in.charAt(pos) != '\n') pos++;
+            } else {
+                break;
+            }
+        }
+        if (pos >= len) return Token.EOF;
+
+        char c = in.charAt(pos);
+        switch (c) {
+            case '[': pos++; return Token.TAG_START;
+            case ']': pos++; return Token.TAG_END;
+            case '(': pos++; return Token.VARIATION_START;
+            case ')': pos++; return Token.VARIATION_END;
+            case '*': pos++; text = "*"; return Token.RESULT;
+            case '"': return string();
+            case '$': {
+                int start = ++pos;
+                while (pos < len && Character.isDigit(in.charAt(pos))) pos++;
+                text = in.subSequence(start, pos).toString();
+                return Token.NAG;
+            }
+            default: return symbol();
+        }
+    }
+
+    private Token string() {
+        StringBuilder sb = new StringBuilder();
+        int len = in.length();
+        pos++;
+        while (pos < len) {
+            char c = in.charAt(pos++);
+            if (c == '"') break;
+            if (c == '\\' && pos < len) c = in.charAt(pos++);
+            sb.append(c);
+        }
+        text = sb.toString();
+        return Token.STRING;
+    }
+
+    private Token symbol() {
+        int len = in.length();
+        int start = pos;
+        while (pos < len && isSymbolChar(in.charAt(pos))) pos++;
+        if (pos == start) {
+            pos++; // unknown character, skip it
+            return next();
+        }
+        text = in.subSequence(start, pos).toString();
+
+        if (text.equals("1-0") || text.equals("0-1") || text.equals("1/2-1/2")) {
+            return Token.RESULT;
+        }
+        boolean digits = true;
+        for (int i = 0; i < text.length() && digits; i++) {
+            digits = Character.isDigit(text.charAt(i));
+        }
+        if (digits) {
+            while (pos < len && in.charAt(pos) == '.') pos++;
+            return Token.MOVE_NUMBER;
+        }
+        return Token.SYMBOL;
+    }
+
+    private static boolean isSymbolChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '_' || c == '+' || c == '#' || c == '=' || c == ':' || c == '-' || c == '/';
+    }
+}
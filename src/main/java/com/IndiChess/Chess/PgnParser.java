@@ -0,0 +1,79 @@
+package com.IndiChess.Chess;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parses one game's PGN text and validates every move against {@link Board}.
+ * Variations, comments and NAGs are ignored. Stateless and thread-safe.
+ */
+public final class PgnParser {
+
+    public record PgnGame(Map<String, String> tags, byte[] packedMoves, String result, String finalFen) {
+
+        public String tag(String name) {
+            return tags.get(name);
+        }
+
+        public int plies() {
+            return PackedMoves.size(packedMoves);
+        }
+    }
+
+    private PgnParser() {
+    }
+
+    /** @throws IllegalArgumentException if the game is malformed or contains an illegal move */
+    public static PgnGame parse(String text) {
+        PgnLexer lexer = new PgnLexer(text);
+        Map<String, String> tags = new LinkedHashMap<>();
+        Board board = null;
+        int[] moves = new int[128];
+        int count = 0;
+        int depth = 0;
+        String result = "*";
+
+        for (PgnLexer.Token token = lexer.next(); token != PgnLexer.Token.EOF; token = lexer.next()) {
+            if (token == PgnLexer.Token.VARIATION_START) {
+                depth++;
+                continue;
+            }
+            if (token == PgnLexer.Token.VARIATION_END) {
+                depth = Math.max(0, depth - 1);
+                continue;
+            }
+            if (depth > 0) continue;
+
+            if (token == PgnLexer.Token.TAG_START) {
+                if (lexer.next() != PgnLexer.Token.SYMBOL) throw new IllegalArgumentException("Malformed tag");
+                String name = lexer.text();
+                if (lexer.next() != PgnLexer.Token.STRING) throw new IllegalArgumentException("Malformed tag " + name);
+                tags.put(name, lexer.text());
+                if (lexer.next() != PgnLexer.Token.TAG_END) throw new IllegalArgumentException("Malformed tag " + name);
+            } else if (token == PgnLexer.Token.SYMBOL) {
+                if (board == null) board = startBoard(tags);
+                int move = board.parseSan(lexer.text());
+                if (move == MoveCodec.NONE) {
+                    throw new IllegalArgumentException("Illegal move " + lexer.text() + " at ply " + (count + 1));
+                }
+                board.play(move);
+                if (count == moves.length) moves = Arrays.copyOf(moves, count * 2);
+                moves[count++] = move;
+            } else if (token == PgnLexer.Token.RESULT) {
+                result = lexer.text();
+                break;
+            }
+        }
+
+        if (board == null) board = startBoard(tags);
+        return new PgnGame(tags, PackedMoves.pack(moves, count), result, board.toFen());
+    }
+
+    private static Board startBoard(Map<String, String> tags) {
+        if (tags.containsKey("FEN") || "1".equals(tags.get("SetUp"))) {
+            throw new IllegalArgumentException("Custom start positions are not supported");
+        }
+        return Board.startPosition();
+    }
+}
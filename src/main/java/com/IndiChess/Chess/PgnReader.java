@@ -0,0 +1,64 @@
+package com.IndiChess.Chess;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a PGN stream into the raw text of each game without parsing moves,
+ * so the expensive parsing can run in parallel on the game texts.
+ */
+public final class PgnReader {
+
+    private final BufferedReader in;
+    private String pendingLine;
+    private boolean eof;
+
+    public PgnReader(Reader reader) {
+        this.in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 64 * 1024);
+    }
+
+    /** Raw text of the next game, or null at end of input. */
+    public String nextGame() throws IOException {
+        if (eof) return null;
+        StringBuilder game = new StringBuilder(1024);
+        boolean inMoves = false;
+        int braceDepth = 0;
+
+        String line = pendingLine != null ? pendingLine : in.readLine();
+        pendingLine = null;
+        while (line != null) {
+            if (game.length() == 0 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                line = line.substring(1);
+            }
+            String trimmed = line.trim();
+            if (braceDepth == 0 && inMoves && trimmed.startsWith("[")) {
+                pendingLine = line; // tag section of the next game
+                return game.toString();
+            }
+            if (!trimmed.isEmpty() && !trimmed.startsWith("[") && !trimmed.startsWith("%")) {
+                inMoves = true;
+            }
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == '{') braceDepth++;
+                else if (c == '}' && braceDepth > 0) braceDepth--;
+            }
+            game.append(line).append('\n');
+            line = in.readLine();
+        }
+        eof = true;
+        return game.toString().isBlank() ? null : game.toString();
+    }
+
+    public List<String> nextGames(int max) throws IOException {
+        List<String> games = new ArrayList<>(max);
+        String game;
+        while (games.size() < max && (game = nextGame()) != null) {
+            games.add(game);
+        }
+        return games;
+    }
+}
@@ -0,0 +1,62 @@
+package com.IndiChess.Chess;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Writes games in PGN export format. SAN is generated here from the packed moves,
+ * so nothing the client sent is trusted.
+ */
+public final class PgnWriter {
+
+    private static final int MAX_LINE = 80;
+
+    private PgnWriter() {
+    }
+
+    /** Tags are written in iteration order; pass the Seven Tag Roster first. */
+    public static void writeGame(Writer out, Map<String, String> tags, byte[] packed, String result) throws IOException {
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            out.write('[');
+            out.write(tag.getKey());
+            out.write(" \"");
+            out.write(escape(tag.getValue()));
+            out.write("\"]\n");
+        }
+        out.write('\n');
+
+        StringBuilder line = new StringBuilder(MAX_LINE + 16);
+        StringBuilder token = new StringBuilder(16);
+        Board board = Board.startPosition();
+        int n = PackedMoves.size(packed);
+        for (int i = 0; i < n; i++) {
+            int move = PackedMoves.get(packed, i);
+            token.setLength(0);
+            if ((i & 1) == 0) token.append(i / 2 + 1).append(". ");
+            board.appendSan(token, move);
+            board.play(move);
+            appendToken(out, line, token);
+        }
+        token.setLength(0);
+        token.append(result);
+        appendToken(out, line, token);
+        out.write(line.toString());
+        out.write("\n\n");
+    }
+
+    private static void appendToken(Writer out, StringBuilder line, CharSequence token) throws IOException {
+        if (line.length() > 0 && line.length() + 1 + token.length() > MAX_LINE) {
+            out.write(line.toString());
+            out.write('\n');
+            line.setLength(0);
+        }
+        if (line.length() > 0) line.append(' ');
+        line.append(token);
+    }
+
+    private static String escape(String value) {
+        if (value == null) return "?";
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,17 @@
+package com.IndiChess.Cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Transport between nodes. Implementations must deliver messages from one sender to one
+ * receiver in order; nothing else is assumed (no persistence, no acknowledgements).
+ */
+public interface BrokerRelay {
+
+    void join(String nodeId, Consumer<ClusterMessage> handler);
+
+    void leave(String nodeId);
+
+    /** Sends to {@code message.target()}, or to every other node when it is null. */
+    void publish(ClusterMessage message);
+}
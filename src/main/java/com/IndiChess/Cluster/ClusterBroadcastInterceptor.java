@@ -0,0 +1,32 @@
+package com.IndiChess.Cluster;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+// Copies every /topic message this node publishes to the other nodes
+@Component
+public class ClusterBroadcastInterceptor implements ChannelInterceptor {
+
+    private final ClusterRouter router;
+
+    public ClusterBroadcastInterceptor(ClusterRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!router.isClustered()) return message;
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) return message;
+        if (message.getHeaders().containsKey(ClusterRouter.RELAYED_HEADER)) return message;
+
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination != null && destination.startsWith("/topic/")) {
+            router.relayBroadcast(destination, message);
+        }
+        return message;
+    }
+}
@@ -0,0 +1,17 @@
+package com.IndiChess.Cluster;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ClusterConfig {
+
+    // Other transports (Redis pub/sub, an external STOMP broker) plug in as a BrokerRelay bean
+    // under their own indichess.cluster.relay value
+    @Bean
+    @ConditionalOnProperty(name = "indichess.cluster.relay", havingValue = "loopback", matchIfMissing = true)
+    public BrokerRelay brokerRelay() {
+        return new LoopbackBrokerRelay();
+    }
+}
@@ -0,0 +1,21 @@
+package com.IndiChess.Cluster;
+
+/**
+ * What nodes exchange through the relay. Only strings and bytes, so any transport can
+ * carry it. {@code target} is null for messages meant for every other node.
+ */
+public record ClusterMessage(Type type, String origin, String target, long matchId,
+                             String user, String destination, String contentType, byte[] payload) {
+
+    public enum Type {
+        BROADCAST,   // a /topic message to deliver to local subscribers
+        MOVE,        // user's UCI move for a match the target owns
+        PREMOVE,     // user's queued move for a match the target owns; empty payload cancels it
+        MATCHMAKING, // user joins the queue for the game type in destination
+        QUEUE_LEAVE, // user leaves every queue; sent to all nodes
+        PRESENCE,    // user's first session opened ("1") or last session closed ("0") on origin; sent to all nodes
+        CALL,        // REST operation in destination for a match the target owns, answered with REPLY
+        REPLY,       // outcome of a CALL: payload is the call id and an error text, empty on success
+        ERROR        // payload is an error text for user's /queue/errors
+    }
+}
@@ -0,0 +1,321 @@
+package com.IndiChess.Cluster;
+
+import com.IndiChess.Model.TimeControl;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which node handles what. Each match is owned by the node its id hashes to on
+ * the ring, each matchmaking pool by the node its time control hashes to; requests that
+ * arrive elsewhere are forwarded through the {@link BrokerRelay}. REST requests, which need
+ * an answer, are sent as calls that wait for the owner's reply. /topic messages are
+ * relayed to every node so subscribers see them wherever they are connected.
+ *
+ * The relay's delivery thread only decodes messages. Anything that touches the database
+ * runs on a worker lane chosen by match id (or user), so one slow game holds up its own
+ * lane rather than every message to the node, and replies to waiting calls are never
+ * queued behind a transaction.
+ *
+ * With a single node (the default) everything is local and nothing is relayed.
+ */
+@Component
+@Slf4j
+public class ClusterRouter {
+
+    // Marks a broker message that came from another node, so it is not relayed back
+    public static final String RELAYED_HEADER = "indichess-relayed-from";
+
+    private final String nodeId;
+    private final HashRing ring;
+    private final BrokerRelay relay;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MessageChannel brokerChannel;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long callTimeoutMs;
+    private final int workerThreads;
+    private ExecutorService[] lanes = new ExecutorService[0];
+
+    private final AtomicLong callIds = new AtomicLong();
+    private final Map<Long, CompletableFuture<String>> pendingCalls = new ConcurrentHashMap<>();
+
+    public ClusterRouter(@Value("${indichess.cluster.node-id:local}") String nodeId,
+                         @Value("${indichess.cluster.nodes:}") String nodes,
+                         @Value("${indichess.cluster.virtual-nodes:128}") int virtualNodes,
+                         @Value("${indichess.cluster.call-timeout-ms:5000}") long callTimeoutMs,
+                         @Value("${indichess.cluster.worker-threads:8}") int workerThreads,
+                         BrokerRelay relay,
+                         ApplicationEventPublisher eventPublisher,
+                         @Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel,
+                         @Lazy SimpMessagingTemplate messagingTemplate) {
+        Set<String> members = new LinkedHashSet<>();
+        Arrays.stream(nodes.split(",")).map(String::trim).filter(s -> !s.isEmpty()).forEach(members::add);
+        members.add(nodeId);
+
+        this.nodeId = nodeId;
+        this.ring = new HashRing(members, virtualNodes);
+        this.relay = relay;
+        this.eventPublisher = eventPublisher;
+        this.brokerChannel = brokerChannel;
+        this.messagingTemplate = messagingTemplate;
+        this.callTimeoutMs = callTimeoutMs;
+        this.workerThreads = Math.max(1, workerThreads);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!isClustered()) return;
+        lanes = new ExecutorService[workerThreads];
+        for (int i = 0; i < lanes.length; i++) {
+            String name = "cluster-worker-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        relay.join(nodeId, this::onMessage);
+        log.info("🌐 Cluster node {} joined ring {}", nodeId, ring.describe());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (!isClustered()) return;
+        relay.leave(nodeId);
+        for (ExecutorService lane : lanes) lane.shutdown();
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public boolean isClustered() {
+        return ring.nodes().size() > 1;
+    }
+
+    /* ================= OWNERSHIP ================= */
+
+    public String ownerOf(long matchId) {
+        return ring.ownerOf(matchId);
+    }
+
+    public boolean ownsMatch(long matchId) {
+        return !isClustered() || nodeId.equals(ring.ownerOf(matchId));
+    }
+
+    public boolean ownsQueue(TimeControl pool) {
+        return !isClustered() || nodeId.equals(queueOwner(pool));
+    }
+
+    // Any other singleton work (e.g. "tournament:42") is placed on the ring the same way
+    public boolean ownsKey(String key) {
+        return !isClustered() || nodeId.equals(ring.ownerOf(key));
+    }
+
+    private String queueOwner(TimeControl pool) {
+        return ring.ownerOf("queue:" + pool.notation());
+    }
+
+    /* ================= FORWARDING ================= */
+
+    // Payload is "uci lagMs receivedAtMs [ply]"; receivedAtMs lets the owner credit the hop to the mover
+    public void forwardMove(long matchId, String email, String uci, long lagMs, Integer ply, long receivedNanos) {
+        String payload = uci + " " + lagMs + " " + wallClockOf(receivedNanos) + (ply != null ? " " + ply : "");
+        relay.publish(new ClusterMessage(ClusterMessage.Type.MOVE, nodeId, ownerOf(matchId), matchId,
+                email, null, null, payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Payload is "uci ply", or empty to cancel
+    public void forwardPremove(long matchId, String email, String uci, Integer ply) {
+        String payload = uci != null ? uci + " " + ply : "";
+        relay.publish(new ClusterMessage(ClusterMessage.Type.PREMOVE, nodeId, ownerOf(matchId), matchId,
+                email, null, null, payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public void forwardMatchmaking(String email, TimeControl pool) {
+        relay.publish(new ClusterMessage(ClusterMessage.Type.MATCHMAKING, nodeId, queueOwner(pool), 0,
+                email, pool.notation(), null, null));
+    }
+
+    // Pools are spread over the nodes, so a leave goes to all of them
+    public void broadcastQueueLeave(String email) {
+        if (!isClustered()) return;
+        relay.publish(new ClusterMessage(ClusterMessage.Type.QUEUE_LEAVE, nodeId, null, 0,
+                email, null, null, null));
+    }
+
+    // Every node keeps the cluster-wide view of who has sessions where
+    public void broadcastPresence(String email, boolean online) {
+        if (!isClustered()) return;
+        relay.publish(new ClusterMessage(ClusterMessage.Type.PRESENCE, nodeId, null, 0,
+                email, null, null, (online ? "1" : "0").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /* ================= INGRESS TIME ================= */
+
+    // Wall-clock form of a local System.nanoTime() stamp, to send along with a forwarded move
+    public static long wallClockOf(long nanos) {
+        return System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - nanos);
+    }
+
+    /**
+     * The local System.nanoTime() of the moment another node received a request, given its
+     * wall-clock stamp and when the message arrived here. Node clocks are assumed to be
+     * NTP-synced like the match clocks; the hop is capped at the call timeout, so a skewed
+     * clock cannot move the stamp further than that.
+     */
+    public long ingressNanos(long ingressWallClockMs, long arrivedNanos) {
+        long hopMs = Math.min(Math.max(0, wallClockOf(arrivedNanos) - ingressWallClockMs), callTimeoutMs);
+        return arrivedNanos - TimeUnit.MILLISECONDS.toNanos(hopMs);
+    }
+
+    /* ================= CALLS ================= */
+
+    /**
+     * Runs a REST operation on the node that owns the match and waits for it to finish.
+     * Throws with the owner's error message if it failed. Payload is "callId args".
+     */
+    public void callOwner(long matchId, String email, String operation, String args) {
+        long callId = callIds.incrementAndGet();
+        CompletableFuture<String> reply = new CompletableFuture<>();
+        pendingCalls.put(callId, reply);
+        try {
+            relay.publish(new ClusterMessage(ClusterMessage.Type.CALL, nodeId, ownerOf(matchId), matchId,
+                    email, operation, null, (callId + " " + args).getBytes(StandardCharsets.UTF_8)));
+            String error = reply.get(callTimeoutMs, TimeUnit.MILLISECONDS);
+            if (!error.isEmpty()) throw new RuntimeException(error);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Node " + ownerOf(matchId) + " did not answer for match " + matchId);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for node " + ownerOf(matchId));
+        } finally {
+            pendingCalls.remove(callId);
+        }
+    }
+
+    // The owner's answer to a call: an empty error means it succeeded. Payload is "callId error"
+    public void replyToCall(String targetNode, long callId, String error) {
+        String payload = callId + " " + (error != null ? error : "");
+        relay.publish(new ClusterMessage(ClusterMessage.Type.REPLY, nodeId, targetNode, 0,
+                null, null, null, payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Errors for forwarded requests go back to the node holding the user's session
+    public void sendError(String targetNode, String email, String error) {
+        if (nodeId.equals(targetNode)) {
+            messagingTemplate.convertAndSendToUser(email, "/queue/errors", Map.of("error", error));
+            return;
+        }
+        relay.publish(new ClusterMessage(ClusterMessage.Type.ERROR, nodeId, targetNode, 0,
+                email, "/queue/errors", null, error.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Called by the broker channel interceptor for every locally produced /topic message
+    public void relayBroadcast(String destination, Message<?> message) {
+        if (!(message.getPayload() instanceof byte[] payload)) return;
+        MimeType contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE, MimeType.class);
+        relay.publish(new ClusterMessage(ClusterMessage.Type.BROADCAST, nodeId, null, 0,
+                null, destination, contentType != null ? contentType.toString() : null, payload));
+    }
+
+    /* ================= INBOUND ================= */
+
+    // Runs on the relay's delivery thread: decode, then hand anything heavier to a lane
+    private void onMessage(ClusterMessage message) {
+        long arrivedNanos = System.nanoTime();
+        switch (message.type()) {
+            case BROADCAST -> deliverLocally(message);
+            case MOVE -> {
+                String[] move = new String(message.payload(), StandardCharsets.UTF_8).split(" ");
+                publishInLane(message.matchId(), new ForwardedMoveEvent(message.origin(), message.matchId(),
+                        message.user(), move[0], Long.parseLong(move[1]),
+                        move.length > 3 ? Integer.valueOf(move[3]) : null,
+                        ingressNanos(Long.parseLong(move[2]), arrivedNanos)));
+            }
+            case PREMOVE -> {
+                String[] premove = new String(message.payload(), StandardCharsets.UTF_8).split(" ");
+                boolean cancel = premove.length < 2;
+                publishInLane(message.matchId(), new ForwardedPremoveEvent(message.origin(), message.matchId(),
+                        message.user(), cancel ? null : premove[0], cancel ? null : Integer.valueOf(premove[1])));
+            }
+            case MATCHMAKING -> publishInLane(message.user().hashCode(), new ForwardedMatchmakingEvent(
+                    message.origin(), message.user(), TimeControl.parse(message.destination())));
+            case CALL -> {
+                String call = new String(message.payload(), StandardCharsets.UTF_8);
+                int space = call.indexOf(' ');
+                publishInLane(message.matchId(), new ForwardedCallEvent(message.origin(),
+                        Long.parseLong(call.substring(0, space)), message.matchId(), message.user(),
+                        message.destination(), call.substring(space + 1), arrivedNanos));
+            }
+            case REPLY -> {
+                String reply = new String(message.payload(), StandardCharsets.UTF_8);
+                int space = reply.indexOf(' ');
+                CompletableFuture<String> pending = pendingCalls.get(Long.parseLong(reply.substring(0, space)));
+                if (pending != null) pending.complete(reply.substring(space + 1));
+            }
+            case QUEUE_LEAVE -> publishInLane(message.user().hashCode(), new ForwardedQueueLeaveEvent(
+                    message.origin(), message.user()));
+            case PRESENCE -> publishInLane(message.user().hashCode(), new ForwardedPresenceEvent(
+                    message.origin(), message.user(), message.payload()[0] == '1'));
+            case ERROR -> messagingTemplate.convertAndSendToUser(message.user(), message.destination(),
+                    Map.of("error", new String(message.payload(), StandardCharsets.UTF_8)));
+        }
+    }
+
+    // Same key, same lane: a match's moves and calls (or a user's queue and presence changes) stay in order
+    private void publishInLane(long key, Object event) {
+        try {
+            lanes[(int) Math.floorMod(key, (long) lanes.length)].execute(() -> {
+                try {
+                    eventPublisher.publishEvent(event);
+                } catch (RuntimeException e) {
+                    log.error("❌ Forwarded {} failed: {}", event.getClass().getSimpleName(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Cluster node {} is stopping, dropped {}", nodeId, event.getClass().getSimpleName());
+        }
+    }
+
+    private void deliverLocally(ClusterMessage message) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(message.destination());
+        if (message.contentType() != null) {
+            accessor.setContentType(MimeType.valueOf(message.contentType()));
+        }
+        accessor.setHeader(RELAYED_HEADER, message.origin());
+        MessageHeaders headers = accessor.getMessageHeaders();
+        brokerChannel.send(MessageBuilder.createMessage(message.payload(), headers));
+    }
+}
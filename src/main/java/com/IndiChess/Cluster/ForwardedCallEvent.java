@@ -0,0 +1,7 @@
+package com.IndiChess.Cluster;
+
+// A REST operation another node received for a match this node owns; answer it with ClusterRouter.replyToCall.
+// arrivedNanos is System.nanoTime() when the call reached this node (see ClusterRouter.ingressNanos).
+public record ForwardedCallEvent(String origin, long callId, long matchId, String email, String operation,
+                                 String args, long arrivedNanos) {
+}
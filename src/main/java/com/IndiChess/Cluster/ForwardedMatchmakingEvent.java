@@ -0,0 +1,7 @@
+package com.IndiChess.Cluster;
+
+import com.IndiChess.Model.TimeControl;
+
+// A queue join another node received for a pool this node pairs
+public record ForwardedMatchmakingEvent(String origin, String email, TimeControl timeControl) {
+}
@@ -0,0 +1,7 @@
+package com.IndiChess.Cluster;
+
+// A move another node received for a match this node owns; ply is null when the client did not send one.
+// receivedNanos is this node's System.nanoTime() for the moment the move reached the other node.
+public record ForwardedMoveEvent(String origin, long matchId, String email, String uci, long lagMs, Integer ply,
+                                 long receivedNanos) {
+}
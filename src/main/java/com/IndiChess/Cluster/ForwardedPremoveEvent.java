@@ -0,0 +1,5 @@
+package com.IndiChess.Cluster;
+
+// A premove another node received for a match this node owns; a null uci cancels it
+public record ForwardedPremoveEvent(String origin, long matchId, String email, String uci, Integer ply) {
+}
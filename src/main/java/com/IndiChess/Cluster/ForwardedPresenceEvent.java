@@ -0,0 +1,5 @@
+package com.IndiChess.Cluster;
+
+// origin now holds at least one of the user's sessions (online) or none any more
+public record ForwardedPresenceEvent(String origin, String email, boolean online) {
+}
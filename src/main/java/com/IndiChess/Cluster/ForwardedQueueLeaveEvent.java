@@ -0,0 +1,5 @@
+package com.IndiChess.Cluster;
+
+// A player left matchmaking on another node; drop them from the pools this node pairs
+public record ForwardedQueueLeaveEvent(String origin, String email) {
+}
@@ -0,0 +1,107 @@
+package com.IndiChess.Cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Consistent-hash ring over node ids. Each node gets {@code virtualNodes} points on the
+ * ring so keys spread evenly, and adding or removing a node only moves the keys between
+ * its points and their predecessors. Immutable; build a new ring when membership changes.
+ */
+public final class HashRing {
+
+    private final long[] points;   // sorted
+    private final String[] owners; // owners[i] owns the arc ending at points[i]
+    private final List<String> nodes;
+
+    public HashRing(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) throw new IllegalArgumentException("A ring needs at least one node");
+        this.nodes = List.copyOf(nodes);
+        int vnodes = Math.max(1, virtualNodes);
+
+        long[] keys = new long[this.nodes.size() * vnodes];
+        String[] names = new String[keys.length];
+        int n = 0;
+        for (String node : this.nodes) {
+            for (int v = 0; v < vnodes; v++) {
+                keys[n] = mix(fnv1a(node + "#" + v));
+                names[n++] = node;
+            }
+        }
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        // Ties (practically never) go to the lexically smaller node so every member agrees
+        Arrays.sort(order, (a, b) -> keys[a] != keys[b] ? Long.compare(keys[a], keys[b]) : names[a].compareTo(names[b]));
+        this.points = new long[n];
+        this.owners = new String[n];
+        for (int i = 0; i < n; i++) {
+            points[i] = keys[order[i]];
+            owners[i] = names[order[i]];
+        }
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    public String ownerOf(long key) {
+        return ownerOfHash(mix(key));
+    }
+
+    public String ownerOf(String key) {
+        return ownerOfHash(mix(fnv1a(key)));
+    }
+
+    private String ownerOfHash(long hash) {
+        int i = Arrays.binarySearch(points, hash);
+        if (i < 0) i = -i - 1;
+        return owners[i == points.length ? 0 : i];
+    }
+
+    /** Share of the key space per node, for logging the balance. */
+    public List<String> describe() {
+        List<String> out = new ArrayList<>();
+        for (String node : nodes) {
+            double share = 0;
+            for (int i = 0; i < points.length; i++) {
+                if (!owners[i].equals(node)) continue;
+                if (points.length == 1) {
+                    share = 1;
+                    break;
+                }
+                long prev = i == 0 ? points[points.length - 1] : points[i - 1];
+                share += unsignedToDouble(points[i] - prev) / 0x1p64;
+            }
+            out.add(String.format("%s=%.1f%%", node, share * 100));
+        }
+        return out;
+    }
+
+    private static double unsignedToDouble(long v) {
+        double d = (double) (v >>> 1) * 2.0;
+        return d + (v & 1);
+    }
+
+    private static long fnv1a(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // MurmurHash3 finalizer; spreads sequential match ids over the whole ring
+    private static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,66 @@
+package com.IndiChess.Cluster;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Relay for nodes running in the same JVM (several application contexts, as in tests and
+ * the load generator). Members are kept in a static registry shared by every context;
+ * each member has one delivery thread, which keeps per-sender order. Handlers should only
+ * dispatch on it (ClusterRouter hands real work to its own lanes).
+ */
+@Slf4j
+public class LoopbackBrokerRelay implements BrokerRelay {
+
+    private record Member(Consumer<ClusterMessage> handler, ExecutorService inbox) {
+    }
+
+    private static final Map<String, Member> MEMBERS = new ConcurrentHashMap<>();
+
+    @Override
+    public void join(String nodeId, Consumer<ClusterMessage> handler) {
+        ExecutorService inbox = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "cluster-inbox-" + nodeId);
+            thread.setDaemon(true);
+            return thread;
+        });
+        Member previous = MEMBERS.put(nodeId, new Member(handler, inbox));
+        if (previous != null) previous.inbox().shutdown();
+    }
+
+    @Override
+    public void leave(String nodeId) {
+        Member member = MEMBERS.remove(nodeId);
+        if (member != null) member.inbox().shutdown();
+    }
+
+    @Override
+    public void publish(ClusterMessage message) {
+        if (message.target() != null) {
+            deliver(message.target(), MEMBERS.get(message.target()), message);
+            return;
+        }
+        MEMBERS.forEach((nodeId, member) -> {
+            if (!nodeId.equals(message.origin())) deliver(nodeId, member, message);
+        });
+    }
+
+    private static void deliver(String nodeId, Member member, ClusterMessage message) {
+        if (member == null) {
+            log.warn("Cluster node {} is not reachable, dropped {}", nodeId, message.type());
+            return;
+        }
+        member.inbox().execute(() -> {
+            try {
+                member.handler().accept(message);
+            } catch (RuntimeException e) {
+                log.error("❌ Cluster message {} failed on {}: {}", message.type(), nodeId, e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package com.IndiChess.Config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+
+@Configuration
+@Slf4j
+public class DataSourceConfig {
+
+    /* ================= DB CONCURRENCY LIMIT ================= */
+
+    // 0 disables the limiter; with virtual threads set it to the pool size
+    @Bean
+    public static BeanPostProcessor dataSourceConcurrencyLimiter(
+            @Value("${indichess.db.concurrency-limit:0}") int limit,
+            @Value("${indichess.db.acquire-timeout-ms:5000}") long acquireTimeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Delegating wrappers (the limiter itself, the replica routing proxy) reach a wrapped pool
+                // anyway; replica pools are not beans and are wrapped by ReplicaDataSourceConfig
+                if (limit <= 0 || !(bean instanceof DataSource dataSource)
+                        || bean instanceof DelegatingDataSource) {
+                    return bean;
+                }
+                log.info("🚦 DataSource '{}' limited to {} concurrent connections", beanName, limit);
+                return new ConcurrencyLimitedDataSource(dataSource, limit, acquireTimeoutMs);
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.IndiChess.Config;
+
+import com.IndiChess.Service.PgnImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * CLI mode for bulk imports:
+ * java -jar IndiChess.jar --indichess.import.file=archive.pgn --spring.main.web-application-type=none
+ */
+@Component
+@ConditionalOnProperty("indichess.import.file")
+@RequiredArgsConstructor
+@Slf4j
+public class PgnImportRunner implements ApplicationRunner {
+
+    private final PgnImportService importService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${indichess.import.file}")
+    private String file;
+
+    @Value("${indichess.import.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        log.info("📥 Importing PGN file {}", file);
+        try (Reader reader = Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+            importService.importPgn(reader);
+        }
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+}
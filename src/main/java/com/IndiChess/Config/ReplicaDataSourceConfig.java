@@ -0,0 +1,112 @@
+package com.IndiChess.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replicas, active only when indichess.replica.urls is set. The primary pool is then
+ * built here (from the usual spring.datasource.* settings) instead of by auto-configuration,
+ * and the application DataSource becomes the routing proxy.
+ *
+ * The replica pools are created here rather than as beans (their number comes from a
+ * property), so the DataSourceConfig limiter cannot see them: each is wrapped in its own
+ * ConcurrencyLimitedDataSource here, and closed with this configuration.
+ */
+@Configuration
+@ConditionalOnProperty("indichess.replica.urls")
+@Slf4j
+public class ReplicaDataSourceConfig {
+
+    private ReplicaRoutingDataSource routing;
+    private final List<HikariDataSource> replicaPools = new ArrayList<>();
+
+    @Value("${indichess.replica.lag-query}")
+    private String lagQuery;
+
+    @Value("${indichess.replica.max-lag-ms:2000}")
+    private long maxLagMs;
+
+    // Declared as DataSource: the limiter swaps the bean for a wrapper, which is not a HikariDataSource
+    @Bean
+    public DataSource primaryDataSource(Environment environment,
+                                        @Value("${spring.datasource.url}") String url,
+                                        @Value("${spring.datasource.username}") String username,
+                                        @Value("${spring.datasource.password}") String password,
+                                        @Value("${spring.datasource.driver-class-name}") String driver) {
+        HikariDataSource dataSource = new HikariDataSource();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setDriverClassName(driver);
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 MeterRegistry registry,
+                                 @Value("${indichess.replica.urls}") String urls,
+                                 @Value("${indichess.replica.username:${spring.datasource.username}}") String username,
+                                 @Value("${indichess.replica.password:${spring.datasource.password}}") String password,
+                                 @Value("${spring.datasource.driver-class-name}") String driver,
+                                 @Value("${indichess.replica.pool-size:10}") int poolSize,
+                                 @Value("${indichess.db.concurrency-limit:0}") int limit,
+                                 @Value("${indichess.db.acquire-timeout-ms:5000}") long acquireTimeoutMs) {
+        List<String> jdbcUrls = Arrays.stream(urls.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < jdbcUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setJdbcUrl(jdbcUrls.get(i));
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(driver);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            replica.setPoolName("replica-" + i);
+            // Not beans, so actuator would not bind them; hikaricp_* meters tagged pool=replica-N
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            replicaPools.add(replica);
+            replicas.put(replica.getPoolName(), limit > 0
+                    ? new ConcurrencyLimitedDataSource(replica, limit, acquireTimeoutMs)
+                    : replica);
+        }
+
+        routing = new ReplicaRoutingDataSource(primary, replicas, registry);
+        routing.afterPropertiesSet();
+        log.info("📚 Read-only transactions routed to {}", routing.replicaNames());
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @PreDestroy
+    public void closeReplicas() {
+        replicaPools.forEach(HikariDataSource::close);
+    }
+
+    @Scheduled(fixedDelayString = "${indichess.replica.check-interval-ms:5000}")
+    public void checkReplicas() {
+        if (routing != null) routing.checkReplicas(lagQuery, maxLagMs / 1000.0);
+    }
+}
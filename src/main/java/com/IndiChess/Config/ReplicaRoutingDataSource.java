@@ -0,0 +1,122 @@
+package com.IndiChess.Config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica (round robin) and everything else
+ * to the primary. Replicas whose replay lag exceeds the limit, or that cannot be reached,
+ * are skipped until a later check sees them healthy again.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the read-only flag is only known
+ * once the transaction has started, after JPA would otherwise have fetched a connection.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile boolean healthy = true;
+        volatile double lagSeconds;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final Replica[] replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter fallbackRoutes;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, MeterRegistry registry) {
+        this.replicas = replicas.entrySet().stream()
+                .map(e -> new Replica(e.getKey(), e.getValue()))
+                .toArray(Replica[]::new);
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.primaryRoutes = route(registry, "primary");
+        this.replicaRoutes = route(registry, "replica");
+        this.fallbackRoutes = route(registry, "fallback");
+        for (Replica replica : this.replicas) {
+            Gauge.builder("indichess.db.replica.lag", replica, r -> r.lagSeconds)
+                    .tag("pool", replica.name).baseUnit("seconds").register(registry);
+            Gauge.builder("indichess.db.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("pool", replica.name).register(registry);
+        }
+    }
+
+    private static Counter route(MeterRegistry registry, String route) {
+        return Counter.builder("indichess.db.routes")
+                .description("Connections handed out per route")
+                .tag("route", route)
+                .register(registry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.length == 0 || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryRoutes.increment();
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.length);
+        for (int i = 0; i < replicas.length; i++) {
+            Replica replica = replicas[(start + i) % replicas.length];
+            if (replica.healthy) {
+                replicaRoutes.increment();
+                return replica.name;
+            }
+        }
+        fallbackRoutes.increment();
+        return PRIMARY;
+    }
+
+    /* ================= HEALTH ================= */
+
+    // lagQuery returns the replay lag in seconds as its first column
+    public void checkReplicas(String lagQuery, double maxLagSeconds) {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                replica.lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+                replica.healthy = replica.lagSeconds <= maxLagSeconds;
+            } catch (Exception e) {
+                replica.healthy = false;
+                log.warn("Replica {} check failed: {}", replica.name, e.getMessage());
+            }
+            if (wasHealthy != replica.healthy) {
+                log.info("🔁 Replica {} is now {} (lag {} s)", replica.name,
+                        replica.healthy ? "in rotation" : "out of rotation", replica.lagSeconds);
+            }
+        }
+    }
+
+    public List<String> replicaNames() {
+        return Arrays.stream(replicas).map(r -> r.name).toList();
+    }
+}
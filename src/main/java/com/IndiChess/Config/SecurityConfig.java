@@ -47,6 +47,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // BE SPECIFIC: Allow all sub-routes under /auth/
                         .requestMatchers("/auth/**", "/", "/oauth2/**", "/ws/**").permitAll()
+                        // Scraped by Prometheus; keep other actuator endpoints unexposed
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         // Protect everything else (matches, moves, etc.)
                         .anyRequest().authenticated()
                 )
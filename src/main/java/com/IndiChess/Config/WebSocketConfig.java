@@ -1,5 +1,6 @@
 package com.IndiChess.Config;
 
+import com.IndiChess.Cluster.ClusterBroadcastInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
@@ -11,12 +12,16 @@ import org.springframework.web.socket.config.annotation.*;
 @RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     private final WebSocketAuthInterceptor authInterceptor;
+    private final ClusterBroadcastInterceptor clusterBroadcastInterceptor;
 
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        // "/queue" carries user destinations (errors, analysis progress)
+        config.enableSimpleBroker("/topic", "/queue");
         config.setApplicationDestinationPrefixes("/app");
+        // Topic messages also go to the other cluster nodes
+        config.configureBrokerChannel().interceptors(clusterBroadcastInterceptor);
     }
 
     @Override
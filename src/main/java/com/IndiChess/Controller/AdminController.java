@@ -0,0 +1,41 @@
+package com.IndiChess.Controller;
+
+import com.IndiChess.Service.MoveTracer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/admin")
+@CrossOrigin(origins = "*")
+public class AdminController {
+
+    private final MoveTracer moveTracer;
+    private final Set<String> adminEmails;
+
+    public AdminController(MoveTracer moveTracer,
+                           @Value("${indichess.admin.emails:}") String adminEmails) {
+        this.moveTracer = moveTracer;
+        this.adminEmails = Arrays.stream(adminEmails.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /* ================= SLOW MOVES ================= */
+    @GetMapping("/slow-moves")
+    public ResponseEntity<?> slowMoves(Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if (!adminEmails.contains(principal.getName())) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(moveTracer.slowMoves());
+    }
+}
@@ -4,6 +4,7 @@ import com.IndiChess.Model.ChatMessage;
 import com.IndiChess.Model.Match;
 import com.IndiChess.Repository.ChatMessageRepository;
 import com.IndiChess.Repository.MatchRepo;
+import com.IndiChess.Service.GameMetrics;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +25,7 @@ public class ChatWebSocketController {
     private final ChatMessageRepository chatMessageRepository;
     private final MatchRepo matchRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final GameMetrics metrics;
 
     @MessageMapping("/game/{matchId}/chat")
     public void handleChatMessage(
@@ -56,7 +58,9 @@ public class ChatWebSocketController {
             chatMessage.setMatch(match);
             chatMessage.setSenderEmail(senderEmail);
             chatMessage.setMessage(request.getMessage());
+            long start = System.nanoTime();
             chatMessage = chatMessageRepository.save(chatMessage);
+            metrics.chatPersisted(System.nanoTime() - start);
 
             // Create response DTO
             Map<String, Object> messageDto = new HashMap<>();
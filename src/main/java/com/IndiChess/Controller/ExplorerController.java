@@ -0,0 +1,45 @@
+package com.IndiChess.Controller;
+
+import com.IndiChess.Chess.Board;
+import com.IndiChess.Model.GameType;
+import com.IndiChess.Service.OpeningExplorerService;
+import com.IndiChess.Service.PositionSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/explorer")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ExplorerController {
+
+    private final PositionSearchService positionSearchService;
+    private final OpeningExplorerService openingExplorerService;
+
+    /* ================= MOVE STATISTICS ================= */
+    @GetMapping("/moves")
+    public ResponseEntity<?> moves(
+            @RequestParam(defaultValue = Board.START_FEN) String fen,
+            @RequestParam(required = false) GameType gameType
+    ) {
+        try {
+            return ResponseEntity.ok(openingExplorerService.explore(fen, gameType));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /* ================= GAMES REACHING A POSITION ================= */
+    @GetMapping("/games")
+    public ResponseEntity<?> searchGames(
+            @RequestParam String fen,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        try {
+            return ResponseEntity.ok(positionSearchService.search(fen, Math.min(Math.max(limit, 0), 500)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package com.IndiChess.Controller;
 
+import com.IndiChess.Cluster.ClusterRouter;
+import com.IndiChess.Cluster.ForwardedMoveEvent;
+import com.IndiChess.Cluster.ForwardedPremoveEvent;
 import com.IndiChess.dto.MatchDTO;
 import com.IndiChess.Model.Match;
-import com.IndiChess.Service.MatchService;
+import com.IndiChess.Service.GameMetrics;
+import com.IndiChess.Service.GamePlayService;
+import com.IndiChess.Service.MoveResultCache;
+import com.IndiChess.Service.MoveTracer;
+import com.IndiChess.Service.PremoveService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -18,8 +26,13 @@ import java.util.Map;
 @Slf4j
 public class GameWebSocketController {
 
-    private final MatchService matchService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final GameMetrics metrics;
+    private final MoveTracer tracer;
+    private final ClusterRouter clusterRouter;
+    private final MoveResultCache moveCache;
+    private final PremoveService premoves;
+    private final GamePlayService gamePlay;
 
     @MessageMapping("/game/{matchId}/move")
     public void handleMove(
@@ -27,7 +40,8 @@ public class GameWebSocketController {
             Map<String, String> payload,
             Principal principal
     ) {
-        log.info("📨 WS Move - Match: {}, Player: {}, UCI: {}",
+        long receivedNanos = System.nanoTime();
+        log.debug("📨 WS Move - Match: {}, Player: {}, UCI: {}",
                 matchId, principal != null ? principal.getName() : "NULL", payload.get("uci"));
 
         if (principal == null) {
@@ -46,22 +60,126 @@ public class GameWebSocketController {
             return;
         }
 
+        long lagMs = parseLag(payload.get("lag"));
+        Integer ply = parsePly(payload.get("ply"));
+
+        // Only the owning node applies moves, so per-match state never splits
+        if (!clusterRouter.ownsMatch(matchId)) {
+            clusterRouter.forwardMove(matchId, principal.getName(), uci, lagMs, ply, receivedNanos);
+            return;
+        }
+        playMove(matchId, principal.getName(), uci, ply, lagMs, receivedNanos, clusterRouter.nodeId());
+    }
+
+    // payload: uci and the ply it is for (half-moves played before it); no uci cancels the premove
+    @MessageMapping("/game/{matchId}/premove")
+    public void handlePremove(
+            @DestinationVariable Long matchId,
+            Map<String, String> payload,
+            Principal principal
+    ) {
+        if (principal == null) return;
+
+        String uci = payload.get("uci");
+        Integer ply = parsePly(payload.get("ply"));
+        if (uci != null && !uci.isEmpty() && (uci.length() < 4 || uci.length() > 5 || ply == null)) {
+            messagingTemplate.convertAndSendToUser(principal.getName(), "/queue/errors",
+                    Map.of("error", "A premove needs a UCI move and its ply"));
+            return;
+        }
+        String premove = uci == null || uci.isEmpty() ? null : uci;
+
+        if (!clusterRouter.ownsMatch(matchId)) {
+            clusterRouter.forwardPremove(matchId, principal.getName(), premove, ply);
+            return;
+        }
+        queuePremove(matchId, principal.getName(), premove, ply, clusterRouter.nodeId());
+    }
+
+    @EventListener
+    public void onForwardedPremove(ForwardedPremoveEvent event) {
+        queuePremove(event.matchId(), event.email(), event.uci(), event.ply(), event.origin());
+    }
+
+    private void queuePremove(long matchId, String email, String uci, Integer ply, String replyNode) {
+        if (uci == null) {
+            premoves.cancel(matchId, email);
+            return;
+        }
+        try {
+            premoves.queue(matchId, email, uci, ply, replyNode);
+        } catch (RuntimeException e) {
+            clusterRouter.sendError(replyNode, email, e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onForwardedMove(ForwardedMoveEvent event) {
+        playMove(event.matchId(), event.email(), event.uci(), event.ply(), event.lagMs(), event.receivedNanos(),
+                event.origin());
+    }
+
+    // Client's estimate of its network lag in ms; GameClock decides how much of it to credit
+    private static long parseLag(String lag) {
+        if (lag == null) return 0;
+        try {
+            return Math.max(0, Long.parseLong(lag));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // Half-moves played when the client made its move; lets retries be recognised (see MoveResultCache)
+    private static Integer parsePly(String ply) {
+        if (ply == null) return null;
         try {
-            Match updatedMatch = matchService.makeMove(matchId, principal.getName(), uci);
+            int value = Integer.parseInt(ply);
+            return value >= 0 ? value : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 
-            // Convert to DTO to avoid circular reference and lazy loading issues
-            MatchDTO dto = MatchDTO.fromMatch(updatedMatch);
+    // replyNode holds the player's session; errors are sent back through it
+    private void playMove(Long matchId, String email, String uci, Integer ply, long lagMs, long receivedNanos,
+                          String replyNode) {
+        MoveResultCache.Admission admission = moveCache.admit(matchId, email, uci, ply);
+        switch (admission.outcome()) {
+            case DUPLICATE -> {
+                // The first attempt was broadcast already; only the retrying player needs the answer,
+                // and a player on another node got that broadcast through the relay
+                if (clusterRouter.nodeId().equals(replyNode)) {
+                    messagingTemplate.convertAndSendToUser(email, "/queue/move-result", admission.result());
+                }
+                return;
+            }
+            case STALE -> {
+                metrics.moveRejected();
+                clusterRouter.sendError(replyNode, email, "Stale move for ply " + ply);
+                return;
+            }
+            case IN_FLIGHT -> {
+                return; // the attempt in progress will broadcast the result
+            }
+            default -> {
+            }
+        }
 
-            log.info("✅ Broadcasting to /topic/game/{}", matchId);
-            messagingTemplate.convertAndSend("/topic/game/" + matchId, dto);
+        tracer.begin(matchId);
+        boolean accepted = false;
+        try {
+            log.debug("✅ Broadcasting to /topic/game/{}", matchId);
+            MatchDTO dto = gamePlay.play(matchId, email, uci, ply, receivedNanos, lagMs);
+            moveCache.complete(matchId, email, uci, ply, dto);
+            accepted = true;
 
         } catch (RuntimeException e) {
+            moveCache.abandon(matchId, email, ply);
+            metrics.moveRejected();
             log.error("❌ Error: {}", e.getMessage());
-            messagingTemplate.convertAndSendToUser(
-                    principal.getName(),
-                    "/queue/errors",
-                    Map.of("error", e.getMessage())
-            );
+            clusterRouter.sendError(replyNode, email, e.getMessage());
+        } finally {
+            tracer.end(email, uci, accepted);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,36 @@
 package com.IndiChess.Controller;
 
+import com.IndiChess.Cluster.ClusterRouter;
+import com.IndiChess.Cluster.ForwardedCallEvent;
+import com.IndiChess.Model.GameType;
 import com.IndiChess.Model.Match;
+import com.IndiChess.Model.TimeControl;
+import com.IndiChess.Service.AnalysisService;
+import com.IndiChess.Service.CorrespondenceService;
+import com.IndiChess.Service.GamePlayService;
 import com.IndiChess.Service.MatchService;
+import com.IndiChess.Service.MoveResultCache;
+import com.IndiChess.Service.PgnImportService;
+import com.IndiChess.Service.PgnService;
+import com.IndiChess.dto.AnalysisDTO;
+import com.IndiChess.dto.ImportReport;
+import com.IndiChess.dto.MatchDTO;
+import com.IndiChess.Service.PositionService;
+import com.IndiChess.dto.PositionDTO;
 import lombok.Data;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/match")
@@ -16,10 +39,18 @@ import java.security.Principal;
 public class MatchController {
 
     private final MatchService matchService;
+    private final PositionService positionService;
+    private final PgnService pgnService;
+    private final PgnImportService pgnImportService;
+    private final AnalysisService analysisService;
+    private final CorrespondenceService correspondenceService;
+    private final MoveResultCache moveCache;
+    private final GamePlayService gamePlay;
+    private final ClusterRouter clusterRouter;
 
     /* ================= START PUBLIC MATCH ================= */
     @PostMapping("/start")
-    public ResponseEntity<Match> startMatch(Principal principal) {
+    public ResponseEntity<MatchDTO> startMatch(Principal principal) {
         if (principal == null) {
             return ResponseEntity.status(401).build();
         }
@@ -31,27 +62,66 @@ public class MatchController {
             return ResponseEntity.accepted().build();
         }
 
-        return ResponseEntity.ok(match);
+        return ResponseEntity.ok(MatchDTO.fromMatch(match));
+    }
+
+    /* ================= MATCHMAKING POOLS ================= */
+    @GetMapping("/pools")
+    public ResponseEntity<List<String>> pools() {
+        return ResponseEntity.ok(matchService.pools());
+    }
+
+    /* ================= CORRESPONDENCE ================= */
+    @GetMapping("/correspondence")
+    public ResponseEntity<List<MatchDTO>> myCorrespondenceGames(Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(correspondenceService.myGames(principal.getName()));
     }
 
     /* ================= CREATE PRIVATE MATCH ================= */
     @PostMapping("/create-private")
-    public ResponseEntity<Match> createPrivateMatch(Principal principal) {
+    public ResponseEntity<MatchDTO> createPrivateMatch(
+            @RequestParam(required = false) String timeControl,
+            Principal principal
+    ) {
         if (principal == null) {
             return ResponseEntity.status(401).build();
         }
 
         try {
-            Match match = matchService.createPrivateMatch(principal.getName());
-            return ResponseEntity.ok(match);
+            TimeControl tc = timeControl != null ? TimeControl.parse(timeControl) : null;
+            Match match = matchService.createPrivateMatch(principal.getName(), tc);
+            return ResponseEntity.ok(MatchDTO.fromMatch(match));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    /* ================= CREATE COMPUTER MATCH ================= */
+    @PostMapping("/create-computer")
+    public ResponseEntity<?> createComputerMatch(
+            @RequestParam(defaultValue = "4") int level,
+            @RequestParam(defaultValue = "white") String color,
+            @RequestParam(defaultValue = "RAPID") GameType gameType,
+            Principal principal
+    ) {
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        try {
+            Match match = matchService.createComputerMatch(principal.getName(), level, color, gameType);
+            return ResponseEntity.ok(MatchDTO.fromMatch(match));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /* ================= JOIN MATCH ================= */
     @PostMapping("/{id}/join")
-    public ResponseEntity<Match> joinMatch(
+    public ResponseEntity<?> joinMatch(
             @PathVariable Long id,
             Principal principal
     ) {
@@ -59,9 +129,13 @@ public class MatchController {
             return ResponseEntity.status(401).build();
         }
 
+        if (!clusterRouter.ownsMatch(id)) {
+            return callOwner(id, principal.getName(), "join", "");
+        }
+
         try {
             Match match = matchService.joinMatch(id, principal.getName());
-            return ResponseEntity.ok(match);
+            return ResponseEntity.ok(MatchDTO.fromMatch(match));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(null);
         }
@@ -69,8 +143,95 @@ public class MatchController {
 
     /* ================= GET MATCH ================= */
     @GetMapping("/{id}")
-    public ResponseEntity<Match> getMatch(@PathVariable Long id) {
+    public ResponseEntity<MatchDTO> getMatch(@PathVariable Long id) {
         return matchService.getMatch(id)
+                .map(MatchDTO::fromMatch)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /* ================= POSITION AT PLY ================= */
+    @GetMapping("/{id}/position")
+    public ResponseEntity<?> getPosition(
+            @PathVariable Long id,
+            @RequestParam int ply
+    ) {
+        try {
+            Optional<PositionDTO> position = positionService.getPosition(id, ply);
+            if (position.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(position.get());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /* ================= PGN EXPORT ================= */
+    @GetMapping("/{id}/pgn")
+    public ResponseEntity<String> exportPgn(@PathVariable Long id) {
+        return pgnService.exportGame(id)
+                .map(pgn -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType("application/x-chess-pgn"))
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"game-" + id + ".pgn\"")
+                        .body(pgn))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/export/pgn")
+    public ResponseEntity<StreamingResponseBody> exportMyGames(
+            @RequestParam(defaultValue = "false") boolean gzip,
+            Principal principal
+    ) {
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        String email = principal.getName();
+        StreamingResponseBody body = out -> pgnService.exportUserGames(email, out, gzip);
+
+        return ResponseEntity.ok()
+                .contentType(gzip
+                        ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType("application/x-chess-pgn"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"games" + (gzip ? ".pgn.gz" : ".pgn") + "\"")
+                .body(body);
+    }
+
+    /* ================= PGN IMPORT ================= */
+    @PostMapping(value = "/import", consumes = {"application/x-chess-pgn", "text/plain"})
+    public ResponseEntity<?> importPgn(HttpServletRequest request, Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+
+        try {
+            ImportReport report = pgnImportService.importPgn(request.getReader());
+            return ResponseEntity.ok(report);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /* ================= POST-GAME ANALYSIS ================= */
+    @PostMapping("/{id}/analysis")
+    public ResponseEntity<?> requestAnalysis(@PathVariable Long id, Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        try {
+            // Progress follows on /user/queue/analysis
+            return ResponseEntity.accepted().body(analysisService.request(id, principal.getName()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}/analysis")
+    public ResponseEntity<AnalysisDTO> getAnalysis(@PathVariable Long id) {
+        return analysisService.getAnalysis(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -82,18 +243,49 @@ public class MatchController {
             @RequestBody MoveRequest request,
             Principal principal
     ) {
+        long receivedNanos = System.nanoTime();
         if (principal == null) {
             return ResponseEntity.status(401).body("Unauthorized");
         }
 
+        if (request.getUci() == null) {
+            return ResponseEntity.badRequest().body("Invalid UCI format");
+        }
+
+        String email = principal.getName();
+        long lag = request.getLag() != null ? request.getLag() : 0;
+        if (!clusterRouter.ownsMatch(id)) {
+            // The owner credits the hop from here, so forwarding does not come off the mover's clock
+            return callOwner(id, email, "move", request.getUci() + " " + lag + " "
+                    + ClusterRouter.wallClockOf(receivedNanos) + (request.getPly() != null ? " " + request.getPly() : ""));
+        }
+        return moveLocally(id, email, request.getUci(), request.getPly(), lag, receivedNanos);
+    }
+
+    private ResponseEntity<?> moveLocally(Long id, String email, String uci, Integer ply, long lag,
+                                          long receivedNanos) {
+        // A retry after a timeout is answered from the cache instead of replaying the transaction
+        MoveResultCache.Admission admission = moveCache.admit(id, email, uci, ply);
+        switch (admission.outcome()) {
+            case DUPLICATE -> {
+                return ResponseEntity.ok(admission.result());
+            }
+            case STALE -> {
+                return ResponseEntity.status(409).body("Stale move for ply " + ply);
+            }
+            case IN_FLIGHT -> {
+                return ResponseEntity.status(409).body("Move is already being processed");
+            }
+            default -> {
+            }
+        }
+
         try {
-            Match updatedMatch = matchService.makeMove(
-                    id,
-                    principal.getName(),
-                    request.getUci()
-            );
-            return ResponseEntity.ok(updatedMatch);
+            MatchDTO dto = gamePlay.play(id, email, uci, ply, receivedNanos, lag);
+            moveCache.complete(id, email, uci, ply, dto);
+            return ResponseEntity.ok(dto);
         } catch (RuntimeException e) {
+            moveCache.abandon(id, email, ply);
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
@@ -108,14 +300,77 @@ public class MatchController {
             return ResponseEntity.status(401).body("Unauthorized");
         }
 
+        if (!clusterRouter.ownsMatch(id)) {
+            return callOwner(id, principal.getName(), "resign", "");
+        }
+
         try {
             Match match = matchService.resign(id, principal.getName());
-            return ResponseEntity.ok(match);
+            return ResponseEntity.ok(MatchDTO.fromMatch(match));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    /* ================= CLAIM ENDGAME RESULT ================= */
+    @PostMapping("/{id}/claim")
+    public ResponseEntity<?> claimEndgameResult(@PathVariable Long id, Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        if (!clusterRouter.ownsMatch(id)) {
+            return callOwner(id, principal.getName(), "claim", "");
+        }
+
+        try {
+            Match match = matchService.claimEndgameResult(id, principal.getName());
+            return ResponseEntity.ok(MatchDTO.fromMatch(match));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /* ================= CLUSTER FORWARDING ================= */
+
+    // Runs a mutation on the node that owns the match, then answers from the committed row
+    private ResponseEntity<?> callOwner(Long id, String email, String operation, String args) {
+        try {
+            clusterRouter.callOwner(id, email, operation, args);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        Optional<Match> match = matchService.getMatch(id);
+        if (match.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(MatchDTO.fromMatch(match.get()));
+    }
+
+    // Another node received one of the requests above for a match this node owns
+    @EventListener
+    public void onForwardedCall(ForwardedCallEvent event) {
+        String error = null;
+        try {
+            switch (event.operation()) {
+                case "move" -> {
+                    String[] args = event.args().split(" ");
+                    ResponseEntity<?> response = moveLocally(event.matchId(), event.email(), args[0],
+                            args.length > 3 ? Integer.valueOf(args[3]) : null, Long.parseLong(args[1]),
+                            clusterRouter.ingressNanos(Long.parseLong(args[2]), event.arrivedNanos()));
+                    if (!response.getStatusCode().is2xxSuccessful()) error = String.valueOf(response.getBody());
+                }
+                case "resign" -> matchService.resign(event.matchId(), event.email());
+                case "claim" -> matchService.claimEndgameResult(event.matchId(), event.email());
+                case "join" -> matchService.joinMatch(event.matchId(), event.email());
+                default -> error = "Unknown operation " + event.operation();
+            }
+        } catch (RuntimeException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        clusterRouter.replyToCall(event.origin(), event.callId(), error);
+    }
+
     /* ================= GET GAMES COUNT ================= */
     @GetMapping("/stats/count")
     public ResponseEntity<Long> getGamesCount(Principal principal) {
@@ -131,7 +386,9 @@ public class MatchController {
     @Data
     public static class MoveRequest {
         private String uci;
-        private String san;      // Optional: for move list UI
+        private String san;      // IGNORED by server (SAN is generated server-side)
         private String fenAfter; // IGNORED by server (server is authority)
+        private Long lag;        // client's network lag estimate in ms, partly credited back (see GameClock)
+        private Integer ply;     // half-moves played when the move was made; makes retries idempotent
     }
 }
\ No newline at end of file
@@ -1,8 +1,13 @@
 package com.IndiChess.Controller;
 
+import com.IndiChess.Cluster.ClusterRouter;
+import com.IndiChess.Cluster.ForwardedMatchmakingEvent;
+import com.IndiChess.Cluster.ForwardedQueueLeaveEvent;
 import com.IndiChess.Model.GameType;
+import com.IndiChess.Model.TimeControl;
 import com.IndiChess.Service.MatchService;
 import lombok.Data;
+import org.springframework.context.event.EventListener;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Controller;
@@ -11,19 +16,58 @@ import java.security.Principal;
 @Controller
 public class MatchmakingController {
     private final MatchService matchService;
+    private final ClusterRouter clusterRouter;
 
-    public MatchmakingController(MatchService matchService) {
+    public MatchmakingController(MatchService matchService, ClusterRouter clusterRouter) {
         this.matchService = matchService;
+        this.clusterRouter = clusterRouter;
     }
 
     @MessageMapping("/matchmaking/join")
     public void joinQueue(@Payload MatchmakingRequest request, Principal principal) {
         // Principal.getName() returns the user email from the JWT
-        matchService.processMatchmaking(principal.getName(), request.getGameType());
+        TimeControl pool;
+        try {
+            pool = request.getTimeControl() != null
+                    ? TimeControl.parse(request.getTimeControl())
+                    : TimeControl.defaultFor(request.getGameType());
+        } catch (IllegalArgumentException e) {
+            clusterRouter.sendError(clusterRouter.nodeId(), principal.getName(), e.getMessage());
+            return;
+        }
+
+        // Each pool lives on one node; pairing results go out on /topic so every node delivers them
+        if (!clusterRouter.ownsQueue(pool)) {
+            clusterRouter.forwardMatchmaking(principal.getName(), pool);
+            return;
+        }
+        matchService.processMatchmaking(principal.getName(), pool);
+    }
+
+    @EventListener
+    public void onForwardedJoin(ForwardedMatchmakingEvent event) {
+        matchService.processMatchmaking(event.email(), event.timeControl());
+    }
+
+    @MessageMapping("/matchmaking/leave")
+    public void leaveQueue(Principal principal) {
+        if (principal != null) leave(principal.getName());
+    }
+
+    @EventListener
+    public void onForwardedLeave(ForwardedQueueLeaveEvent event) {
+        matchService.leaveQueues(event.email());
+    }
+
+    private void leave(String email) {
+        matchService.leaveQueues(email);
+        clusterRouter.broadcastQueueLeave(email);
     }
 
     @Data
     public static class MatchmakingRequest {
+        // "3+2", "5+3d", ...; when absent, the default pool of gameType
+        private String timeControl;
         private GameType gameType;
     }
 }
\ No newline at end of file
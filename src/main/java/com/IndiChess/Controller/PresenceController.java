@@ -0,0 +1,32 @@
+package com.IndiChess.Controller;
+
+import com.IndiChess.Service.PresenceRegistry;
+import com.IndiChess.dto.PresenceDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/presence")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class PresenceController {
+
+    private final PresenceRegistry presenceRegistry;
+
+    /* ================= ONLINE COUNTS ================= */
+    @GetMapping
+    public ResponseEntity<Map<String, Integer>> online() {
+        return ResponseEntity.ok(Map.of(
+                "users", presenceRegistry.onlineUsers(),
+                "sessions", presenceRegistry.openSessions()));
+    }
+
+    /* ================= ONE PLAYER ================= */
+    @GetMapping("/{email}")
+    public ResponseEntity<PresenceDTO> status(@PathVariable String email) {
+        return ResponseEntity.ok(presenceRegistry.status(email));
+    }
+}
@@ -0,0 +1,66 @@
+package com.IndiChess.Controller;
+
+import com.IndiChess.Service.PuzzleService;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/puzzles")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class PuzzleController {
+
+    private final PuzzleService puzzleService;
+
+    /* ================= DAILY PUZZLE ================= */
+    @GetMapping("/daily")
+    public ResponseEntity<?> daily() {
+        try {
+            return ResponseEntity.ok(puzzleService.daily());
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /* ================= NEXT PUZZLE FOR USER ================= */
+    @GetMapping("/next")
+    public ResponseEntity<?> next(Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        try {
+            return ResponseEntity.ok(puzzleService.next(principal.getName()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /* ================= SUBMIT ATTEMPT ================= */
+    @PostMapping("/{id}/attempt")
+    public ResponseEntity<?> attempt(
+            @PathVariable Long id,
+            @RequestBody AttemptRequest request,
+            Principal principal
+    ) {
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        try {
+            return ResponseEntity.ok(puzzleService.attempt(principal.getName(), id, request.getMoves()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @Data
+    public static class AttemptRequest {
+        private List<String> moves;
+    }
+}
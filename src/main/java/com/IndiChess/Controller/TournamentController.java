@@ -0,0 +1,112 @@
+package com.IndiChess.Controller;
+
+import com.IndiChess.Model.GameType;
+import com.IndiChess.Model.TournamentFormat;
+import com.IndiChess.Service.ArenaService;
+import com.IndiChess.Service.SwissService;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/tournaments")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class TournamentController {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final ArenaService arenaService;
+    private final SwissService swissService;
+
+    /* ================= CREATE ================= */
+    @PostMapping
+    public ResponseEntity<?> create(@RequestBody CreateRequest request, Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        try {
+            GameType type = request.getGameType() == null ? GameType.BLITZ : request.getGameType();
+            if (request.getFormat() == TournamentFormat.SWISS) {
+                return ResponseEntity.ok(swissService.create(principal.getName(), request.getName(), type,
+                        request.getStartsAt(), request.getRounds()));
+            }
+            return ResponseEntity.ok(arenaService.create(principal.getName(), request.getName(), type,
+                    request.getStartsAt(), request.getMinutes()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /* ================= LIST ================= */
+    @GetMapping
+    public ResponseEntity<?> list() {
+        return ResponseEntity.ok(arenaService.upcomingAndRunning());
+    }
+
+    /* ================= JOIN / WITHDRAW ================= */
+    @PostMapping("/{id}/join")
+    public ResponseEntity<?> join(@PathVariable Long id, Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        try {
+            arenaService.join(principal.getName(), id);
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/{id}/withdraw")
+    public ResponseEntity<?> withdraw(@PathVariable Long id, Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        try {
+            arenaService.withdraw(principal.getName(), id);
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /* ================= STANDINGS ================= */
+    @GetMapping("/{id}/standings")
+    public ResponseEntity<?> standings(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        try {
+            if (swissService.isSwiss(id)) {
+                return ResponseEntity.ok(swissService.standings(id));
+            }
+            return ResponseEntity.ok(arenaService.standings(id, Math.max(0, page),
+                    Math.min(Math.max(1, size), MAX_PAGE_SIZE)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @Data
+    public static class CreateRequest {
+        private String name;
+        // Default ARENA
+        private TournamentFormat format;
+        private GameType gameType;
+        // Null = start now
+        private LocalDateTime startsAt;
+        // Arena length
+        private int minutes = 30;
+        // Swiss rounds
+        private int rounds = 7;
+    }
+}
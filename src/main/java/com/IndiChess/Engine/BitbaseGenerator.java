@@ -0,0 +1,314 @@
+package com.IndiChess.Engine;
+
+import com.IndiChess.Chess.Board;
+
+/**
+ * Retrograde generation of win/no-win bitbases for a lone defending king against a
+ * king and one or two pieces. Positions are normalized so the stronger side is white.
+ *
+ * Index: stm * 64^n + squares, with squares = strong king, weak king, then the extra
+ * pieces in table order (6 bits each); stm 0 = strong side to move, 1 = weak side.
+ *
+ * Starting from the checkmates, each pass walks the un-moves of the positions won in
+ * the previous pass: a strong-to-move predecessor is won outright, a weak-to-move one
+ * once every king move from it has been shown to lose. A weak king that can take an
+ * undefended piece escapes to a drawn ending and is never marked.
+ */
+final class BitbaseGenerator {
+
+    private static final int[] KING_STEPS = {8, -8, 1, -1, 9, 7, -7, -9};
+    private static final int[] KNIGHT_DF = {1, 2, 2, 1, -1, -2, -2, -1};
+    private static final int[] KNIGHT_DR = {2, 1, -1, -2, -2, -1, 1, 2};
+    private static final int[] DIR_DF = {0, 0, 1, -1, 1, -1, 1, -1};
+    private static final int[] DIR_DR = {1, -1, 0, 0, 1, 1, -1, -1};
+
+    private static final byte NEVER = (byte) 0xFF;
+
+    private final int[] extras;
+    private final int pieces;
+    private final int perSide;
+    private final Bitbases.Material material;
+    private final Bitbases promotionTables;
+
+    private final long[] win;
+    private byte[] remaining;
+
+    BitbaseGenerator(Bitbases.Material material, Bitbases promotionTables) {
+        this.material = material;
+        this.extras = material.extras();
+        this.pieces = 2 + extras.length;
+        this.perSide = 1 << (6 * pieces);
+        this.promotionTables = promotionTables;
+        this.win = new long[(2 * perSide) >>> 6];
+    }
+
+    /** Win bits in the table's index order. */
+    long[] generate() {
+        remaining = new byte[perSide];
+        long[] frontier = new long[win.length];
+        int[] sq = new int[pieces];
+
+        // Seeds: weak side mated, or (KPK) a promotion into a won KQK / KRK
+        for (int pos = 0; pos < perSide; pos++) {
+            decode(pos, sq);
+            if (!valid(sq)) {
+                remaining[pos] = NEVER;
+                continue;
+            }
+            int moves = countWeakMoves(sq);
+            remaining[pos] = (byte) moves;
+            if (moves == 0 && attacked(sq[1], sq, -1)) {
+                setWin(frontier, perSide + pos);
+            }
+            if (promotionTables != null && !attacked(sq[1], sq, -1) && winsByPromotion(sq)) {
+                setWin(frontier, pos);
+            }
+        }
+        for (int i = 0; i < win.length; i++) win[i] |= frontier[i];
+
+        while (true) {
+            long[] next = new long[win.length];
+            boolean changed = false;
+            for (int w = 0; w < frontier.length; w++) {
+                long bits = frontier[w];
+                while (bits != 0) {
+                    int idx = (w << 6) | Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    changed = true;
+                    if (idx >= perSide) {
+                        strongPredecessors(idx - perSide, sq, next);
+                    } else {
+                        weakPredecessors(idx, sq, next);
+                    }
+                }
+            }
+            if (!changed) break;
+            frontier = next;
+        }
+        remaining = null;
+        return win;
+    }
+
+    /* ================= UN-MOVES ================= */
+
+    // Weak to move and lost: every strong move that led here wins
+    private void strongPredecessors(int pos, int[] sq, long[] next) {
+        decode(pos, sq);
+        for (int i = 0; i < pieces; i++) {
+            if (i == 1) continue;
+            int to = sq[i];
+            int type = i == 0 ? Board.KING : extras[i - 2];
+            switch (type) {
+                case Board.KING -> {
+                    for (int step : KING_STEPS) {
+                        int from = to + step;
+                        if (isStep(to, from) && !occupied(sq, from)) tryStrong(sq, i, from, next);
+                    }
+                }
+                case Board.KNIGHT -> {
+                    for (int k = 0; k < 8; k++) {
+                        int f = (to & 7) + KNIGHT_DF[k];
+                        int r = (to >>> 3) + KNIGHT_DR[k];
+                        if (f < 0 || f > 7 || r < 0 || r > 7) continue;
+                        int from = f + (r << 3);
+                        if (!occupied(sq, from)) tryStrong(sq, i, from, next);
+                    }
+                }
+                case Board.PAWN -> {
+                    int from = to - 8;
+                    if (from >= 8 && !occupied(sq, from)) {
+                        tryStrong(sq, i, from, next);
+                        if ((to >>> 3) == 3 && !occupied(sq, to - 16)) tryStrong(sq, i, to - 16, next);
+                    }
+                }
+                default -> {
+                    int first = type == Board.BISHOP ? 4 : 0;
+                    int last = type == Board.ROOK ? 4 : 8;
+                    for (int d = first; d < last; d++) {
+                        int f = (to & 7) + DIR_DF[d];
+                        int r = (to >>> 3) + DIR_DR[d];
+                        while (f >= 0 && f < 8 && r >= 0 && r < 8) {
+                            int from = f + (r << 3);
+                            if (occupied(sq, from)) break;
+                            tryStrong(sq, i, from, next);
+                            f += DIR_DF[d];
+                            r += DIR_DR[d];
+                        }
+                    }
+                }
+            }
+        }
+        decode(pos, sq);
+    }
+
+    private void tryStrong(int[] sq, int piece, int from, long[] next) {
+        int saved = sq[piece];
+        sq[piece] = from;
+        if (valid(sq) && !attacked(sq[1], sq, -1)) {
+            int idx = encode(sq);
+            if (!isWin(idx)) {
+                setWin(win, idx);
+                setWin(next, idx);
+            }
+        }
+        sq[piece] = saved;
+    }
+
+    // Strong to move and won: one fewer escape for each weak king move that led here
+    private void weakPredecessors(int pos, int[] sq, long[] next) {
+        decode(pos, sq);
+        int to = sq[1];
+        for (int step : KING_STEPS) {
+            int from = to + step;
+            if (!isStep(to, from) || occupied(sq, from)) continue;
+            sq[1] = from;
+            if (valid(sq)) {
+                int p = encode(sq);
+                int r = remaining[p] & 0xFF;
+                if (r != 0xFF && r > 0 && !isWin(perSide + p)) {
+                    remaining[p] = (byte) (r - 1);
+                    if (r == 1) {
+                        setWin(win, perSide + p);
+                        setWin(next, perSide + p);
+                    }
+                }
+            }
+            sq[1] = to;
+        }
+    }
+
+    /* ================= FORWARD HELPERS ================= */
+
+    // Legal weak king moves, or NEVER when a capture or stalemate makes the position a draw
+    private int countWeakMoves(int[] sq) {
+        int moves = 0;
+        int from = sq[1];
+        for (int step : KING_STEPS) {
+            int to = from + step;
+            if (!isStep(from, to) || to == sq[0]) continue;
+            int captured = pieceAt(sq, to);
+            if (captured >= 2) {
+                if (!attacked(to, sq, captured)) return NEVER & 0xFF;
+                continue;
+            }
+            if (!attacked(to, sq, -1)) moves++;
+        }
+        if (moves == 0 && !attacked(from, sq, -1)) return NEVER & 0xFF;
+        return moves;
+    }
+
+    private boolean winsByPromotion(int[] sq) {
+        for (int i = 2; i < pieces; i++) {
+            if (extras[i - 2] != Board.PAWN || (sq[i] >>> 3) != 6) continue;
+            int to = sq[i] + 8;
+            if (occupied(sq, to)) continue;
+            int[] promoted = {sq[0], sq[1], to};
+            if (promotionTables.isWin(Bitbases.Material.KQK, 1, promoted)
+                    || promotionTables.isWin(Bitbases.Material.KRK, 1, promoted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Whether a strong piece (ignoring piece {@code skip}) attacks {@code target}; the weak king never blocks. */
+    private boolean attacked(int target, int[] sq, int skip) {
+        if (isStep(sq[0], target)) return true;
+        int tf = target & 7;
+        int tr = target >>> 3;
+        for (int i = 2; i < pieces; i++) {
+            if (i == skip) continue;
+            int from = sq[i];
+            int df = tf - (from & 7);
+            int dr = tr - (from >>> 3);
+            switch (extras[i - 2]) {
+                case Board.PAWN -> {
+                    if (dr == 1 && Math.abs(df) == 1) return true;
+                }
+                case Board.KNIGHT -> {
+                    if (Math.abs(df * dr) == 2) return true;
+                }
+                case Board.BISHOP -> {
+                    if (Math.abs(df) == Math.abs(dr) && df != 0 && clear(from, target, sq, skip)) return true;
+                }
+                case Board.ROOK -> {
+                    if ((df == 0) != (dr == 0) && clear(from, target, sq, skip)) return true;
+                }
+                case Board.QUEEN -> {
+                    boolean line = (df == 0) != (dr == 0) || (Math.abs(df) == Math.abs(dr) && df != 0);
+                    if (line && clear(from, target, sq, skip)) return true;
+                }
+                default -> {
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean clear(int from, int target, int[] sq, int skip) {
+        int sf = Integer.signum((target & 7) - (from & 7));
+        int sr = Integer.signum((target >>> 3) - (from >>> 3));
+        int f = (from & 7) + sf;
+        int r = (from >>> 3) + sr;
+        while (f + (r << 3) != target) {
+            int s = f + (r << 3);
+            for (int i = 0; i < pieces; i++) {
+                if (i != 1 && i != skip && sq[i] == s) return false;
+            }
+            f += sf;
+            r += sr;
+        }
+        return true;
+    }
+
+    /* ================= INDEXING ================= */
+
+    private boolean valid(int[] sq) {
+        for (int i = 0; i < pieces; i++) {
+            for (int j = i + 1; j < pieces; j++) {
+                if (sq[i] == sq[j]) return false;
+            }
+            if (i >= 2 && extras[i - 2] == Board.PAWN && (sq[i] < 8 || sq[i] >= 56)) return false;
+        }
+        return !isStep(sq[0], sq[1]);
+    }
+
+    private static boolean isStep(int from, int to) {
+        if (to < 0 || to >= 64) return false;
+        int df = Math.abs((to & 7) - (from & 7));
+        int dr = Math.abs((to >>> 3) - (from >>> 3));
+        return df <= 1 && dr <= 1 && (df | dr) != 0;
+    }
+
+    private boolean occupied(int[] sq, int s) {
+        return pieceAt(sq, s) >= 0;
+    }
+
+    private int pieceAt(int[] sq, int s) {
+        for (int i = 0; i < pieces; i++) {
+            if (sq[i] == s) return i;
+        }
+        return -1;
+    }
+
+    private void decode(int pos, int[] sq) {
+        for (int i = pieces - 1; i >= 0; i--) {
+            sq[i] = pos & 63;
+            pos >>>= 6;
+        }
+    }
+
+    private int encode(int[] sq) {
+        int pos = 0;
+        for (int i = 0; i < pieces; i++) pos = (pos << 6) | sq[i];
+        return pos;
+    }
+
+    private boolean isWin(int idx) {
+        return (win[idx >>> 6] & (1L << idx)) != 0;
+    }
+
+    private static void setWin(long[] bits, int idx) {
+        bits[idx >>> 6] |= 1L << idx;
+    }
+}
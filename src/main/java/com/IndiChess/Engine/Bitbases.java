@@ -0,0 +1,183 @@
+package com.IndiChess.Engine;
+
+import com.IndiChess.Chess.Board;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Memory-mapped endgame bitbases: one bit per position telling whether the side with
+ * the extra material wins. Missing files are generated on first use (see
+ * {@link BitbaseGenerator}); a probe is an index computation and one byte read.
+ */
+public final class Bitbases {
+
+    public static final int LOSS = -1;
+    public static final int DRAW = 0;
+    public static final int WIN = 1;
+    public static final int UNKNOWN = 2;
+
+    private static final long MAGIC = 0x4943424954425331L; // "ICBITBS1"
+    private static final int HEADER_BYTES = 16;            // magic, material ordinal, reserved
+
+    /** Covered endings, in generation order (KPK promotes into KQK / KRK). */
+    public enum Material {
+        KQK(Board.QUEEN),
+        KRK(Board.ROOK),
+        KPK(Board.PAWN),
+        KBNK(Board.BISHOP, Board.KNIGHT);
+
+        private final int[] extras;
+
+        Material(int... extras) {
+            this.extras = extras;
+        }
+
+        int[] extras() {
+            return extras;
+        }
+
+        int pieces() {
+            return 2 + extras.length;
+        }
+
+        String fileName() {
+            return name().toLowerCase() + ".bb";
+        }
+    }
+
+    private final Map<Material, ByteBuffer> tables = new EnumMap<>(Material.class);
+
+    private Bitbases() {
+    }
+
+    /** Maps the tables under {@code dir}, generating any that are missing. */
+    public static Bitbases loadOrGenerate(Path dir) {
+        Bitbases bitbases = new Bitbases();
+        try {
+            Files.createDirectories(dir);
+            for (Material material : Material.values()) {
+                Path file = dir.resolve(material.fileName());
+                if (!Files.exists(file)) {
+                    long[] bits = new BitbaseGenerator(material, bitbases).generate();
+                    write(file, material, bits);
+                }
+                bitbases.tables.put(material, map(file, material));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load endgame bitbases from " + dir, e);
+        }
+        return bitbases;
+    }
+
+    /* ================= PROBING ================= */
+
+    /**
+     * WIN / DRAW / LOSS for the side to move, or UNKNOWN when the material is not covered.
+     * Castling rights and the fifty-move counter are not taken into account.
+     */
+    public int probe(Board board) {
+        int strongColor = -1;
+        int extraCount = 0;
+        int[] extraSquares = new int[2];
+        int[] extraTypes = new int[2];
+        for (int sq = 0; sq < 64; sq++) {
+            int piece = board.pieceAt(sq);
+            if (piece == Board.EMPTY || Board.typeOf(piece) == Board.KING) continue;
+            int color = Board.colorOf(piece);
+            if (extraCount == 2 || (strongColor >= 0 && color != strongColor)) return UNKNOWN;
+            strongColor = color;
+            extraSquares[extraCount] = sq;
+            extraTypes[extraCount++] = Board.typeOf(piece);
+        }
+        // Bare kings, or a lone minor piece, cannot mate
+        if (extraCount == 0 || (extraCount == 1 && (extraTypes[0] == Board.BISHOP || extraTypes[0] == Board.KNIGHT))) {
+            return DRAW;
+        }
+
+        Material material = materialOf(extraTypes, extraCount);
+        if (material == null) return UNKNOWN;
+
+        // Normalize so the strong side is white, in table piece order
+        int flip = strongColor == Board.WHITE ? 0 : 56;
+        int[] sq = new int[material.pieces()];
+        sq[0] = board.kingSquare(strongColor) ^ flip;
+        sq[1] = board.kingSquare(strongColor ^ 1) ^ flip;
+        int[] extras = material.extras();
+        for (int i = 0; i < extras.length; i++) {
+            int k = extraTypes[0] == extras[i] ? 0 : 1;
+            sq[2 + i] = extraSquares[k] ^ flip;
+        }
+
+        boolean strongToMove = board.sideToMove() == strongColor;
+        if (!isWin(material, strongToMove ? 0 : 1, sq)) return DRAW;
+        return strongToMove ? WIN : LOSS;
+    }
+
+    /** Covered four-piece-or-fewer ending? */
+    public boolean covers(Board board) {
+        return probe(board) != UNKNOWN;
+    }
+
+    boolean isWin(Material material, int stm, int[] sq) {
+        ByteBuffer table = tables.get(material);
+        if (table == null) throw new IllegalStateException(material + " bitbase is not loaded");
+        int pos = 0;
+        for (int s : sq) pos = (pos << 6) | s;
+        long idx = ((long) stm << (6 * material.pieces())) + pos;
+        return (table.get(HEADER_BYTES + (int) (idx >>> 3)) & (1 << (idx & 7))) != 0;
+    }
+
+    private static Material materialOf(int[] types, int count) {
+        if (count == 1) {
+            return switch (types[0]) {
+                case Board.QUEEN -> Material.KQK;
+                case Board.ROOK -> Material.KRK;
+                case Board.PAWN -> Material.KPK;
+                default -> null;
+            };
+        }
+        boolean bishopKnight = (types[0] == Board.BISHOP && types[1] == Board.KNIGHT)
+                || (types[0] == Board.KNIGHT && types[1] == Board.BISHOP);
+        return bishopKnight ? Material.KBNK : null;
+    }
+
+    /* ================= FILES ================= */
+
+    private static void write(Path file, Material material, long[] bits) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + bits.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putLong(MAGIC).putInt(material.ordinal()).putInt(0);
+        for (long word : bits) buf.putLong(word);
+        buf.flip();
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            while (buf.hasRemaining()) channel.write(buf);
+            channel.force(true);
+        }
+        // Readers never see a half-written table
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static ByteBuffer map(Path file, Material material) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            long expected = HEADER_BYTES + (2L << (6 * material.pieces())) / 8;
+            if (buf.getLong(0) != MAGIC || buf.getInt(8) != material.ordinal() || channel.size() != expected) {
+                throw new IOException("Corrupt bitbase " + file);
+            }
+            return buf;
+        }
+    }
+}
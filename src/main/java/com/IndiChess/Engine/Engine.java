@@ -0,0 +1,135 @@
+package com.IndiChess.Engine;
+
+import com.IndiChess.Chess.Board;
+import com.IndiChess.Chess.MoveCodec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Lazy SMP search: the calling thread and {@code threads - 1} helpers run the same
+ * iterative deepening over private board copies and share only the transposition
+ * table. Helpers start on alternating depths so they fill the table ahead of the
+ * main thread, whose completed iteration gives the move.
+ */
+public class Engine {
+
+    private final TranspositionTable tt;
+    private final ExecutorService helperPool;
+    private final Supplier<Bitbases> bitbases;
+
+    /** {@code helperPool} may be null when every search is single-threaded. */
+    public Engine(TranspositionTable tt, ExecutorService helperPool) {
+        this(tt, helperPool, () -> null);
+    }
+
+    /** {@code bitbases} may supply null until the tables are ready. */
+    public Engine(TranspositionTable tt, ExecutorService helperPool, Supplier<Bitbases> bitbases) {
+        this.tt = tt;
+        this.helperPool = helperPool;
+        this.bitbases = bitbases;
+    }
+
+    /**
+     * Searches {@code root}. {@code gameKeys} are the Board.hash() values of the
+     * positions before the root, oldest first, used to score repetitions as draws.
+     */
+    public SearchResult search(Board root, long[] gameKeys, SearchLimits limits) {
+        return search(root, gameKeys, limits, null);
+    }
+
+    /**
+     * Like {@link #search(Board, long[], SearchLimits)} but only considers the root moves in
+     * {@code searchMoves} (as UCI "go searchmoves"); null means all of them.
+     */
+    public SearchResult search(Board root, long[] gameKeys, SearchLimits limits, int[] searchMoves) {
+        long start = System.nanoTime();
+        long budget = Math.max(1, limits.timeMs()) * 1_000_000L;
+        long deadline = start + budget;
+        long softStop = start + budget / 2;
+        int maxDepth = Math.max(1, Math.min(limits.maxDepth(), Searcher.MAX_PLY - 1));
+
+        int[] legal = root.copy().legalMoves();
+        if (searchMoves != null) {
+            legal = Arrays.stream(legal).filter(m -> Arrays.stream(searchMoves).anyMatch(s -> s == m)).toArray();
+        }
+        if (legal.length == 0) return new SearchResult(MoveCodec.NONE, 0, 0, 0, 0);
+
+        Bitbases tables = bitbases.get();
+        int[] rootMoves = tables != null ? bestByBitbase(root, legal, tables) : null;
+        if (rootMoves == null && searchMoves != null) rootMoves = legal;
+        // A root score over only some moves must not be reused as the position's value
+        boolean partialRoot = searchMoves != null;
+
+        tt.newSearch();
+        AtomicBoolean stop = new AtomicBoolean();
+
+        List<Searcher> helpers = new ArrayList<>();
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 1; i < limits.threads() && helperPool != null; i++) {
+            Searcher helper = new Searcher(root.copy(), gameKeys, tt, stop, deadline, limits.evalNoise(), tables, rootMoves, partialRoot);
+            int startDepth = 1 + (i & 1);
+            helpers.add(helper);
+            running.add(helperPool.submit(() -> {
+                helper.started = true;
+                helper.iterate(startDepth, 1, maxDepth + 1, deadline);
+            }));
+        }
+
+        Searcher main = new Searcher(root.copy(), gameKeys, tt, stop, deadline, limits.evalNoise(), tables, rootMoves, partialRoot);
+        try {
+            main.iterate(1, 1, maxDepth, softStop);
+        } finally {
+            stop.set(true);
+        }
+
+        long nodes = main.nodes;
+        for (int i = 0; i < running.size(); i++) {
+            Searcher helper = helpers.get(i);
+            // A helper still queued behind other games' searches is simply dropped
+            if (!helper.started && running.get(i).cancel(false)) continue;
+            try {
+                running.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | CancellationException e) {
+                // A failed helper only costs table entries; the main result stands
+            }
+            nodes += helper.nodes;
+        }
+
+        int move = main.bestMove != MoveCodec.NONE ? main.bestMove : rootMoves != null ? rootMoves[0] : legal[0];
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+        return new SearchResult(move, main.bestScore, main.completedDepth, nodes, elapsedMs);
+    }
+
+    // In a covered ending only moves that keep the best result are searched; null otherwise
+    private static int[] bestByBitbase(Board root, int[] legal, Bitbases tables) {
+        if (tables.probe(root) == Bitbases.UNKNOWN) return null;
+
+        int[] outcome = new int[legal.length];
+        int best = Bitbases.LOSS;
+        Board board = root.copy();
+        for (int i = 0; i < legal.length; i++) {
+            board.makeMove(legal[i]);
+            int child = tables.probe(board);
+            // Promotions to a minor piece leave the tables: a draw
+            outcome[i] = child == Bitbases.UNKNOWN ? Bitbases.DRAW : -child;
+            board.unmakeMove();
+            best = Math.max(best, outcome[i]);
+        }
+        int count = 0;
+        int[] kept = new int[legal.length];
+        for (int i = 0; i < legal.length; i++) {
+            if (outcome[i] == best) kept[count++] = legal[i];
+        }
+        return Arrays.copyOf(kept, count);
+    }
+}
@@ -0,0 +1,121 @@
+package com.IndiChess.Engine;
+
+import com.IndiChess.Chess.Board;
+
+/**
+ * Material plus piece-square tables, with the king table tapered from middlegame
+ * to endgame by the remaining non-pawn material. Scores are centipawns from the
+ * side to move's point of view.
+ */
+public final class Evaluation {
+
+    // Indexed by piece type (Board.PAWN..Board.KING)
+    static final int[] PIECE_VALUES = {0, 100, 320, 330, 500, 900, 0};
+    private static final int[] PHASE_WEIGHTS = {0, 0, 1, 1, 2, 4, 0};
+    private static final int MAX_PHASE = 24;
+
+    // Tables are written from white's side with a8 first; white squares are read as sq ^ 56
+    private static final int[] PAWN_TABLE = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+    private static final int[] KNIGHT_TABLE = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+    private static final int[] BISHOP_TABLE = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+    private static final int[] ROOK_TABLE = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+    private static final int[] QUEEN_TABLE = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+    private static final int[] KING_MIDDLEGAME_TABLE = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+    private static final int[] KING_ENDGAME_TABLE = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    private static final int[][] TABLES = {
+            null, PAWN_TABLE, KNIGHT_TABLE, BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE, KING_MIDDLEGAME_TABLE
+    };
+
+    private Evaluation() {
+    }
+
+    public static int evaluate(Board board) {
+        int score = 0;
+        int phase = 0;
+        int kingMg = 0;
+        int kingEg = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            int piece = board.pieceAt(sq);
+            if (piece == Board.EMPTY) continue;
+            int type = Board.typeOf(piece);
+            boolean white = Board.colorOf(piece) == Board.WHITE;
+            int idx = white ? sq ^ 56 : sq;
+            int sign = white ? 1 : -1;
+
+            if (type == Board.KING) {
+                kingMg += sign * KING_MIDDLEGAME_TABLE[idx];
+                kingEg += sign * KING_ENDGAME_TABLE[idx];
+                continue;
+            }
+            score += sign * (PIECE_VALUES[type] + TABLES[type][idx]);
+            phase += PHASE_WEIGHTS[type];
+        }
+        phase = Math.min(phase, MAX_PHASE);
+        score += (kingMg * phase + kingEg * (MAX_PHASE - phase)) / MAX_PHASE;
+        return board.sideToMove() == Board.WHITE ? score : -score;
+    }
+}
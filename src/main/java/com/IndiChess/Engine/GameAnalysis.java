@@ -0,0 +1,75 @@
+package com.IndiChess.Engine;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact per-ply analysis: 5 bytes per ply holding the evaluation after the move
+ * (centipawns, white's point of view), the engine's best move in the position before
+ * it (MoveCodec encoding) and a mark for how much the played move lost.
+ */
+public final class GameAnalysis {
+
+    public static final int MARK_NONE = 0;
+    public static final int MARK_INACCURACY = 1;
+    public static final int MARK_MISTAKE = 2;
+    public static final int MARK_BLUNDER = 3;
+
+    private static final int BYTES_PER_PLY = 5;
+
+    // Mate scores are capped so one mate line does not mark every move around it
+    private static final int LOSS_CAP = 2000;
+
+    public record PlyAnalysis(int ply, int evalAfter, int bestMove, int mark) {
+
+        /** Moves to mate (negative when black mates), or 0 for a normal score. */
+        public int mateIn() {
+            if (Math.abs(evalAfter) < Searcher.MATE_BOUND) return 0;
+            int plies = Searcher.MATE - Math.abs(evalAfter);
+            return Integer.signum(evalAfter) * ((plies + 1) / 2);
+        }
+    }
+
+    private GameAnalysis() {
+    }
+
+    public static byte[] encode(List<PlyAnalysis> plies) {
+        ByteBuffer buf = ByteBuffer.allocate(plies.size() * BYTES_PER_PLY);
+        for (PlyAnalysis p : plies) {
+            buf.putShort((short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, p.evalAfter())));
+            buf.putShort((short) p.bestMove());
+            buf.put((byte) p.mark());
+        }
+        return buf.array();
+    }
+
+    public static List<PlyAnalysis> decode(byte[] data) {
+        List<PlyAnalysis> plies = new ArrayList<>();
+        if (data == null) return plies;
+        ByteBuffer buf = ByteBuffer.wrap(data);
+        for (int ply = 1; buf.remaining() >= BYTES_PER_PLY; ply++) {
+            int eval = buf.getShort();
+            int best = buf.getShort() & 0xFFFF;
+            int mark = buf.get();
+            plies.add(new PlyAnalysis(ply, eval, best, mark));
+        }
+        return plies;
+    }
+
+    /** Mark for a move, from the mover's evaluation before and after it. */
+    public static int mark(int moverEvalBefore, int moverEvalAfter) {
+        int before = Math.max(-LOSS_CAP, Math.min(LOSS_CAP, moverEvalBefore));
+        int after = Math.max(-LOSS_CAP, Math.min(LOSS_CAP, moverEvalAfter));
+        int loss = before - after;
+        if (loss >= 300) return MARK_BLUNDER;
+        if (loss >= 100) return MARK_MISTAKE;
+        if (loss >= 50) return MARK_INACCURACY;
+        return MARK_NONE;
+    }
+
+    /** Score for a side to move with no legal moves, as the search would report it. */
+    public static int terminalScore(boolean inCheck) {
+        return inCheck ? -Searcher.MATE : 0;
+    }
+}
@@ -0,0 +1,143 @@
+package com.IndiChess.Engine;
+
+import com.IndiChess.Chess.Board;
+import com.IndiChess.Chess.MoveCodec;
+import com.IndiChess.Chess.PackedMoves;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds tactical moments in a finished game: positions where the opponent's last move
+ * swung the evaluation and exactly one move keeps the gain. The solution line follows
+ * the forced moves for as long as each of them stays the only good one.
+ */
+public final class PuzzleFinder {
+
+    public record Candidate(int ply, String fen, List<String> solution, int rating) {
+    }
+
+    private static final int MIN_PLY = 8;
+    private static final int MIN_SWING = 200;
+    private static final int MIN_ADVANTAGE = 200;
+    // Positions that were already won before the mistake make dull puzzles
+    private static final int MAX_PRIOR_ADVANTAGE = 300;
+    private static final int MIN_GAP = 200;
+    private static final int MAX_SOLVER_MOVES = 3;
+    private static final long TIME_CAP_MS = 2000;
+
+    private final Engine engine;
+    private final int scanDepth;
+    private final int verifyDepth;
+
+    public PuzzleFinder(Engine engine, int scanDepth, int verifyDepth) {
+        this.engine = engine;
+        this.scanDepth = scanDepth;
+        this.verifyDepth = verifyDepth;
+    }
+
+    public List<Candidate> find(byte[] packed) {
+        List<Candidate> found = new ArrayList<>();
+        int plies = PackedMoves.size(packed);
+        long[] keys = new long[plies + 1];
+        Board board = Board.startPosition();
+        SearchLimits scan = new SearchLimits(scanDepth, TIME_CAP_MS, 1, 0);
+
+        Integer previous = null;
+        int skipUntil = 0;
+        for (int ply = 0; ply < plies; ply++) {
+            if (ply >= MIN_PLY) {
+                SearchResult r = engine.search(board, Arrays.copyOf(keys, ply), scan);
+                int score = r.score();
+                // previous is the opponent's view before its move, so the swing is what that move gave away
+                if (previous != null && ply >= skipUntil && r.move() != MoveCodec.NONE
+                        && score + previous >= MIN_SWING && score >= MIN_ADVANTAGE && -previous <= MAX_PRIOR_ADVANTAGE) {
+                    Candidate candidate = verify(board.copy(), Arrays.copyOf(keys, ply), ply);
+                    if (candidate != null) {
+                        found.add(candidate);
+                        // One puzzle per tactical sequence
+                        skipUntil = ply + 2 * candidate.solution().size();
+                    }
+                }
+                previous = score;
+            }
+            keys[ply] = board.hash();
+            board.play(PackedMoves.get(packed, ply));
+        }
+        return found;
+    }
+
+    private Candidate verify(Board board, long[] keys, int ply) {
+        String fen = board.toFen();
+        SearchLimits deep = new SearchLimits(verifyDepth, TIME_CAP_MS, 1, 0);
+
+        List<String> solution = new ArrayList<>();
+        boolean firstQuiet = false;
+        boolean firstCheck = false;
+        int discoveryDepth = 0;
+        long[] line = keys;
+
+        for (int solverMove = 0; solverMove < MAX_SOLVER_MOVES; solverMove++) {
+            SearchResult best = engine.search(board, line, deep);
+            if (best.move() == MoveCodec.NONE || best.score() < MIN_ADVANTAGE) break;
+            if (!isOnlyMove(board, line, best, deep)) break;
+
+            if (solverMove == 0) {
+                firstQuiet = !MoveCodec.isCapture(best.move()) && !MoveCodec.isPromotion(best.move());
+                discoveryDepth = discoveryDepth(board, line, best.move());
+            }
+            solution.add(MoveCodec.toUci(best.move()));
+            line = append(line, board.hash());
+            board.play(best.move());
+            if (solverMove == 0) firstCheck = board.inCheck();
+            if (!board.hasLegalMoves()) break;
+
+            SearchResult reply = engine.search(board, line, deep);
+            if (reply.move() == MoveCodec.NONE || solverMove == MAX_SOLVER_MOVES - 1) break;
+            // Only keep going while the solver still has something forced to find
+            Board next = board.copy();
+            next.play(reply.move());
+            if (!next.hasLegalMoves()) break;
+            solution.add(MoveCodec.toUci(reply.move()));
+            line = append(line, board.hash());
+            board.play(reply.move());
+        }
+
+        // A line must end on the solver's move
+        if (solution.size() % 2 == 0) {
+            if (solution.isEmpty()) return null;
+            solution.remove(solution.size() - 1);
+        }
+
+        int solverMoves = (solution.size() + 1) / 2;
+        int rating = 1000 + 250 * (solverMoves - 1) + 60 * discoveryDepth
+                + (firstQuiet ? 250 : 0) - (firstCheck ? 100 : 0);
+        return new Candidate(ply, fen, solution, Math.max(600, Math.min(2800, rating)));
+    }
+
+    private boolean isOnlyMove(Board board, long[] keys, SearchResult best, SearchLimits limits) {
+        int[] others = Arrays.stream(board.copy().legalMoves()).filter(m -> m != best.move()).toArray();
+        if (others.length == 0) return false; // forced anyway, nothing to find
+        SearchResult second = engine.search(board, keys, limits, others);
+        boolean bestMates = best.score() >= Searcher.MATE_BOUND;
+        boolean secondMates = second.score() >= Searcher.MATE_BOUND;
+        if (bestMates) return !secondMates;
+        return best.score() - second.score() >= MIN_GAP;
+    }
+
+    // Shallowest depth at which the engine already prefers the solution; deeper means harder
+    private int discoveryDepth(Board board, long[] keys, int move) {
+        for (int depth = 1; depth < verifyDepth; depth++) {
+            SearchResult r = engine.search(board, keys, new SearchLimits(depth, TIME_CAP_MS, 1, 0));
+            if (r.move() == move) return depth;
+        }
+        return verifyDepth;
+    }
+
+    private static long[] append(long[] keys, long key) {
+        long[] out = Arrays.copyOf(keys, keys.length + 1);
+        out[keys.length] = key;
+        return out;
+    }
+}
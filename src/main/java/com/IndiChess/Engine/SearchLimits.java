@@ -0,0 +1,8 @@
+package com.IndiChess.Engine;
+
+/**
+ * How far and how long one search may go. {@code evalNoise} (centipawns) blurs the
+ * evaluation for the weaker levels.
+ */
+public record SearchLimits(int maxDepth, long timeMs, int threads, int evalNoise) {
+}
@@ -0,0 +1,9 @@
+package com.IndiChess.Engine;
+
+/** {@code move} is MoveCodec.NONE when the root position has no legal moves. */
+public record SearchResult(int move, int score, int depth, long nodes, long timeMs) {
+
+    public long nodesPerSecond() {
+        return timeMs > 0 ? nodes * 1000 / timeMs : nodes;
+    }
+}
@@ -0,0 +1,305 @@
+package com.IndiChess.Engine;
+
+import com.IndiChess.Chess.Board;
+import com.IndiChess.Chess.MoveCodec;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One search thread: iterative deepening over a principal-variation alpha-beta with
+ * quiescence, TT move / MVV-LVA / killer / history ordering and late move reductions.
+ * Every Lazy SMP thread owns one of these over its own copy of the board.
+ */
+final class Searcher {
+
+    static final int INF = 32000;
+    static final int MATE = 31000;
+    static final int MATE_BOUND = MATE - 1000;
+    static final int MAX_PLY = 128;
+    // Bitbase wins score below any real mate, so a mate the search can see is still preferred
+    static final int KNOWN_WIN = 20000;
+
+    private final Board board;
+    private final TranspositionTable tt;
+    private final AtomicBoolean stop;
+    private final long deadlineNanos;
+    private final int evalNoise;
+    private final Bitbases bitbases;
+    private final int[] rootMoves;
+    private final boolean partialRoot;
+
+    private final int[][] moves = new int[MAX_PLY][256];
+    private final int[][] scores = new int[MAX_PLY][256];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[] historyScores = new int[64 * 64];
+
+    // Position keys of the game so far followed by the current search line
+    private final long[] keys;
+    private final int rootIndex;
+
+    volatile boolean started;
+    long nodes;
+    int completedDepth;
+    int bestMove = MoveCodec.NONE;
+    int bestScore;
+    private int iterationMove;
+
+    Searcher(Board board, long[] gameKeys, TranspositionTable tt, AtomicBoolean stop, long deadlineNanos, int evalNoise,
+             Bitbases bitbases, int[] rootMoves, boolean partialRoot) {
+        this.board = board;
+        this.bitbases = bitbases;
+        this.rootMoves = rootMoves;
+        this.partialRoot = partialRoot;
+        this.tt = tt;
+        this.stop = stop;
+        this.deadlineNanos = deadlineNanos;
+        this.evalNoise = evalNoise;
+        this.keys = new long[gameKeys.length + MAX_PLY + 1];
+        System.arraycopy(gameKeys, 0, keys, 0, gameKeys.length);
+        this.rootIndex = gameKeys.length;
+        keys[rootIndex] = board.hash();
+    }
+
+    /* ================= ITERATIVE DEEPENING ================= */
+
+    /**
+     * Deepens from {@code startDepth} by {@code step} until the limit, the deadline or a
+     * stop signal. Only fully searched iterations update the best move.
+     */
+    void iterate(int startDepth, int step, int maxDepth, long softStopNanos) {
+        for (int depth = startDepth; depth <= maxDepth; depth += step) {
+            iterationMove = MoveCodec.NONE;
+            int score = search(depth, -INF, INF, 0);
+            if (stop.get()) break;
+
+            bestMove = iterationMove;
+            bestScore = score;
+            completedDepth = depth;
+
+            if (bestMove == MoveCodec.NONE || Math.abs(score) >= MATE_BOUND) break;
+            // Another iteration would not finish before the deadline
+            if (System.nanoTime() > softStopNanos) break;
+        }
+    }
+
+    /* ================= ALPHA-BETA ================= */
+
+    private int search(int depth, int alpha, int beta, int ply) {
+        if (ply > 0) {
+            if (board.halfmoveClock() >= 100 || isRepetition(ply)) return 0;
+            // Mate distance pruning
+            alpha = Math.max(alpha, -MATE + ply);
+            beta = Math.min(beta, MATE - ply - 1);
+            if (alpha >= beta) return alpha;
+        }
+        if (checkStop()) return 0;
+
+        boolean inCheck = board.inCheck();
+        if (inCheck) depth++;
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            if (bitbases != null) {
+                int wdl = bitbases.probe(board);
+                if (wdl != Bitbases.UNKNOWN) return wdl == Bitbases.DRAW ? 0 : wdl * KNOWN_WIN + evaluate();
+            }
+            return quiesce(alpha, beta, ply);
+        }
+
+        nodes++;
+        boolean pvNode = beta - alpha > 1;
+        long key = board.hash();
+        long entry = tt.probe(key);
+        int ttMove = MoveCodec.NONE;
+        if (entry != 0) {
+            ttMove = TranspositionTable.move(entry);
+            if (!pvNode && ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int ttScore = fromTt(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && ttScore >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && ttScore <= alpha)) {
+                    return ttScore;
+                }
+            }
+        }
+
+        int[] list = moves[ply];
+        int count = board.generatePseudoLegal(list);
+        scoreMoves(list, count, ply, ttMove);
+
+        int originalAlpha = alpha;
+        int best = -INF;
+        int bestMoveHere = MoveCodec.NONE;
+        int legal = 0;
+
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(list, scores[ply], i, count);
+            if (ply == 0 && rootMoves != null && !contains(rootMoves, move)) continue;
+            if (!board.makeMove(move)) continue;
+            legal++;
+            keys[rootIndex + ply + 1] = board.hash();
+
+            boolean quiet = !MoveCodec.isCapture(move) && !MoveCodec.isPromotion(move);
+            int score;
+            if (legal == 1) {
+                score = -search(depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                int reduction = depth >= 3 && legal > 3 && quiet && !inCheck && !board.inCheck() ? 1 + (legal > 8 ? 1 : 0) : 0;
+                score = -search(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && reduction > 0) {
+                    score = -search(depth - 1, -alpha - 1, -alpha, ply + 1);
+                }
+                if (score > alpha && score < beta) {
+                    score = -search(depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            board.unmakeMove();
+            if (stop.get()) return 0;
+
+            if (score > best) {
+                best = score;
+                bestMoveHere = move;
+                if (ply == 0) iterationMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        if (quiet) {
+                            if (killers[ply][0] != move) {
+                                killers[ply][1] = killers[ply][0];
+                                killers[ply][0] = move;
+                            }
+                            historyScores[(move & 0xFFF)] += depth * depth;
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (legal == 0) return inCheck ? -MATE + ply : 0;
+
+        int bound = best >= beta ? TranspositionTable.BOUND_LOWER
+                : best > originalAlpha ? TranspositionTable.BOUND_EXACT
+                : TranspositionTable.BOUND_UPPER;
+        if (ply > 0 || !partialRoot) tt.store(key, bestMoveHere, toTt(best, ply), depth, bound);
+        return best;
+    }
+
+    private int quiesce(int alpha, int beta, int ply) {
+        if (checkStop()) return 0;
+        nodes++;
+
+        int standPat = evaluate();
+        if (standPat >= beta || ply >= MAX_PLY - 1) return standPat;
+        if (standPat > alpha) alpha = standPat;
+
+        int[] list = moves[ply];
+        int count = board.generatePseudoLegal(list);
+        int tactical = 0;
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            if (MoveCodec.isCapture(move) || MoveCodec.isPromotion(move)) list[tactical++] = move;
+        }
+        scoreMoves(list, tactical, ply, MoveCodec.NONE);
+
+        for (int i = 0; i < tactical; i++) {
+            int move = pickNext(list, scores[ply], i, tactical);
+            if (!board.makeMove(move)) continue;
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            board.unmakeMove();
+            if (stop.get()) return 0;
+
+            if (score > alpha) {
+                alpha = score;
+                if (alpha >= beta) break;
+            }
+        }
+        return alpha;
+    }
+
+    /* ================= HELPERS ================= */
+
+    private int evaluate() {
+        int score = Evaluation.evaluate(board);
+        if (evalNoise > 0) {
+            // Derived from the key so the TT stays consistent within a search
+            long mix = board.hash() * 0x9E3779B97F4A7C15L;
+            score += (int) ((mix >>> 40) % (2L * evalNoise + 1)) - evalNoise;
+        }
+        return score;
+    }
+
+    private void scoreMoves(int[] list, int count, int ply, int ttMove) {
+        int[] out = scores[ply];
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            if (move == ttMove) {
+                out[i] = 1_000_000;
+            } else if (MoveCodec.isCapture(move)) {
+                int victim = MoveCodec.flags(move) == MoveCodec.EP_CAPTURE
+                        ? Board.PAWN : Board.typeOf(board.pieceAt(MoveCodec.to(move)));
+                int attacker = Board.typeOf(board.pieceAt(MoveCodec.from(move)));
+                out[i] = 500_000 + victim * 100 - attacker;
+            } else if (MoveCodec.isPromotion(move)) {
+                out[i] = 400_000 + MoveCodec.promotionPiece(move);
+            } else if (move == killers[ply][0]) {
+                out[i] = 300_000;
+            } else if (move == killers[ply][1]) {
+                out[i] = 299_000;
+            } else {
+                out[i] = Math.min(historyScores[move & 0xFFF], 200_000);
+            }
+        }
+    }
+
+    // Selection sort step: moves the best remaining move to index i
+    private static int pickNext(int[] list, int[] scores, int i, int count) {
+        int best = i;
+        for (int j = i + 1; j < count; j++) {
+            if (scores[j] > scores[best]) best = j;
+        }
+        if (best != i) {
+            int m = list[i];
+            list[i] = list[best];
+            list[best] = m;
+            int s = scores[i];
+            scores[i] = scores[best];
+            scores[best] = s;
+        }
+        return list[i];
+    }
+
+    private static boolean contains(int[] moves, int move) {
+        for (int m : moves) {
+            if (m == move) return true;
+        }
+        return false;
+    }
+
+    private boolean isRepetition(int ply) {
+        int current = rootIndex + ply;
+        long key = keys[current];
+        int limit = Math.max(0, current - board.halfmoveClock());
+        for (int i = current - 2; i >= limit; i -= 2) {
+            if (keys[i] == key) return true;
+        }
+        return false;
+    }
+
+    private boolean checkStop() {
+        if ((nodes & 2047) == 0 && System.nanoTime() >= deadlineNanos) stop.set(true);
+        return stop.get();
+    }
+
+    // Mate scores are stored relative to the node, not the root
+    private static int toTt(int score, int ply) {
+        if (score >= MATE_BOUND) return score + ply;
+        if (score <= -MATE_BOUND) return score - ply;
+        return score;
+    }
+
+    private static int fromTt(int score, int ply) {
+        if (score >= MATE_BOUND) return score - ply;
+        if (score <= -MATE_BOUND) return score + ply;
+        return score;
+    }
+}
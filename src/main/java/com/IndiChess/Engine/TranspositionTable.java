@@ -0,0 +1,72 @@
+package com.IndiChess.Engine;
+
+/**
+ * Shared hash table for all search threads, without locks. Each slot is two longs:
+ * the key XOR-ed with the data, then the data. A slot torn by two threads writing at
+ * once no longer matches its key and is treated as a miss.
+ */
+public final class TranspositionTable {
+
+    public static final int BOUND_EXACT = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_UPPER = 3;
+
+    private final long[] slots;
+    private final int mask;
+    private volatile int generation;
+
+    public TranspositionTable(int sizeMb) {
+        long entries = Math.max(1L, (long) sizeMb * 1024 * 1024 / 16);
+        int size = Integer.highestOneBit((int) Math.min(entries, 1 << 28));
+        this.slots = new long[size * 2];
+        this.mask = size - 1;
+    }
+
+    /** Called once per search so entries from older searches are replaced first. */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /** Packed entry data, or 0 on a miss (a stored entry always has a non-zero bound). */
+    public long probe(long key) {
+        int i = ((int) key & mask) << 1;
+        long data = slots[i + 1];
+        return (slots[i] ^ data) == key ? data : 0;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int i = ((int) key & mask) << 1;
+        long old = slots[i + 1];
+        boolean sameKey = (slots[i] ^ old) == key;
+        if (sameKey && move == 0) move = move(old);
+        if (sameKey && generationOf(old) == generation && depth < depth(old) && bound != BOUND_EXACT) return;
+
+        long data = (move & 0xFFFFL)
+                | ((long) (score + 32768) & 0xFFFFL) << 16
+                | ((long) Math.max(0, Math.min(depth, 255))) << 32
+                | ((long) bound) << 40
+                | ((long) generation) << 42;
+        slots[i] = key ^ data;
+        slots[i + 1] = data;
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int score(long data) {
+        return (int) ((data >>> 16) & 0xFFFF) - 32768;
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> 32) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> 40) & 0x3);
+    }
+
+    private static int generationOf(long data) {
+        return (int) ((data >>> 42) & 0xFF);
+    }
+}
@@ -0,0 +1,53 @@
+package com.IndiChess.Model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// One analysis per match: the unique match_id is what deduplicates repeated requests
+@Entity
+@Table(
+        name = "analysis_jobs",
+        indexes = @Index(name = "idx_analysis_jobs_status_priority", columnList = "status, priority")
+)
+@Data
+public class AnalysisJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "match_id", nullable = false, unique = true)
+    private Long matchId;
+
+    // Receives the progress events
+    @Column(name = "requested_by", nullable = false)
+    private String requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AnalysisStatus status;
+
+    // Higher runs first; the game's finish time in epoch seconds, so recent games go first
+    @Column(nullable = false)
+    private Long priority;
+
+    private Integer progress;
+
+    @Column(name = "total_plies")
+    private Integer totalPlies;
+
+    // GameAnalysis encoding, 5 bytes per ply
+    @JsonIgnore
+    private byte[] result;
+
+    private String error;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
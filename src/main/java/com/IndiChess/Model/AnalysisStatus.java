@@ -0,0 +1,8 @@
+package com.IndiChess.Model;
+
+public enum AnalysisStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,24 @@
+package com.IndiChess.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "archived_games")
+@Data
+public class ArchivedGame {
+
+    // Same id as the match row, which stays in matches with its moves cleared
+    @Id
+    @Column(name = "match_id")
+    private Long matchId;
+
+    // Deflate-compressed move data, see GameArchiveService
+    @Column(name = "data", nullable = false)
+    private byte[] data;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,41 @@
+package com.IndiChess.Model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Position every few plies of a game, so a position can be rebuilt without a full replay.
+// Rows are only ever inserted (see FenCheckpointBatchRepo); the match row is never rewritten for them.
+@Entity
+@Table(name = "fen_checkpoints")
+@IdClass(FenCheckpoint.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FenCheckpoint {
+
+    @Id
+    @Column(name = "match_id")
+    private Long matchId;
+
+    // Half-moves played before this position
+    @Id
+    @Column(name = "ply")
+    private Integer ply;
+
+    @Column(name = "fen", nullable = false, length = 200)
+    private String fen;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Long matchId;
+        private Integer ply;
+    }
+}
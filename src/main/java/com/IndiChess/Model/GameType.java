@@ -1,8 +1,12 @@
 package com.IndiChess.Model;
 
+// Speed category of a game, derived from its TimeControl
 public enum GameType {
 
+    BULLET,
     BLITZ,
     RAPID,
+    CLASSICAL,
+    CORRESPONDENCE,
 
-}
\ No newline at end of file
+}
@@ -1,14 +1,31 @@
 package com.IndiChess.Model;
 
+import com.IndiChess.Chess.GameCodec;
+import com.IndiChess.Chess.PackedMoves;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Entity
-@Table(name = "matches")
+@Table(
+        name = "matches",
+        indexes = {
+                @Index(name = "idx_matches_archived_finished_at", columnList = "archived, finished_at"),
+                @Index(name = "idx_matches_tournament_finished_at", columnList = "tournament_id, finished_at"),
+                @Index(name = "idx_matches_game_type_status", columnList = "game_type, status, id"),
+                @Index(name = "idx_matches_status_last_move_time", columnList = "status, last_move_time")
+        }
+)
 @Data
 public class Match {
 
@@ -36,6 +53,14 @@ public class Match {
 
     private String currentTurnEmail;
 
+    // 1-8 when player1 or player2 is the built-in engine, null for human games
+    @Column(name = "engine_level")
+    private Integer engineLevel;
+
+    // Arena the game was paired by, null otherwise
+    @Column(name = "tournament_id")
+    private Long tournamentId;
+
     private Integer currentPly;
 
     @Column(name = "fen_current", nullable = false, length = 200)
@@ -46,24 +71,37 @@ public class Match {
 
     /* ================= TIMER (CRITICAL) ================= */
 
-    @Column(name = "white_time")
-    private Integer whiteTime; // seconds
+    @Column(name = "time_control", length = 16)
+    private TimeControl timeControl;
+
+    @Column(name = "white_clock_ms")
+    private Long whiteClockMs;
 
-    @Column(name = "black_time")
-    private Integer blackTime; // seconds
+    @Column(name = "black_clock_ms")
+    private Long blackClockMs;
 
+    // Epoch millis; the node owning the match also times the turn monotonically (see GameClock)
     @Column(name = "last_move_time")
-    private Long lastMoveTime; // epoch millis
+    private Long lastMoveTime;
 
     /* ================= MOVES ================= */
 
+    // 16-bit encoded moves, two bytes per ply (see PackedMoves)
+    @JsonIgnore
+    @Column(name = "packed_moves")
+    private byte[] packedMoves;
+
+    // Positions every few plies live in fen_checkpoints (see FenCheckpoint)
+
+    // Legacy row-per-ply storage, no longer written by makeMove
+    @JsonIgnore
     @OneToMany(
             mappedBy = "match",
             cascade = CascadeType.ALL,
             orphanRemoval = true
     )
     @OrderBy("ply ASC")
-    private List<Move> moves = new ArrayList<>();
+    private List<Move> moveRows = new ArrayList<>();
 
     /* ================= TIMESTAMPS ================= */
 
@@ -71,11 +109,66 @@ public class Match {
 
     private LocalDateTime finishedAt;
 
+    // Moves live in archived_games; reads restore them through GameArchiveService
+    @Column(name = "archived", nullable = false)
+    private boolean archived;
+
+    // Its positions are in a position index segment on disk; see PositionSearchService
+    @Column(name = "position_indexed", nullable = false)
+    private boolean positionIndexed;
+
+    // getMoves() result and the array it was decoded from
+    @Transient
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private byte[] decodedFrom;
+
+    @Transient
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private List<Move> decodedMoves;
+
     /* ================= HELPERS ================= */
 
-    public void addMove(Move move) {
-        this.moves.add(move);
-        move.setMatch(this);
-        this.currentPly = move.getPly();
+    public void appendMove(int move) {
+        this.packedMoves = PackedMoves.append(this.packedMoves, move);
+        this.currentPly = PackedMoves.size(this.packedMoves);
+    }
+
+    // Decoded on demand so the JSON shape stays the same as the old per-ply rows. The replay is
+    // kept until packedMoves changes (appendMove and restore always install a new array), so
+    // serializing the same match again does not replay the game again.
+    public List<Move> getMoves() {
+        if (PackedMoves.size(packedMoves) == 0) {
+            // Not migrated yet (see LegacyMoveMigration)
+            return moveRows;
+        }
+        if (decodedFrom != packedMoves) {
+            decodedMoves = Collections.unmodifiableList(decode(packedMoves));
+            decodedFrom = packedMoves;
+        }
+        return decodedMoves;
+    }
+
+    private static List<Move> decode(byte[] packedMoves) {
+        List<Move> moves = new ArrayList<>(PackedMoves.size(packedMoves));
+        for (GameCodec.DecodedMove decoded : GameCodec.decode(packedMoves)) {
+            Move move = new Move();
+            move.setUci(decoded.uci());
+            move.setSan(decoded.san());
+            move.setPly(decoded.ply());
+            move.setMoveNumber((decoded.ply() + 1) / 2);
+            move.setColor(PieceColor.fromPly(decoded.ply()));
+            move.setFenBefore(decoded.fenBefore());
+            move.setFenAfter(decoded.fenAfter());
+            moves.add(move);
+        }
+        return moves;
     }
 }
@@ -6,7 +6,8 @@ public enum MatchStatus {
     WHITE_WIN(1),
     BLACK_WIN(-1),
     DRAW(0),
-    ONGOING(2);
+    ONGOING(2),
+    ABORTED(3); // never joined, or abandoned before both sides moved; counts for nobody
 
 
     private final int code;
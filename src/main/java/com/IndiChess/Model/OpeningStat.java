@@ -0,0 +1,38 @@
+package com.IndiChess.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// One continuation from a position, aggregated per game type as games finish
+@Entity
+@Table(name = "opening_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_opening_stats_position_type_move",
+                columnNames = {"position_hash", "game_type", "move"}))
+@Data
+public class OpeningStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Zobrist hash of the position before the move, see Board.hash()
+    @Column(name = "position_hash", nullable = false)
+    private Long positionHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "game_type", nullable = false)
+    private GameType gameType;
+
+    // 16-bit encoded move, see MoveCodec
+    @Column(name = "move", nullable = false)
+    private Integer move;
+
+    @Column(name = "white_wins", nullable = false)
+    private long whiteWins;
+
+    @Column(name = "draws", nullable = false)
+    private long draws;
+
+    @Column(name = "black_wins", nullable = false)
+    private long blackWins;
+}
@@ -0,0 +1,43 @@
+package com.IndiChess.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "puzzles",
+        uniqueConstraints = @UniqueConstraint(name = "uk_puzzles_match_ply", columnNames = {"match_id", "ply"}),
+        indexes = @Index(name = "idx_puzzles_rating", columnList = "rating")
+)
+@Data
+public class Puzzle {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Source game and the ply the puzzle position comes after
+    @Column(name = "match_id", nullable = false)
+    private Long matchId;
+
+    @Column(nullable = false)
+    private Integer ply;
+
+    @Column(nullable = false, length = 200)
+    private String fen;
+
+    // UCI moves, space separated: solver, reply, solver, ...
+    @Column(nullable = false, length = 100)
+    private String solution;
+
+    @Column(nullable = false)
+    private int rating;
+
+    private int attempts;
+
+    private int solves;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,41 @@
+package com.IndiChess.Model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// A user's first attempt at a puzzle; only that one moves the ratings (see PuzzleService)
+@Entity
+@Table(name = "puzzle_attempts")
+@IdClass(PuzzleAttempt.Key.class)
+@Data
+public class PuzzleAttempt {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "puzzle_id")
+    private Long puzzleId;
+
+    @Column(nullable = false)
+    private boolean solved;
+
+    @Column(name = "attempted_at", nullable = false)
+    private LocalDateTime attemptedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Long userId;
+        private Long puzzleId;
+    }
+}
@@ -0,0 +1,24 @@
+package com.IndiChess.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "puzzle_ratings")
+@Data
+public class PuzzleRating {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    private int rating;
+
+    private int attempts;
+
+    private int solves;
+
+    private LocalDateTime updatedAt;
+}
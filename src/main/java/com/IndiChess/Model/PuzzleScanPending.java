@@ -0,0 +1,15 @@
+package com.IndiChess.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// A match the puzzle scan passed over while it was still ONGOING; retried on each run until it finishes
+@Entity
+@Table(name = "puzzle_scan_pending")
+@Data
+public class PuzzleScanPending {
+
+    @Id
+    @Column(name = "match_id")
+    private Long matchId;
+}
@@ -0,0 +1,24 @@
+package com.IndiChess.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Single row (id = 1) remembering how far the puzzle scan got through matches
+@Entity
+@Table(name = "puzzle_scan_state")
+@Data
+public class PuzzleScanState {
+
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    // Every match up to this id has been scanned or has a PuzzleScanPending row
+    @Column(name = "last_match_id", nullable = false)
+    private Long lastMatchId;
+
+    private LocalDateTime lastRunAt;
+}
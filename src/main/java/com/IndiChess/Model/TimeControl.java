@@ -0,0 +1,117 @@
+package com.IndiChess.Model;
+
+import java.util.Locale;
+
+/**
+ * Base time plus either a Fischer increment (added after every move) or a Bronstein
+ * delay (time used up to the delay is not charged). A base of a day or more is
+ * correspondence: the clock goes back to the base after every move.
+ *
+ * Written "3+2" (minutes + increment seconds), "5+3d" (3 s delay) or "3days"; this
+ * notation is also the stored form and the matchmaking pool key.
+ */
+public record TimeControl(long baseMs, long incrementMs, long delayMs) {
+
+    private static final long SECOND = 1000;
+    private static final long MINUTE = 60 * SECOND;
+    private static final long DAY = 24 * 60 * MINUTE;
+
+    public TimeControl {
+        if (baseMs <= 0) throw new IllegalArgumentException("Base time must be positive");
+        if (incrementMs < 0 || delayMs < 0) throw new IllegalArgumentException("Increment and delay cannot be negative");
+        if (incrementMs > 0 && delayMs > 0) throw new IllegalArgumentException("Use either an increment or a delay");
+    }
+
+    public static TimeControl of(double minutes, int incrementSeconds) {
+        return new TimeControl(Math.round(minutes * MINUTE), incrementSeconds * SECOND, 0);
+    }
+
+    public static TimeControl withDelay(double minutes, int delaySeconds) {
+        return new TimeControl(Math.round(minutes * MINUTE), 0, delaySeconds * SECOND);
+    }
+
+    public static TimeControl days(int daysPerMove) {
+        return new TimeControl(daysPerMove * DAY, 0, 0);
+    }
+
+    // Used where only a category is known (tournaments, engine games, old clients)
+    public static TimeControl defaultFor(GameType type) {
+        return switch (type == null ? GameType.RAPID : type) {
+            case BULLET -> of(1, 0);
+            case BLITZ -> of(3, 0);
+            case RAPID -> of(10, 0);
+            case CLASSICAL -> of(30, 20);
+            case CORRESPONDENCE -> days(3);
+        };
+    }
+
+    public static TimeControl parse(String notation) {
+        if (notation == null || notation.isBlank()) throw new IllegalArgumentException("Time control is required");
+        String s = notation.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (s.endsWith("days") || s.endsWith("day")) {
+                return days(Integer.parseInt(s.substring(0, s.indexOf('d')).trim()));
+            }
+            int plus = s.indexOf('+');
+            if (plus < 0) return of(Double.parseDouble(s), 0);
+            double minutes = Double.parseDouble(s.substring(0, plus));
+            String extra = s.substring(plus + 1);
+            if (extra.endsWith("d")) return withDelay(minutes, Integer.parseInt(extra.substring(0, extra.length() - 1)));
+            return of(minutes, Integer.parseInt(extra));
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid time control: " + notation);
+        }
+    }
+
+    // PGN TimeControl tag: "180+2", "600", "40/7200:3600" (first period); null for "-", "?" or sandglass
+    public static TimeControl fromPgn(String tag) {
+        if (tag == null) return null;
+        String s = tag.trim();
+        int colon = s.indexOf(':');
+        if (colon > 0) s = s.substring(0, colon);
+        int slash = s.indexOf('/');
+        if (slash >= 0) s = s.substring(slash + 1);
+        try {
+            int plus = s.indexOf('+');
+            long base = Long.parseLong(plus > 0 ? s.substring(0, plus) : s) * SECOND;
+            long increment = plus > 0 ? Long.parseLong(s.substring(plus + 1)) * SECOND : 0;
+            return new TimeControl(base, increment, 0);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public boolean isCorrespondence() {
+        return baseMs >= DAY;
+    }
+
+    // Same split as the big servers: base plus 40 moves of increment (or delay)
+    public GameType gameType() {
+        if (isCorrespondence()) return GameType.CORRESPONDENCE;
+        long estimated = baseMs + 40 * Math.max(incrementMs, delayMs);
+        if (estimated < 3 * MINUTE) return GameType.BULLET;
+        if (estimated < 8 * MINUTE) return GameType.BLITZ;
+        if (estimated < 25 * MINUTE) return GameType.RAPID;
+        return GameType.CLASSICAL;
+    }
+
+    public String notation() {
+        if (isCorrespondence()) return (baseMs / DAY) + "days";
+        String minutes = baseMs % MINUTE == 0
+                ? Long.toString(baseMs / MINUTE)
+                : stripZeros(baseMs / (double) MINUTE);
+        if (delayMs > 0) return minutes + "+" + delayMs / SECOND + "d";
+        return minutes + "+" + incrementMs / SECOND;
+    }
+
+    private static String stripZeros(double value) {
+        String s = String.format(Locale.ROOT, "%.4f", value);
+        s = s.replaceAll("0+$", "");
+        return s.endsWith(".") ? s.substring(0, s.length() - 1) : s;
+    }
+
+    @Override
+    public String toString() {
+        return notation();
+    }
+}
@@ -0,0 +1,19 @@
+package com.IndiChess.Model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores a TimeControl as its notation ("3+2"), which stays readable in SQL and exports
+@Converter(autoApply = true)
+public class TimeControlConverter implements AttributeConverter<TimeControl, String> {
+
+    @Override
+    public String convertToDatabaseColumn(TimeControl timeControl) {
+        return timeControl == null ? null : timeControl.notation();
+    }
+
+    @Override
+    public TimeControl convertToEntityAttribute(String notation) {
+        return notation == null ? null : TimeControl.parse(notation);
+    }
+}
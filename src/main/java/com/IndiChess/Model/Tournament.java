@@ -0,0 +1,51 @@
+package com.IndiChess.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Arena: a time-boxed event where players are re-paired as soon as their game ends.
+// Swiss: a fixed number of rounds, each paired once the previous one is over.
+@Entity
+@Table(name = "tournaments", indexes = @Index(name = "idx_tournaments_status_starts_at", columnList = "status, starts_at"))
+@Data
+public class Tournament {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TournamentFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "game_type", nullable = false)
+    private GameType gameType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TournamentStatus status;
+
+    @Column(name = "starts_at", nullable = false)
+    private LocalDateTime startsAt;
+
+    // Arena only
+    @Column(name = "ends_at")
+    private LocalDateTime endsAt;
+
+    // Swiss only
+    private Integer rounds;
+
+    @Column(name = "current_round", nullable = false)
+    private int currentRound;
+
+    @Column(name = "created_by", nullable = false)
+    private String createdBy;
+
+    private LocalDateTime createdAt;
+}
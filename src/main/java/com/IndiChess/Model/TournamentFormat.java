@@ -0,0 +1,6 @@
+package com.IndiChess.Model;
+
+public enum TournamentFormat {
+    ARENA,
+    SWISS
+}
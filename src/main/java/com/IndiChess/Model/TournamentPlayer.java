@@ -0,0 +1,59 @@
+package com.IndiChess.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "tournament_players",
+        uniqueConstraints = @UniqueConstraint(name = "uk_tournament_players_tournament_user",
+                columnNames = {"tournament_id", "user_id"}),
+        indexes = {
+                @Index(name = "idx_tournament_players_score", columnList = "tournament_id, score"),
+                @Index(name = "idx_tournament_players_changed", columnList = "tournament_id, changed_at")
+        }
+)
+@Data
+public class TournamentPlayer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tournament_id", nullable = false)
+    private Long tournamentId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String email;
+
+    private String name;
+
+    private int score;
+
+    private int games;
+
+    private int wins;
+
+    private int draws;
+
+    private int losses;
+
+    // Consecutive wins; from 2 on the player is "on fire" and scores double
+    private int streak;
+
+    // Swiss: rounds sat out with a full point
+    private int byes;
+
+    // False after withdrawing; the player keeps their score but is not paired
+    @Column(nullable = false)
+    private boolean active;
+
+    // Set on join and withdraw only, so the arena can pick up membership changes incrementally
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,7 @@
+package com.IndiChess.Model;
+
+public enum TournamentStatus {
+    CREATED,
+    RUNNING,
+    FINISHED
+}
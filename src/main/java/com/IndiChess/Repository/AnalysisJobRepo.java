@@ -0,0 +1,46 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.AnalysisJob;
+import com.IndiChess.Model.AnalysisStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AnalysisJobRepo extends JpaRepository<AnalysisJob, Long> {
+
+    Optional<AnalysisJob> findByMatchId(Long matchId);
+
+    // A second request for the same game is a no-op, even when two arrive at once
+    @Modifying
+    @Query(value = "insert into analysis_jobs (match_id, requested_by, status, priority, progress, total_plies, created_at) "
+            + "values (:matchId, :requestedBy, 'QUEUED', :priority, 0, :totalPlies, now()) "
+            + "on conflict (match_id) do nothing", nativeQuery = true)
+    int enqueue(@Param("matchId") Long matchId,
+                @Param("requestedBy") String requestedBy,
+                @Param("priority") long priority,
+                @Param("totalPlies") int totalPlies);
+
+    // Other nodes skip the rows locked here instead of waiting on them
+    @Query(value = "select * from analysis_jobs where status = 'QUEUED' "
+            + "order by priority desc, id limit :limit for update skip locked", nativeQuery = true)
+    List<AnalysisJob> lockQueued(@Param("limit") int limit);
+
+    @Modifying
+    @Query("update AnalysisJob j set j.progress = :progress where j.id = :id")
+    int updateProgress(@Param("id") Long id, @Param("progress") int progress);
+
+    // Jobs left RUNNING by a node that died go back in the queue
+    @Modifying
+    @Query("update AnalysisJob j set j.status = :queued, j.startedAt = null "
+            + "where j.status = :running and j.startedAt < :cutoff")
+    int requeueStale(@Param("queued") AnalysisStatus queued,
+                     @Param("running") AnalysisStatus running,
+                     @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,12 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.ArchivedGame;
+
+import java.util.List;
+
+// Custom ArchivedGameRepo fragment: plain inserts, without the select save() does for assigned ids
+public interface ArchivedGameBatchRepo {
+
+    // Inserts every blob in one JDBC batch
+    void insertAll(List<ArchivedGame> games);
+}
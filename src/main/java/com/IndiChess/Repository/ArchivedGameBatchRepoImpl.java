@@ -0,0 +1,41 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.ArchivedGame;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+public class ArchivedGameBatchRepoImpl implements ArchivedGameBatchRepo {
+
+    static final String INSERT_SQL = "insert into archived_games (match_id, data, archived_at) values (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ArchivedGameBatchRepoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<ArchivedGame> games) {
+        if (games.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ArchivedGame g = games.get(i);
+                ps.setLong(1, g.getMatchId());
+                ps.setBytes(2, g.getData());
+                ps.setTimestamp(3, Timestamp.valueOf(g.getArchivedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return games.size();
+            }
+        });
+    }
+}
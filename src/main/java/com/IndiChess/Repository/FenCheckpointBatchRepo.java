@@ -0,0 +1,12 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.FenCheckpoint;
+
+import java.util.List;
+
+// Custom FenCheckpointRepo fragment: plain inserts, without the select save() does for assigned ids
+public interface FenCheckpointBatchRepo {
+
+    // Inserts every checkpoint in one JDBC batch
+    void insertAll(List<FenCheckpoint> checkpoints);
+}
@@ -0,0 +1,40 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.FenCheckpoint;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+public class FenCheckpointBatchRepoImpl implements FenCheckpointBatchRepo {
+
+    static final String INSERT_SQL = "insert into fen_checkpoints (match_id, ply, fen) values (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FenCheckpointBatchRepoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<FenCheckpoint> checkpoints) {
+        if (checkpoints.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                FenCheckpoint c = checkpoints.get(i);
+                ps.setLong(1, c.getMatchId());
+                ps.setInt(2, c.getPly());
+                ps.setString(3, c.getFen());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return checkpoints.size();
+            }
+        });
+    }
+}
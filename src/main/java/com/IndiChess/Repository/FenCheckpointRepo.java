@@ -0,0 +1,22 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.FenCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface FenCheckpointRepo extends JpaRepository<FenCheckpoint, FenCheckpoint.Key>, FenCheckpointBatchRepo {
+
+    // Nearest checkpoint strictly before ply: one primary-key range probe
+    Optional<FenCheckpoint> findFirstByMatchIdAndPlyLessThanOrderByPlyDesc(Long matchId, Integer ply);
+
+    @Modifying
+    @Query("delete from FenCheckpoint c where c.matchId in :matchIds")
+    int deleteByMatchIds(@Param("matchIds") Collection<Long> matchIds);
+}
@@ -0,0 +1,12 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.Match;
+
+import java.util.List;
+
+// Custom MatchRepo fragment for bulk writes that JPA cannot batch with IDENTITY ids
+public interface MatchBatchRepo {
+
+    // Inserts all matches in one JDBC batch and sets their generated ids; players must already have ids
+    List<Match> insertAll(List<Match> matches);
+}
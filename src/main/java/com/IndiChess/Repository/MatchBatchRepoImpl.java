@@ -0,0 +1,83 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.Match;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+public class MatchBatchRepoImpl implements MatchBatchRepo {
+
+    // Must list every Match column (BatchInsertSqlTest checks it against the entity)
+    static final String INSERT_SQL = "insert into matches (player1_id, player2_id, status, game_type, "
+            + "current_turn_email, current_ply, fen_current, last_move_uci, white_clock_ms, black_clock_ms, last_move_time, "
+            + "packed_moves, started_at, finished_at, archived, engine_level, tournament_id, time_control, position_indexed) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MatchBatchRepoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Match> insertAll(List<Match> matches) {
+        if (matches.isEmpty()) return matches;
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Match m = matches.get(i);
+                        ps.setLong(1, m.getPlayer1().getId());
+                        setNullable(ps, 2, m.getPlayer2() != null ? m.getPlayer2().getId() : null, Types.BIGINT);
+                        setNullable(ps, 3, m.getStatus() != null ? m.getStatus().name() : null, Types.VARCHAR);
+                        setNullable(ps, 4, m.getGameType() != null ? m.getGameType().name() : null, Types.VARCHAR);
+                        setNullable(ps, 5, m.getCurrentTurnEmail(), Types.VARCHAR);
+                        setNullable(ps, 6, m.getCurrentPly(), Types.INTEGER);
+                        ps.setString(7, m.getFenCurrent());
+                        setNullable(ps, 8, m.getLastMoveUci(), Types.VARCHAR);
+                        setNullable(ps, 9, m.getWhiteClockMs(), Types.BIGINT);
+                        setNullable(ps, 10, m.getBlackClockMs(), Types.BIGINT);
+                        setNullable(ps, 11, m.getLastMoveTime(), Types.BIGINT);
+                        setNullable(ps, 12, m.getPackedMoves(), Types.BINARY);
+                        setNullable(ps, 13, m.getStartedAt(), Types.TIMESTAMP);
+                        setNullable(ps, 14, m.getFinishedAt(), Types.TIMESTAMP);
+                        ps.setBoolean(15, m.isArchived());
+                        setNullable(ps, 16, m.getEngineLevel(), Types.INTEGER);
+                        setNullable(ps, 17, m.getTournamentId(), Types.BIGINT);
+                        setNullable(ps, 18, m.getTimeControl() != null ? m.getTimeControl().notation() : null,
+                                Types.VARCHAR);
+                        ps.setBoolean(19, m.isPositionIndexed());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return matches.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < matches.size(); i++) {
+            matches.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+        return matches;
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, sqlType);
+        } else {
+            ps.setObject(index, value);
+        }
+    }
+}
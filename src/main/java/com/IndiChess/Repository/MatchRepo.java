@@ -1,11 +1,234 @@
 package com.IndiChess.Repository;
 
+import com.IndiChess.Model.GameType;
 import com.IndiChess.Model.Match;
+import com.IndiChess.Model.MatchStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface MatchRepo extends JpaRepository<Match, Long> {
+public interface MatchRepo extends JpaRepository<Match, Long>, MatchBatchRepo {
+    // Row lock held until the transaction ends, so changes to one game are applied one at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from Match m where m.id = :id")
+    Optional<Match> findByIdForUpdate(@Param("id") Long id);
+
+    // The same lock for a batch; taken in id order so two batches cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from Match m where m.id in :ids order by m.id")
+    List<Match> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
     // This allows the service to count games for a specific user email
     long countByPlayer1EmailOrPlayer2Email(String email1, String email2);
-}
\ No newline at end of file
+
+    // Only the columns needed to rebuild a position, without players or move rows
+    @Query("select m.packedMoves as packedMoves, a.data as archivedData "
+            + "from Match m left join ArchivedGame a on a.matchId = m.id where m.id = :id")
+    Optional<ReplayView> findReplayById(@Param("id") Long id);
+
+    @Query("select coalesce(m.currentPly, 0) from Match m where m.id = :id")
+    Optional<Integer> findCurrentPlyById(@Param("id") Long id);
+
+    String PGN_SELECT = "select m.id as id, m.status as status, m.gameType as gameType, "
+            + "m.startedAt as startedAt, p1.name as whiteName, p2.name as blackName, m.packedMoves as packedMoves, "
+            + "a.data as archivedData "
+            + "from Match m join m.player1 p1 left join m.player2 p2 left join ArchivedGame a on a.matchId = m.id ";
+
+    @Query(PGN_SELECT + "where m.id = :id")
+    Optional<PgnView> findPgnById(@Param("id") Long id);
+
+    // Cursor-backed stream of projections (nothing enters the persistence context);
+    // must be consumed inside a read-only transaction
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query(PGN_SELECT + "where p1.email = :email or p2.email = :email order by m.id")
+    Stream<PgnView> streamPgnByPlayerEmail(@Param("email") String email);
+
+    interface PgnView {
+        Long getId();
+
+        MatchStatus getStatus();
+
+        GameType getGameType();
+
+        LocalDateTime getStartedAt();
+
+        String getWhiteName();
+
+        String getBlackName();
+
+        byte[] getPackedMoves();
+
+        byte[] getArchivedData();
+    }
+
+    interface ReplayView {
+        byte[] getPackedMoves();
+
+        byte[] getArchivedData();
+    }
+
+    /* ================= PREMOVES ================= */
+
+    @Query("select m.status as status, p1.email as whiteEmail, p2.email as blackEmail "
+            + "from Match m join m.player1 p1 left join m.player2 p2 where m.id = :id")
+    Optional<PlayersView> findPlayersById(@Param("id") Long id);
+
+    interface PlayersView {
+        MatchStatus getStatus();
+
+        String getWhiteEmail();
+
+        String getBlackEmail();
+    }
+
+    @Query("select m.id from Match m where m.status = :status and m.id in :ids")
+    List<Long> findIdsByStatus(@Param("status") MatchStatus status, @Param("ids") Collection<Long> ids);
+
+    /* ================= PUZZLE SCAN ================= */
+
+    String PUZZLE_SOURCE_SELECT = "select m.id as id, m.status as status, m.packedMoves as packedMoves, "
+            + "a.data as archivedData from Match m left join ArchivedGame a on a.matchId = m.id ";
+
+    @Query(PUZZLE_SOURCE_SELECT + "where m.id > :afterId order by m.id")
+    List<PuzzleSourceView> findPuzzleSources(@Param("afterId") Long afterId, Pageable page);
+
+    @Query(PUZZLE_SOURCE_SELECT + "where m.id in :ids")
+    List<PuzzleSourceView> findPuzzleSourcesByIds(@Param("ids") Collection<Long> ids);
+
+    interface PuzzleSourceView {
+        Long getId();
+
+        MatchStatus getStatus();
+
+        byte[] getPackedMoves();
+
+        byte[] getArchivedData();
+    }
+
+    /* ================= TOURNAMENTS ================= */
+
+    String TOURNAMENT_GAME_SELECT = "select m.id as id, m.player1.id as whiteId, m.player2.id as blackId, "
+            + "m.status as status, m.currentPly as currentPly, m.finishedAt as finishedAt from Match m ";
+
+    @Query(TOURNAMENT_GAME_SELECT + "where m.tournamentId = :tid and m.finishedAt >= :since")
+    List<TournamentGameView> findTournamentGamesFinishedSince(@Param("tid") Long tournamentId,
+                                                              @Param("since") LocalDateTime since);
+
+    @Query(TOURNAMENT_GAME_SELECT + "where m.tournamentId = :tid and m.status = :status")
+    List<TournamentGameView> findTournamentGamesByStatus(@Param("tid") Long tournamentId,
+                                                         @Param("status") MatchStatus status);
+
+    boolean existsByTournamentIdAndStatus(Long tournamentId, MatchStatus status);
+
+    @Query(TOURNAMENT_GAME_SELECT + "where m.tournamentId = :tid order by m.id")
+    List<TournamentGameView> findTournamentGames(@Param("tid") Long tournamentId);
+
+    interface TournamentGameView {
+        Long getId();
+
+        Long getWhiteId();
+
+        Long getBlackId();
+
+        MatchStatus getStatus();
+
+        Integer getCurrentPly();
+
+        LocalDateTime getFinishedAt();
+    }
+
+    /* ================= CORRESPONDENCE ================= */
+
+    // Keyset pages of just the clock columns, to rebuild deadlines without loading games
+    @Query("select m.id as id, m.currentPly as currentPly, m.lastMoveTime as lastMoveTime, "
+            + "m.whiteClockMs as whiteClockMs, m.blackClockMs as blackClockMs from Match m "
+            + "where m.gameType = :type and m.status = :status and m.player2 is not null and m.id > :afterId "
+            + "order by m.id")
+    List<ClockView> findClocks(@Param("type") GameType type,
+                               @Param("status") MatchStatus status,
+                               @Param("afterId") Long afterId,
+                               Pageable page);
+
+    interface ClockView {
+        Long getId();
+
+        Integer getCurrentPly();
+
+        Long getLastMoveTime();
+
+        Long getWhiteClockMs();
+
+        Long getBlackClockMs();
+    }
+
+    @Query("select m from Match m join fetch m.player1 p1 left join fetch m.player2 p2 "
+            + "where m.gameType = :type and m.status = :status and (p1.email = :email or p2.email = :email) "
+            + "order by m.lastMoveTime")
+    List<Match> findPlayerGames(@Param("email") String email,
+                                @Param("type") GameType type,
+                                @Param("status") MatchStatus status);
+
+    /* ================= SWEEPER ================= */
+
+    // Range scan on (status, last_move_time); last_move_time is set at creation, so unjoined games match too
+    @Query("select m.id from Match m where m.status = :status and m.lastMoveTime < :before "
+            + "and m.gameType in :types and m.id > :afterId order by m.id")
+    List<Long> findStaleIds(@Param("status") MatchStatus status,
+                            @Param("before") Long before,
+                            @Param("types") Collection<GameType> types,
+                            @Param("afterId") Long afterId,
+                            Pageable page);
+
+    /* ================= LEGACY MOVE ROWS ================= */
+
+    @Query("select m.id from Match m where m.packedMoves is null and m.id > :afterId "
+            + "and exists (select 1 from Move r where r.match = m) order by m.id")
+    List<Long> findLegacyMoveIds(@Param("afterId") Long afterId, Pageable page);
+
+    /* ================= POSITION INDEX ================= */
+
+    @Query("select m.id from Match m where m.positionIndexed = false and m.status <> :ongoing "
+            + "and m.id > :afterId order by m.id")
+    List<Long> findUnindexedIds(@Param("ongoing") MatchStatus ongoing,
+                                @Param("afterId") long afterId,
+                                Pageable page);
+
+    @Modifying
+    @Query("update Match m set m.positionIndexed = true where m.id in :ids")
+    int markPositionIndexed(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Match m set m.positionIndexed = false where m.positionIndexed = true")
+    int clearPositionIndexed();
+
+    /* ================= ARCHIVAL ================= */
+
+    // Keyset page: ids after afterId, so games left unarchived never block the ones behind them
+    @Query("select m.id from Match m where m.archived = false and m.status <> :ongoing "
+            + "and m.finishedAt < :cutoff and m.id > :afterId order by m.id")
+    List<Long> findArchivableIds(@Param("ongoing") MatchStatus ongoing,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 @Param("afterId") long afterId,
+                                 Pageable page);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Match m set m.archived = true, m.packedMoves = null where m.id in :ids")
+    int markArchived(@Param("ids") Collection<Long> ids);
+}
@@ -2,8 +2,17 @@ package com.IndiChess.Repository;
 
 import com.IndiChess.Model.Move;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+
 @Repository
 public interface MoveRepo extends JpaRepository<Move, Long> {
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("delete from Move m where m.match.id in :matchIds")
+    int deleteByMatchIds(@Param("matchIds") Collection<Long> matchIds);
+}
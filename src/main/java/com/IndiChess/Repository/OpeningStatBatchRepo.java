@@ -0,0 +1,12 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.OpeningStat;
+
+import java.util.List;
+
+// Custom OpeningStatRepo fragment for counter upserts
+public interface OpeningStatBatchRepo {
+
+    // Adds each row's counts to the stored row (inserting it if missing) in one JDBC batch
+    void incrementAll(List<OpeningStat> deltas);
+}
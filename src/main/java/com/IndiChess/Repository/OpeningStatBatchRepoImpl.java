@@ -0,0 +1,56 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.OpeningStat;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+
+public class OpeningStatBatchRepoImpl implements OpeningStatBatchRepo {
+
+    private static final String UPSERT_SQL = "insert into opening_stats "
+            + "(position_hash, game_type, move, white_wins, draws, black_wins) values (?, ?, ?, ?, ?, ?) "
+            + "on conflict (position_hash, game_type, move) do update set "
+            + "white_wins = opening_stats.white_wins + excluded.white_wins, "
+            + "draws = opening_stats.draws + excluded.draws, "
+            + "black_wins = opening_stats.black_wins + excluded.black_wins";
+
+    // Same row order in every batch, so concurrent games cannot deadlock on hot rows
+    private static final Comparator<OpeningStat> LOCK_ORDER = Comparator
+            .comparing(OpeningStat::getPositionHash)
+            .thenComparing(OpeningStat::getGameType)
+            .thenComparing(OpeningStat::getMove);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OpeningStatBatchRepoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void incrementAll(List<OpeningStat> deltas) {
+        if (deltas.isEmpty()) return;
+
+        List<OpeningStat> ordered = deltas.stream().sorted(LOCK_ORDER).toList();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                OpeningStat s = ordered.get(i);
+                ps.setLong(1, s.getPositionHash());
+                ps.setString(2, s.getGameType().name());
+                ps.setInt(3, s.getMove());
+                ps.setLong(4, s.getWhiteWins());
+                ps.setLong(5, s.getDraws());
+                ps.setLong(6, s.getBlackWins());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ordered.size();
+            }
+        });
+    }
+}
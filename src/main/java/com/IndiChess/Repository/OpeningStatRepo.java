@@ -0,0 +1,13 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.OpeningStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OpeningStatRepo extends JpaRepository<OpeningStat, Long>, OpeningStatBatchRepo {
+
+    List<OpeningStat> findByPositionHash(Long positionHash);
+}
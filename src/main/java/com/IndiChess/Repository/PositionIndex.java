@@ -0,0 +1,528 @@
+package com.IndiChess.Repository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Position hash -> (matchId, ply) postings, kept out of the JPA heap.
+ *
+ * New postings go into a primitive in-memory buffer. When it fills up (or on flush())
+ * it is frozen and handed to a single background writer, which sorts it and writes an
+ * immutable segment file of interleaved (key, posting) longs, then memory-maps it and
+ * binary-searches it. Small segments are merged on the same thread. Frozen buffers and
+ * segments are published together as one View, so a reader sees every posting exactly
+ * once while a buffer moves to disk; callers never wait for the disk.
+ *
+ * The buffer does not survive a crash. Once a segment is on disk the ids of the games
+ * it completed go to the durable listener, which lets the caller re-add the rest on
+ * startup (see PositionSearchService). A game re-added after its segment was written
+ * shows up twice until compaction drops the duplicates; search() counts games, not
+ * postings, so it is still counted once.
+ */
+@Repository
+@Slf4j
+public class PositionIndex {
+
+    private static final long MAGIC = 0x4943504F53495831L; // "ICPOSIX1"
+    private static final int HEADER_LONGS = 2;             // magic, entry count
+    private static final long MAX_SEGMENT_ENTRIES = (Integer.MAX_VALUE / 16) - HEADER_LONGS;
+
+    public record Hits(long total, long[] postings) {
+    }
+
+    private record Segment(Path path, LongBuffer data, long count) {
+        long key(long i) {
+            return data.get((int) (HEADER_LONGS + 2 * i));
+        }
+
+        long posting(long i) {
+            return data.get((int) (HEADER_LONGS + 2 * i + 1));
+        }
+    }
+
+    // A full buffer waiting for the writer, with its hash chains; matchIds are the games whose last posting is in it
+    private record Frozen(long[] keys, long[] postings, int[] next, int[] heads, int size, long[] matchIds) {
+    }
+
+    // Everything searchable outside the live buffer, swapped as a whole
+    private record View(List<Frozen> frozen, List<Segment> segments) {
+    }
+
+    private final Path dir;
+    private final int memtableCapacity;
+    private final int maxSegments;
+    private final ExecutorService writer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long[] memKeys;
+    private long[] memPostings;
+    // Hash chains over the buffer: heads[bucket] and next[i] hold an entry index + 1, newest first
+    private int[] memNext;
+    private int[] memHeads;
+    private int memSize;
+    private long[] memGames = new long[64];
+    private int memGameCount;
+    private volatile View view = new View(List.of(), List.of());
+    private volatile Consumer<long[]> durableListener = matchIds -> { };
+    private final int loadedSegments;
+    private long nextSegmentId;
+
+    public PositionIndex(@Value("${indichess.position-index.dir:data/position-index}") String dir,
+                         @Value("${indichess.position-index.memtable-size:262144}") int memtableCapacity,
+                         @Value("${indichess.position-index.max-segments:8}") int maxSegments) throws IOException {
+        this.dir = Path.of(dir);
+        this.memtableCapacity = Math.max(1024, memtableCapacity);
+        this.maxSegments = Math.max(2, maxSegments);
+        newBuffer();
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "position-index-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Files.createDirectories(this.dir);
+        this.loadedSegments = loadSegments();
+    }
+
+    public static long posting(long matchId, int ply) {
+        return (matchId << 16) | (ply & 0xFFFF);
+    }
+
+    public static long matchIdOf(long posting) {
+        return posting >>> 16;
+    }
+
+    public static int plyOf(long posting) {
+        return (int) (posting & 0xFFFF);
+    }
+
+    /** Whether any segment was on disk at startup; false means the index has to be rebuilt. */
+    public boolean hadSegmentsOnStartup() {
+        return loadedSegments > 0;
+    }
+
+    /** Called on the writer thread with the ids of the games a new segment made durable. */
+    public void onDurable(Consumer<long[]> listener) {
+        this.durableListener = listener;
+    }
+
+    /* ================= WRITE ================= */
+
+    /** hashes[i] is the position after ply i + 1; an empty array only records the game as indexed. */
+    public void addGame(long matchId, long[] hashes) {
+        lock.lock();
+        try {
+            for (int i = 0; i < hashes.length; i++) {
+                if (memSize == memtableCapacity) freezeLocked();
+                int bucket = bucket(hashes[i], memHeads.length);
+                memKeys[memSize] = hashes[i];
+                memPostings[memSize] = posting(matchId, i + 1);
+                memNext[memSize] = memHeads[bucket];
+                memHeads[bucket] = memSize + 1;
+                memSize++;
+            }
+            if (memGameCount == memGames.length) memGames = Arrays.copyOf(memGames, memGameCount * 2);
+            memGames[memGameCount++] = matchId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Hands the buffer to the writer; returns without waiting for the disk. */
+    public void flush() {
+        lock.lock();
+        try {
+            freezeLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (writer.isShutdown()) return;
+        flush();
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Position index writer did not finish, unwritten games are re-added on startup");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void freezeLocked() {
+        if (memSize == 0 && memGameCount == 0) return;
+        if (writer.isShutdown()) {
+            // After close(); the games were never reported durable, so startup re-adds them
+            newBuffer();
+            return;
+        }
+        Frozen frozen = new Frozen(memKeys, memPostings, memNext, memHeads, memSize,
+                Arrays.copyOf(memGames, memGameCount));
+        newBuffer();
+
+        View current = view;
+        List<Frozen> pending = new ArrayList<>(current.frozen());
+        pending.add(frozen);
+        view = new View(List.copyOf(pending), current.segments());
+        writer.execute(() -> persist(frozen));
+    }
+
+    // The frozen buffer keeps the old arrays, readers may still be walking them
+    private void newBuffer() {
+        memKeys = new long[memtableCapacity];
+        memPostings = new long[memtableCapacity];
+        memNext = new int[memtableCapacity];
+        memHeads = new int[Integer.highestOneBit(memtableCapacity - 1) << 2];
+        memSize = 0;
+        memGameCount = 0;
+    }
+
+    private static int bucket(long key, int buckets) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & (buckets - 1);
+    }
+
+    // Writer thread only, so segments change on one thread and swaps never race each other
+    private void persist(Frozen frozen) {
+        try {
+            Segment segment = null;
+            if (frozen.size() > 0) {
+                long[] keys = Arrays.copyOf(frozen.keys(), frozen.size());
+                long[] postings = Arrays.copyOf(frozen.postings(), frozen.size());
+                sortPairs(keys, postings, 0, keys.length - 1);
+                segment = writeSegment(new EntryCursor() {
+                    int i;
+
+                    @Override
+                    public boolean next(long[] out) {
+                        if (i >= keys.length) return false;
+                        out[0] = keys[i];
+                        out[1] = postings[i++];
+                        return true;
+                    }
+                });
+            }
+
+            lock.lock();
+            try {
+                View current = view;
+                List<Frozen> pending = new ArrayList<>(current.frozen());
+                pending.remove(frozen);
+                List<Segment> updated = new ArrayList<>(current.segments());
+                if (segment != null) updated.add(segment);
+                view = new View(List.copyOf(pending), List.copyOf(updated));
+            } finally {
+                lock.unlock();
+            }
+        } catch (RuntimeException e) {
+            // The buffer stays searchable; its games are not reported durable, so startup re-adds them
+            log.error("Could not write position index segment", e);
+            return;
+        }
+
+        try {
+            durableListener.accept(frozen.matchIds());
+        } catch (RuntimeException e) {
+            log.warn("Could not record {} games as indexed: {}", frozen.matchIds().length, e.getMessage());
+        }
+
+        if (view.segments().size() > maxSegments) {
+            try {
+                compact();
+            } catch (RuntimeException e) {
+                log.error("Position index compaction failed", e);
+            }
+        }
+    }
+
+    /* ================= READ ================= */
+
+    /**
+     * Up to {@code limit} postings for the key, one per game and recent ones first, plus
+     * the exact number of distinct games that reach it. Buffers are probed through their
+     * hash chains, segments by binary search.
+     */
+    public Hits search(long key, int limit) {
+        long[] out = new long[Math.max(0, limit)];
+        LongSet seen = new LongSet();
+        int found;
+        View snapshot;
+
+        lock.lock();
+        try {
+            found = collect(memKeys, memPostings, memNext, memHeads, key, seen, out, 0);
+            // Taken with the buffer so a posting being frozen is seen exactly once
+            snapshot = view;
+        } finally {
+            lock.unlock();
+        }
+
+        for (int f = snapshot.frozen().size() - 1; f >= 0; f--) {
+            Frozen frozen = snapshot.frozen().get(f);
+            found = collect(frozen.keys(), frozen.postings(), frozen.next(), frozen.heads(), key, seen, out, found);
+        }
+
+        List<Segment> segments = snapshot.segments();
+        for (int s = segments.size() - 1; s >= 0; s--) {
+            Segment segment = segments.get(s);
+            long lo = lowerBound(segment, key);
+            long hi = lo;
+            while (hi < segment.count() && segment.key(hi) == key) hi++;
+            long last = -1;
+            for (long i = hi - 1; i >= lo; i--) {
+                long posting = segment.posting(i);
+                long matchId = matchIdOf(posting);
+                // Sorted by posting, so a game's repeats of the position sit together
+                if (matchId == last) continue;
+                last = matchId;
+                if (seen.add(matchId) && found < out.length) out[found++] = posting;
+            }
+        }
+        return new Hits(seen.size(), Arrays.copyOf(out, found));
+    }
+
+    private static int collect(long[] keys, long[] postings, int[] next, int[] heads, long key,
+                               LongSet seen, long[] out, int found) {
+        for (int i = heads[bucket(key, heads.length)] - 1; i >= 0; i = next[i] - 1) {
+            if (keys[i] != key) continue;
+            if (seen.add(matchIdOf(postings[i])) && found < out.length) out[found++] = postings[i];
+        }
+        return found;
+    }
+
+    private static long lowerBound(Segment segment, long key) {
+        long lo = 0;
+        long hi = segment.count();
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (segment.key(mid) < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /* ================= SEGMENT FILES ================= */
+
+    private interface EntryCursor {
+        boolean next(long[] out);
+    }
+
+    // Entries must come sorted; repeated (key, posting) pairs are written once
+    private Segment writeSegment(EntryCursor entries) {
+        Path path = dir.resolve(String.format("segment-%010d.pix", nextSegmentId++));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20);
+            buf.putLong(MAGIC).putLong(0);
+            long[] entry = new long[2];
+            long count = 0;
+            long prevKey = 0;
+            long prevPosting = -1;
+            while (entries.next(entry)) {
+                if (entry[0] == prevKey && entry[1] == prevPosting) continue;
+                prevKey = entry[0];
+                prevPosting = entry[1];
+                if (buf.remaining() < 16) {
+                    buf.flip();
+                    while (buf.hasRemaining()) channel.write(buf);
+                    buf.clear();
+                }
+                buf.putLong(entry[0]).putLong(entry[1]);
+                count++;
+            }
+            buf.flip();
+            while (buf.hasRemaining()) channel.write(buf);
+            ByteBuffer header = ByteBuffer.allocate(8).putLong(0, count);
+            while (header.hasRemaining()) channel.write(header, 8 + header.position());
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write position index segment " + path, e);
+        }
+        return map(path);
+    }
+
+    private Segment map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            LongBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asLongBuffer();
+            if (data.get(0) != MAGIC) throw new IOException("Bad magic");
+            return new Segment(path, data, data.get(1));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map position index segment " + path, e);
+        }
+    }
+
+    private int loadSegments() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "segment-*.pix")) {
+            files.forEach(paths::add);
+        }
+        paths.sort(Comparator.comparing(Path::toString));
+
+        List<Segment> loaded = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            loaded.add(map(path));
+            String name = path.getFileName().toString();
+            long id = Long.parseLong(name.substring("segment-".length(), name.length() - ".pix".length()));
+            nextSegmentId = Math.max(nextSegmentId, id + 1);
+        }
+        view = new View(List.of(), List.copyOf(loaded));
+        log.info("🔎 Position index: {} segments loaded from {}", loaded.size(), dir);
+        return loaded.size();
+    }
+
+    /* ================= COMPACTION ================= */
+
+    // Merges the smallest segments into one, keeping each file mappable as a single buffer
+    private void compact() {
+        List<Segment> bySize = new ArrayList<>(view.segments());
+        bySize.sort(Comparator.comparingLong(Segment::count));
+        List<Segment> merge = new ArrayList<>();
+        long total = 0;
+        for (Segment s : bySize) {
+            if (total + s.count() > MAX_SEGMENT_ENTRIES) break;
+            merge.add(s);
+            total += s.count();
+        }
+        if (merge.size() < 2) return;
+
+        long[] cursors = new long[merge.size()];
+        Segment merged = writeSegment(out -> {
+            int best = -1;
+            for (int i = 0; i < cursors.length; i++) {
+                if (cursors[i] >= merge.get(i).count()) continue;
+                if (best < 0 || compare(merge.get(i).key(cursors[i]), merge.get(i).posting(cursors[i]),
+                        merge.get(best).key(cursors[best]), merge.get(best).posting(cursors[best])) < 0) best = i;
+            }
+            if (best < 0) return false;
+            out[0] = merge.get(best).key(cursors[best]);
+            out[1] = merge.get(best).posting(cursors[best]);
+            cursors[best]++;
+            return true;
+        });
+
+        List<Path> mergedPaths = merge.stream().map(Segment::path).toList();
+        lock.lock();
+        try {
+            View current = view;
+            List<Segment> updated = new ArrayList<>();
+            for (Segment s : current.segments()) {
+                if (!mergedPaths.contains(s.path())) updated.add(s);
+            }
+            updated.add(merged); // newest file name, so the order survives a restart
+            view = new View(current.frozen(), List.copyOf(updated));
+        } finally {
+            lock.unlock();
+        }
+
+        // Readers still holding the old view keep their mappings after the files are unlinked
+        for (Segment s : merge) {
+            try {
+                Files.deleteIfExists(s.path());
+            } catch (IOException e) {
+                log.warn("Could not delete merged segment {}", s.path());
+            }
+        }
+        log.info("🔎 Position index: merged {} segments ({} entries)", merge.size(), merged.count());
+    }
+
+    /* ================= MATCH ID SET ================= */
+
+    // Open addressing over positive ids (0 marks a free slot), so counting a popular position does not box
+    private static final class LongSet {
+        private long[] slots = new long[64];
+        private int size;
+
+        boolean add(long id) {
+            if (2 * (size + 1) > slots.length) grow();
+            int mask = slots.length - 1;
+            for (int i = bucket(id, slots.length); ; i = (i + 1) & mask) {
+                if (slots[i] == id) return false;
+                if (slots[i] == 0) {
+                    slots[i] = id;
+                    size++;
+                    return true;
+                }
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void grow() {
+            long[] old = slots;
+            slots = new long[old.length * 2];
+            size = 0;
+            for (long id : old) {
+                if (id != 0) add(id);
+            }
+        }
+    }
+
+    /* ================= SORT ================= */
+
+    private static void sortPairs(long[] keys, long[] values, int lo, int hi) {
+        while (hi - lo > 16) {
+            int mid = (lo + hi) >>> 1;
+            long pk = keys[mid];
+            long pv = values[mid];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (compare(keys[i], values[i], pk, pv) < 0) i++;
+                while (compare(keys[j], values[j], pk, pv) > 0) j--;
+                if (i <= j) {
+                    swap(keys, values, i++, j--);
+                }
+            }
+            // Recurse into the smaller half to bound stack depth
+            if (j - lo < hi - i) {
+                sortPairs(keys, values, lo, j);
+                lo = i;
+            } else {
+                sortPairs(keys, values, i, hi);
+                hi = j;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && compare(keys[j - 1], values[j - 1], keys[j], values[j]) > 0; j--) {
+                swap(keys, values, j, j - 1);
+            }
+        }
+    }
+
+    private static int compare(long k1, long v1, long k2, long v2) {
+        int c = Long.compare(k1, k2);
+        return c != 0 ? c : Long.compare(v1, v2);
+    }
+
+    private static void swap(long[] keys, long[] values, int a, int b) {
+        long k = keys[a];
+        keys[a] = keys[b];
+        keys[b] = k;
+        long v = values[a];
+        values[a] = values[b];
+        values[b] = v;
+    }
+}
@@ -0,0 +1,21 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.PuzzleAttempt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PuzzleAttemptRepo extends JpaRepository<PuzzleAttempt, PuzzleAttempt.Key> {
+
+    // 1 for the user's first attempt at the puzzle, 0 for any later one, even when two arrive at once
+    @Modifying
+    @Query(value = "insert into puzzle_attempts (user_id, puzzle_id, solved, attempted_at) "
+            + "values (:userId, :puzzleId, :solved, now()) "
+            + "on conflict (user_id, puzzle_id) do nothing", nativeQuery = true)
+    int recordFirst(@Param("userId") Long userId,
+                    @Param("puzzleId") Long puzzleId,
+                    @Param("solved") boolean solved);
+}
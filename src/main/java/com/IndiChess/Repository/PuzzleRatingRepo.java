@@ -0,0 +1,9 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.PuzzleRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PuzzleRatingRepo extends JpaRepository<PuzzleRating, Long> {
+}
@@ -0,0 +1,23 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.Puzzle;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PuzzleRepo extends JpaRepository<Puzzle, Long> {
+
+    @Query("select p from Puzzle p order by p.id desc")
+    List<Puzzle> findRecent(Pageable pageable);
+
+    @Modifying
+    @Query("update Puzzle p set p.rating = :rating, p.attempts = p.attempts + 1, "
+            + "p.solves = p.solves + :solved where p.id = :id")
+    int recordAttempt(@Param("id") Long id, @Param("rating") int rating, @Param("solved") int solved);
+}
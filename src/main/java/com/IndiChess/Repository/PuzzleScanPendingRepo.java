@@ -0,0 +1,27 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.PuzzleScanPending;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PuzzleScanPendingRepo extends JpaRepository<PuzzleScanPending, Long> {
+
+    @Query("select p.matchId from PuzzleScanPending p order by p.matchId")
+    List<Long> findAllMatchIds();
+
+    @Modifying
+    @Query(value = "insert into puzzle_scan_pending (match_id) values (:matchId) "
+            + "on conflict (match_id) do nothing", nativeQuery = true)
+    int add(@Param("matchId") Long matchId);
+
+    @Modifying
+    @Query("delete from PuzzleScanPending p where p.matchId in :matchIds")
+    int deleteByMatchIds(@Param("matchIds") Collection<Long> matchIds);
+}
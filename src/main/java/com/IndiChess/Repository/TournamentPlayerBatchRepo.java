@@ -0,0 +1,12 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.TournamentPlayer;
+
+import java.util.Collection;
+
+// Custom TournamentPlayerRepo fragment for the arena's write-behind of scores
+public interface TournamentPlayerBatchRepo {
+
+    // Writes only the score columns, so a concurrent join or withdraw is never overwritten
+    void updateScores(Collection<TournamentPlayer> players);
+}
@@ -0,0 +1,49 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.TournamentPlayer;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+public class TournamentPlayerBatchRepoImpl implements TournamentPlayerBatchRepo {
+
+    private static final String UPDATE_SQL = "update tournament_players set score = ?, games = ?, wins = ?, "
+            + "draws = ?, losses = ?, streak = ?, byes = ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TournamentPlayerBatchRepoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void updateScores(Collection<TournamentPlayer> players) {
+        if (players.isEmpty()) return;
+
+        List<TournamentPlayer> ordered = players.stream().sorted(Comparator.comparing(TournamentPlayer::getId)).toList();
+        jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                TournamentPlayer p = ordered.get(i);
+                ps.setInt(1, p.getScore());
+                ps.setInt(2, p.getGames());
+                ps.setInt(3, p.getWins());
+                ps.setInt(4, p.getDraws());
+                ps.setInt(5, p.getLosses());
+                ps.setInt(6, p.getStreak());
+                ps.setInt(7, p.getByes());
+                ps.setLong(8, p.getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ordered.size();
+            }
+        });
+    }
+}
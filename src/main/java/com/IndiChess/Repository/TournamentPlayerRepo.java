@@ -0,0 +1,40 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.TournamentPlayer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TournamentPlayerRepo extends JpaRepository<TournamentPlayer, Long>, TournamentPlayerBatchRepo {
+
+    // Joins, rejoins and withdrawals since the cursor (inclusive; applying one twice is harmless)
+    @Query("select p from TournamentPlayer p where p.tournamentId = :tid and p.changedAt >= :since order by p.changedAt")
+    List<TournamentPlayer> findChangedSince(@Param("tid") Long tournamentId, @Param("since") LocalDateTime since);
+
+    @Query("select p from TournamentPlayer p where p.tournamentId = :tid order by p.score desc, p.wins desc, p.id")
+    List<TournamentPlayer> findStandings(@Param("tid") Long tournamentId, Pageable page);
+
+    long countByTournamentId(Long tournamentId);
+
+    List<TournamentPlayer> findByTournamentId(Long tournamentId);
+
+    @Modifying
+    @Query(value = "insert into tournament_players (tournament_id, user_id, email, name, score, games, wins, draws, "
+            + "losses, streak, byes, active, changed_at) values (:tid, :uid, :email, :name, 0, 0, 0, 0, 0, 0, 0, true, now()) "
+            + "on conflict (tournament_id, user_id) do update set active = true, changed_at = now()",
+            nativeQuery = true)
+    int join(@Param("tid") Long tournamentId, @Param("uid") Long userId,
+             @Param("email") String email, @Param("name") String name);
+
+    @Modifying
+    @Query(value = "update tournament_players set active = false, changed_at = now() "
+            + "where tournament_id = :tid and user_id = :uid", nativeQuery = true)
+    int withdraw(@Param("tid") Long tournamentId, @Param("uid") Long userId);
+}
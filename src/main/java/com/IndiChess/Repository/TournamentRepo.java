@@ -0,0 +1,36 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.Tournament;
+import com.IndiChess.Model.TournamentFormat;
+import com.IndiChess.Model.TournamentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TournamentRepo extends JpaRepository<Tournament, Long> {
+
+    List<Tournament> findByStatusInOrderByStartsAtAsc(Collection<TournamentStatus> statuses);
+
+    List<Tournament> findByFormatAndStatus(TournamentFormat format, TournamentStatus status);
+
+    @Query("select t from Tournament t where t.format = :format and t.status = :created and t.startsAt <= :now")
+    List<Tournament> findDue(@Param("format") TournamentFormat format, @Param("created") TournamentStatus created,
+                             @Param("now") LocalDateTime now);
+
+    // Conditional, so only one node wins a start or finish
+    @Modifying
+    @Query("update Tournament t set t.status = :to where t.id = :id and t.status = :from")
+    int transition(@Param("id") Long id, @Param("from") TournamentStatus from, @Param("to") TournamentStatus to);
+
+    // Swiss: claims the next round, so it is paired exactly once
+    @Modifying
+    @Query("update Tournament t set t.currentRound = t.currentRound + 1 where t.id = :id and t.currentRound = :round")
+    int advanceRound(@Param("id") Long id, @Param("round") int round);
+}
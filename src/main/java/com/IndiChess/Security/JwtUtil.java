@@ -1,5 +1,6 @@
 package com.IndiChess.Security;
 
+import com.IndiChess.Service.GameMetrics;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -21,6 +22,12 @@ public class JwtUtil {
 
     private final long EXPIRATION = 24 * 60 * 60 * 1000;
 
+    private final GameMetrics metrics;
+
+    public JwtUtil(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     public String generateToken(String email) {
         return Jwts.builder()
                 .setSubject(email)
@@ -40,11 +47,16 @@ public class JwtUtil {
     }
 
     public boolean validateToken(String token) {
+        long start = System.nanoTime();
+        boolean valid = false;
         try {
             extractEmail(token);
-            return true;
+            valid = true;
         } catch (JwtException e) {
-            return false;
+            // invalid, expired or tampered
+        } finally {
+            metrics.jwtVerified(valid, System.nanoTime() - start);
         }
+        return valid;
     }
 }
@@ -0,0 +1,298 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Chess.Board;
+import com.IndiChess.Chess.GameCodec;
+import com.IndiChess.Chess.MoveCodec;
+import com.IndiChess.Chess.PackedMoves;
+import com.IndiChess.Engine.Engine;
+import com.IndiChess.Engine.GameAnalysis;
+import com.IndiChess.Engine.SearchLimits;
+import com.IndiChess.Engine.SearchResult;
+import com.IndiChess.Engine.TranspositionTable;
+import com.IndiChess.Model.AnalysisJob;
+import com.IndiChess.Model.AnalysisStatus;
+import com.IndiChess.Model.Match;
+import com.IndiChess.Model.MatchStatus;
+import com.IndiChess.Repository.AnalysisJobRepo;
+import com.IndiChess.Repository.MatchRepo;
+import com.IndiChess.dto.AnalysisDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Post-game analysis through a persistent queue in analysis_jobs. A dispatcher claims
+ * jobs with SKIP LOCKED only while a worker is free, so the queue can be shared by
+ * several nodes. Workers are few, low priority and use their own engine and table,
+ * keeping analysis away from the threads and hash entries live games depend on.
+ */
+@Service
+@Slf4j
+public class AnalysisService {
+
+    private static final String[] MARK_NAMES = {null, "INACCURACY", "MISTAKE", "BLUNDER"};
+    private static final int PROGRESS_WRITE_EVERY = 10;
+
+    private final AnalysisJobRepo jobRepository;
+    private final MatchRepo matchRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate tx;
+    private final ThreadPoolExecutor workers;
+    private final Semaphore freeWorkers;
+    private final Engine engine;
+    private final int depth;
+    private final long msPerPosition;
+    private final long staleAfterMs;
+
+    public AnalysisService(AnalysisJobRepo jobRepository,
+                           MatchRepo matchRepository,
+                           SimpMessagingTemplate messagingTemplate,
+                           PlatformTransactionManager transactionManager,
+                           EndgameService endgameService,
+                           @Value("${indichess.analysis.workers:0}") int workerCount,
+                           @Value("${indichess.analysis.hash-mb:32}") int hashMb,
+                           @Value("${indichess.analysis.depth:12}") int depth,
+                           @Value("${indichess.analysis.ms-per-position:300}") long msPerPosition,
+                           @Value("${indichess.analysis.stale-after-ms:900000}") long staleAfterMs) {
+        this.jobRepository = jobRepository;
+        this.matchRepository = matchRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.depth = depth;
+        this.msPerPosition = msPerPosition;
+        this.staleAfterMs = staleAfterMs;
+
+        int size = workerCount > 0 ? workerCount : Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        AtomicInteger counter = new AtomicInteger();
+        // The database is the queue: a job is only claimed while a worker permit is free
+        this.freeWorkers = new Semaphore(size);
+        this.workers = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "analysis-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.engine = new Engine(new TranspositionTable(hashMb), null, endgameService::tables);
+    }
+
+    /* ================= REQUESTS ================= */
+
+    @Transactional
+    public AnalysisDTO request(Long matchId, String email) {
+        Match match = matchRepository.findById(matchId)
+                .orElseThrow(() -> new RuntimeException("Match not found"));
+
+        if (match.getStatus() == MatchStatus.ONGOING) {
+            throw new RuntimeException("Game is not finished");
+        }
+        boolean isPlayer = email.equals(match.getPlayer1().getEmail())
+                || (match.getPlayer2() != null && email.equals(match.getPlayer2().getEmail()));
+        if (!isPlayer) {
+            throw new RuntimeException("You are not in this match");
+        }
+
+        Optional<AnalysisJob> existing = jobRepository.findByMatchId(matchId);
+        if (existing.isPresent()) {
+            AnalysisJob job = existing.get();
+            if (job.getStatus() == AnalysisStatus.FAILED) {
+                job.setStatus(AnalysisStatus.QUEUED);
+                job.setRequestedBy(email);
+                job.setProgress(0);
+                job.setError(null);
+                jobRepository.save(job);
+            }
+            return toDto(job, false);
+        }
+
+        LocalDateTime finished = match.getFinishedAt() != null ? match.getFinishedAt() : LocalDateTime.now();
+        long priority = finished.atZone(ZoneId.systemDefault()).toEpochSecond();
+        jobRepository.enqueue(matchId, email, priority, match.getCurrentPly() != null ? match.getCurrentPly() : 0);
+        log.info("🔬 Analysis requested for match {} by {}", matchId, email);
+
+        return jobRepository.findByMatchId(matchId)
+                .map(job -> toDto(job, false))
+                .orElseThrow(() -> new RuntimeException("Analysis could not be queued"));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<AnalysisDTO> getAnalysis(Long matchId) {
+        return jobRepository.findByMatchId(matchId).map(job -> toDto(job, true));
+    }
+
+    /* ================= DISPATCH ================= */
+
+    @Scheduled(fixedDelayString = "${indichess.analysis.poll-interval-ms:1000}")
+    public void dispatch() {
+        while (freeWorkers.tryAcquire()) {
+            AnalysisJob job;
+            try {
+                job = tx.execute(status -> claim());
+            } catch (RuntimeException e) {
+                freeWorkers.release();
+                throw e;
+            }
+            if (job == null) {
+                freeWorkers.release();
+                return;
+            }
+            workers.execute(() -> {
+                try {
+                    run(job);
+                } finally {
+                    freeWorkers.release();
+                }
+            });
+        }
+    }
+
+    private AnalysisJob claim() {
+        List<AnalysisJob> jobs = jobRepository.lockQueued(1);
+        if (jobs.isEmpty()) return null;
+        AnalysisJob job = jobs.get(0);
+        job.setStatus(AnalysisStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        return jobRepository.save(job);
+    }
+
+    @Scheduled(fixedDelayString = "${indichess.analysis.stale-check-ms:300000}")
+    public void requeueStaleJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(staleAfterMs * 1_000_000L);
+        Integer requeued = tx.execute(status ->
+                jobRepository.requeueStale(AnalysisStatus.QUEUED, AnalysisStatus.RUNNING, cutoff));
+        if (requeued != null && requeued > 0) {
+            log.warn("Requeued {} stale analysis jobs", requeued);
+        }
+    }
+
+    /* ================= WORKER ================= */
+
+    private void run(AnalysisJob job) {
+        try {
+            byte[] packed = loadMoves(job.getMatchId());
+            job.setTotalPlies(PackedMoves.size(packed));
+            notifyProgress(job);
+
+            byte[] result = analyse(job, packed);
+
+            job.setResult(result);
+            job.setProgress(job.getTotalPlies());
+            job.setStatus(AnalysisStatus.DONE);
+            job.setFinishedAt(LocalDateTime.now());
+            log.info("🔬 Analysis done for match {} ({} plies)", job.getMatchId(), job.getTotalPlies());
+        } catch (RuntimeException e) {
+            job.setStatus(AnalysisStatus.FAILED);
+            job.setError(e.getMessage());
+            job.setFinishedAt(LocalDateTime.now());
+            log.error("❌ Analysis failed for match {}: {}", job.getMatchId(), e.getMessage());
+        }
+        tx.executeWithoutResult(status -> jobRepository.save(job));
+        notifyProgress(job);
+    }
+
+    private byte[] loadMoves(Long matchId) {
+        MatchRepo.ReplayView view = matchRepository.findReplayById(matchId)
+                .orElseThrow(() -> new RuntimeException("Match not found"));
+        return view.getArchivedData() != null
+                ? GameArchiveService.decompress(view.getArchivedData())
+                : view.getPackedMoves();
+    }
+
+    private byte[] analyse(AnalysisJob job, byte[] packed) {
+        int plies = PackedMoves.size(packed);
+        long[] keys = new long[plies + 1];
+        Board board = Board.startPosition();
+
+        // Scores are from the side to move; index i is the position after i plies
+        int[] scores = new int[plies + 1];
+        int[] bestMoves = new int[plies + 1];
+        for (int i = 0; i <= plies; i++) {
+            SearchResult r = engine.search(board, Arrays.copyOf(keys, i),
+                    new SearchLimits(depth, msPerPosition, 1, 0));
+            scores[i] = r.move() == MoveCodec.NONE ? GameAnalysis.terminalScore(board.inCheck()) : r.score();
+            bestMoves[i] = r.move();
+
+            if (i < plies) {
+                keys[i] = board.hash();
+                board.play(PackedMoves.get(packed, i));
+                job.setProgress(i + 1);
+                if ((i + 1) % PROGRESS_WRITE_EVERY == 0) {
+                    int progress = i + 1;
+                    tx.executeWithoutResult(status -> jobRepository.updateProgress(job.getId(), progress));
+                }
+                notifyProgress(job);
+            }
+        }
+
+        List<GameAnalysis.PlyAnalysis> result = new ArrayList<>(plies);
+        for (int ply = 1; ply <= plies; ply++) {
+            int played = PackedMoves.get(packed, ply - 1);
+            // scores[ply] is from the opponent's side, so negate for the mover
+            int mark = played == bestMoves[ply - 1] ? GameAnalysis.MARK_NONE
+                    : GameAnalysis.mark(scores[ply - 1], -scores[ply]);
+            boolean whiteToMoveAfter = ply % 2 == 0;
+            int evalAfter = whiteToMoveAfter ? scores[ply] : -scores[ply];
+            result.add(new GameAnalysis.PlyAnalysis(ply, evalAfter, bestMoves[ply - 1], mark));
+        }
+        return GameAnalysis.encode(result);
+    }
+
+    private void notifyProgress(AnalysisJob job) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("matchId", job.getMatchId());
+        payload.put("status", job.getStatus());
+        payload.put("progress", job.getProgress());
+        payload.put("totalPlies", job.getTotalPlies());
+        messagingTemplate.convertAndSendToUser(job.getRequestedBy(), "/queue/analysis", payload);
+    }
+
+    /* ================= MAPPING ================= */
+
+    private AnalysisDTO toDto(AnalysisJob job, boolean withPlies) {
+        List<AnalysisDTO.PlyDTO> plies = null;
+        if (withPlies && job.getStatus() == AnalysisStatus.DONE) {
+            plies = new ArrayList<>();
+            List<GameCodec.DecodedMove> moves = GameCodec.decode(loadMoves(job.getMatchId()));
+            for (GameAnalysis.PlyAnalysis p : GameAnalysis.decode(job.getResult())) {
+                if (p.ply() > moves.size()) break;
+                GameCodec.DecodedMove move = moves.get(p.ply() - 1);
+                int mateIn = p.mateIn();
+                String bestSan = p.bestMove() != MoveCodec.NONE
+                        ? Board.fromFen(move.fenBefore()).toSan(p.bestMove()) : null;
+                plies.add(new AnalysisDTO.PlyDTO(
+                        p.ply(),
+                        move.san(),
+                        mateIn == 0 ? p.evalAfter() : null,
+                        mateIn,
+                        p.bestMove() != MoveCodec.NONE ? MoveCodec.toUci(p.bestMove()) : null,
+                        bestSan,
+                        MARK_NAMES[p.mark()]));
+            }
+        }
+        return new AnalysisDTO(job.getMatchId(), job.getStatus(), job.getProgress(), job.getTotalPlies(), plies);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,387 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Cluster.ClusterRouter;
+import com.IndiChess.Model.*;
+import com.IndiChess.Repository.MatchRepo;
+import com.IndiChess.Repository.TournamentPlayerRepo;
+import com.IndiChess.Repository.TournamentRepo;
+import com.IndiChess.Repository.UserRepository;
+import com.IndiChess.dto.ArenaStandingsDTO;
+import com.IndiChess.dto.MatchDTO;
+import com.IndiChess.dto.TournamentDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Arena tournaments. The node owning a tournament keeps its live state in memory and
+ * drives it from a single scheduled tick: it picks up joins/withdrawals and finished
+ * games from the database, scores them, pairs everyone waiting in one batch and writes
+ * changed scores back. Standings go out on /topic/tournament/{id}/standings, coalesced
+ * to at most one broadcast per interval.
+ *
+ * Joining, withdrawing and playing can happen on any node; only the tick is owned.
+ */
+@Service
+@Slf4j
+public class ArenaService {
+
+    private static final int WIN = 2;
+    private static final int DRAW = 1;
+    private static final int FIRE_STREAK = 2;
+    // Rows committed out of order can carry a slightly older timestamp than the cursor
+    private static final long CURSOR_OVERLAP_SECONDS = 30;
+    private static final int MAX_DURATION_MINUTES = 24 * 60;
+
+    private final TournamentRepo tournamentRepository;
+    private final TournamentPlayerRepo playerRepository;
+    private final MatchRepo matchRepository;
+    private final UserRepository userRepository;
+    private final MatchService matchService;
+    private final ClusterRouter clusterRouter;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate tx;
+    private final long standingsIntervalMs;
+    private final int standingsBroadcastSize;
+
+    // Only touched by the tick thread
+    private final Map<Long, Arena> arenas = new HashMap<>();
+
+    public ArenaService(TournamentRepo tournamentRepository,
+                        TournamentPlayerRepo playerRepository,
+                        MatchRepo matchRepository,
+                        UserRepository userRepository,
+                        MatchService matchService,
+                        ClusterRouter clusterRouter,
+                        SimpMessagingTemplate messagingTemplate,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${indichess.arena.standings-interval-ms:2000}") long standingsIntervalMs,
+                        @Value("${indichess.arena.standings-broadcast-size:50}") int standingsBroadcastSize) {
+        this.tournamentRepository = tournamentRepository;
+        this.playerRepository = playerRepository;
+        this.matchRepository = matchRepository;
+        this.userRepository = userRepository;
+        this.matchService = matchService;
+        this.clusterRouter = clusterRouter;
+        this.messagingTemplate = messagingTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.standingsIntervalMs = standingsIntervalMs;
+        this.standingsBroadcastSize = standingsBroadcastSize;
+    }
+
+    private static final class Arena {
+        final Tournament tournament;
+        final Map<Long, TournamentPlayer> players = new HashMap<>(); // by user id
+        final Set<Long> waiting = new LinkedHashSet<>();
+        final Set<Long> playing = new HashSet<>();
+        final Set<Long> activeGames = new HashSet<>();
+        final Map<Long, Long> lastOpponent = new HashMap<>();
+        final Map<Long, Integer> colorBalance = new HashMap<>(); // whites minus blacks
+        final Set<TournamentPlayer> dirty = new HashSet<>();
+        LocalDateTime memberCursor = LocalDateTime.of(2000, 1, 1, 0, 0);
+        LocalDateTime gameCursor;
+        boolean standingsChanged = true;
+        long lastBroadcast;
+
+        Arena(Tournament tournament) {
+            this.tournament = tournament;
+            this.gameCursor = tournament.getStartsAt();
+        }
+    }
+
+    /* ================= CREATE / JOIN ================= */
+
+    @Transactional
+    public TournamentDTO create(String email, String name, GameType gameType, LocalDateTime startsAt, int minutes) {
+        if (name == null || name.isBlank()) throw new RuntimeException("Tournament name is required");
+        if (minutes < 1 || minutes > MAX_DURATION_MINUTES) {
+            throw new RuntimeException("Duration must be between 1 and " + MAX_DURATION_MINUTES + " minutes");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = startsAt == null || startsAt.isBefore(now) ? now : startsAt;
+
+        Tournament t = new Tournament();
+        t.setName(name.trim());
+        t.setFormat(TournamentFormat.ARENA);
+        t.setGameType(gameType);
+        t.setStatus(TournamentStatus.CREATED);
+        t.setStartsAt(start);
+        t.setEndsAt(start.plusMinutes(minutes));
+        t.setCreatedBy(email);
+        t.setCreatedAt(now);
+        Tournament saved = tournamentRepository.save(t);
+        log.info("🏆 Arena {} '{}' created by {} ({} min)", saved.getId(), saved.getName(), email, minutes);
+        return TournamentDTO.of(saved, 0);
+    }
+
+    @Transactional
+    public void join(String email, Long tournamentId) {
+        Tournament t = tournamentRepository.findById(tournamentId)
+                .orElseThrow(() -> new RuntimeException("Tournament not found"));
+        if (t.getStatus() == TournamentStatus.FINISHED) throw new RuntimeException("Tournament is over");
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        playerRepository.join(tournamentId, user.getId(), user.getEmail(), user.getName());
+    }
+
+    @Transactional
+    public void withdraw(String email, Long tournamentId) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (playerRepository.withdraw(tournamentId, user.getId()) == 0) {
+            throw new RuntimeException("Not in this tournament");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<TournamentDTO> upcomingAndRunning() {
+        return tournamentRepository
+                .findByStatusInOrderByStartsAtAsc(List.of(TournamentStatus.CREATED, TournamentStatus.RUNNING))
+                .stream()
+                .map(t -> TournamentDTO.of(t, playerRepository.countByTournamentId(t.getId())))
+                .toList();
+    }
+
+    // From the database, so any node can answer
+    @Transactional(readOnly = true)
+    public ArenaStandingsDTO standings(Long tournamentId, int page, int size) {
+        Tournament t = tournamentRepository.findById(tournamentId)
+                .orElseThrow(() -> new RuntimeException("Tournament not found"));
+        List<TournamentPlayer> rows = playerRepository.findStandings(tournamentId, PageRequest.of(page, size));
+        return new ArenaStandingsDTO(tournamentId, t.getStatus(),
+                (int) playerRepository.countByTournamentId(tournamentId), toRows(rows, page * size));
+    }
+
+    /* ================= TICK ================= */
+
+    @Scheduled(fixedDelayString = "${indichess.arena.tick-ms:1000}")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        startDue(now);
+
+        for (Tournament t : tournamentRepository.findByFormatAndStatus(TournamentFormat.ARENA, TournamentStatus.RUNNING)) {
+            if (!clusterRouter.ownsKey("tournament:" + t.getId())) {
+                arenas.remove(t.getId());
+                continue;
+            }
+            Arena arena = arenas.computeIfAbsent(t.getId(), id -> load(t));
+            try {
+                step(arena, now);
+            } catch (RuntimeException e) {
+                log.error("❌ Arena {} tick failed: {}", t.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void startDue(LocalDateTime now) {
+        for (Tournament t : tournamentRepository.findDue(TournamentFormat.ARENA, TournamentStatus.CREATED, now)) {
+            if (!clusterRouter.ownsKey("tournament:" + t.getId())) continue;
+            Integer started = tx.execute(s ->
+                    tournamentRepository.transition(t.getId(), TournamentStatus.CREATED, TournamentStatus.RUNNING));
+            if (started != null && started == 1) {
+                log.info("🏆 Arena {} started", t.getId());
+            }
+        }
+    }
+
+    // Rebuilds the live state of a running arena (first tick, restart or ownership change)
+    private Arena load(Tournament t) {
+        Arena arena = new Arena(t);
+        for (MatchRepo.TournamentGameView game
+                : matchRepository.findTournamentGamesByStatus(t.getId(), MatchStatus.ONGOING)) {
+            arena.activeGames.add(game.getId());
+            arena.playing.add(game.getWhiteId());
+            arena.playing.add(game.getBlackId());
+        }
+        return arena;
+    }
+
+    private void step(Arena arena, LocalDateTime now) {
+        applyMembership(arena);
+        applyResults(arena);
+
+        if (!now.isBefore(arena.tournament.getEndsAt())) {
+            finish(arena);
+            return;
+        }
+        pair(arena);
+        flush(arena);
+        broadcastStandings(arena, false);
+    }
+
+    private void applyMembership(Arena arena) {
+        List<TournamentPlayer> changed = playerRepository.findChangedSince(arena.tournament.getId(),
+                arena.memberCursor.minusSeconds(CURSOR_OVERLAP_SECONDS));
+        for (TournamentPlayer row : changed) {
+            TournamentPlayer known = arena.players.get(row.getUserId());
+            if (known == null) {
+                arena.players.put(row.getUserId(), row);
+                known = row;
+                arena.standingsChanged = true;
+            }
+            known.setActive(row.isActive());
+            if (!row.isActive()) {
+                arena.waiting.remove(row.getUserId());
+            } else if (!arena.playing.contains(row.getUserId())) {
+                arena.waiting.add(row.getUserId());
+            }
+            if (row.getChangedAt().isAfter(arena.memberCursor)) arena.memberCursor = row.getChangedAt();
+        }
+    }
+
+    private void applyResults(Arena arena) {
+        if (arena.activeGames.isEmpty()) return;
+        List<MatchRepo.TournamentGameView> finished = matchRepository.findTournamentGamesFinishedSince(
+                arena.tournament.getId(), arena.gameCursor.minusSeconds(CURSOR_OVERLAP_SECONDS));
+        for (MatchRepo.TournamentGameView game : finished) {
+            if (!arena.activeGames.remove(game.getId())) continue; // already scored
+            if (game.getFinishedAt().isAfter(arena.gameCursor)) arena.gameCursor = game.getFinishedAt();
+
+            score(arena, game.getWhiteId(), game.getStatus() == MatchStatus.WHITE_WIN, game.getStatus());
+            score(arena, game.getBlackId(), game.getStatus() == MatchStatus.BLACK_WIN, game.getStatus());
+            for (Long userId : List.of(game.getWhiteId(), game.getBlackId())) {
+                arena.playing.remove(userId);
+                TournamentPlayer p = arena.players.get(userId);
+                if (p != null && p.isActive()) arena.waiting.add(userId);
+            }
+        }
+    }
+
+    private static void score(Arena arena, Long userId, boolean won, MatchStatus result) {
+        TournamentPlayer p = arena.players.get(userId);
+        if (p == null) return;
+        boolean onFire = p.getStreak() >= FIRE_STREAK;
+        boolean draw = result == MatchStatus.DRAW;
+        boolean decisive = result == MatchStatus.WHITE_WIN || result == MatchStatus.BLACK_WIN;
+        if (!draw && !decisive) return; // aborted games do not count
+
+        p.setGames(p.getGames() + 1);
+        if (won) {
+            p.setWins(p.getWins() + 1);
+            p.setScore(p.getScore() + (onFire ? 2 * WIN : WIN));
+            p.setStreak(p.getStreak() + 1);
+        } else if (draw) {
+            p.setDraws(p.getDraws() + 1);
+            p.setScore(p.getScore() + (onFire ? 2 * DRAW : DRAW));
+            p.setStreak(0);
+        } else {
+            p.setLosses(p.getLosses() + 1);
+            p.setStreak(0);
+        }
+        arena.dirty.add(p);
+        arena.standingsChanged = true;
+    }
+
+    /* ================= PAIRING ================= */
+
+    // Players of similar score meet; an immediate rematch is avoided when anyone else is waiting
+    private void pair(Arena arena) {
+        if (arena.waiting.size() < 2) return;
+
+        List<Long> pool = new ArrayList<>(arena.waiting);
+        Collections.shuffle(pool);
+        pool.sort(Comparator.comparingInt((Long id) -> arena.players.get(id).getScore()).reversed());
+
+        List<MatchService.Pairing> pairings = new ArrayList<>(pool.size() / 2);
+        boolean[] used = new boolean[pool.size()];
+        for (int i = 0; i < pool.size(); i++) {
+            if (used[i]) continue;
+            Long a = pool.get(i);
+            int partner = -1;
+            for (int j = i + 1; j < pool.size() && j <= i + 4; j++) {
+                if (used[j]) continue;
+                if (partner < 0) partner = j;
+                if (!pool.get(j).equals(arena.lastOpponent.get(a))) {
+                    partner = j;
+                    break;
+                }
+            }
+            if (partner < 0) continue; // nobody free in reach; later players may still pair up
+            used[i] = true;
+            used[partner] = true;
+            Long b = pool.get(partner);
+            int balanceA = arena.colorBalance.getOrDefault(a, 0);
+            int balanceB = arena.colorBalance.getOrDefault(b, 0);
+            boolean aWhite = balanceA != balanceB ? balanceA < balanceB : (i & 1) == 0;
+            pairings.add(aWhite ? new MatchService.Pairing(a, b) : new MatchService.Pairing(b, a));
+        }
+        if (pairings.isEmpty()) return;
+
+        List<Match> matches = matchService.createPairings(pairings, arena.tournament.getGameType(), arena.tournament.getId());
+        for (Match match : matches) {
+            Long white = match.getPlayer1().getId();
+            Long black = match.getPlayer2().getId();
+            arena.waiting.remove(white);
+            arena.waiting.remove(black);
+            arena.playing.add(white);
+            arena.playing.add(black);
+            arena.activeGames.add(match.getId());
+            arena.lastOpponent.put(white, black);
+            arena.lastOpponent.put(black, white);
+            arena.colorBalance.merge(white, 1, Integer::sum);
+            arena.colorBalance.merge(black, -1, Integer::sum);
+
+            // Same destination as the matchmaking queue, so clients open the game the same way
+            MatchDTO dto = MatchDTO.fromMatch(match);
+            messagingTemplate.convertAndSend("/topic/matchmaking/" + match.getPlayer1().getEmail(), dto);
+            messagingTemplate.convertAndSend("/topic/matchmaking/" + match.getPlayer2().getEmail(), dto);
+        }
+        log.debug("🏆 Arena {}: {} pairings, {} still waiting", arena.tournament.getId(), matches.size(), arena.waiting.size());
+    }
+
+    /* ================= STANDINGS ================= */
+
+    private void flush(Arena arena) {
+        if (arena.dirty.isEmpty()) return;
+        List<TournamentPlayer> batch = new ArrayList<>(arena.dirty);
+        tx.executeWithoutResult(s -> playerRepository.updateScores(batch));
+        arena.dirty.clear();
+    }
+
+    private void broadcastStandings(Arena arena, boolean force) {
+        long now = System.currentTimeMillis();
+        if (!arena.standingsChanged || (!force && now - arena.lastBroadcast < standingsIntervalMs)) return;
+
+        List<TournamentPlayer> top = arena.players.values().stream()
+                .sorted(Comparator.comparingInt(TournamentPlayer::getScore).reversed()
+                        .thenComparing(Comparator.comparingInt(TournamentPlayer::getWins).reversed())
+                        .thenComparing(TournamentPlayer::getId))
+                .limit(standingsBroadcastSize)
+                .toList();
+        messagingTemplate.convertAndSend("/topic/tournament/" + arena.tournament.getId() + "/standings",
+                new ArenaStandingsDTO(arena.tournament.getId(), arena.tournament.getStatus(),
+                        arena.players.size(), toRows(top, 0)));
+        arena.standingsChanged = false;
+        arena.lastBroadcast = now;
+    }
+
+    private void finish(Arena arena) {
+        flush(arena);
+        tx.execute(s -> tournamentRepository.transition(arena.tournament.getId(),
+                TournamentStatus.RUNNING, TournamentStatus.FINISHED));
+        arena.tournament.setStatus(TournamentStatus.FINISHED);
+        arena.standingsChanged = true;
+        broadcastStandings(arena, true);
+        arenas.remove(arena.tournament.getId());
+        log.info("🏁 Arena {} finished with {} players", arena.tournament.getId(), arena.players.size());
+    }
+
+    private static List<ArenaStandingsDTO.Row> toRows(List<TournamentPlayer> players, int offset) {
+        List<ArenaStandingsDTO.Row> rows = new ArrayList<>(players.size());
+        for (int i = 0; i < players.size(); i++) {
+            TournamentPlayer p = players.get(i);
+            rows.add(new ArenaStandingsDTO.Row(offset + i + 1, p.getEmail(), p.getName(), p.getScore(), p.getGames(),
+                    p.getWins(), p.getDraws(), p.getLosses(), p.getStreak() >= FIRE_STREAK, p.isActive()));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,8 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Model.MatchStatus;
+
+// A move was made in a correspondence game; deadlineMs is when the side to move flags (0 once finished)
+public record CorrespondenceMoveEvent(Long matchId, String whiteEmail, String blackEmail, String toMoveEmail,
+                                      String lastMoveUci, MatchStatus status, long deadlineMs) {
+}
@@ -0,0 +1,187 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Cluster.ClusterRouter;
+import com.IndiChess.Model.GameType;
+import com.IndiChess.Model.Match;
+import com.IndiChess.Model.MatchStatus;
+import com.IndiChess.Repository.MatchRepo;
+import com.IndiChess.dto.CorrespondenceDigestDTO;
+import com.IndiChess.dto.MatchDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Correspondence games (days per move). Between moves a game is nothing but its row:
+ * no clock state, no cache entry, no socket. A move loads the row like any other game.
+ *
+ * The only thing held per game is its flag deadline in a coarse {@link DeadlineWheel},
+ * rebuilt from the clock columns at startup for the games this node owns. Players are
+ * not pinged per move; their events are coalesced into one digest per interval on
+ * /topic/correspondence/{email}, keeping only the latest event of each game.
+ */
+@Service
+@Slf4j
+public class CorrespondenceService {
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final int FLAG_BATCH_SIZE = 500;
+
+    private final MatchRepo matchRepository;
+    private final MatchService matchService;
+    private final ClusterRouter clusterRouter;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final DeadlineWheel wheel;
+
+    // email -> matchId -> latest event since the last digest
+    private final Map<String, Map<Long, CorrespondenceDigestDTO.Item>> pending = new ConcurrentHashMap<>();
+
+    public CorrespondenceService(MatchRepo matchRepository,
+                                 MatchService matchService,
+                                 ClusterRouter clusterRouter,
+                                 SimpMessagingTemplate messagingTemplate,
+                                 @Value("${indichess.correspondence.tick-ms:60000}") long tickMs,
+                                 @Value("${indichess.correspondence.wheel-slots:16384}") int wheelSlots) {
+        this.matchRepository = matchRepository;
+        this.matchService = matchService;
+        this.clusterRouter = clusterRouter;
+        this.messagingTemplate = messagingTemplate;
+        this.wheel = new DeadlineWheel(tickMs, wheelSlots, System.currentTimeMillis());
+    }
+
+    /* ================= DEADLINES ================= */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long afterId = 0;
+        int tracked = 0;
+        List<MatchRepo.ClockView> page;
+        do {
+            page = matchRepository.findClocks(GameType.CORRESPONDENCE, MatchStatus.ONGOING, afterId,
+                    PageRequest.of(0, REBUILD_PAGE_SIZE));
+            synchronized (wheel) {
+                for (MatchRepo.ClockView view : page) {
+                    afterId = view.getId();
+                    if (!clusterRouter.ownsMatch(view.getId())) continue;
+                    long deadline = deadlineOf(view);
+                    if (deadline > 0) {
+                        wheel.add(view.getId(), deadline);
+                        tracked++;
+                    }
+                }
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        log.info("📬 Tracking {} correspondence deadlines", tracked);
+    }
+
+    // White's first move is untimed, so a game without moves has no deadline
+    private static long deadlineOf(MatchRepo.ClockView view) {
+        Integer ply = view.getCurrentPly();
+        if (ply == null || ply == 0 || view.getLastMoveTime() == null) return 0;
+        Long clock = ply % 2 == 0 ? view.getWhiteClockMs() : view.getBlackClockMs();
+        return clock == null ? 0 : view.getLastMoveTime() + clock;
+    }
+
+    @TransactionalEventListener
+    public void onMove(CorrespondenceMoveEvent event) {
+        if (event.deadlineMs() > 0) {
+            // The previous deadline stays in the wheel and is discarded when it fires
+            synchronized (wheel) {
+                wheel.add(event.matchId(), event.deadlineMs());
+            }
+        }
+        if (event.status() == MatchStatus.ONGOING) {
+            String opponent = event.toMoveEmail().equals(event.whiteEmail()) ? event.blackEmail() : event.whiteEmail();
+            queue(event.toMoveEmail(), new CorrespondenceDigestDTO.Item(event.matchId(),
+                    CorrespondenceDigestDTO.Kind.YOUR_TURN, opponent, event.lastMoveUci(), event.deadlineMs(),
+                    event.status()));
+        } else {
+            queueFinished(event.matchId(), event.whiteEmail(), event.blackEmail(), event.lastMoveUci(), event.status());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${indichess.correspondence.tick-ms:60000}")
+    public void expire() {
+        // A game can fire more than once if a move re-armed it; each id is checked once
+        Set<Long> expired = new LinkedHashSet<>();
+        synchronized (wheel) {
+            wheel.advance(System.currentTimeMillis(), expired::add);
+        }
+        if (expired.isEmpty()) return;
+
+        List<Long> ids = new ArrayList<>(expired);
+        for (int from = 0; from < ids.size(); from += FLAG_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + FLAG_BATCH_SIZE));
+            try {
+                for (Match match : matchService.flagExpiredCorrespondence(batch)) {
+                    messagingTemplate.convertAndSend("/topic/game/" + match.getId(), MatchDTO.fromMatch(match));
+                    queueFinished(match.getId(), match.getPlayer1().getEmail(), match.getPlayer2().getEmail(),
+                            match.getLastMoveUci(), match.getStatus());
+                }
+            } catch (RuntimeException e) {
+                log.error("Flagging {} correspondence games failed, retrying next tick", batch.size(), e);
+                long retryAt = System.currentTimeMillis() + 1;
+                synchronized (wheel) {
+                    for (Long id : batch) wheel.add(id, retryAt);
+                }
+            }
+        }
+    }
+
+    /* ================= DIGESTS ================= */
+
+    private void queueFinished(Long matchId, String white, String black, String lastMoveUci, MatchStatus status) {
+        queue(white, new CorrespondenceDigestDTO.Item(matchId, CorrespondenceDigestDTO.Kind.FINISHED, black,
+                lastMoveUci, null, status));
+        queue(black, new CorrespondenceDigestDTO.Item(matchId, CorrespondenceDigestDTO.Kind.FINISHED, white,
+                lastMoveUci, null, status));
+    }
+
+    private void queue(String email, CorrespondenceDigestDTO.Item item) {
+        pending.compute(email, (key, items) -> {
+            if (items == null) items = new LinkedHashMap<>();
+            items.put(item.matchId(), item);
+            return items;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${indichess.correspondence.digest-interval-ms:300000}")
+    public void sendDigests() {
+        int sent = 0;
+        for (String email : new ArrayList<>(pending.keySet())) {
+            Map<Long, CorrespondenceDigestDTO.Item> items = pending.remove(email);
+            if (items == null || items.isEmpty()) continue;
+            List<CorrespondenceDigestDTO.Item> sorted = new ArrayList<>(items.values());
+            sorted.sort(Comparator.comparing(CorrespondenceDigestDTO.Item::matchId));
+            messagingTemplate.convertAndSend("/topic/correspondence/" + email,
+                    new CorrespondenceDigestDTO(email, sorted));
+            sent++;
+        }
+        if (sent > 0) log.debug("📬 Sent {} correspondence digests", sent);
+    }
+
+    /* ================= QUERIES ================= */
+
+    @Transactional(readOnly = true)
+    public List<MatchDTO> myGames(String email) {
+        return matchRepository.findPlayerGames(email, GameType.CORRESPONDENCE, MatchStatus.ONGOING).stream()
+                .map(MatchDTO::fromMatch)
+                .toList();
+    }
+}
@@ -0,0 +1,119 @@
+package com.IndiChess.Service;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A coarse timing wheel for deadlines that are hours or days away. Each slot covers
+ * {@code tickMs} and holds (id, deadline) pairs in a primitive array, so a tracked
+ * deadline costs 16 bytes and no objects. Deadlines beyond the wheel's span wait in an
+ * overflow slot and are filed into the wheel once it has turned close enough.
+ *
+ * Entries are never removed: when a deadline moves, the caller adds the new one and
+ * checks expired ids against the source of truth. Not thread-safe; callers synchronize.
+ */
+final class DeadlineWheel {
+
+    private final long tickMs;
+    private final Slot[] slots;
+    private final Slot overflow = new Slot();
+    private long currentTick;
+    private long lastRefileTick;
+    private long size;
+
+    private static final class Slot {
+        long[] data = new long[0]; // id, deadline, id, deadline, ...
+        int count;
+
+        void add(long id, long deadline) {
+            if (2 * count == data.length) data = Arrays.copyOf(data, Math.max(8, data.length * 2));
+            data[2 * count] = id;
+            data[2 * count + 1] = deadline;
+            count++;
+        }
+
+        void clear() {
+            count = 0;
+            if (data.length > 64) data = new long[0]; // give back the memory of a busy slot
+        }
+    }
+
+    DeadlineWheel(long tickMs, int slotCount, long nowMs) {
+        this.tickMs = tickMs;
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) slots[i] = new Slot();
+        this.currentTick = nowMs / tickMs;
+        this.lastRefileTick = currentTick;
+    }
+
+    void add(long id, long deadlineMs) {
+        file(id, deadlineMs);
+        size++;
+    }
+
+    private void file(long id, long deadlineMs) {
+        long tick = Math.max(currentTick, deadlineMs / tickMs);
+        if (tick - currentTick >= slots.length) {
+            overflow.add(id, deadlineMs);
+        } else {
+            slots[(int) (tick % slots.length)].add(id, deadlineMs);
+        }
+    }
+
+    /** Hands every id whose deadline is at or before {@code nowMs} to {@code expired}; returns how many. */
+    int advance(long nowMs, LongConsumer expired) {
+        long target = nowMs / tickMs;
+        int fired = 0;
+        // After a long pause, one pass over the wheel covers every slot
+        long from = Math.max(currentTick, target - slots.length + 1);
+        for (long tick = from; tick <= target; tick++) {
+            Slot slot = slots[(int) (tick % slots.length)];
+            int kept = 0;
+            for (int i = 0; i < slot.count; i++) {
+                long id = slot.data[2 * i];
+                long deadline = slot.data[2 * i + 1];
+                if (deadline <= nowMs) {
+                    expired.accept(id);
+                    fired++;
+                } else {
+                    slot.data[2 * kept] = id;
+                    slot.data[2 * kept + 1] = deadline;
+                    kept++;
+                }
+            }
+            if (kept == 0) slot.clear();
+            else slot.count = kept;
+        }
+        currentTick = Math.max(currentTick, target);
+        // Everything in overflow is at least a full span past the last refile, so every half turn is soon enough
+        if (currentTick - lastRefileTick >= slots.length / 2) {
+            lastRefileTick = currentTick;
+            fired += refileOverflow(nowMs, expired);
+        }
+        size -= fired;
+        return fired;
+    }
+
+    private int refileOverflow(long nowMs, LongConsumer expired) {
+        if (overflow.count == 0) return 0;
+        long[] pending = Arrays.copyOf(overflow.data, 2 * overflow.count);
+        int count = overflow.count;
+        overflow.clear();
+        int fired = 0;
+        for (int i = 0; i < count; i++) {
+            long id = pending[2 * i];
+            long deadline = pending[2 * i + 1];
+            if (deadline <= nowMs) {
+                expired.accept(id);
+                fired++;
+            } else {
+                file(id, deadline);
+            }
+        }
+        return fired;
+    }
+
+    long size() {
+        return size;
+    }
+}
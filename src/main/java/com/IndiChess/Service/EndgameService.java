@@ -0,0 +1,59 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Chess.Board;
+import com.IndiChess.Engine.Bitbases;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+
+/**
+ * Owns the endgame bitbases. They are generated into the data directory on the first
+ * start (tens of seconds, on a background thread) and memory-mapped afterwards; until
+ * then every probe answers UNKNOWN.
+ */
+@Service
+@Slf4j
+public class EndgameService {
+
+    private final Path dir;
+    private final boolean enabled;
+    private volatile Bitbases bitbases;
+
+    public EndgameService(@Value("${indichess.bitbase.dir:data/bitbases}") String dir,
+                          @Value("${indichess.bitbase.enabled:true}") boolean enabled) {
+        this.dir = Path.of(dir);
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) return;
+
+        Thread loader = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                bitbases = Bitbases.loadOrGenerate(dir);
+                log.info("♟️ Endgame bitbases ready in {} ms ({})", System.currentTimeMillis() - start, dir);
+            } catch (RuntimeException e) {
+                log.error("❌ Endgame bitbases unavailable: {}", e.getMessage());
+            }
+        }, "bitbase-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /** The loaded tables, or null while they are still being generated. */
+    public Bitbases tables() {
+        return bitbases;
+    }
+
+    /** Bitbases.WIN / DRAW / LOSS for the side to move, or UNKNOWN. */
+    public int probe(Board board) {
+        Bitbases tables = bitbases;
+        return tables != null ? tables.probe(board) : Bitbases.UNKNOWN;
+    }
+}
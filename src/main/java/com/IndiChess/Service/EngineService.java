@@ -0,0 +1,144 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Chess.Board;
+import com.IndiChess.Chess.MoveCodec;
+import com.IndiChess.Chess.PackedMoves;
+import com.IndiChess.Engine.Engine;
+import com.IndiChess.Engine.SearchLimits;
+import com.IndiChess.Engine.SearchResult;
+import com.IndiChess.Engine.TranspositionTable;
+import com.IndiChess.Model.Match;
+import com.IndiChess.Model.MatchStatus;
+import com.IndiChess.Repository.MatchRepo;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays the engine side of computer matches. Engine turns are queued on a bounded
+ * executor so a search never runs on a STOMP inbound or HTTP thread; each search
+ * borrows helper threads from one fixed pool shared by all games.
+ */
+@Service
+@Slf4j
+public class EngineService {
+
+    public static final String ENGINE_EMAIL = "engine@indichess.local";
+    public static final String ENGINE_NAME = "IndiChess Engine";
+    public static final int MIN_LEVEL = 1;
+    public static final int MAX_LEVEL = 8;
+
+    // Indexed by level - 1
+    private static final int[] LEVEL_DEPTH = {1, 2, 3, 4, 6, 8, 12, 64};
+    private static final long[] LEVEL_TIME_MS = {50, 100, 200, 400, 800, 1500, 3000, 10000};
+    private static final int[] LEVEL_NOISE = {200, 120, 80, 40, 20, 0, 0, 0};
+
+    // Share of the remaining clock one move may use
+    private static final int MOVES_TO_GO = 30;
+    private static final long MIN_MOVE_TIME_MS = 50;
+
+    private final MatchRepo matchRepository;
+    private final GamePlayService gamePlay;
+    private final GameClock gameClock;
+    private final int searchThreads;
+    private final ThreadPoolExecutor moveExecutor;
+    private final ExecutorService helperPool;
+    private final Engine engine;
+
+    public EngineService(MatchRepo matchRepository,
+                         GamePlayService gamePlay,
+                         GameClock gameClock,
+                         EndgameService endgameService,
+                         @Value("${indichess.engine.threads:0}") int threads,
+                         @Value("${indichess.engine.hash-mb:64}") int hashMb,
+                         @Value("${indichess.engine.max-concurrent-games:2}") int maxConcurrentGames,
+                         @Value("${indichess.engine.queue-capacity:256}") int queueCapacity) {
+        this.matchRepository = matchRepository;
+        this.gamePlay = gamePlay;
+        this.gameClock = gameClock;
+        this.searchThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        this.moveExecutor = new ThreadPoolExecutor(maxConcurrentGames, maxConcurrentGames, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), daemonThreads("engine-move-"));
+        this.helperPool = Executors.newFixedThreadPool(Math.max(1, searchThreads - 1), daemonThreads("engine-search-"));
+        this.engine = new Engine(new TranspositionTable(hashMb), helperPool, endgameService::tables);
+        log.info("🤖 Engine ready: {} search threads, {} MB hash", searchThreads, hashMb);
+    }
+
+    @TransactionalEventListener
+    public void onEngineTurn(EngineTurnEvent event) {
+        try {
+            moveExecutor.execute(() -> play(event.matchId()));
+        } catch (RejectedExecutionException e) {
+            log.warn("Engine queue full, match {} waits for its next trigger", event.matchId());
+        }
+    }
+
+    private void play(Long matchId) {
+        try {
+            Match match = matchRepository.findById(matchId).orElse(null);
+            if (match == null || match.getStatus() != MatchStatus.ONGOING || match.getEngineLevel() == null
+                    || !ENGINE_EMAIL.equals(match.getCurrentTurnEmail())) {
+                return;
+            }
+
+            Board board = Board.fromFen(match.getFenCurrent());
+            SearchLimits limits = limitsFor(match.getEngineLevel(), Math.max(0, gameClock.remainingNow(match)));
+            SearchResult result = engine.search(board, gameKeys(match.getPackedMoves()), limits);
+            if (result.move() == MoveCodec.NONE) return;
+
+            gamePlay.play(matchId, ENGINE_EMAIL, MoveCodec.toUci(result.move()), null, System.nanoTime(), 0);
+            log.info("🤖 Engine move {} in match {} (depth {}, {} nodes, {} ms)",
+                    MoveCodec.toUci(result.move()), matchId, result.depth(), result.nodes(), result.timeMs());
+        } catch (RuntimeException e) {
+            log.error("❌ Engine move failed for match {}: {}", matchId, e.getMessage());
+        }
+    }
+
+    /* ================= LIMITS ================= */
+
+    SearchLimits limitsFor(int level, long remainingMs) {
+        int i = Math.max(MIN_LEVEL, Math.min(MAX_LEVEL, level)) - 1;
+        long budget = Math.max(MIN_MOVE_TIME_MS, Math.min(LEVEL_TIME_MS[i], remainingMs / MOVES_TO_GO));
+        int threads = level >= MAX_LEVEL - 1 ? searchThreads : level == MAX_LEVEL - 2 ? Math.max(1, searchThreads / 2) : 1;
+        return new SearchLimits(LEVEL_DEPTH[i], budget, threads, LEVEL_NOISE[i]);
+    }
+
+    // Keys of every position before the current one, for repetition detection
+    private static long[] gameKeys(byte[] packed) {
+        int n = PackedMoves.size(packed);
+        long[] keys = new long[n];
+        Board board = Board.startPosition();
+        for (int i = 0; i < n; i++) {
+            keys[i] = board.hash();
+            board.play(PackedMoves.get(packed, i));
+        }
+        return keys;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        moveExecutor.shutdownNow();
+        helperPool.shutdownNow();
+    }
+}
@@ -0,0 +1,5 @@
+package com.IndiChess.Service;
+
+// The engine is to move in this match; handled after the triggering transaction commits
+public record EngineTurnEvent(Long matchId) {
+}
@@ -0,0 +1,186 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Chess.PackedMoves;
+import com.IndiChess.Model.ArchivedGame;
+import com.IndiChess.Model.Match;
+import com.IndiChess.Model.MatchStatus;
+import com.IndiChess.Repository.ArchivedGameRepo;
+import com.IndiChess.Repository.FenCheckpointRepo;
+import com.IndiChess.Repository.MatchRepo;
+import com.IndiChess.Repository.MoveRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Moves finished games out of the hot tables. The match row stays (players, result,
+ * chat foreign keys) but its packed moves, checkpoint rows and any legacy move rows
+ * are replaced by one deflated blob in archived_games.
+ */
+@Service
+@Slf4j
+public class GameArchiveService {
+
+    private static final byte FORMAT_PACKED_DEFLATE = 1;
+
+    private final MatchRepo matchRepository;
+    private final MoveRepo moveRepository;
+    private final FenCheckpointRepo checkpointRepository;
+    private final ArchivedGameRepo archivedGameRepository;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final int afterDays;
+    private final int batchSize;
+
+    public GameArchiveService(MatchRepo matchRepository,
+                              MoveRepo moveRepository,
+                              FenCheckpointRepo checkpointRepository,
+                              ArchivedGameRepo archivedGameRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${indichess.archive.enabled:true}") boolean enabled,
+                              @Value("${indichess.archive.after-days:30}") int afterDays,
+                              @Value("${indichess.archive.batch-size:500}") int batchSize) {
+        this.matchRepository = matchRepository;
+        this.moveRepository = moveRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.archivedGameRepository = archivedGameRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.afterDays = afterDays;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /* ================= BACKGROUND ARCHIVER ================= */
+
+    @Scheduled(initialDelayString = "${indichess.archive.initial-delay-ms:60000}",
+            fixedDelayString = "${indichess.archive.interval-ms:3600000}")
+    public void archiveFinishedGames() {
+        if (!enabled) return;
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        int total = 0;
+        long afterId = 0;
+        while (true) {
+            Batch batch = archiveBatch(cutoff, afterId);
+            if (batch == null || batch.lastId() < 0) break;
+            total += batch.archived();
+            afterId = batch.lastId();
+        }
+
+        if (total > 0) {
+            log.info("🗄️ Archived {} games finished before {}", total, cutoff);
+        }
+    }
+
+    // lastId is the highest id scanned (-1 once nothing is left), archived how many of them were archived
+    private record Batch(long lastId, int archived) {}
+
+    private Batch archiveBatch(LocalDateTime cutoff, long afterId) {
+        return tx.execute(status -> {
+            List<Long> ids = matchRepository.findArchivableIds(MatchStatus.ONGOING, cutoff, afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) return new Batch(-1, 0);
+            long lastId = ids.get(ids.size() - 1);
+
+            List<ArchivedGame> blobs = new ArrayList<>(ids.size());
+            List<Long> archivedIds = new ArrayList<>(ids.size());
+            LocalDateTime now = LocalDateTime.now();
+            for (Match match : matchRepository.findAllById(ids)) {
+                byte[] packed = packedMovesOf(match);
+                if (packed == null) {
+                    log.warn("Match {} has move rows that do not replay, leaving it unarchived", match.getId());
+                    continue;
+                }
+                ArchivedGame blob = new ArchivedGame();
+                blob.setMatchId(match.getId());
+                blob.setData(compress(packed));
+                blob.setArchivedAt(now);
+                blobs.add(blob);
+                archivedIds.add(match.getId());
+            }
+            if (archivedIds.isEmpty()) return new Batch(lastId, 0);
+
+            archivedGameRepository.insertAll(blobs);
+            moveRepository.deleteByMatchIds(archivedIds);
+            checkpointRepository.deleteByMatchIds(archivedIds);
+            matchRepository.markArchived(archivedIds);
+            return new Batch(lastId, archivedIds.size());
+        });
+    }
+
+    // Legacy move rows are converted to the packed form so one format covers every archived game
+    private byte[] packedMovesOf(Match match) {
+        if (PackedMoves.size(match.getPackedMoves()) > 0 || match.getMoveRows().isEmpty()) {
+            return match.getPackedMoves() == null ? PackedMoves.EMPTY : match.getPackedMoves();
+        }
+        return LegacyMoveMigration.pack(match.getMoveRows());
+    }
+
+    /* ================= TRANSPARENT READS ================= */
+
+    // Puts the archived moves back on a loaded match; call inside a read-only transaction
+    public Match restore(Match match) {
+        if (match.isArchived()) {
+            archivedGameRepository.findById(match.getId())
+                    .ifPresent(blob -> match.setPackedMoves(decompress(blob.getData())));
+        }
+        return match;
+    }
+
+    /* ================= BLOB FORMAT ================= */
+
+    // [format byte][deflated packed moves]
+    public static byte[] compress(byte[] packed) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(packed);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(packed.length / 2 + 16);
+            out.write(FORMAT_PACKED_DEFLATE);
+            byte[] buf = new byte[1024];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buf);
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static byte[] decompress(byte[] data) {
+        if (data == null || data.length == 0) return PackedMoves.EMPTY;
+        if (data[0] != FORMAT_PACKED_DEFLATE) {
+            throw new IllegalStateException("Unknown archive format " + data[0]);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, 1, data.length - 1);
+            byte[] out = new byte[Math.max(64, data.length * 3)];
+            int len = 0;
+            while (!inflater.finished()) {
+                if (len == out.length) out = Arrays.copyOf(out, out.length * 2);
+                int n = inflater.inflate(out, len, out.length - len);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                len += n;
+            }
+            return Arrays.copyOf(out, len);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt archived game", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
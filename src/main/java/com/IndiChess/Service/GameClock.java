@@ -0,0 +1,160 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Model.Match;
+import com.IndiChess.Model.TimeControl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-side chess clocks. The node that commits a move stamps the start of the next
+ * turn with {@code System.nanoTime()}, so the time a player used is measured on a
+ * monotonic clock that NTP steps cannot move. When the turn was started elsewhere (the
+ * match changed owner, or the node restarted) the persisted wall-clock
+ * {@code lastMoveTime} is used instead.
+ *
+ * Lag compensation: a client may report its network lag with a move. Up to
+ * {@code max-per-move-ms} of it is given back, paid from a per-player quota that
+ * refills a little on every move, so a client cannot claim lag for free.
+ */
+@Component
+public class GameClock {
+
+    private static final long NANOS_PER_MS = 1_000_000;
+
+    private final long maxLagPerMoveMs;
+    private final long lagQuotaGainMs;
+    private final long lagQuotaMaxMs;
+
+    private static final class TurnState {
+        int ply = -1;
+        long startedNanos;
+        final long[] lagQuotaMs = new long[2]; // white, black
+    }
+
+    private final Map<Long, TurnState> turns = new ConcurrentHashMap<>();
+
+    public GameClock(@Value("${indichess.clock.lag.max-per-move-ms:300}") long maxLagPerMoveMs,
+                     @Value("${indichess.clock.lag.quota-gain-ms:100}") long lagQuotaGainMs,
+                     @Value("${indichess.clock.lag.quota-max-ms:1000}") long lagQuotaMaxMs) {
+        this.maxLagPerMoveMs = maxLagPerMoveMs;
+        this.lagQuotaGainMs = lagQuotaGainMs;
+        this.lagQuotaMaxMs = lagQuotaMaxMs;
+    }
+
+    public static TimeControl timeControlOf(Match match) {
+        return match.getTimeControl() != null ? match.getTimeControl() : TimeControl.defaultFor(match.getGameType());
+    }
+
+    /**
+     * The mover's clock once this move is applied, increment included; zero or less means
+     * their flag fell before the move arrived. {@code receivedNanos} is when the move
+     * reached the server, so time spent queueing here is not charged to the player.
+     */
+    public long charge(Match match, boolean white, long receivedNanos, long reportedLagMs) {
+        TimeControl tc = timeControlOf(match);
+        Long clock = white ? match.getWhiteClockMs() : match.getBlackClockMs();
+        long remaining = clock != null ? clock : tc.baseMs();
+
+        // White's first move is not timed
+        if (match.getCurrentPly() == null || match.getCurrentPly() == 0) return remaining;
+
+        // Lag is noise against days, and correspondence games keep no TurnState
+        long lag = tc.isCorrespondence() ? 0 : compensation(match.getId(), white, reportedLagMs);
+        long used = elapsedMs(match, receivedNanos) - lag;
+        used -= tc.delayMs();
+        remaining -= Math.max(0, used);
+        if (remaining <= 0) return remaining;
+        return tc.isCorrespondence() ? tc.baseMs() : remaining + tc.incrementMs();
+    }
+
+    /** A premove is played the moment the opponent's move commits: no time used, increment still earned. */
+    public long chargePremove(Match match, boolean white) {
+        TimeControl tc = timeControlOf(match);
+        Long clock = white ? match.getWhiteClockMs() : match.getBlackClockMs();
+        long remaining = clock != null ? clock : tc.baseMs();
+        if (match.getCurrentPly() == null || match.getCurrentPly() == 0) return remaining;
+        return tc.isCorrespondence() ? tc.baseMs() : remaining + tc.incrementMs();
+    }
+
+    /** Time on the clock of the side to move right now, without charging anything. */
+    public long remainingNow(Match match) {
+        TimeControl tc = timeControlOf(match);
+        boolean whiteToMove = match.getCurrentPly() == null || match.getCurrentPly() % 2 == 0;
+        Long clock = whiteToMove ? match.getWhiteClockMs() : match.getBlackClockMs();
+        long remaining = clock != null ? clock : tc.baseMs();
+        if (match.getCurrentPly() == null || match.getCurrentPly() == 0) return remaining;
+        return remaining - Math.max(0, elapsedMs(match, System.nanoTime()) - tc.delayMs());
+    }
+
+    private long elapsedMs(Match match, long receivedNanos) {
+        TurnState state = turns.get(match.getId());
+        if (state != null) {
+            synchronized (state) {
+                if (state.ply == match.getCurrentPly()) {
+                    return Math.max(0, (receivedNanos - state.startedNanos) / NANOS_PER_MS);
+                }
+            }
+        }
+        if (match.getLastMoveTime() == null || match.getLastMoveTime() <= 0) return 0;
+        long receivedAtMs = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - receivedNanos);
+        return Math.max(0, receivedAtMs - match.getLastMoveTime());
+    }
+
+    private long compensation(long matchId, boolean white, long reportedLagMs) {
+        TurnState state = turns.computeIfAbsent(matchId, id -> newState());
+        int side = white ? 0 : 1;
+        synchronized (state) {
+            long quota = Math.min(lagQuotaMaxMs, state.lagQuotaMs[side] + lagQuotaGainMs);
+            long granted = Math.max(0, Math.min(Math.min(reportedLagMs, maxLagPerMoveMs), quota));
+            state.lagQuotaMs[side] = quota - granted;
+            return granted;
+        }
+    }
+
+    /* ================= TURNS ================= */
+
+    /** Starts the clock for {@code ply} once the current transaction has committed. */
+    public void turnStarted(long matchId, int ply) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stamp(matchId, ply);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stamp(matchId, ply);
+            }
+        });
+    }
+
+    private void stamp(long matchId, int ply) {
+        TurnState state = turns.computeIfAbsent(matchId, id -> newState());
+        synchronized (state) {
+            state.ply = ply;
+            state.startedNanos = System.nanoTime();
+        }
+    }
+
+    private TurnState newState() {
+        TurnState state = new TurnState();
+        state.lagQuotaMs[0] = lagQuotaMaxMs;
+        state.lagQuotaMs[1] = lagQuotaMaxMs;
+        return state;
+    }
+
+    public void release(long matchId) {
+        turns.remove(matchId);
+    }
+
+    @TransactionalEventListener
+    public void onGameFinished(GameFinishedEvent event) {
+        release(event.matchId());
+    }
+}
@@ -0,0 +1,13 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Model.GameType;
+import com.IndiChess.Model.Match;
+import com.IndiChess.Model.MatchStatus;
+
+// Published when a match reaches a terminal status; listeners run after the commit
+public record GameFinishedEvent(Long matchId, MatchStatus status, GameType gameType, byte[] packedMoves) {
+
+    public static GameFinishedEvent of(Match match) {
+        return new GameFinishedEvent(match.getId(), match.getStatus(), match.getGameType(), match.getPackedMoves());
+    }
+}
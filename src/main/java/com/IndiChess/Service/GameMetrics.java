@@ -0,0 +1,113 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Model.TimeControl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters for the game, chat and matchmaking paths. Everything is registered up front
+ * and callers pass raw {@code System.nanoTime()} deltas, so recording on the hot path
+ * does no tag lookups and allocates nothing.
+ */
+@Component
+public class GameMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Timer moveValidate;
+    private final Timer movePersist;
+    private final Timer moveBroadcast;
+    private final Counter movesAccepted;
+    private final Counter movesRejected;
+
+    private final Map<TimeControl, Timer> matchmakingWait = new ConcurrentHashMap<>();
+    private final Timer chatPersist;
+    private final Timer jwtValid;
+    private final Timer jwtInvalid;
+
+    public GameMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        this.moveValidate = latency("indichess.move.validate", "Rule checks and legality of an incoming move");
+        this.movePersist = latency("indichess.move.persist", "Applying a move and flushing the match row");
+        this.moveBroadcast = latency("indichess.move.broadcast", "Fan-out of the updated match to subscribers");
+        this.movesAccepted = Counter.builder("indichess.moves").tag("result", "accepted").register(registry);
+        this.movesRejected = Counter.builder("indichess.moves").tag("result", "rejected").register(registry);
+
+        this.chatPersist = latency("indichess.chat.persist", "Storing a chat message");
+        this.jwtValid = Timer.builder("indichess.jwt.verify").tag("result", "valid")
+                .publishPercentileHistogram().register(registry);
+        this.jwtInvalid = Timer.builder("indichess.jwt.verify").tag("result", "invalid")
+                .publishPercentileHistogram().register(registry);
+    }
+
+    private Timer latency(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /* ================= MOVES ================= */
+
+    public void moveValidated(long nanos) {
+        moveValidate.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void movePersisted(long nanos) {
+        movePersist.record(nanos, TimeUnit.NANOSECONDS);
+        movesAccepted.increment();
+    }
+
+    public void moveRejected() {
+        movesRejected.increment();
+    }
+
+    public void moveBroadcast(long nanos) {
+        moveBroadcast.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /* ================= MATCHMAKING ================= */
+
+    public void matchmakingWait(TimeControl pool, long nanos) {
+        Timer timer = matchmakingWait.get(pool);
+        if (timer != null) timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Called once per pool at startup; the collection is only sized when the gauge is scraped
+    public void matchmakingPool(TimeControl pool, Collection<?> queue) {
+        Tags tags = Tags.of("pool", pool.notation(), "gameType", pool.gameType().name());
+        matchmakingWait.put(pool, Timer.builder("indichess.matchmaking.wait")
+                .description("Time a player spent in the matchmaking queue before pairing")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry));
+        registry.gauge("indichess.matchmaking.queue.depth", tags, queue, Collection::size);
+    }
+
+    /* ================= PRESENCE ================= */
+
+    public void presence(AtomicInteger onlineUsers, Map<?, ?> sessions) {
+        registry.gauge("indichess.presence.users", onlineUsers, AtomicInteger::get);
+        registry.gauge("indichess.presence.sessions", sessions, Map::size);
+    }
+
+    /* ================= CHAT / AUTH ================= */
+
+    public void chatPersisted(long nanos) {
+        chatPersist.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void jwtVerified(boolean valid, long nanos) {
+        (valid ? jwtValid : jwtInvalid).record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,46 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Model.Match;
+import com.IndiChess.dto.MatchDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Applies a move and everything that follows its commit: the opponent's queued premove
+ * is played and one update carrying both moves is broadcast. Every way of moving
+ * (WebSocket, REST, the engine) goes through here, so premoves fire whichever way the
+ * opponent moved. Deliberately not transactional: each move commits on its own, and
+ * the premove only runs once the move before it has committed.
+ */
+@Service
+@RequiredArgsConstructor
+public class GamePlayService {
+
+    private final MatchService matchService;
+    private final PremoveService premoves;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final GameMetrics metrics;
+    private final MoveTracer tracer;
+
+    /** Arguments as for {@link MatchService#makeMove(Long, String, String, Integer, long, long)}. */
+    public MatchDTO play(Long matchId, String email, String uci, Integer ply, long receivedNanos, long lagMs) {
+        Match updatedMatch = matchService.makeMove(matchId, email, uci, ply, receivedNanos, lagMs);
+        // Charge the transaction commit to the persist stage
+        tracer.stage(MoveTracer.Stage.PERSIST);
+
+        // The opponent's premove is played before anything goes out, so one broadcast carries both
+        Match afterPremove = premoves.playQueued(updatedMatch);
+
+        // Convert to DTO to avoid circular reference and lazy loading issues
+        MatchDTO dto = afterPremove != null
+                ? MatchDTO.combined(updatedMatch, afterPremove)
+                : MatchDTO.fromMatch(updatedMatch);
+
+        long start = System.nanoTime();
+        messagingTemplate.convertAndSend("/topic/game/" + matchId, dto);
+        metrics.moveBroadcast(System.nanoTime() - start);
+        tracer.stage(MoveTracer.Stage.BROADCAST);
+        return dto;
+    }
+}
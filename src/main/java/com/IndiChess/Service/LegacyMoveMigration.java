@@ -0,0 +1,91 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Chess.Board;
+import com.IndiChess.Chess.MoveCodec;
+import com.IndiChess.Chess.PackedMoves;
+import com.IndiChess.Model.Match;
+import com.IndiChess.Model.Move;
+import com.IndiChess.Repository.MatchRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Converts games still stored as one move row per ply (the format before packed moves)
+ * to packed moves and drops their rows. Everything is converted once at startup, in
+ * keyset pages; a game that receives a move before the pass reaches it is converted by
+ * MatchService when it loads it. Rows that do not replay are logged and left alone.
+ */
+@Service
+@Slf4j
+public class LegacyMoveMigration {
+
+    private final MatchRepo matchRepository;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+
+    public LegacyMoveMigration(MatchRepo matchRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${indichess.legacy-moves.batch-size:200}") int batchSize) {
+        this.matchRepository = matchRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateAll() {
+        long afterId = 0;
+        int total = 0;
+        while (true) {
+            List<Long> ids = matchRepository.findLegacyMoveIds(afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) break;
+            Integer migrated = tx.execute(status -> {
+                int n = 0;
+                for (Match match : matchRepository.findAllByIdForUpdate(ids)) {
+                    if (migrate(match)) n++;
+                }
+                return n;
+            });
+            total += migrated != null ? migrated : 0;
+            // Keyset on the last id, so games whose rows do not replay cannot hold the pass up
+            afterId = ids.get(ids.size() - 1);
+        }
+
+        if (total > 0) log.info("📦 Converted {} games from move rows to packed moves", total);
+    }
+
+    /** Packs the legacy rows of a loaded, locked match; returns whether anything changed. */
+    public boolean migrate(Match match) {
+        if (PackedMoves.size(match.getPackedMoves()) > 0 || match.getMoveRows().isEmpty()) return false;
+        byte[] packed = pack(match.getMoveRows());
+        if (packed == null) {
+            log.warn("Match {} has move rows that do not replay, leaving them as they are", match.getId());
+            return false;
+        }
+        match.setPackedMoves(packed);
+        match.setCurrentPly(PackedMoves.size(packed));
+        match.getMoveRows().clear(); // orphan removal deletes the rows
+        return true;
+    }
+
+    /** The rows replayed from the start position, or null if one of them is not legal there. */
+    public static byte[] pack(List<Move> rows) {
+        Board board = Board.startPosition();
+        int[] moves = new int[rows.size()];
+        int n = 0;
+        for (Move row : rows) {
+            int move = board.parseUci(row.getUci());
+            if (move == MoveCodec.NONE) return null;
+            board.play(move);
+            moves[n++] = move;
+        }
+        return PackedMoves.pack(moves, n);
+    }
+}
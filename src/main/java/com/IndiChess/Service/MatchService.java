@@ -1,20 +1,34 @@
 package com.IndiChess.Service;
 
+import com.IndiChess.Chess.Board;
+import com.IndiChess.Chess.MoveCodec;
+import com.IndiChess.Engine.Bitbases;
 import com.IndiChess.dto.MatchDTO;
 import com.IndiChess.Model.*;
 import com.IndiChess.Repository.MatchRepo;
 import com.IndiChess.Repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 @RequiredArgsConstructor
@@ -24,41 +38,75 @@ public class MatchService {
     private final MatchRepo matchRepository;
     private final UserRepository userRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final PositionService positionService;
+    private final GameArchiveService gameArchiveService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EndgameService endgameService;
+    private final GameMetrics metrics;
+    private final MoveTracer tracer;
+    private final GameClock gameClock;
+    private final LegacyMoveMigration legacyMoves;
+
+    @Value("${indichess.bitbase.adjudicate-draws:true}")
+    private boolean adjudicateDraws;
+
+    // One pool per time control, so players only meet opponents who want the same clock
+    @Value("${indichess.matchmaking.pools:1+0,2+1,3+0,3+2,5+0,5+3,10+0,10+5,15+10,30+0,30+20}")
+    private String[] poolNotations;
+
+    private final Map<TimeControl, ConcurrentLinkedQueue<String>> queues = new ConcurrentHashMap<>();
+    // email -> System.nanoTime() when the player joined a queue
+    private final Map<String, Long> queuedSince = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerQueues() {
+        for (String notation : poolNotations) {
+            queues.put(TimeControl.parse(notation), new ConcurrentLinkedQueue<>());
+        }
+        // Category-only requests (old clients, REST) land in the default pools
+        for (GameType type : GameType.values()) {
+            queues.putIfAbsent(TimeControl.defaultFor(type), new ConcurrentLinkedQueue<>());
+        }
+        queues.forEach(metrics::matchmakingPool);
+    }
 
-    private final Map<GameType, ConcurrentLinkedQueue<String>> queues = new ConcurrentHashMap<>();
-
-    {
-        queues.put(GameType.BLITZ, new ConcurrentLinkedQueue<>());
-        queues.put(GameType.RAPID, new ConcurrentLinkedQueue<>());
+    public List<String> pools() {
+        return queues.keySet().stream()
+                .sorted(Comparator.comparingLong(TimeControl::baseMs).thenComparingLong(TimeControl::incrementMs))
+                .map(TimeControl::notation)
+                .toList();
     }
 
     @Transactional
     public Match createMatch(String userEmail) {
-        ConcurrentLinkedQueue<String> queue = queues.get(GameType.RAPID);
+        TimeControl timeControl = TimeControl.defaultFor(GameType.RAPID);
+        ConcurrentLinkedQueue<String> queue = queues.get(timeControl);
         if (queue.contains(userEmail)) return null;
         if (queue.isEmpty()) {
-            queue.add(userEmail);
+            enqueue(queue, userEmail);
             return null;
         }
-        String opponentEmail = queue.poll();
-        return createMatchInternal(opponentEmail, userEmail, GameType.RAPID);
+        String opponentEmail = dequeue(queue, timeControl);
+        return createMatchInternal(opponentEmail, userEmail, timeControl);
     }
 
     @Transactional
-    public Match createPrivateMatch(String userEmail) {
+    public Match createPrivateMatch(String userEmail, TimeControl timeControl) {
         User player1 = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        TimeControl tc = timeControl != null ? timeControl : TimeControl.defaultFor(GameType.RAPID);
 
         Match match = new Match();
         match.setPlayer1(player1);
-        match.setGameType(GameType.RAPID);
-        match.setFenCurrent("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        match.setGameType(tc.gameType());
+        match.setTimeControl(tc);
+        match.setFenCurrent(Board.START_FEN);
         match.setCurrentTurnEmail(player1.getEmail());
         match.setCurrentPly(0);
         match.setStatus(MatchStatus.ONGOING);
         match.setStartedAt(LocalDateTime.now());
-        match.setWhiteTime(600);
-        match.setBlackTime(600);
+        match.setWhiteClockMs(tc.baseMs());
+        match.setBlackClockMs(tc.baseMs());
         match.setLastMoveTime(System.currentTimeMillis());
 
         return matchRepository.save(match);
@@ -66,7 +114,7 @@ public class MatchService {
 
     @Transactional
     public Match joinMatch(Long matchId, String userEmail) {
-        Match match = matchRepository.findById(matchId)
+        Match match = matchRepository.findByIdForUpdate(matchId)
                 .orElseThrow(() -> new RuntimeException("Match not found"));
 
         if (match.getPlayer2() != null) {
@@ -93,56 +141,170 @@ public class MatchService {
     }
 
     @Transactional
-    public void processMatchmaking(String userEmail, GameType type) {
-        ConcurrentLinkedQueue<String> queue = queues.get(type);
+    public void processMatchmaking(String userEmail, TimeControl timeControl) {
+        ConcurrentLinkedQueue<String> queue = queues.get(timeControl);
+        if (queue == null) {
+            messagingTemplate.convertAndSendToUser(userEmail, "/queue/errors",
+                    Map.of("error", "No matchmaking pool for " + timeControl));
+            return;
+        }
         if (queue.contains(userEmail)) return;
 
         if (queue.isEmpty()) {
-            queue.add(userEmail);
+            enqueue(queue, userEmail);
             messagingTemplate.convertAndSendToUser(userEmail, "/queue/status", "searching");
         } else {
-            String opponentEmail = queue.poll();
-            Match match = createMatchInternal(opponentEmail, userEmail, type);
-            messagingTemplate.convertAndSend("/topic/matchmaking/" + opponentEmail, match);
-            messagingTemplate.convertAndSend("/topic/matchmaking/" + userEmail, match);
+            String opponentEmail = dequeue(queue, timeControl);
+            MatchDTO dto = MatchDTO.fromMatch(createMatchInternal(opponentEmail, userEmail, timeControl));
+            messagingTemplate.convertAndSend("/topic/matchmaking/" + opponentEmail, dto);
+            messagingTemplate.convertAndSend("/topic/matchmaking/" + userEmail, dto);
         }
     }
 
-    private Match createMatchInternal(String email1, String email2, GameType type) {
+    private void enqueue(ConcurrentLinkedQueue<String> queue, String email) {
+        queuedSince.put(email, System.nanoTime());
+        queue.add(email);
+    }
+
+    private String dequeue(ConcurrentLinkedQueue<String> queue, TimeControl timeControl) {
+        String email = queue.poll();
+        Long since = queuedSince.remove(email);
+        if (since != null) metrics.matchmakingWait(timeControl, System.nanoTime() - since);
+        return email;
+    }
+
+    private Match createMatchInternal(String email1, String email2, TimeControl timeControl) {
         User p1 = userRepository.findByEmail(email1)
                 .orElseThrow(() -> new RuntimeException("Player1 not found"));
         User p2 = userRepository.findByEmail(email2)
                 .orElseThrow(() -> new RuntimeException("Player2 not found"));
 
+        return matchRepository.save(newMatch(p1, p2, timeControl));
+    }
+
+    private Match newMatch(User white, User black, TimeControl timeControl) {
         Match match = new Match();
-        match.setPlayer1(p1);
-        match.setPlayer2(p2);
-        match.setGameType(type);
-        match.setFenCurrent("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
-        match.setCurrentTurnEmail(p1.getEmail());
+        match.setPlayer1(white);
+        match.setPlayer2(black);
+        match.setGameType(timeControl.gameType());
+        match.setTimeControl(timeControl);
+        match.setFenCurrent(Board.START_FEN);
+        match.setCurrentTurnEmail(white.getEmail());
         match.setCurrentPly(0);
         match.setStatus(MatchStatus.ONGOING);
         match.setStartedAt(LocalDateTime.now());
 
-        int initialTime = type == GameType.BLITZ ? 180 : 600;
-        match.setWhiteTime(initialTime);
-        match.setBlackTime(initialTime);
+        match.setWhiteClockMs(timeControl.baseMs());
+        match.setBlackClockMs(timeControl.baseMs());
         match.setLastMoveTime(System.currentTimeMillis());
+        return match;
+    }
 
-        return matchRepository.save(match);
+    /* ================= BATCH PAIRINGS ================= */
+
+    public record Pairing(Long whiteId, Long blackId) {
+    }
+
+    // One user query and one JDBC insert batch for a whole round of pairings (arena ticks)
+    @Transactional
+    public List<Match> createPairings(List<Pairing> pairings, GameType type, Long tournamentId) {
+        if (pairings.isEmpty()) return List.of();
+
+        Set<Long> ids = new HashSet<>();
+        for (Pairing p : pairings) {
+            ids.add(p.whiteId());
+            ids.add(p.blackId());
+        }
+        Map<Long, User> users = new HashMap<>();
+        userRepository.findAllById(ids).forEach(u -> users.put(u.getId(), u));
+
+        List<Match> matches = new ArrayList<>(pairings.size());
+        for (Pairing p : pairings) {
+            User white = users.get(p.whiteId());
+            User black = users.get(p.blackId());
+            if (white == null || black == null) continue;
+            Match match = newMatch(white, black, TimeControl.defaultFor(type));
+            match.setTournamentId(tournamentId);
+            matches.add(match);
+        }
+        return matchRepository.insertAll(matches);
+    }
+
+    /* ================= COMPUTER MATCH ================= */
+
+    // color is "white", "black" or "random" and refers to the human side
+    @Transactional
+    public Match createComputerMatch(String userEmail, int level, String color, GameType type) {
+        if (level < EngineService.MIN_LEVEL || level > EngineService.MAX_LEVEL) {
+            throw new RuntimeException("Engine level must be between "
+                    + EngineService.MIN_LEVEL + " and " + EngineService.MAX_LEVEL);
+        }
+        User human = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        User engine = userRepository.findByEmail(EngineService.ENGINE_EMAIL)
+                .orElseGet(() -> userRepository.save(
+                        new User(null, EngineService.ENGINE_NAME, EngineService.ENGINE_EMAIL, "ENGINE_PLAYER")));
+
+        boolean humanWhite = "random".equalsIgnoreCase(color)
+                ? ThreadLocalRandom.current().nextBoolean()
+                : !"black".equalsIgnoreCase(color);
+
+        TimeControl timeControl = TimeControl.defaultFor(type);
+        Match match = humanWhite ? newMatch(human, engine, timeControl) : newMatch(engine, human, timeControl);
+        match.setEngineLevel(level);
+        Match savedMatch = matchRepository.save(match);
+
+        if (!humanWhite) {
+            eventPublisher.publishEvent(new EngineTurnEvent(savedMatch.getId()));
+        }
+        log.info("🤖 Computer match {} created (level {})", savedMatch.getId(), level);
+        return savedMatch;
     }
 
+    @Transactional(readOnly = true)
     public Optional<Match> getMatch(Long id) {
-        return matchRepository.findById(id);
+        return matchRepository.findById(id).map(gameArchiveService::restore);
     }
 
     @Transactional
     public Match makeMove(Long matchId, String email, String uci) {
-        log.info("=== MOVE: Match {}, Player {}, UCI {} ===", matchId, email, uci);
+        return makeMove(matchId, email, uci, null, System.nanoTime(), 0);
+    }
 
-        Match match = matchRepository.findById(matchId)
-                .orElseThrow(() -> new RuntimeException("Match not found"));
+    // ply: half-moves played when the client made the move, null if it did not say (see MoveResultCache);
+    // receivedNanos: System.nanoTime() when the move reached this node; lagMs: the client's own lag estimate
+    @Transactional
+    public Match makeMove(Long matchId, String email, String uci, Integer ply, long receivedNanos, long lagMs) {
+        return move(matchId, email, uci, ply, receivedNanos, lagMs, false);
+    }
+
+    // A queued premove, played right after the opponent's move committed; it uses no clock time
+    @Transactional
+    public Match makePremove(Long matchId, String email, String uci, int ply) {
+        return move(matchId, email, uci, ply, System.nanoTime(), 0, true);
+    }
 
+    private Match move(Long matchId, String email, String uci, Integer ply, long receivedNanos, long lagMs,
+                       boolean premove) {
+        log.debug("=== MOVE: Match {}, Player {}, UCI {} ===", matchId, email, uci);
+
+        // The lock makes the ply check below the real guard: a human move and a premove for the
+        // same ply, or two retries, are applied one after the other and the second one sees the first
+        Match match = matchRepository.findByIdForUpdate(matchId)
+                .orElseThrow(() -> new RuntimeException("Match not found"));
+        tracer.stage(MoveTracer.Stage.LOAD);
+
+        long validateStart = System.nanoTime();
+        int currentPly = match.getCurrentPly() != null ? match.getCurrentPly() : 0;
+        if (currentPly > 0) legacyMoves.migrate(match); // no-op once the game has packed moves
+        if (ply != null && ply != currentPly) {
+            // A retry whose first attempt already committed: the same move at that ply
+            if (ply == currentPly - 1 && uci.equals(match.getLastMoveUci())
+                    && !email.equals(match.getCurrentTurnEmail())) {
+                return match;
+            }
+            throw new RuntimeException("Stale move for ply " + ply + ", game is at ply " + currentPly);
+        }
         if (match.getStatus() != MatchStatus.ONGOING) {
             throw new RuntimeException("Game is not active");
         }
@@ -152,6 +314,8 @@ public class MatchService {
         if (!email.equals(match.getCurrentTurnEmail())) {
             throw new RuntimeException("Not your turn");
         }
+        tracer.stage(MoveTracer.Stage.AUTH);
+
         if (uci == null || uci.length() < 4 || uci.length() > 5) {
             throw new RuntimeException("Invalid UCI format");
         }
@@ -166,69 +330,45 @@ public class MatchService {
             throw new RuntimeException("Invalid square coordinates");
         }
 
-        String currentFen = match.getFenCurrent();
-        String[] fenParts = currentFen.split(" ");
-        String activeColor = fenParts[1];
+        Board board = Board.fromFen(match.getFenCurrent());
 
-        boolean isWhiteTurn = activeColor.equals("w");
+        boolean isWhiteTurn = board.sideToMove() == Board.WHITE;
         boolean isPlayer1 = email.equals(match.getPlayer1().getEmail());
 
         if (isWhiteTurn != isPlayer1) {
             throw new RuntimeException("Wrong color to move");
         }
 
-        // Timer logic - only after first move
-        long now = System.currentTimeMillis();
-
-        if (match.getCurrentPly() > 0) {
-            Long lastMoveTime = match.getLastMoveTime();
-            if (lastMoveTime != null && lastMoveTime > 0) {
-                long elapsedSeconds = (now - lastMoveTime) / 1000;
-
-                if (elapsedSeconds > 60) elapsedSeconds = 60;
-                if (elapsedSeconds < 0) elapsedSeconds = 0;
-
-                boolean isWhiteMove = email.equals(match.getPlayer1().getEmail());
-
-                if (isWhiteMove) {
-                    int newTime = match.getWhiteTime() - (int) elapsedSeconds;
-                    if (newTime <= 0) {
-                        match.setWhiteTime(0);
-                        match.setStatus(MatchStatus.BLACK_WIN);
-                        match.setFinishedAt(LocalDateTime.now());
-                        Match finishedMatch = matchRepository.save(match);
-                        messagingTemplate.convertAndSend("/topic/game/" + matchId, MatchDTO.fromMatch(finishedMatch));
-                        log.info("⏰ White timeout");
-                        return finishedMatch;
-                    }
-                    match.setWhiteTime(newTime);
-                } else {
-                    int newTime = match.getBlackTime() - (int) elapsedSeconds;
-                    if (newTime <= 0) {
-                        match.setBlackTime(0);
-                        match.setStatus(MatchStatus.WHITE_WIN);
-                        match.setFinishedAt(LocalDateTime.now());
-                        Match finishedMatch = matchRepository.save(match);
-                        messagingTemplate.convertAndSend("/topic/game/" + matchId, MatchDTO.fromMatch(finishedMatch));
-                        log.info("⏰ Black timeout");
-                        return finishedMatch;
-                    }
-                    match.setBlackTime(newTime);
-                }
-            }
+        int move = board.parseUci(uci);
+        if (move == MoveCodec.NONE) {
+            throw new RuntimeException("Illegal move");
         }
+        long persistStart = System.nanoTime();
+        metrics.moveValidated(persistStart - validateStart);
+        tracer.stage(MoveTracer.Stage.VALIDATE);
+
+        // Clock: charged up to when the move arrived, minus granted lag, plus increment
+        long clock = premove
+                ? gameClock.chargePremove(match, isPlayer1)
+                : gameClock.charge(match, isPlayer1, receivedNanos, lagMs);
+        if (clock <= 0) {
+            if (isPlayer1) match.setWhiteClockMs(0L);
+            else match.setBlackClockMs(0L);
+            finishMatch(match, isPlayer1 ? MatchStatus.BLACK_WIN : MatchStatus.WHITE_WIN);
+            Match finishedMatch = matchRepository.save(match);
+            messagingTemplate.convertAndSend("/topic/game/" + matchId, MatchDTO.fromMatch(finishedMatch));
+            log.info("⏰ {} flagged in match {}", isPlayer1 ? "White" : "Black", matchId);
+            return finishedMatch;
+        }
+        if (isPlayer1) match.setWhiteClockMs(clock);
+        else match.setBlackClockMs(clock);
+        long now = System.currentTimeMillis();
 
-        Move move = new Move();
-        move.setMatch(match);
-        move.setUci(uci);
-        move.setPly(match.getCurrentPly() + 1);
-        move.setMoveNumber((int) Math.ceil(move.getPly() / 2.0));
-        move.setColor(move.getPly() % 2 != 0 ? PieceColor.WHITE : PieceColor.BLACK);
-        move.setCreatedAt(LocalDateTime.now());
-
-        match.addMove(move);
-        match.setLastMoveUci(uci);
-        match.setFenCurrent(applyMoveToFen(match.getFenCurrent(), uci));
+        board.play(move);
+        match.appendMove(move);
+        match.setLastMoveUci(MoveCodec.toUci(move));
+        match.setFenCurrent(board.toFen());
+        positionService.recordCheckpoint(match, board);
 
         String nextTurn = email.equals(match.getPlayer1().getEmail())
                 ? match.getPlayer2().getEmail()
@@ -237,14 +377,36 @@ public class MatchService {
         match.setCurrentTurnEmail(nextTurn);
         match.setLastMoveTime(now);
 
-        Match savedMatch = matchRepository.save(match);
-        log.info("✅ Move complete - Status: {}", savedMatch.getStatus());
+        // Correspondence games keep no per-game state in memory; the row is all there is
+        boolean correspondence = GameClock.timeControlOf(match).isCorrespondence();
+        MatchStatus result = resultAfterMove(board);
+        if (result != null) {
+            finishMatch(match, result);
+            log.info("🏁 Match {} ended: {}", matchId, result);
+        } else if (!correspondence) {
+            gameClock.turnStarted(matchId, match.getCurrentPly());
+        }
+
+        // Flush here so the timer covers the UPDATE, not just the dirty check
+        Match savedMatch = matchRepository.saveAndFlush(match);
+        metrics.movePersisted(System.nanoTime() - persistStart);
+        tracer.stage(MoveTracer.Stage.PERSIST);
+        if (result == null && savedMatch.getEngineLevel() != null && EngineService.ENGINE_EMAIL.equals(nextTurn)) {
+            eventPublisher.publishEvent(new EngineTurnEvent(matchId));
+        }
+        if (correspondence) {
+            long opponentClock = isPlayer1 ? savedMatch.getBlackClockMs() : savedMatch.getWhiteClockMs();
+            eventPublisher.publishEvent(new CorrespondenceMoveEvent(matchId,
+                    savedMatch.getPlayer1().getEmail(), savedMatch.getPlayer2().getEmail(), nextTurn,
+                    savedMatch.getLastMoveUci(), savedMatch.getStatus(), result == null ? now + opponentClock : 0));
+        }
+        log.debug("✅ Move complete - Status: {}", savedMatch.getStatus());
         return savedMatch;
     }
 
     @Transactional
     public Match resign(Long matchId, String email) {
-        Match match = matchRepository.findById(matchId)
+        Match match = matchRepository.findByIdForUpdate(matchId)
                 .orElseThrow(() -> new RuntimeException("Match not found"));
 
         if (match.getStatus() != MatchStatus.ONGOING) {
@@ -256,76 +418,159 @@ public class MatchService {
         }
 
         boolean isPlayer1Resigning = email.equals(match.getPlayer1().getEmail());
-        match.setStatus(isPlayer1Resigning ? MatchStatus.BLACK_WIN : MatchStatus.WHITE_WIN);
-        match.setFinishedAt(LocalDateTime.now());
+        finishMatch(match, isPlayer1Resigning ? MatchStatus.BLACK_WIN : MatchStatus.WHITE_WIN);
 
         Match savedMatch = matchRepository.save(match);
         messagingTemplate.convertAndSend("/topic/game/" + matchId, MatchDTO.fromMatch(savedMatch));
         return savedMatch;
     }
 
+    /* ================= CORRESPONDENCE ================= */
+
+    // Flags every listed correspondence game whose side to move has run out of days; ids may be stale
     @Transactional
-    public Match makeMove(Long matchId, String email, String uci, String san, String fen) {
-        return makeMove(matchId, email, uci);
+    public List<Match> flagExpiredCorrespondence(Collection<Long> matchIds) {
+        List<Match> flagged = new ArrayList<>();
+        for (Match match : matchRepository.findAllByIdForUpdate(matchIds)) {
+            if (match.getStatus() != MatchStatus.ONGOING || match.getPlayer2() == null) continue;
+            if (match.getCurrentPly() == null || match.getCurrentPly() == 0) continue;
+            if (!GameClock.timeControlOf(match).isCorrespondence() || gameClock.remainingNow(match) > 0) continue;
+
+            flag(match);
+            flagged.add(match);
+        }
+        List<Match> saved = matchRepository.saveAll(flagged);
+        if (!saved.isEmpty()) log.info("⏰ {} correspondence games flagged", saved.size());
+        return saved;
     }
 
-    private String applyMoveToFen(String fen, String uci) {
-        String[] parts = fen.split(" ");
-        String boardPart = parts[0];
-        String currentTurn = parts[1];
-
-        int fromFile = uci.charAt(0) - 'a';
-        int fromRank = 8 - (uci.charAt(1) - '0');
-        int toFile = uci.charAt(2) - 'a';
-        int toRank = 8 - (uci.charAt(3) - '0');
-
-        String[][] board = new String[8][8];
-        String[] rows = boardPart.split("/");
-        for (int r = 0; r < 8; r++) {
-            int c = 0;
-            for (char ch : rows[r].toCharArray()) {
-                if (Character.isDigit(ch)) {
-                    int emptySquares = ch - '0';
-                    for (int i = 0; i < emptySquares; i++) {
-                        board[r][c++] = "";
-                    }
-                } else {
-                    board[r][c++] = String.valueOf(ch);
-                }
+    /* ================= SWEEPER ================= */
+
+    // Aborts games that never got going and flags abandoned ones whose side to move is out of time.
+    // Rows are locked like in move(), so a move landing during the sweep is either seen or waits.
+    @Transactional
+    public List<Match> sweepStale(Collection<Long> matchIds) {
+        List<Match> finished = new ArrayList<>();
+        for (Match match : matchRepository.findAllByIdForUpdate(matchIds)) {
+            if (match.getStatus() != MatchStatus.ONGOING) continue;
+            int ply = match.getCurrentPly() != null ? match.getCurrentPly() : 0;
+            // After white's first move black's clock is running, so that game is decided on time
+            if (match.getPlayer2() == null || ply == 0) {
+                finishMatch(match, MatchStatus.ABORTED);
+            } else if (gameClock.remainingNow(match) <= 0) {
+                flag(match);
+            } else {
+                continue; // idle, but still on the clock
             }
+            finished.add(match);
         }
+        // One JDBC batch of updates (hibernate.jdbc.batch_size)
+        return matchRepository.saveAll(finished);
+    }
 
-        String piece = board[fromRank][fromFile];
-        board[toRank][toFile] = piece;
-        board[fromRank][fromFile] = "";
+    /* ================= QUEUE CLEANUP ================= */
 
-        if ((piece.equals("P") && toRank == 0) || (piece.equals("p") && toRank == 7)) {
-            board[toRank][toFile] = piece.equals("P") ? "Q" : "q";
+    // Takes the player out of every pool on this node; returns whether they were waiting anywhere
+    public boolean leaveQueues(String email) {
+        boolean removed = false;
+        for (ConcurrentLinkedQueue<String> queue : queues.values()) {
+            removed |= queue.remove(email);
         }
+        queuedSince.remove(email);
+        return removed;
+    }
 
-        StringBuilder newBoardPart = new StringBuilder();
-        for (int r = 0; r < 8; r++) {
-            int emptyCount = 0;
-            for (int c = 0; c < 8; c++) {
-                if (board[r][c].isEmpty()) {
-                    emptyCount++;
-                } else {
-                    if (emptyCount > 0) {
-                        newBoardPart.append(emptyCount);
-                        emptyCount = 0;
-                    }
-                    newBoardPart.append(board[r][c]);
-                }
-            }
-            if (emptyCount > 0) {
-                newBoardPart.append(emptyCount);
-            }
-            if (r < 7) {
-                newBoardPart.append("/");
+    // For players whose disconnect was never seen (their node died); returns how many were dropped
+    public int purgeQueuedLongerThan(long maxWaitNanos) {
+        long now = System.nanoTime();
+        int purged = 0;
+        for (Map.Entry<String, Long> entry : queuedSince.entrySet()) {
+            if (now - entry.getValue() > maxWaitNanos && leaveQueues(entry.getKey())) purged++;
+        }
+        return purged;
+    }
+
+    /* ================= GAME END ================= */
+
+    // The side to move ran out of time
+    private void flag(Match match) {
+        boolean whiteToMove = match.getCurrentPly() % 2 == 0;
+        if (whiteToMove) match.setWhiteClockMs(0L);
+        else match.setBlackClockMs(0L);
+        finishMatch(match, whiteToMove ? MatchStatus.BLACK_WIN : MatchStatus.WHITE_WIN);
+    }
+
+    // Mate, stalemate, the 75-move rule, dead positions and (optionally) bitbase draws
+    private MatchStatus resultAfterMove(Board board) {
+        if (!board.hasLegalMoves()) {
+            if (!board.inCheck()) return MatchStatus.DRAW;
+            return board.sideToMove() == Board.WHITE ? MatchStatus.BLACK_WIN : MatchStatus.WHITE_WIN;
+        }
+        if (board.halfmoveClock() >= 150) return MatchStatus.DRAW;
+
+        int wdl = endgameService.probe(board);
+        if (wdl == Bitbases.DRAW && (adjudicateDraws || isDeadPosition(board))) return MatchStatus.DRAW;
+        return null;
+    }
+
+    private static boolean isDeadPosition(Board board) {
+        int minors = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            int type = Board.typeOf(board.pieceAt(sq));
+            if (type == Board.EMPTY || type == Board.KING) continue;
+            if (type != Board.BISHOP && type != Board.KNIGHT) return false;
+            minors++;
+        }
+        return minors <= 1;
+    }
+
+    // A player may end a tablebase-decided ending: a draw by either side, a win by the winner
+    @Transactional
+    public Match claimEndgameResult(Long matchId, String email) {
+        Match match = matchRepository.findByIdForUpdate(matchId)
+                .orElseThrow(() -> new RuntimeException("Match not found"));
+
+        if (match.getStatus() != MatchStatus.ONGOING) {
+            throw new RuntimeException("Game is not active");
+        }
+        boolean isPlayer1 = email.equals(match.getPlayer1().getEmail());
+        if (!isPlayer1 && (match.getPlayer2() == null || !email.equals(match.getPlayer2().getEmail()))) {
+            throw new RuntimeException("You are not in this match");
+        }
+
+        Board board = Board.fromFen(match.getFenCurrent());
+        int wdl = endgameService.probe(board);
+        if (wdl == Bitbases.UNKNOWN) {
+            throw new RuntimeException("Position is not covered by the endgame tables");
+        }
+
+        MatchStatus result;
+        if (wdl == Bitbases.DRAW) {
+            result = MatchStatus.DRAW;
+        } else {
+            boolean whiteWins = (wdl == Bitbases.WIN) == (board.sideToMove() == Board.WHITE);
+            if (whiteWins != isPlayer1) {
+                throw new RuntimeException("Only the winning side can claim this position");
             }
+            result = whiteWins ? MatchStatus.WHITE_WIN : MatchStatus.BLACK_WIN;
         }
 
-        String newTurn = currentTurn.equals("w") ? "b" : "w";
-        return newBoardPart.toString() + " " + newTurn + " KQkq - 0 1";
+        finishMatch(match, result);
+        Match savedMatch = matchRepository.save(match);
+        messagingTemplate.convertAndSend("/topic/game/" + matchId, MatchDTO.fromMatch(savedMatch));
+        log.info("🏁 Match {} claimed by {}: {}", matchId, email, result);
+        return savedMatch;
+    }
+
+    @Transactional
+    public Match makeMove(Long matchId, String email, String uci, String san, String fen) {
+        return makeMove(matchId, email, uci);
+    }
+
+    // Every path that ends a game goes through here so listeners see each result once
+    private void finishMatch(Match match, MatchStatus result) {
+        match.setStatus(result);
+        match.setFinishedAt(LocalDateTime.now());
+        eventPublisher.publishEvent(GameFinishedEvent.of(match));
     }
 }
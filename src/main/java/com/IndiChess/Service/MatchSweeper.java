@@ -0,0 +1,97 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Cluster.ClusterRouter;
+import com.IndiChess.Model.GameType;
+import com.IndiChess.Model.Match;
+import com.IndiChess.Model.MatchStatus;
+import com.IndiChess.Repository.MatchRepo;
+import com.IndiChess.dto.MatchDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ends ONGOING matches nobody is playing any more. Private matches that were never
+ * joined and games abandoned before the first move are aborted; games abandoned
+ * later are lost on time by the side to move once their clock is out. Finishing goes
+ * through MatchService, so the usual GameFinishedEvent listeners drop clock state and
+ * queued premoves (on other nodes, PremoveService prunes them).
+ *
+ * Candidates come from an index range scan on (status, last_move_time). Correspondence
+ * games are idle by nature and get a much longer threshold. One node sweeps matches;
+ * every node purges its own matchmaking pools.
+ */
+@Service
+@Slf4j
+public class MatchSweeper {
+
+    private static final Collection<GameType> LIVE_TYPES = EnumSet.complementOf(EnumSet.of(GameType.CORRESPONDENCE));
+    private static final Collection<GameType> CORRESPONDENCE_TYPES = EnumSet.of(GameType.CORRESPONDENCE);
+
+    private final MatchRepo matchRepository;
+    private final MatchService matchService;
+    private final ClusterRouter clusterRouter;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long staleAfterMs;
+    private final long correspondenceStaleAfterMs;
+    private final long queueMaxWaitMs;
+    private final int batchSize;
+
+    public MatchSweeper(MatchRepo matchRepository,
+                        MatchService matchService,
+                        ClusterRouter clusterRouter,
+                        SimpMessagingTemplate messagingTemplate,
+                        @Value("${indichess.sweeper.stale-after-ms:600000}") long staleAfterMs,
+                        @Value("${indichess.sweeper.correspondence-stale-after-ms:1209600000}") long correspondenceStaleAfterMs,
+                        @Value("${indichess.sweeper.queue-max-wait-ms:1800000}") long queueMaxWaitMs,
+                        @Value("${indichess.sweeper.batch-size:500}") int batchSize) {
+        this.matchRepository = matchRepository;
+        this.matchService = matchService;
+        this.clusterRouter = clusterRouter;
+        this.messagingTemplate = messagingTemplate;
+        this.staleAfterMs = staleAfterMs;
+        this.correspondenceStaleAfterMs = correspondenceStaleAfterMs;
+        this.queueMaxWaitMs = queueMaxWaitMs;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(initialDelayString = "${indichess.sweeper.initial-delay-ms:60000}",
+            fixedDelayString = "${indichess.sweeper.interval-ms:60000}")
+    public void sweep() {
+        int purged = matchService.purgeQueuedLongerThan(TimeUnit.MILLISECONDS.toNanos(queueMaxWaitMs));
+        if (purged > 0) log.info("🧹 Dropped {} players who waited in matchmaking too long", purged);
+
+        if (!clusterRouter.ownsKey("sweeper")) return;
+        long now = System.currentTimeMillis();
+        int ended = sweep(LIVE_TYPES, now - staleAfterMs) + sweep(CORRESPONDENCE_TYPES, now - correspondenceStaleAfterMs);
+        if (ended > 0) log.info("🧹 Ended {} stale matches", ended);
+    }
+
+    private int sweep(Collection<GameType> types, long before) {
+        int ended = 0;
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            ids = matchRepository.findStaleIds(MatchStatus.ONGOING, before, types, afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) break;
+            afterId = ids.get(ids.size() - 1);
+            try {
+                for (Match match : matchService.sweepStale(ids)) {
+                    messagingTemplate.convertAndSend("/topic/game/" + match.getId(), MatchDTO.fromMatch(match));
+                    ended++;
+                }
+            } catch (RuntimeException e) {
+                log.error("Sweeping {} stale matches failed: {}", ids.size(), e.getMessage());
+            }
+        } while (ids.size() == batchSize);
+        return ended;
+    }
+}
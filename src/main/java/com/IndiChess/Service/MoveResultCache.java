@@ -0,0 +1,95 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.dto.MatchDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Results of recently committed moves, keyed by (match, ply, player), so that retried
+ * moves are answered without a database round trip. Clients send the ply their move is
+ * for (the number of half-moves already played when they made it):
+ *
+ * - the same move again for the same key is a duplicate and gets the stored result;
+ * - a different move for a key that already committed is stale and is rejected;
+ * - a key that is already being applied is rejected until that attempt finishes;
+ * - any other ply below the number of plies the match has committed is stale as well,
+ *   so old or evicted plies are turned away without loading the match.
+ *
+ * Only the node that owns a match applies its moves (REST and WebSocket requests are both
+ * routed there), so this cache sees every retry. It is only a shortcut: the real guard is
+ * MatchService, which compares the ply with the row while holding the match's lock.
+ */
+@Component
+public class MoveResultCache {
+
+    public enum Outcome {PROCEED, DUPLICATE, STALE, IN_FLIGHT}
+
+    public record Admission(Outcome outcome, MatchDTO result) {
+        static final Admission PROCEED = new Admission(Outcome.PROCEED, null);
+        static final Admission STALE = new Admission(Outcome.STALE, null);
+        static final Admission IN_FLIGHT = new Admission(Outcome.IN_FLIGHT, null);
+    }
+
+    private record Key(long matchId, int ply, String email) {
+    }
+
+    // No uci and no result while the first attempt is in flight
+    private record Entry(String uci, MatchDTO result) {
+        static final Entry IN_FLIGHT = new Entry(null, null);
+    }
+
+    private final Map<Key, Entry> entries;
+
+    // Plies played per match as of its last committed move, bounded like entries
+    private final Map<Long, Integer> committedPlies;
+
+    public MoveResultCache(@Value("${indichess.move-cache.size:20000}") int size) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > size;
+            }
+        });
+        this.committedPlies = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+                return size() > size;
+            }
+        });
+    }
+
+    /** Decides what to do with a move for {@code ply}; PROCEED must be followed by complete or abandon. */
+    public Admission admit(long matchId, String email, String uci, Integer ply) {
+        if (ply == null) return Admission.PROCEED; // older clients: no idempotency
+        Key key = new Key(matchId, ply, email);
+        Entry entry = entries.putIfAbsent(key, Entry.IN_FLIGHT);
+        if (entry == null) {
+            Integer committed = committedPlies.get(matchId);
+            if (committed != null && ply < committed) {
+                entries.remove(key, Entry.IN_FLIGHT);
+                return Admission.STALE;
+            }
+            return Admission.PROCEED;
+        }
+        if (entry.result() == null) return Admission.IN_FLIGHT;
+        return uci.equals(entry.uci()) ? new Admission(Outcome.DUPLICATE, entry.result()) : Admission.STALE;
+    }
+
+    // Called once the move's transaction has committed, whether or not the game went on
+    public void complete(long matchId, String email, String uci, Integer ply, MatchDTO result) {
+        if (ply == null) return;
+        entries.put(new Key(matchId, ply, email), new Entry(uci, result));
+        // Premoves may have been played in the same commit, so the result knows best
+        int plies = result != null && result.getCurrentPly() != null ? result.getCurrentPly() : ply + 1;
+        committedPlies.merge(matchId, plies, Math::max);
+    }
+
+    public void abandon(long matchId, String email, Integer ply) {
+        if (ply == null) return;
+        entries.remove(new Key(matchId, ply, email), Entry.IN_FLIGHT);
+    }
+}
@@ -0,0 +1,27 @@
+package com.IndiChess.Service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// One stage of a move; only written while a flight recording is running
+@Name("indichess.MoveStage")
+@Label("Move Stage")
+@Category({"IndiChess", "Moves"})
+@Description("Time spent in one stage of handling a move")
+@StackTrace(false)
+class MoveStageEvent extends jdk.jfr.Event {
+
+    @Label("Match Id")
+    long matchId;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Stage Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long stageDuration;
+}
@@ -0,0 +1,135 @@
+package com.IndiChess.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Per-move stage tracing. Each stage becomes a JFR event when a recording is running,
+ * and moves slower than the threshold are copied into a fixed ring that can be dumped
+ * at any time. A trace lives in a reused thread-local, so a fast move allocates nothing.
+ *
+ * Tracing is a no-op on threads that did not call {@link #begin(long)}, e.g. engine moves.
+ * A move started from inside another one (a premove played right after its opponent's
+ * move) suspends the outer trace, so each move is recorded on its own.
+ */
+@Component
+public class MoveTracer {
+
+    public enum Stage {LOAD, AUTH, VALIDATE, PERSIST, BROADCAST}
+
+    private static final Stage[] STAGES = Stage.values();
+
+    public record SlowMove(long matchId, String player, String uci, boolean accepted,
+                           Instant at, long totalMicros, Map<Stage, Long> stageMicros) {
+    }
+
+    private static final class Trace {
+        boolean active;
+        long matchId;
+        long start;
+        long mark;
+        final long[] stages = new long[STAGES.length];
+    }
+
+    /** A trace set aside by {@link #suspend()}; hand it back to {@link #resume(Suspended)}. */
+    public static final class Suspended {
+        private final Trace trace;
+        private final long at;
+
+        private Suspended(Trace trace, long at) {
+            this.trace = trace;
+            this.at = at;
+        }
+    }
+
+    private final ThreadLocal<Trace> current = ThreadLocal.withInitial(Trace::new);
+    private final AtomicReferenceArray<SlowMove> ring;
+    private final AtomicLong written = new AtomicLong();
+    private final long slowNanos;
+
+    public MoveTracer(@Value("${indichess.trace.slow-move-ms:250}") long slowMoveMs,
+                      @Value("${indichess.trace.ring-size:256}") int ringSize) {
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMoveMs);
+        this.ring = new AtomicReferenceArray<>(Math.max(1, ringSize));
+    }
+
+    public void begin(long matchId) {
+        Trace t = current.get();
+        t.active = true;
+        t.matchId = matchId;
+        t.start = System.nanoTime();
+        t.mark = t.start;
+        Arrays.fill(t.stages, 0L);
+    }
+
+    /** Closes {@code stage}: everything since the previous stage (or begin) is charged to it. */
+    public void stage(Stage stage) {
+        Trace t = current.get();
+        if (!t.active) return;
+        long now = System.nanoTime();
+        long elapsed = now - t.mark;
+        t.stages[stage.ordinal()] += elapsed;
+        t.mark = now;
+
+        MoveStageEvent event = new MoveStageEvent();
+        if (event.isEnabled()) {
+            event.matchId = t.matchId;
+            event.stage = stage.name();
+            event.stageDuration = elapsed;
+            event.commit();
+        }
+    }
+
+    public void end(String player, String uci, boolean accepted) {
+        Trace t = current.get();
+        if (!t.active) return;
+        t.active = false;
+        long total = System.nanoTime() - t.start;
+        if (total < slowNanos) return;
+
+        Map<Stage, Long> stages = new LinkedHashMap<>();
+        for (Stage stage : STAGES) {
+            stages.put(stage, TimeUnit.NANOSECONDS.toMicros(t.stages[stage.ordinal()]));
+        }
+        SlowMove slow = new SlowMove(t.matchId, player, uci, accepted, Instant.now(),
+                TimeUnit.NANOSECONDS.toMicros(total), stages);
+        ring.set((int) (written.getAndIncrement() % ring.length()), slow);
+    }
+
+    /** Sets this thread's trace aside so a nested move can {@link #begin(long)} its own. */
+    public Suspended suspend() {
+        Suspended suspended = new Suspended(current.get(), System.nanoTime());
+        current.set(new Trace());
+        return suspended;
+    }
+
+    /** Restores a suspended trace; the time it spent suspended is charged to no stage and not to its total. */
+    public void resume(Suspended suspended) {
+        long paused = System.nanoTime() - suspended.at;
+        suspended.trace.start += paused;
+        suspended.trace.mark += paused;
+        current.set(suspended.trace);
+    }
+
+    /** Slow moves currently in the ring, newest first. */
+    public List<SlowMove> slowMoves() {
+        long end = written.get();
+        long start = Math.max(0, end - ring.length());
+        List<SlowMove> out = new ArrayList<>((int) (end - start));
+        for (long i = end - 1; i >= start; i--) {
+            SlowMove slow = ring.get((int) (i % ring.length()));
+            if (slow != null) out.add(slow);
+        }
+        return out;
+    }
+}
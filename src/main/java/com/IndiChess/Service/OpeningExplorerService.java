@@ -0,0 +1,198 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Chess.Board;
+import com.IndiChess.Chess.MoveCodec;
+import com.IndiChess.Chess.PackedMoves;
+import com.IndiChess.Model.GameType;
+import com.IndiChess.Model.MatchStatus;
+import com.IndiChess.Model.OpeningStat;
+import com.IndiChess.Repository.OpeningStatRepo;
+import com.IndiChess.dto.OpeningExplorerDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-position move statistics. Counters live pre-aggregated in opening_stats and are
+ * bumped once per finished game; recently asked positions are kept in an LRU and
+ * updated in place, so the busy first moves never reach the database.
+ */
+@Service
+@Slf4j
+public class OpeningExplorerService {
+
+    private static final GameType[] TYPES = GameType.values();
+
+    private final OpeningStatRepo openingStatRepository;
+    private final TransactionTemplate tx;
+    private final int maxPly;
+    private final long cacheTtlMs;
+    private final Map<Long, PositionStats> cache;
+
+    public OpeningExplorerService(OpeningStatRepo openingStatRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${indichess.explorer.max-ply:30}") int maxPly,
+                                  @Value("${indichess.explorer.cache-size:20000}") int cacheSize,
+                                  @Value("${indichess.explorer.cache-ttl-ms:600000}") long cacheTtlMs) {
+        this.openingStatRepository = openingStatRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        // Listeners run after the game's commit, while its resources are still bound
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxPly = maxPly;
+        this.cacheTtlMs = cacheTtlMs;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, PositionStats> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    // Counts per move, indexed by gameType.ordinal() * 3 + outcome (white, draw, black)
+    private static final class PositionStats {
+        final long loadedAt = System.currentTimeMillis();
+        final Map<Integer, long[]> moves = new HashMap<>();
+
+        synchronized void add(int move, GameType type, long white, long draw, long black) {
+            long[] c = moves.computeIfAbsent(move, k -> new long[TYPES.length * 3]);
+            int base = type.ordinal() * 3;
+            c[base] += white;
+            c[base + 1] += draw;
+            c[base + 2] += black;
+        }
+
+        synchronized Map<Integer, long[]> snapshot() {
+            Map<Integer, long[]> copy = new HashMap<>(moves.size() * 2);
+            moves.forEach((m, c) -> copy.put(m, c.clone()));
+            return copy;
+        }
+    }
+
+    /* ================= AGGREGATION ================= */
+
+    @TransactionalEventListener
+    public void onGameFinished(GameFinishedEvent event) {
+        if (event.status() == null || event.status() == MatchStatus.ONGOING || event.status() == MatchStatus.ABORTED
+                || event.gameType() == null) return;
+
+        List<OpeningStat> deltas = deltasFor(event);
+        if (deltas.isEmpty()) return;
+
+        try {
+            tx.executeWithoutResult(status -> openingStatRepository.incrementAll(deltas));
+        } catch (DataAccessException e) {
+            // Stats are best effort, but say why: the SQL state tells a deadlock from a schema problem
+            Throwable cause = e.getMostSpecificCause();
+            if (cause instanceof SQLException sql && sql.getNextException() != null) cause = sql.getNextException();
+            log.warn("Opening stats not updated for match {} (SQL state {}): {}", event.matchId(),
+                    cause instanceof SQLException sql ? sql.getSQLState() : "n/a", cause.getMessage());
+            return;
+        }
+
+        // Only after the commit, so a failed write never shows up in memory
+        for (OpeningStat d : deltas) {
+            PositionStats cached = cache.get(d.getPositionHash());
+            if (cached != null) {
+                cached.add(d.getMove(), d.getGameType(), d.getWhiteWins(), d.getDraws(), d.getBlackWins());
+            }
+        }
+    }
+
+    private List<OpeningStat> deltasFor(GameFinishedEvent event) {
+        byte[] packed = event.packedMoves();
+        int plies = Math.min(PackedMoves.size(packed), maxPly);
+        long white = event.status() == MatchStatus.WHITE_WIN ? 1 : 0;
+        long draw = event.status() == MatchStatus.DRAW ? 1 : 0;
+        long black = event.status() == MatchStatus.BLACK_WIN ? 1 : 0;
+
+        // A game that repeats a position with the same move still counts once
+        Map<String, OpeningStat> unique = new LinkedHashMap<>();
+        Board board = Board.startPosition();
+        for (int i = 0; i < plies; i++) {
+            int move = PackedMoves.get(packed, i);
+            long hash = board.hash();
+            unique.computeIfAbsent(hash + ":" + move, k -> {
+                OpeningStat s = new OpeningStat();
+                s.setPositionHash(hash);
+                s.setGameType(event.gameType());
+                s.setMove(move);
+                s.setWhiteWins(white);
+                s.setDraws(draw);
+                s.setBlackWins(black);
+                return s;
+            });
+            board.play(move);
+        }
+        return new ArrayList<>(unique.values());
+    }
+
+    /* ================= QUERY ================= */
+
+    public OpeningExplorerDTO explore(String fen, GameType gameType) {
+        Board board = Board.fromFen(fen);
+        Map<Integer, long[]> counts = statsFor(board.hash()).snapshot();
+
+        int[] legal = board.legalMoves();
+        List<OpeningExplorerDTO.MoveStat> moves = new ArrayList<>();
+        long totalGames = 0;
+        for (Map.Entry<Integer, long[]> e : counts.entrySet()) {
+            int move = e.getKey();
+            // A hash collision could surface a move from another position
+            if (Arrays.stream(legal).noneMatch(m -> m == move)) continue;
+
+            long[] c = e.getValue();
+            long white = 0, draw = 0, black = 0;
+            for (GameType type : TYPES) {
+                if (gameType != null && type != gameType) continue;
+                int base = type.ordinal() * 3;
+                white += c[base];
+                draw += c[base + 1];
+                black += c[base + 2];
+            }
+            long games = white + draw + black;
+            if (games == 0) continue;
+
+            totalGames += games;
+            moves.add(new OpeningExplorerDTO.MoveStat(
+                    MoveCodec.toUci(move),
+                    board.toSan(move),
+                    games,
+                    percent(white, games),
+                    percent(draw, games),
+                    percent(black, games)));
+        }
+        moves.sort((a, b) -> Long.compare(b.getGames(), a.getGames()));
+        return new OpeningExplorerDTO(board.toFen(), gameType, totalGames, moves);
+    }
+
+    private PositionStats statsFor(long hash) {
+        PositionStats cached = cache.get(hash);
+        // The TTL also bounds drift from a game that finished while the entry was loading
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt < cacheTtlMs) return cached;
+
+        PositionStats loaded = new PositionStats();
+        for (OpeningStat s : openingStatRepository.findByPositionHash(hash)) {
+            loaded.add(s.getMove(), s.getGameType(), s.getWhiteWins(), s.getDraws(), s.getBlackWins());
+        }
+        cache.put(hash, loaded);
+        return loaded;
+    }
+
+    private static double percent(long part, long total) {
+        return Math.round(part * 1000.0 / total) / 10.0;
+    }
+}
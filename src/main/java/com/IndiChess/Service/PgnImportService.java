@@ -0,0 +1,249 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Chess.MoveCodec;
+import com.IndiChess.Chess.PackedMoves;
+import com.IndiChess.Chess.PgnParser;
+import com.IndiChess.Chess.PgnReader;
+import com.IndiChess.Model.FenCheckpoint;
+import com.IndiChess.Model.GameType;
+import com.IndiChess.Model.Match;
+import com.IndiChess.Model.MatchStatus;
+import com.IndiChess.Model.TimeControl;
+import com.IndiChess.Model.User;
+import com.IndiChess.Repository.FenCheckpointRepo;
+import com.IndiChess.Repository.MatchRepo;
+import com.IndiChess.Repository.UserRepository;
+import com.IndiChess.dto.ImportReport;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk PGN ingestion: one thread splits the stream into game texts, a fork-join
+ * pool parses and validates them, and each batch is written with one JDBC batch.
+ * Parsing of batch N+1 overlaps with the insert of batch N.
+ */
+@Service
+@Slf4j
+public class PgnImportService {
+
+    private static final DateTimeFormatter PGN_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+
+    private final MatchRepo matchRepository;
+    private final FenCheckpointRepo checkpointRepository;
+    private final UserRepository userRepository;
+    private final PositionService positionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate tx;
+    private final ForkJoinPool parsePool;
+    private final int batchSize;
+
+    private record ParsedGame(PgnParser.PgnGame game, MatchStatus status, List<FenCheckpoint> checkpoints) {
+    }
+
+    public PgnImportService(MatchRepo matchRepository,
+                            FenCheckpointRepo checkpointRepository,
+                            UserRepository userRepository,
+                            PositionService positionService,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${indichess.import.parallelism:0}") int parallelism,
+                            @Value("${indichess.import.batch-size:500}") int batchSize) {
+        this.matchRepository = matchRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.userRepository = userRepository;
+        this.positionService = positionService;
+        this.eventPublisher = eventPublisher;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.parsePool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parsePool.shutdown();
+    }
+
+    public ImportReport importPgn(Reader reader) throws IOException {
+        long start = System.nanoTime();
+        PgnReader games = new PgnReader(reader);
+        AtomicLong rejected = new AtomicLong();
+        Map<String, User> players = new HashMap<>();
+        long read = 0;
+        long imported = 0;
+
+        CompletableFuture<List<ParsedGame>> pending = null;
+        List<String> batch;
+        while (!(batch = games.nextGames(batchSize)).isEmpty()) {
+            read += batch.size();
+            CompletableFuture<List<ParsedGame>> next = parseAsync(batch, rejected);
+            if (pending != null) imported += store(pending.join(), players);
+            pending = next;
+        }
+        if (pending != null) imported += store(pending.join(), players);
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        double gamesPerSecond = imported * 1000.0 / elapsedMs;
+        log.info("📥 PGN import: {} read, {} imported, {} rejected in {} ms ({} games/s)",
+                read, imported, rejected.get(), elapsedMs, String.format("%.1f", gamesPerSecond));
+        return new ImportReport(read, imported, rejected.get(), elapsedMs, gamesPerSecond);
+    }
+
+    /* ================= PARSE (fork-join) ================= */
+
+    private CompletableFuture<List<ParsedGame>> parseAsync(List<String> texts, AtomicLong rejected) {
+        return CompletableFuture.supplyAsync(() -> texts.parallelStream()
+                .map(text -> parse(text, rejected))
+                .filter(Objects::nonNull)
+                .toList(), parsePool);
+    }
+
+    private ParsedGame parse(String text, AtomicLong rejected) {
+        try {
+            PgnParser.PgnGame game = PgnParser.parse(text);
+            MatchStatus status = statusFromResult(game.result());
+            if (status == null) {
+                throw new IllegalArgumentException("Unfinished game");
+            }
+            return new ParsedGame(game, status, positionService.buildCheckpoints(game.packedMoves()));
+        } catch (RuntimeException e) {
+            rejected.incrementAndGet();
+            log.debug("Skipping PGN game: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /* ================= STORE (batched) ================= */
+
+    private int store(List<ParsedGame> parsed, Map<String, User> players) {
+        if (parsed.isEmpty()) return 0;
+        return tx.execute(status -> {
+            resolvePlayers(parsed, players);
+
+            List<Match> matches = new ArrayList<>(parsed.size());
+            for (ParsedGame p : parsed) {
+                matches.add(toMatch(p, players));
+            }
+            matchRepository.insertAll(matches);
+
+            List<FenCheckpoint> checkpoints = new ArrayList<>();
+            for (int i = 0; i < matches.size(); i++) {
+                for (FenCheckpoint checkpoint : parsed.get(i).checkpoints()) {
+                    checkpoint.setMatchId(matches.get(i).getId());
+                    checkpoints.add(checkpoint);
+                }
+            }
+            checkpointRepository.insertAll(checkpoints);
+
+            // Imported games feed the same post-game indexes as live ones
+            for (Match match : matches) {
+                eventPublisher.publishEvent(GameFinishedEvent.of(match));
+            }
+            return matches.size();
+        });
+    }
+
+    // One lookup and one batched save per import batch instead of one per game. PGN players are
+    // only ever matched to their own placeholder accounts (by the email derived from the name),
+    // never to a real account that happens to share the display name.
+    private void resolvePlayers(List<ParsedGame> parsed, Map<String, User> players) {
+        Map<String, String> missing = new HashMap<>(); // placeholder email -> name
+        for (ParsedGame p : parsed) {
+            for (String name : List.of(playerName(p.game(), "White"), playerName(p.game(), "Black"))) {
+                if (!players.containsKey(name)) missing.put(placeholderEmail(name), name);
+            }
+        }
+        if (missing.isEmpty()) return;
+
+        for (User user : userRepository.findAllByEmailIn(missing.keySet())) {
+            players.put(missing.remove(user.getEmail()), user);
+        }
+
+        List<User> created = new ArrayList<>(missing.size());
+        for (Map.Entry<String, String> entry : missing.entrySet()) {
+            User u = new User();
+            u.setName(entry.getValue());
+            u.setEmail(entry.getKey());
+            u.setPassword("IMPORTED_PLAYER");
+            created.add(u);
+        }
+        for (User user : userRepository.saveAll(created)) {
+            players.put(user.getName(), user);
+        }
+    }
+
+    private static String placeholderEmail(String name) {
+        return "pgn-" + UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)) + "@import.indichess";
+    }
+
+    private Match toMatch(ParsedGame p, Map<String, User> players) {
+        PgnParser.PgnGame game = p.game();
+        byte[] packed = game.packedMoves();
+        int plies = PackedMoves.size(packed);
+
+        Match match = new Match();
+        match.setPlayer1(players.get(playerName(game, "White")));
+        match.setPlayer2(players.get(playerName(game, "Black")));
+        TimeControl timeControl = TimeControl.fromPgn(game.tag("TimeControl"));
+        match.setTimeControl(timeControl);
+        match.setGameType(timeControl != null ? timeControl.gameType() : GameType.RAPID);
+        match.setStatus(p.status());
+        match.setFenCurrent(game.finalFen());
+        match.setCurrentPly(plies);
+        match.setPackedMoves(packed);
+        if (plies > 0) {
+            match.setLastMoveUci(MoveCodec.toUci(PackedMoves.get(packed, plies - 1)));
+        }
+
+        LocalDateTime playedAt = parseDate(game.tag("Date"));
+        match.setStartedAt(playedAt);
+        match.setFinishedAt(playedAt);
+        return match;
+    }
+
+    /* ================= TAG MAPPING ================= */
+
+    private static String playerName(PgnParser.PgnGame game, String tag) {
+        String name = game.tag(tag);
+        return name == null || name.isBlank() || name.equals("?") ? "Anonymous" : name.trim();
+    }
+
+    private static MatchStatus statusFromResult(String result) {
+        switch (result) {
+            case "1-0": return MatchStatus.WHITE_WIN;
+            case "0-1": return MatchStatus.BLACK_WIN;
+            case "1/2-1/2": return MatchStatus.DRAW;
+            default: return null;
+        }
+    }
+
+    private static LocalDateTime parseDate(String date) {
+        if (date == null || date.contains("?")) return LocalDateTime.now();
+        try {
+            return LocalDate.parse(date, PGN_DATE).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            return LocalDateTime.now();
+        }
+    }
+}
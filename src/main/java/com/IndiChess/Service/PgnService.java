@@ -0,0 +1,113 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Chess.PgnWriter;
+import com.IndiChess.Model.MatchStatus;
+import com.IndiChess.Repository.MatchRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+@Slf4j
+public class PgnService {
+
+    private static final DateTimeFormatter PGN_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+
+    private final MatchRepo matchRepository;
+    private final TransactionTemplate readOnlyTx;
+
+    public PgnService(MatchRepo matchRepository, PlatformTransactionManager transactionManager) {
+        this.matchRepository = matchRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<String> exportGame(Long matchId) {
+        return matchRepository.findPgnById(matchId).map(game -> {
+            StringWriter out = new StringWriter(1024);
+            try {
+                write(out, game);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toString();
+        });
+    }
+
+    /**
+     * Streams every game of the user straight to {@code out}. Rows come from a
+     * server-side cursor, so memory use does not depend on the archive size.
+     * Runs its own transaction because it is called from the async response thread.
+     */
+    public void exportUserGames(String email, OutputStream out, boolean gzip) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 16 * 1024);
+
+        int[] count = {0};
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<MatchRepo.PgnView> games = matchRepository.streamPgnByPlayerEmail(email)) {
+                games.forEach(game -> {
+                    try {
+                        write(writer, game);
+                        count[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        });
+
+        writer.flush();
+        if (target instanceof GZIPOutputStream) {
+            ((GZIPOutputStream) target).finish();
+        }
+        log.info("📦 Exported {} games for {}", count[0], email);
+    }
+
+    private void write(Writer out, MatchRepo.PgnView game) throws IOException {
+        String result = resultToken(game.getStatus());
+
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", "IndiChess " + (game.getGameType() != null ? game.getGameType().name().toLowerCase() : "casual") + " game");
+        tags.put("Site", "IndiChess");
+        tags.put("Date", game.getStartedAt() != null ? game.getStartedAt().format(PGN_DATE) : "????.??.??");
+        tags.put("Round", "-");
+        tags.put("White", game.getWhiteName() != null ? game.getWhiteName() : "?");
+        tags.put("Black", game.getBlackName() != null ? game.getBlackName() : "?");
+        tags.put("Result", result);
+        tags.put("GameId", String.valueOf(game.getId()));
+
+        byte[] packed = game.getArchivedData() != null
+                ? GameArchiveService.decompress(game.getArchivedData())
+                : game.getPackedMoves();
+        PgnWriter.writeGame(out, tags, packed, result);
+    }
+
+    private static String resultToken(MatchStatus status) {
+        if (status == null) return "*";
+        switch (status) {
+            case WHITE_WIN: return "1-0";
+            case BLACK_WIN: return "0-1";
+            case DRAW: return "1/2-1/2";
+            default: return "*";
+        }
+    }
+}
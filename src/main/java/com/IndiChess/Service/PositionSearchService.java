@@ -0,0 +1,184 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Chess.Board;
+import com.IndiChess.Chess.PackedMoves;
+import com.IndiChess.Model.Match;
+import com.IndiChess.Model.MatchStatus;
+import com.IndiChess.Repository.MatchRepo;
+import com.IndiChess.Repository.PositionIndex;
+import com.IndiChess.dto.PositionSearchDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds finished games into the PositionIndex and answers position searches.
+ *
+ * A game is flagged position_indexed once the segment holding it is on disk. On startup
+ * every finished game without the flag is replayed into the index again, which covers
+ * whatever the in-memory buffer held when the node went down; with no segments at all
+ * (a new or wiped index directory) the flags are cleared and everything is re-added.
+ *
+ * Finished games are replayed on a single feeder thread, so neither the commit that
+ * ended a game nor a PGN import batch waits for the replay.
+ */
+@Service
+@Slf4j
+public class PositionSearchService {
+
+    private static final int MARK_CHUNK = 1000;
+
+    private final PositionIndex positionIndex;
+    private final MatchRepo matchRepository;
+    private final GameArchiveService archiveService;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readOnlyTx;
+    private final int batchSize;
+    private final ExecutorService feeder;
+
+    public PositionSearchService(PositionIndex positionIndex,
+                                 MatchRepo matchRepository,
+                                 GameArchiveService archiveService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${indichess.position-index.rebuild-batch-size:200}") int batchSize) {
+        this.positionIndex = positionIndex;
+        this.matchRepository = matchRepository;
+        this.archiveService = archiveService;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.batchSize = Math.max(1, batchSize);
+        this.feeder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "position-index-feeder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        positionIndex.onDurable(this::markIndexed);
+    }
+
+    @TransactionalEventListener
+    public void onGameFinished(GameFinishedEvent event) {
+        try {
+            feeder.execute(() -> {
+                try {
+                    index(event.matchId(), event.packedMoves());
+                } catch (RuntimeException e) {
+                    // Left unflagged, so the next startup adds it
+                    log.warn("Could not index match {}: {}", event.matchId(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Shutting down, match {} is indexed on the next startup", event.matchId());
+        }
+    }
+
+    public void index(long matchId, byte[] packed) {
+        int n = PackedMoves.size(packed);
+        long[] hashes = new long[n];
+        Board board = Board.startPosition();
+        for (int i = 0; i < n; i++) {
+            board.play(PackedMoves.get(packed, i));
+            hashes[i] = board.hash();
+        }
+        // Added even without moves, so the game is flagged and not replayed on every startup
+        positionIndex.addGame(matchId, hashes);
+    }
+
+    // Bounds what a crash can lose from the in-memory part of the index
+    @Scheduled(fixedDelayString = "${indichess.position-index.flush-interval-ms:300000}")
+    public void flush() {
+        positionIndex.flush();
+    }
+
+    // Before the datasource goes away, so the last segment's games still get flagged
+    @PreDestroy
+    public void close() {
+        feeder.shutdown();
+        try {
+            feeder.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        positionIndex.close();
+    }
+
+    /* ================= STARTUP REBUILD ================= */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!positionIndex.hadSegmentsOnStartup()) {
+            tx.executeWithoutResult(status -> matchRepository.clearPositionIndexed());
+        }
+
+        long afterId = 0;
+        int total = 0;
+        while (true) {
+            List<Long> ids = matchRepository.findUnindexedIds(MatchStatus.ONGOING, afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) break;
+            Integer added = readOnlyTx.execute(status -> {
+                int n = 0;
+                for (Match match : matchRepository.findAllById(ids)) {
+                    byte[] packed = packedMovesOf(archiveService.restore(match));
+                    if (packed == null) {
+                        log.warn("Match {} has move rows that do not replay, leaving it out of the position index", match.getId());
+                        continue;
+                    }
+                    index(match.getId(), packed);
+                    n++;
+                }
+                return n;
+            });
+            total += added != null ? added : 0;
+            afterId = ids.get(ids.size() - 1);
+        }
+
+        if (total > 0) {
+            positionIndex.flush();
+            log.info("🔎 Position index: re-added {} games missing from the segments", total);
+        }
+    }
+
+    // Games the legacy migration has not reached yet are replayed from their move rows
+    private static byte[] packedMovesOf(Match match) {
+        if (PackedMoves.size(match.getPackedMoves()) > 0 || match.getMoveRows().isEmpty()) {
+            return match.getPackedMoves() == null ? PackedMoves.EMPTY : match.getPackedMoves();
+        }
+        return LegacyMoveMigration.pack(match.getMoveRows());
+    }
+
+    private void markIndexed(long[] matchIds) {
+        for (int from = 0; from < matchIds.length; from += MARK_CHUNK) {
+            List<Long> chunk = Arrays.stream(matchIds, from, Math.min(matchIds.length, from + MARK_CHUNK)).boxed().toList();
+            tx.executeWithoutResult(status -> matchRepository.markPositionIndexed(chunk));
+        }
+    }
+
+    /* ================= SEARCH ================= */
+
+    public PositionSearchDTO search(String fen, int limit) {
+        Board board = Board.fromFen(fen);
+        PositionIndex.Hits hits = positionIndex.search(board.hash(), limit);
+
+        List<PositionSearchDTO.GameHit> games = new ArrayList<>(hits.postings().length);
+        for (long posting : hits.postings()) {
+            games.add(new PositionSearchDTO.GameHit(PositionIndex.matchIdOf(posting), PositionIndex.plyOf(posting)));
+        }
+        return new PositionSearchDTO(board.toFen(), hits.total(), games);
+    }
+}
@@ -0,0 +1,129 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Chess.Board;
+import com.IndiChess.Chess.MoveCodec;
+import com.IndiChess.Chess.PackedMoves;
+import com.IndiChess.Model.FenCheckpoint;
+import com.IndiChess.Model.Match;
+import com.IndiChess.Repository.FenCheckpointRepo;
+import com.IndiChess.Repository.MatchRepo;
+import com.IndiChess.dto.PositionDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class PositionService {
+
+    private final MatchRepo matchRepository;
+    private final FenCheckpointRepo checkpointRepository;
+    private final int checkpointInterval;
+
+    // What a (matchId, ply) position looks like; moves are append-only, so entries never go stale.
+    // The game's length does change, so it is read from the match on every request.
+    private record CachedPosition(String fen, String lastMoveUci, String lastMoveSan) {
+    }
+
+    private final Map<Long, CachedPosition> cache;
+
+    public PositionService(MatchRepo matchRepository,
+                           FenCheckpointRepo checkpointRepository,
+                           @Value("${indichess.position.checkpoint-interval:16}") int checkpointInterval,
+                           @Value("${indichess.position.cache-size:10000}") int cacheSize) {
+        this.matchRepository = matchRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.checkpointInterval = Math.max(1, checkpointInterval);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedPosition> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /* ================= CHECKPOINTS ================= */
+
+    // Called by makeMove after the move has been appended and played on the board; one row
+    // insert in the move's transaction, whatever the length of the game
+    public void recordCheckpoint(Match match, Board board) {
+        int ply = match.getCurrentPly();
+        if (ply % checkpointInterval != 0) return;
+
+        checkpointRepository.insertAll(List.of(new FenCheckpoint(match.getId(), ply, board.toFen())));
+    }
+
+    // Same checkpoints for a whole game at once (bulk import); the match id is filled in once known
+    public List<FenCheckpoint> buildCheckpoints(byte[] packed) {
+        List<FenCheckpoint> checkpoints = new ArrayList<>();
+        Board board = Board.startPosition();
+        int total = PackedMoves.size(packed);
+        for (int i = 0; i < total; i++) {
+            board.play(PackedMoves.get(packed, i));
+            int ply = i + 1;
+            if (ply % checkpointInterval != 0) continue;
+            checkpoints.add(new FenCheckpoint(null, ply, board.toFen()));
+        }
+        return checkpoints;
+    }
+
+    /* ================= SEEK ================= */
+
+    @Transactional(readOnly = true)
+    public Optional<PositionDTO> getPosition(Long matchId, int ply) {
+        Optional<Integer> currentPly = matchRepository.findCurrentPlyById(matchId);
+        if (currentPly.isEmpty()) return Optional.empty();
+        int total = currentPly.get();
+        if (ply < 0 || ply > total) {
+            throw new IllegalArgumentException("Ply must be between 0 and " + total);
+        }
+
+        long key = cacheKey(matchId, ply);
+        CachedPosition position = cache.get(key);
+        if (position == null) {
+            Optional<MatchRepo.ReplayView> view = matchRepository.findReplayById(matchId);
+            if (view.isEmpty()) return Optional.empty();
+            position = view.get().getArchivedData() != null
+                    ? seek(GameArchiveService.decompress(view.get().getArchivedData()), null, ply)
+                    : seek(view.get().getPackedMoves(), checkpointBefore(matchId, ply), ply);
+            cache.put(key, position);
+        }
+        return Optional.of(new PositionDTO(matchId, ply, total, position.fen(),
+                position.lastMoveUci(), position.lastMoveSan()));
+    }
+
+    // Nearest checkpoint strictly before the requested ply (so the last move's SAN can be produced)
+    private FenCheckpoint checkpointBefore(Long matchId, int ply) {
+        return checkpointRepository.findFirstByMatchIdAndPlyLessThanOrderByPlyDesc(matchId, ply).orElse(null);
+    }
+
+    private CachedPosition seek(byte[] packed, FenCheckpoint from, int ply) {
+        int total = PackedMoves.size(packed);
+        if (ply > total) {
+            throw new IllegalArgumentException("Ply must be between 0 and " + total);
+        }
+
+        // The start position when there is no checkpoint to start from
+        int fromPly = from != null ? from.getPly() : 0;
+        Board board = Board.fromFen(from != null ? from.getFen() : Board.START_FEN);
+        String lastSan = null;
+        for (int i = fromPly; i < ply; i++) {
+            int move = PackedMoves.get(packed, i);
+            if (i == ply - 1) lastSan = board.toSan(move);
+            board.play(move);
+        }
+
+        String lastUci = ply > 0 ? MoveCodec.toUci(PackedMoves.get(packed, ply - 1)) : null;
+        return new CachedPosition(board.toFen(), lastUci, lastSan);
+    }
+
+    private static long cacheKey(Long matchId, int ply) {
+        return (matchId << 16) | (ply & 0xFFFF);
+    }
+}
@@ -0,0 +1,117 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Cluster.ClusterRouter;
+import com.IndiChess.Model.Match;
+import com.IndiChess.Model.MatchStatus;
+import com.IndiChess.Repository.MatchRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One queued premove per player, held by the node that owns the match. Right after the
+ * opponent's move commits, {@link GamePlayService} calls {@link #playQueued} before
+ * broadcasting, so the premove is validated and played without a round trip to the
+ * client, uses no clock time, and both moves go out in one update.
+ *
+ * A premove is bound to the ply it was made for; if the game has moved elsewhere by
+ * the time it comes up (the player moved normally, or the premove arrived late) it is
+ * dropped. An illegal premove is dropped and the player is told.
+ *
+ * Only players of an ongoing game may queue one. Games are usually finished on this node
+ * (GameFinishedEvent clears them), but the sweeper and correspondence flags may finish
+ * them elsewhere, so queued premoves of games that are no longer ongoing are also pruned
+ * periodically.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PremoveService {
+
+    private final MatchService matchService;
+    private final MatchRepo matchRepository;
+    private final ClusterRouter clusterRouter;
+    private final MoveTracer tracer;
+
+    // replyNode holds the player's session, for telling them a premove was dropped
+    private record Premove(String uci, int ply, String replyNode) {
+    }
+
+    // matchId -> email -> premove
+    private final Map<Long, Map<String, Premove>> queued = new ConcurrentHashMap<>();
+
+    public void queue(long matchId, String email, String uci, int ply, String replyNode) {
+        MatchRepo.PlayersView game = matchRepository.findPlayersById(matchId)
+                .orElseThrow(() -> new RuntimeException("Match not found"));
+        if (game.getStatus() != MatchStatus.ONGOING) {
+            throw new RuntimeException("Game is not active");
+        }
+        if (!email.equals(game.getWhiteEmail()) && !email.equals(game.getBlackEmail())) {
+            throw new RuntimeException("You are not in this match");
+        }
+        queued.computeIfAbsent(matchId, id -> new ConcurrentHashMap<>()).put(email, new Premove(uci, ply, replyNode));
+    }
+
+    public void cancel(long matchId, String email) {
+        Map<String, Premove> premoves = queued.get(matchId);
+        if (premoves != null) premoves.remove(email);
+    }
+
+    /**
+     * Plays the premove of the side to move in {@code committed}, if one is queued for
+     * this ply. Returns the match after the premove, or null when none was played.
+     */
+    public Match playQueued(Match committed) {
+        if (committed.getStatus() != MatchStatus.ONGOING) return null;
+        Map<String, Premove> premoves = queued.get(committed.getId());
+        if (premoves == null) return null;
+        String email = committed.getCurrentTurnEmail();
+        Premove premove = premoves.remove(email);
+        if (premove == null) return null;
+
+        int ply = committed.getCurrentPly();
+        if (premove.ply() != ply) return null; // made for a position that never came up
+
+        // The premove gets its own trace; the opponent's move, still being traced, resumes after it
+        MoveTracer.Suspended mover = tracer.suspend();
+        tracer.begin(committed.getId());
+        boolean accepted = false;
+        try {
+            Match after = matchService.makePremove(committed.getId(), email, premove.uci(), ply);
+            accepted = after.getCurrentPly() > ply;
+            return accepted ? after : null;
+        } catch (RuntimeException e) {
+            log.debug("Premove {} dropped in match {}: {}", premove.uci(), committed.getId(), e.getMessage());
+            clusterRouter.sendError(premove.replyNode(), email, "Premove " + premove.uci() + " cancelled: " + e.getMessage());
+            return null;
+        } finally {
+            tracer.end(email, premove.uci(), accepted);
+            tracer.resume(mover);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onGameFinished(GameFinishedEvent event) {
+        queued.remove(event.matchId());
+    }
+
+    // Covers games finished (or aborted) on another node, which raise no event here
+    @Scheduled(fixedDelayString = "${indichess.premove.prune-interval-ms:60000}")
+    public void pruneFinished() {
+        if (queued.isEmpty()) return;
+        List<Long> ids = new ArrayList<>(queued.keySet());
+        Set<Long> ongoing = new HashSet<>(matchRepository.findIdsByStatus(MatchStatus.ONGOING, ids));
+        for (Long id : ids) {
+            if (!ongoing.contains(id)) queued.remove(id);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Cluster.ClusterRouter;
+import com.IndiChess.Cluster.ForwardedPresenceEvent;
+import com.IndiChess.dto.PresenceDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Who is connected over STOMP. Sessions are counted per node: each user is one map entry
+ * whose value packs the last-seen time and the number of sessions open on this node into
+ * a single long, updated atomically with merge/compute. Session ids are tracked too,
+ * because Spring may report the disconnect of one session more than once.
+ *
+ * A node tells the others when a user's first session opens or last session closes on
+ * it, so every node knows which nodes hold sessions for whom. Only when that set becomes
+ * empty has the user really gone: they leave every matchmaking pool at once and go
+ * DISCONNECTED for a grace period; if they have not reconnected anywhere by then they
+ * are OFFLINE and forgotten. Every node tracks the same transitions, but only the node
+ * that owns "presence:{email}" on the ring acts on them and publishes the change on
+ * /topic/presence/{email}, so an opponent can tell a dropped connection from a long think.
+ */
+@Service
+@Slf4j
+public class PresenceRegistry {
+
+    private static final int SESSION_BITS = 16;
+    private static final long SESSION_MASK = (1L << SESSION_BITS) - 1;
+
+    private final MatchService matchService;
+    private final ClusterRouter clusterRouter;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long graceMs;
+
+    // email -> lastSeenMs << 16 | sessions open on this node; absent once none are
+    private final Map<String, Long> presence = new ConcurrentHashMap<>();
+    // STOMP session id -> email, this node only
+    private final Map<String, String> sessions = new ConcurrentHashMap<>();
+    // email -> nodes holding at least one of the user's sessions, cluster-wide
+    private final Map<String, Set<String>> nodesOnline = new ConcurrentHashMap<>();
+    // email -> last connect or disconnect anywhere, until the user goes OFFLINE
+    private final Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+    // email -> end of the grace period after the last session closed
+    private final Map<String, Long> graceEnds = new ConcurrentHashMap<>();
+    private final AtomicInteger onlineUsers = new AtomicInteger();
+
+    public PresenceRegistry(MatchService matchService,
+                            ClusterRouter clusterRouter,
+                            SimpMessagingTemplate messagingTemplate,
+                            GameMetrics metrics,
+                            @Value("${indichess.presence.grace-ms:20000}") long graceMs) {
+        this.matchService = matchService;
+        this.clusterRouter = clusterRouter;
+        this.messagingTemplate = messagingTemplate;
+        this.graceMs = graceMs;
+        metrics.presence(onlineUsers, sessions);
+    }
+
+    private static long pack(long lastSeenMs, long sessionCount) {
+        return lastSeenMs << SESSION_BITS | Math.min(sessionCount, SESSION_MASK);
+    }
+
+    private static int sessionsOf(long packed) {
+        return (int) (packed & SESSION_MASK);
+    }
+
+    /* ================= SESSION EVENTS ================= */
+
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (event.getUser() == null || sessionId == null) return;
+        connected(sessionId, event.getUser().getName());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        disconnected(event.getSessionId());
+    }
+
+    @EventListener
+    public void onForwardedPresence(ForwardedPresenceEvent event) {
+        if (event.online()) nodeOnline(event.email(), event.origin());
+        else nodeOffline(event.email(), event.origin());
+    }
+
+    void connected(String sessionId, String email) {
+        if (sessions.putIfAbsent(sessionId, email) != null) return;
+        long now = System.currentTimeMillis();
+        long packed = presence.merge(email, pack(now, 1), (old, one) -> pack(now, sessionsOf(old) + 1));
+        if (sessionsOf(packed) != 1) return;
+
+        nodeOnline(email, clusterRouter.nodeId());
+        clusterRouter.broadcastPresence(email, true);
+    }
+
+    void disconnected(String sessionId) {
+        String email = sessionId != null ? sessions.remove(sessionId) : null;
+        if (email == null) return;
+        long now = System.currentTimeMillis();
+        boolean[] last = new boolean[1];
+        presence.computeIfPresent(email, (key, old) -> {
+            last[0] = sessionsOf(old) <= 1;
+            return last[0] ? null : pack(now, sessionsOf(old) - 1);
+        });
+        if (!last[0]) return;
+
+        nodeOffline(email, clusterRouter.nodeId());
+        clusterRouter.broadcastPresence(email, false);
+    }
+
+    /* ================= CLUSTER-WIDE TRANSITIONS ================= */
+
+    private void nodeOnline(String email, String node) {
+        long now = System.currentTimeMillis();
+        boolean[] first = new boolean[1];
+        nodesOnline.compute(email, (key, nodes) -> {
+            if (nodes == null) nodes = ConcurrentHashMap.newKeySet();
+            first[0] = nodes.isEmpty();
+            nodes.add(node);
+            return nodes;
+        });
+        lastSeen.put(email, now);
+        if (!first[0]) return;
+
+        onlineUsers.incrementAndGet();
+        boolean reconnected = graceEnds.remove(email) != null;
+        if (reconnected) log.debug("{} reconnected within the grace period", email);
+        if (owns(email)) publish(new PresenceDTO(email, PresenceDTO.Status.ONLINE, sessionsHere(email), now, null));
+    }
+
+    private void nodeOffline(String email, String node) {
+        long now = System.currentTimeMillis();
+        boolean[] gone = new boolean[1];
+        nodesOnline.computeIfPresent(email, (key, nodes) -> {
+            gone[0] = nodes.remove(node) && nodes.isEmpty();
+            return nodes.isEmpty() ? null : nodes;
+        });
+        if (!gone[0]) return;
+
+        lastSeen.put(email, now);
+        onlineUsers.decrementAndGet();
+        long graceEnd = now + graceMs;
+        graceEnds.put(email, graceEnd);
+        if (!owns(email)) return;
+
+        // Nobody should be paired with a player who is not there to play
+        if (matchService.leaveQueues(email)) log.info("👋 {} disconnected and left matchmaking", email);
+        clusterRouter.broadcastQueueLeave(email);
+        publish(new PresenceDTO(email, PresenceDTO.Status.DISCONNECTED, 0, now, graceEnd));
+    }
+
+    @Scheduled(fixedDelayString = "${indichess.presence.grace-check-ms:1000}")
+    public void expireGrace() {
+        long now = System.currentTimeMillis();
+        for (Iterator<Map.Entry<String, Long>> it = graceEnds.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Long> entry = it.next();
+            if (entry.getValue() > now) continue;
+            it.remove();
+            String email = entry.getKey();
+            if (nodesOnline.containsKey(email)) continue;
+
+            // Gone for good: nothing is kept for users who are not around
+            Long seen = lastSeen.remove(email);
+            if (owns(email)) publish(new PresenceDTO(email, PresenceDTO.Status.OFFLINE, 0, seen, null));
+        }
+    }
+
+    private boolean owns(String email) {
+        return clusterRouter.ownsKey("presence:" + email);
+    }
+
+    private int sessionsHere(String email) {
+        Long packed = presence.get(email);
+        return packed != null ? sessionsOf(packed) : 0;
+    }
+
+    private void publish(PresenceDTO presence) {
+        messagingTemplate.convertAndSend("/topic/presence/" + presence.getEmail(), presence);
+    }
+
+    /* ================= QUERIES ================= */
+
+    public boolean isOnline(String email) {
+        return nodesOnline.containsKey(email);
+    }
+
+    // sessions counts the ones open on this node
+    public PresenceDTO status(String email) {
+        Long seen = lastSeen.get(email);
+        if (isOnline(email)) return new PresenceDTO(email, PresenceDTO.Status.ONLINE, sessionsHere(email), seen, null);
+        Long graceEnd = graceEnds.get(email);
+        if (graceEnd != null) return new PresenceDTO(email, PresenceDTO.Status.DISCONNECTED, 0, seen, graceEnd);
+        return new PresenceDTO(email, PresenceDTO.Status.OFFLINE, 0, seen, null);
+    }
+
+    public int onlineUsers() {
+        return onlineUsers.get();
+    }
+
+    public int openSessions() {
+        return sessions.size();
+    }
+}
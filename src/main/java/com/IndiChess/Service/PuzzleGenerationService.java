@@ -0,0 +1,187 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Chess.PackedMoves;
+import com.IndiChess.Engine.Engine;
+import com.IndiChess.Engine.PuzzleFinder;
+import com.IndiChess.Engine.TranspositionTable;
+import com.IndiChess.Model.MatchStatus;
+import com.IndiChess.Model.Puzzle;
+import com.IndiChess.Model.PuzzleScanState;
+import com.IndiChess.Repository.MatchRepo;
+import com.IndiChess.Repository.PuzzleRepo;
+import com.IndiChess.Repository.PuzzleScanPendingRepo;
+import com.IndiChess.Repository.PuzzleScanStateRepo;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Batch job that turns tactical moments of finished games into puzzles. It resumes
+ * after the last scanned match id (games still running are remembered in
+ * puzzle_scan_pending and picked up once finished) and analyses each batch on its own
+ * low-priority fork-join pool, each worker with its own engine and hash table, so the
+ * live game path is never involved.
+ */
+@Service
+@Slf4j
+public class PuzzleGenerationService {
+
+    private static final int MIN_PLIES = 12;
+
+    private final MatchRepo matchRepository;
+    private final PuzzleRepo puzzleRepository;
+    private final PuzzleScanStateRepo scanStateRepository;
+    private final PuzzleScanPendingRepo pendingRepository;
+    private final PuzzleService puzzleService;
+    private final TransactionTemplate tx;
+    private final ForkJoinPool scanPool;
+    // Engine keeps per-search state and its table is not shared safely, so one per worker
+    private final ThreadLocal<PuzzleFinder> finders;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public PuzzleGenerationService(MatchRepo matchRepository,
+                                   PuzzleRepo puzzleRepository,
+                                   PuzzleScanStateRepo scanStateRepository,
+                                   PuzzleScanPendingRepo pendingRepository,
+                                   PuzzleService puzzleService,
+                                   EndgameService endgameService,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${indichess.puzzles.scan.enabled:true}") boolean enabled,
+                                   @Value("${indichess.puzzles.scan.batch-size:200}") int batchSize,
+                                   @Value("${indichess.puzzles.scan.parallelism:0}") int parallelism,
+                                   @Value("${indichess.puzzles.scan.hash-mb:32}") int hashMb,
+                                   @Value("${indichess.puzzles.scan.scan-depth:5}") int scanDepth,
+                                   @Value("${indichess.puzzles.scan.verify-depth:7}") int verifyDepth) {
+        this.matchRepository = matchRepository;
+        this.puzzleRepository = puzzleRepository;
+        this.scanStateRepository = scanStateRepository;
+        this.pendingRepository = pendingRepository;
+        this.puzzleService = puzzleService;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+
+        int threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        this.scanPool = new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("puzzle-scan-" + thread.getPoolIndex());
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }, null, false);
+        this.finders = ThreadLocal.withInitial(() -> new PuzzleFinder(
+                new Engine(new TranspositionTable(hashMb), null, endgameService::tables), scanDepth, verifyDepth));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanPool.shutdownNow();
+    }
+
+    /* ================= SCAN ================= */
+
+    @Scheduled(initialDelayString = "${indichess.puzzles.scan.initial-delay-ms:120000}",
+            fixedDelayString = "${indichess.puzzles.scan.interval-ms:3600000}")
+    public void scan() {
+        if (!enabled) return;
+
+        long start = System.currentTimeMillis();
+        PuzzleScanState state = scanStateRepository.findById(PuzzleScanState.ID).orElseGet(() -> {
+            PuzzleScanState fresh = new PuzzleScanState();
+            fresh.setId(PuzzleScanState.ID);
+            fresh.setLastMatchId(0L);
+            return fresh;
+        });
+        Set<Long> pending = new LinkedHashSet<>(pendingRepository.findAllMatchIds());
+
+        int games = 0;
+        int created = 0;
+        if (!pending.isEmpty()) {
+            List<MatchRepo.PuzzleSourceView> retry = matchRepository.findPuzzleSourcesByIds(new ArrayList<>(pending));
+            int[] counts = scanBatch(retry, pending, state);
+            games += counts[0];
+            created += counts[1];
+        }
+
+        List<MatchRepo.PuzzleSourceView> batch;
+        while (!(batch = matchRepository.findPuzzleSources(state.getLastMatchId(), PageRequest.of(0, batchSize))).isEmpty()) {
+            state.setLastMatchId(batch.get(batch.size() - 1).getId());
+            int[] counts = scanBatch(batch, pending, state);
+            games += counts[0];
+            created += counts[1];
+        }
+
+        if (games > 0) {
+            log.info("🧩 Puzzle scan: {} games, {} puzzles in {} ms", games, created, System.currentTimeMillis() - start);
+        }
+        if (created > 0) {
+            puzzleService.refreshPool();
+        }
+    }
+
+    // Returns {games scanned, puzzles created}; puzzles, pending rows and the cursor commit together
+    private int[] scanBatch(List<MatchRepo.PuzzleSourceView> views, Set<Long> pending, PuzzleScanState state) {
+        List<MatchRepo.PuzzleSourceView> finished = new ArrayList<>(views.size());
+        List<Long> started = new ArrayList<>();
+        List<Long> done = new ArrayList<>();
+        for (MatchRepo.PuzzleSourceView view : views) {
+            if (view.getStatus() == MatchStatus.ONGOING) {
+                if (pending.add(view.getId())) started.add(view.getId());
+            } else {
+                if (pending.remove(view.getId())) done.add(view.getId());
+                finished.add(view);
+            }
+        }
+
+        List<Puzzle> puzzles = scanPool.submit(() -> finished.parallelStream()
+                .flatMap(view -> extract(view).stream())
+                .toList()).join();
+
+        state.setLastRunAt(LocalDateTime.now());
+        tx.executeWithoutResult(status -> {
+            puzzleRepository.saveAll(puzzles);
+            started.forEach(pendingRepository::add);
+            if (!done.isEmpty()) pendingRepository.deleteByMatchIds(done);
+            scanStateRepository.save(state);
+        });
+        return new int[]{finished.size(), puzzles.size()};
+    }
+
+    private List<Puzzle> extract(MatchRepo.PuzzleSourceView view) {
+        try {
+            byte[] packed = view.getArchivedData() != null
+                    ? GameArchiveService.decompress(view.getArchivedData())
+                    : view.getPackedMoves();
+            if (PackedMoves.size(packed) < MIN_PLIES) return List.of();
+
+            List<Puzzle> puzzles = new ArrayList<>();
+            for (PuzzleFinder.Candidate candidate : finders.get().find(packed)) {
+                Puzzle puzzle = new Puzzle();
+                puzzle.setMatchId(view.getId());
+                puzzle.setPly(candidate.ply());
+                puzzle.setFen(candidate.fen());
+                puzzle.setSolution(String.join(" ", candidate.solution()));
+                puzzle.setRating(candidate.rating());
+                puzzle.setCreatedAt(LocalDateTime.now());
+                puzzles.add(puzzle);
+            }
+            return puzzles;
+        } catch (RuntimeException e) {
+            log.warn("Puzzle scan skipped match {}: {}", view.getId(), e.getMessage());
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Chess.Board;
+import com.IndiChess.Chess.MoveCodec;
+import com.IndiChess.Model.Puzzle;
+import com.IndiChess.Model.PuzzleRating;
+import com.IndiChess.Model.User;
+import com.IndiChess.Repository.PuzzleAttemptRepo;
+import com.IndiChess.Repository.PuzzleRatingRepo;
+import com.IndiChess.Repository.PuzzleRepo;
+import com.IndiChess.Repository.UserRepository;
+import com.IndiChess.dto.PuzzleAttemptResult;
+import com.IndiChess.dto.PuzzleDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Serves puzzles from an in-memory pool sorted by rating, so picking one near the
+ * user's rating is a binary search instead of a query. A user's first attempt at a
+ * puzzle updates both the user and the puzzle rating with the usual Elo formula; later
+ * attempts at the same puzzle are checked but leave the ratings alone.
+ */
+@Service
+@Slf4j
+public class PuzzleService {
+
+    public static final int DEFAULT_RATING = 1500;
+
+    private static final int USER_K = 24;
+    private static final int PUZZLE_K = 16;
+    private static final int WINDOW = 100;
+    private static final int MAX_WINDOW = 800;
+    private static final int RECENT_PER_USER = 50;
+    private static final int MAX_TRACKED_USERS = 10_000;
+
+    private record Daily(LocalDate date, Puzzle puzzle) {
+    }
+
+    private final PuzzleRepo puzzleRepository;
+    private final PuzzleRatingRepo puzzleRatingRepository;
+    private final PuzzleAttemptRepo puzzleAttemptRepository;
+    private final UserRepository userRepository;
+    private final int poolSize;
+
+    // Sorted by rating, replaced wholesale on refresh
+    private volatile Puzzle[] pool = new Puzzle[0];
+    private volatile Daily daily;
+
+    private final Map<Long, Deque<Long>> recentByUser = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Deque<Long>> eldest) {
+            return size() > MAX_TRACKED_USERS;
+        }
+    };
+
+    public PuzzleService(PuzzleRepo puzzleRepository,
+                         PuzzleRatingRepo puzzleRatingRepository,
+                         PuzzleAttemptRepo puzzleAttemptRepository,
+                         UserRepository userRepository,
+                         @Value("${indichess.puzzles.pool-size:20000}") int poolSize) {
+        this.puzzleRepository = puzzleRepository;
+        this.puzzleRatingRepository = puzzleRatingRepository;
+        this.puzzleAttemptRepository = puzzleAttemptRepository;
+        this.userRepository = userRepository;
+        this.poolSize = Math.max(1, poolSize);
+    }
+
+    /* ================= POOL ================= */
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${indichess.puzzles.pool-refresh-ms:600000}",
+            fixedDelayString = "${indichess.puzzles.pool-refresh-ms:600000}")
+    public void refreshPool() {
+        Puzzle[] loaded = puzzleRepository.findRecent(PageRequest.of(0, poolSize)).toArray(new Puzzle[0]);
+        Arrays.sort(loaded, Comparator.comparingInt(Puzzle::getRating));
+        pool = loaded;
+        daily = null;
+        log.info("🧩 Puzzle pool refreshed: {} puzzles", loaded.length);
+    }
+
+    /* ================= DAILY ================= */
+
+    public PuzzleDTO daily() {
+        LocalDate today = LocalDate.now();
+        Daily current = daily;
+        if (current == null || !current.date().equals(today)) {
+            Puzzle[] snapshot = pool;
+            if (snapshot.length == 0) throw new RuntimeException("No puzzles available yet");
+            // Same pick for everyone on a given day, independent of the pool order
+            Puzzle[] byId = snapshot.clone();
+            Arrays.sort(byId, Comparator.comparingLong(Puzzle::getId));
+            current = new Daily(today, byId[Math.floorMod(today.toEpochDay() * 2654435761L, byId.length)]);
+            daily = current;
+        }
+        return toDto(current.puzzle());
+    }
+
+    /* ================= NEXT ================= */
+
+    public PuzzleDTO next(String email) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Puzzle[] snapshot = pool;
+        if (snapshot.length == 0) throw new RuntimeException("No puzzles available yet");
+
+        int rating = puzzleRatingRepository.findById(user.getId()).map(PuzzleRating::getRating).orElse(DEFAULT_RATING);
+        Deque<Long> recent;
+        synchronized (recentByUser) {
+            recent = recentByUser.computeIfAbsent(user.getId(), id -> new ArrayDeque<>());
+        }
+
+        Puzzle picked = null;
+        synchronized (recent) {
+            for (int window = WINDOW; picked == null && window <= MAX_WINDOW; window *= 2) {
+                picked = pickInRange(snapshot, rating - window, rating + window, recent);
+            }
+            if (picked == null) {
+                picked = snapshot[ThreadLocalRandom.current().nextInt(snapshot.length)];
+            }
+            recent.addLast(picked.getId());
+            if (recent.size() > RECENT_PER_USER) recent.removeFirst();
+        }
+        return toDto(picked);
+    }
+
+    private static Puzzle pickInRange(Puzzle[] sorted, int lo, int hi, Deque<Long> recent) {
+        int from = lowerBound(sorted, lo);
+        int to = lowerBound(sorted, hi + 1);
+        if (from >= to) return null;
+
+        // Random start, then walk forward until a puzzle the user has not just seen
+        int span = to - from;
+        int start = ThreadLocalRandom.current().nextInt(span);
+        for (int i = 0; i < span; i++) {
+            Puzzle candidate = sorted[from + (start + i) % span];
+            if (!recent.contains(candidate.getId())) return candidate;
+        }
+        return null;
+    }
+
+    private static int lowerBound(Puzzle[] sorted, int rating) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid].getRating() < rating) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /* ================= ATTEMPT ================= */
+
+    @Transactional
+    public PuzzleAttemptResult attempt(String email, Long puzzleId, List<String> moves) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Puzzle puzzle = puzzleRepository.findById(puzzleId)
+                .orElseThrow(() -> new RuntimeException("Puzzle not found"));
+
+        List<String> solution = List.of(puzzle.getSolution().split(" "));
+        boolean solved = isSolved(puzzle.getFen(), solution, moves == null ? List.of() : moves);
+
+        PuzzleRating userRating = puzzleRatingRepository.findById(user.getId()).orElseGet(() -> {
+            PuzzleRating fresh = new PuzzleRating();
+            fresh.setUserId(user.getId());
+            fresh.setRating(DEFAULT_RATING);
+            return fresh;
+        });
+
+        // Retrying a puzzle once the solution has been shown must not farm rating
+        if (puzzleAttemptRepository.recordFirst(user.getId(), puzzle.getId(), solved) == 0) {
+            return new PuzzleAttemptResult(solved, solution, userRating.getRating(), puzzle.getRating(), false);
+        }
+
+        double expected = 1.0 / (1.0 + Math.pow(10, (puzzle.getRating() - userRating.getRating()) / 400.0));
+        double score = solved ? 1.0 : 0.0;
+        int newUserRating = (int) Math.round(userRating.getRating() + USER_K * (score - expected));
+        int newPuzzleRating = (int) Math.round(puzzle.getRating() - PUZZLE_K * (score - expected));
+
+        userRating.setRating(newUserRating);
+        userRating.setAttempts(userRating.getAttempts() + 1);
+        userRating.setSolves(userRating.getSolves() + (solved ? 1 : 0));
+        userRating.setUpdatedAt(LocalDateTime.now());
+        puzzleRatingRepository.save(userRating);
+        puzzleRepository.recordAttempt(puzzle.getId(), newPuzzleRating, solved ? 1 : 0);
+
+        return new PuzzleAttemptResult(solved, solution, newUserRating, newPuzzleRating, true);
+    }
+
+    // Solver moves must match the stored line, except that any mating move is accepted
+    private static boolean isSolved(String fen, List<String> solution, List<String> moves) {
+        Board board = Board.fromFen(fen);
+        int solverMoves = (solution.size() + 1) / 2;
+        if (moves.size() < solverMoves) return false;
+
+        for (int i = 0; i < solverMoves; i++) {
+            int move = board.parseUci(moves.get(i));
+            if (move == MoveCodec.NONE) return false;
+            int expected = board.parseUci(solution.get(2 * i));
+            board.play(move);
+            if (board.isCheckmate()) return true;
+            if (move != expected) return false;
+
+            if (2 * i + 1 < solution.size()) {
+                int reply = board.parseUci(solution.get(2 * i + 1));
+                if (reply == MoveCodec.NONE) return false;
+                board.play(reply);
+            }
+        }
+        return true;
+    }
+
+    private static PuzzleDTO toDto(Puzzle puzzle) {
+        return new PuzzleDTO(puzzle.getId(), puzzle.getFen(), puzzle.getRating(),
+                (puzzle.getSolution().split(" ").length + 1) / 2);
+    }
+}
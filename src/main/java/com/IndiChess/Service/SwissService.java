@@ -0,0 +1,270 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Cluster.ClusterRouter;
+import com.IndiChess.Model.*;
+import com.IndiChess.Repository.MatchRepo;
+import com.IndiChess.Repository.TournamentPlayerRepo;
+import com.IndiChess.Repository.TournamentRepo;
+import com.IndiChess.Swiss.SwissPairer;
+import com.IndiChess.Swiss.SwissPlayer;
+import com.IndiChess.Swiss.SwissStandings;
+import com.IndiChess.dto.MatchDTO;
+import com.IndiChess.dto.SwissStandingsDTO;
+import com.IndiChess.dto.TournamentDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Swiss tournaments. Nothing is kept in memory between rounds: when every game of the
+ * current round is over, the owning node rebuilds the history from the tournament's
+ * games, pairs the next round and inserts all its games in one batch. Scores and
+ * tiebreaks are derived from the games, so standings can be served by any node.
+ */
+@Service
+@Slf4j
+public class SwissService {
+
+    private static final int MAX_ROUNDS = 30;
+
+    private final TournamentRepo tournamentRepository;
+    private final TournamentPlayerRepo playerRepository;
+    private final MatchRepo matchRepository;
+    private final MatchService matchService;
+    private final ClusterRouter clusterRouter;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate tx;
+    private final int standingsBroadcastSize;
+
+    public SwissService(TournamentRepo tournamentRepository,
+                        TournamentPlayerRepo playerRepository,
+                        MatchRepo matchRepository,
+                        MatchService matchService,
+                        ClusterRouter clusterRouter,
+                        SimpMessagingTemplate messagingTemplate,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${indichess.swiss.standings-broadcast-size:50}") int standingsBroadcastSize) {
+        this.tournamentRepository = tournamentRepository;
+        this.playerRepository = playerRepository;
+        this.matchRepository = matchRepository;
+        this.matchService = matchService;
+        this.clusterRouter = clusterRouter;
+        this.messagingTemplate = messagingTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.standingsBroadcastSize = standingsBroadcastSize;
+    }
+
+    /* ================= CREATE ================= */
+
+    @Transactional
+    public TournamentDTO create(String email, String name, GameType gameType, LocalDateTime startsAt, int rounds) {
+        if (name == null || name.isBlank()) throw new RuntimeException("Tournament name is required");
+        if (rounds < 1 || rounds > MAX_ROUNDS) {
+            throw new RuntimeException("Rounds must be between 1 and " + MAX_ROUNDS);
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        Tournament t = new Tournament();
+        t.setName(name.trim());
+        t.setFormat(TournamentFormat.SWISS);
+        t.setGameType(gameType);
+        t.setStatus(TournamentStatus.CREATED);
+        t.setStartsAt(startsAt == null || startsAt.isBefore(now) ? now : startsAt);
+        t.setRounds(rounds);
+        t.setCreatedBy(email);
+        t.setCreatedAt(now);
+        Tournament saved = tournamentRepository.save(t);
+        log.info("🏆 Swiss {} '{}' created by {} ({} rounds)", saved.getId(), saved.getName(), email, rounds);
+        return TournamentDTO.of(saved, 0);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isSwiss(Long tournamentId) {
+        return tournamentRepository.findById(tournamentId)
+                .map(t -> t.getFormat() == TournamentFormat.SWISS)
+                .orElse(false);
+    }
+
+    @Transactional(readOnly = true)
+    public SwissStandingsDTO standings(Long tournamentId) {
+        Tournament t = tournamentRepository.findById(tournamentId)
+                .orElseThrow(() -> new RuntimeException("Tournament not found"));
+        List<TournamentPlayer> rows = playerRepository.findByTournamentId(tournamentId);
+        Map<Long, SwissPlayer> field = history(rows, matchRepository.findTournamentGames(tournamentId));
+        return toDTO(t, rows, SwissStandings.rank(field.values()), Integer.MAX_VALUE);
+    }
+
+    /* ================= ROUNDS ================= */
+
+    @Scheduled(fixedDelayString = "${indichess.swiss.tick-ms:2000}")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Tournament t : tournamentRepository.findDue(TournamentFormat.SWISS, TournamentStatus.CREATED, now)) {
+            if (!clusterRouter.ownsKey("tournament:" + t.getId())) continue;
+            tx.execute(s -> tournamentRepository.transition(t.getId(), TournamentStatus.CREATED, TournamentStatus.RUNNING));
+        }
+
+        for (Tournament t : tournamentRepository.findByFormatAndStatus(TournamentFormat.SWISS, TournamentStatus.RUNNING)) {
+            if (!clusterRouter.ownsKey("tournament:" + t.getId())) continue;
+            try {
+                advance(t);
+            } catch (RuntimeException e) {
+                log.error("❌ Swiss {} round failed: {}", t.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void advance(Tournament t) {
+        if (matchRepository.existsByTournamentIdAndStatus(t.getId(), MatchStatus.ONGOING)) return; // round still running
+        List<MatchRepo.TournamentGameView> games = matchRepository.findTournamentGames(t.getId());
+
+        List<TournamentPlayer> rows = playerRepository.findByTournamentId(t.getId());
+        Map<Long, SwissPlayer> field = history(rows, games);
+        List<SwissPlayer> active = new ArrayList<>();
+        for (TournamentPlayer row : rows) {
+            if (row.isActive()) active.add(field.get(row.getUserId()));
+        }
+
+        if (t.getCurrentRound() >= t.getRounds() || active.size() < 2) {
+            finish(t, rows, field);
+            return;
+        }
+
+        SwissPairer.Round round = SwissPairer.pair(active);
+        List<MatchService.Pairing> pairings = new ArrayList<>(round.pairs().size());
+        for (SwissPairer.Pair pair : round.pairs()) {
+            pairings.add(new MatchService.Pairing(pair.white(), pair.black()));
+        }
+        if (round.bye() != null) {
+            for (TournamentPlayer row : rows) {
+                if (!row.getUserId().equals(round.bye())) continue;
+                row.setByes(row.getByes() + 1);
+                row.setScore(row.getScore() + 2);
+            }
+        }
+
+        int next = t.getCurrentRound() + 1;
+        List<Match> matches = tx.execute(s -> {
+            // Another node may have paired this round already
+            if (tournamentRepository.advanceRound(t.getId(), t.getCurrentRound()) == 0) return List.<Match>of();
+            playerRepository.updateScores(rows);
+            return matchService.createPairings(pairings, t.getGameType(), t.getId());
+        });
+        if (matches == null || matches.isEmpty()) return;
+
+        for (Match match : matches) {
+            MatchDTO dto = MatchDTO.fromMatch(match);
+            messagingTemplate.convertAndSend("/topic/matchmaking/" + match.getPlayer1().getEmail(), dto);
+            messagingTemplate.convertAndSend("/topic/matchmaking/" + match.getPlayer2().getEmail(), dto);
+        }
+        t.setCurrentRound(next);
+        broadcastStandings(t, rows, field);
+        log.info("🏆 Swiss {} round {}/{}: {} games{}", t.getId(), next, t.getRounds(), matches.size(),
+                round.bye() != null ? ", 1 bye" : "");
+    }
+
+    private void finish(Tournament t, List<TournamentPlayer> rows, Map<Long, SwissPlayer> field) {
+        Integer finished = tx.execute(s -> {
+            playerRepository.updateScores(rows);
+            return tournamentRepository.transition(t.getId(), TournamentStatus.RUNNING, TournamentStatus.FINISHED);
+        });
+        if (finished == null || finished == 0) return;
+        t.setStatus(TournamentStatus.FINISHED);
+        broadcastStandings(t, rows, field);
+        log.info("🏁 Swiss {} finished after {} rounds with {} players", t.getId(), t.getCurrentRound(), rows.size());
+    }
+
+    /* ================= HISTORY ================= */
+
+    // Replays the tournament's games in order; also refreshes the score columns of the rows
+    static Map<Long, SwissPlayer> history(List<TournamentPlayer> rows, List<MatchRepo.TournamentGameView> games) {
+        Map<Long, SwissPlayer> field = new HashMap<>(rows.size() * 2);
+        Map<Long, TournamentPlayer> byUser = new HashMap<>(rows.size() * 2);
+        for (TournamentPlayer row : rows) {
+            // No rating on users: seed by join order
+            SwissPlayer player = new SwissPlayer(row.getUserId(), -row.getId().intValue());
+            for (int i = 0; i < row.getByes(); i++) player.addBye();
+            field.put(row.getUserId(), player);
+            byUser.put(row.getUserId(), row);
+            row.setGames(0);
+            row.setWins(0);
+            row.setDraws(0);
+            row.setLosses(0);
+            row.setStreak(0);
+        }
+
+        for (MatchRepo.TournamentGameView game : games) {
+            SwissPlayer white = field.get(game.getWhiteId());
+            SwissPlayer black = field.get(game.getBlackId());
+            if (white == null || black == null) continue;
+
+            int whitePoints;
+            if (game.getStatus() == MatchStatus.ABORTED) {
+                // The side to move never showed up; the pair still counts as met so it is not repeated
+                int ply = game.getCurrentPly() != null ? game.getCurrentPly() : 0;
+                whitePoints = ply % 2 == 1 ? 2 : 0;
+                white.addForfeit(black.id(), whitePoints);
+                black.addForfeit(white.id(), 2 - whitePoints);
+                record(byUser.get(white.id()), whitePoints);
+                record(byUser.get(black.id()), 2 - whitePoints);
+                continue;
+            }
+            if (game.getStatus() == MatchStatus.WHITE_WIN) whitePoints = 2;
+            else if (game.getStatus() == MatchStatus.BLACK_WIN) whitePoints = 0;
+            else if (game.getStatus() == MatchStatus.DRAW) whitePoints = 1;
+            else continue;
+
+            white.addGame(black.id(), true, whitePoints);
+            black.addGame(white.id(), false, 2 - whitePoints);
+            record(byUser.get(white.id()), whitePoints);
+            record(byUser.get(black.id()), 2 - whitePoints);
+        }
+        for (TournamentPlayer row : rows) {
+            row.setScore(field.get(row.getUserId()).score());
+        }
+        return field;
+    }
+
+    private static void record(TournamentPlayer row, int points) {
+        row.setGames(row.getGames() + 1);
+        if (points == 2) {
+            row.setWins(row.getWins() + 1);
+            row.setStreak(row.getStreak() + 1);
+        } else {
+            if (points == 1) row.setDraws(row.getDraws() + 1);
+            else row.setLosses(row.getLosses() + 1);
+            row.setStreak(0);
+        }
+    }
+
+    /* ================= STANDINGS ================= */
+
+    private void broadcastStandings(Tournament t, List<TournamentPlayer> rows, Map<Long, SwissPlayer> field) {
+        messagingTemplate.convertAndSend("/topic/tournament/" + t.getId() + "/standings",
+                toDTO(t, rows, SwissStandings.rank(field.values()), standingsBroadcastSize));
+    }
+
+    private static SwissStandingsDTO toDTO(Tournament t, List<TournamentPlayer> rows,
+                                           List<SwissStandings.Entry> ranked, int limit) {
+        Map<Long, TournamentPlayer> byUser = new HashMap<>(rows.size() * 2);
+        for (TournamentPlayer row : rows) byUser.put(row.getUserId(), row);
+
+        List<SwissStandingsDTO.Row> out = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            SwissStandings.Entry e = ranked.get(i);
+            TournamentPlayer p = byUser.get(e.player().id());
+            out.add(new SwissStandingsDTO.Row(i + 1, p.getEmail(), p.getName(), e.points(), e.buchholz(),
+                    e.sonnebornBerger(), p.getGames(), p.getWins(), p.getDraws(), p.getLosses(), p.getByes(),
+                    p.isActive()));
+        }
+        return new SwissStandingsDTO(t.getId(), t.getStatus(), t.getCurrentRound(), t.getRounds(), out);
+    }
+}
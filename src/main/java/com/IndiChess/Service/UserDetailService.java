@@ -4,6 +4,7 @@ import com.IndiChess.Model.User;
 import com.IndiChess.Repository.UserRepository;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 
@@ -16,7 +17,10 @@ public class UserDetailService implements UserDetailsService {
         this.repository = repository;
     }
 
+    // Read-write on purpose: stays on the primary, so a login right after registering
+    // never misses the user on a lagging replica
     @Override
+    @Transactional
     public UserDetails loadUserByUsername(String email)
             throws UsernameNotFoundException {
 
@@ -0,0 +1,237 @@
+package com.IndiChess.Swiss;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Swiss round pairing in the spirit of the Dutch system.
+ *
+ * Players are ranked by score, then rating. Score groups are paired from the top;
+ * inside a group the top half meets the bottom half (1 v n/2+1, 2 v n/2+2, ...) and a
+ * bounded backtracking search swaps partners when that would repeat a game or give
+ * someone a third colour in a row. Whoever cannot be paired floats down into the next
+ * group. Leftovers at the bottom reopen the score groups above them, lowest first, until
+ * everyone can be paired; only if that fails is the colour rule relaxed, then the
+ * no-repeat rule, so a round is always complete.
+ *
+ * Instead of a global weighted matching this keeps every step near linear in the group
+ * size; the search budget caps pathological groups.
+ */
+public final class SwissPairer {
+
+    // Search steps per score group before falling back to greedy pairing
+    private static final int SEARCH_BUDGET = 20_000;
+    // How many extra players a group may float down before giving up on the search
+    private static final int MAX_EXTRA_FLOATERS = 2;
+
+    public static final Comparator<SwissPlayer> RANKING = Comparator
+            .comparingInt(SwissPlayer::score).reversed()
+            .thenComparing(Comparator.comparingInt(SwissPlayer::rating).reversed())
+            .thenComparingLong(SwissPlayer::id);
+
+    public record Pair(long white, long black) {
+    }
+
+    /** {@code bye} is null when everyone plays. */
+    public record Round(List<Pair> pairs, Long bye) {
+    }
+
+    private SwissPairer() {
+    }
+
+    public static Round pair(Collection<SwissPlayer> players) {
+        List<SwissPlayer> ranked = new ArrayList<>(players);
+        ranked.sort(RANKING);
+
+        // Odd field: the lowest-ranked player who has not had a bye sits out
+        SwissPlayer bye = null;
+        if (ranked.size() % 2 == 1) {
+            int at = ranked.size() - 1;
+            while (at >= 0 && ranked.get(at).hadBye()) at--;
+            // Everyone has had one: the lowest-ranked player sits out again
+            bye = ranked.remove(at >= 0 ? at : ranked.size() - 1);
+        }
+
+        List<SwissPlayer[]> pairs = new ArrayList<>(ranked.size() / 2);
+        List<Integer> groupStarts = new ArrayList<>();
+        List<SwissPlayer> floaters = new ArrayList<>();
+        int start = 0;
+        while (start < ranked.size()) {
+            int score = ranked.get(start).score();
+            int end = start;
+            while (end < ranked.size() && ranked.get(end).score() == score) end++;
+
+            List<SwissPlayer> group = new ArrayList<>(floaters.size() + end - start);
+            group.addAll(floaters);
+            group.addAll(ranked.subList(start, end));
+            groupStarts.add(pairs.size());
+            floaters = pairGroup(group, pairs);
+            start = end;
+        }
+        if (!floaters.isEmpty()) floaters = reopen(floaters, pairs, groupStarts);
+        if (!floaters.isEmpty()) floaters = greedy(floaters, pairs, false, false);
+        if (!floaters.isEmpty()) greedy(floaters, pairs, false, true);
+
+        List<Pair> out = new ArrayList<>(pairs.size());
+        for (int board = 0; board < pairs.size(); board++) {
+            out.add(orient(pairs.get(board)[0], pairs.get(board)[1], board));
+        }
+        return new Round(out, bye == null ? null : bye.id());
+    }
+
+    /* ================= SCORE GROUP ================= */
+
+    // Adds the group's pairs and returns the players floating down
+    private static List<SwissPlayer> pairGroup(List<SwissPlayer> group, List<SwissPlayer[]> pairs) {
+        int maxPairs = group.size() / 2;
+        for (int target = maxPairs; target >= Math.max(1, maxPairs - MAX_EXTRA_FLOATERS); target--) {
+            Search search = new Search(group.toArray(new SwissPlayer[0]), true);
+            if (search.solve(target)) return search.collect(pairs);
+        }
+        return greedy(group, pairs, true, false);
+    }
+
+    /*
+     * Unpairs the lowest score groups one at a time and searches them again together with
+     * the leftovers: first every depth with the colour rule, then every depth without it.
+     * Returns the leftovers untouched (and the pairs as they were) when even the whole
+     * field fails.
+     */
+    private static List<SwissPlayer> reopen(List<SwissPlayer> leftovers, List<SwissPlayer[]> pairs,
+                                            List<Integer> groupStarts) {
+        for (boolean colors : new boolean[]{true, false}) {
+            for (int g = groupStarts.size() - 1; g >= 0; g--) {
+                int from = groupStarts.get(g);
+                List<SwissPlayer[]> tail = pairs.subList(from, pairs.size());
+                List<SwissPlayer> players = new ArrayList<>(2 * tail.size() + leftovers.size());
+                for (SwissPlayer[] pair : tail) {
+                    players.add(pair[0]);
+                    players.add(pair[1]);
+                }
+                players.addAll(leftovers);
+                players.sort(RANKING);
+
+                Search search = new Search(players.toArray(new SwissPlayer[0]), colors);
+                if (search.solve(players.size() / 2)) {
+                    tail.clear();
+                    return search.collect(pairs);
+                }
+            }
+        }
+        return leftovers;
+    }
+
+    private static final class Search {
+        final SwissPlayer[] group;
+        final boolean[] used;
+        final int[] partner;
+        final boolean colors;
+        int budget = SEARCH_BUDGET;
+
+        Search(SwissPlayer[] group, boolean colors) {
+            this.group = group;
+            this.colors = colors;
+            this.used = new boolean[group.length];
+            this.partner = new int[group.length];
+            Arrays.fill(partner, -1);
+        }
+
+        boolean solve(int pairsLeft) {
+            if (pairsLeft == 0) return true;
+            if (--budget < 0) return false;
+
+            int[] rest = unused();
+            int m = rest.length;
+            if (m < 2 * pairsLeft) return false;
+
+            int top = rest[0];
+            used[top] = true;
+            int half = m / 2;
+            // Natural partner first, then further down the bottom half, then up the top half
+            for (int k = 0; k < m - 1; k++) {
+                int other = k < m - half ? rest[half + k] : rest[half - 1 - (k - (m - half))];
+                if (!compatible(group[top], group[other], colors)) continue;
+                used[other] = true;
+                partner[top] = other;
+                partner[other] = top;
+                if (solve(pairsLeft - 1)) return true;
+                used[other] = false;
+                partner[top] = -1;
+                partner[other] = -1;
+                if (budget < 0) break;
+            }
+            // Let the top player float if the group can spare one
+            if (budget >= 0 && m - 1 >= 2 * pairsLeft && solve(pairsLeft)) return true;
+            used[top] = false;
+            return false;
+        }
+
+        int[] unused() {
+            int count = 0;
+            for (boolean u : used) if (!u) count++;
+            int[] rest = new int[count];
+            int at = 0;
+            for (int i = 0; i < used.length; i++) if (!used[i]) rest[at++] = i;
+            return rest;
+        }
+
+        List<SwissPlayer> collect(List<SwissPlayer[]> pairs) {
+            List<SwissPlayer> floaters = new ArrayList<>();
+            for (int i = 0; i < group.length; i++) {
+                if (partner[i] < 0) floaters.add(group[i]);
+                else if (partner[i] > i) pairs.add(new SwissPlayer[]{group[i], group[partner[i]]});
+            }
+            return floaters;
+        }
+    }
+
+    // First compatible partner for each player in rank order; returns who is left over
+    private static List<SwissPlayer> greedy(List<SwissPlayer> players, List<SwissPlayer[]> pairs,
+                                            boolean colors, boolean allowRepeats) {
+        boolean[] used = new boolean[players.size()];
+        List<SwissPlayer> left = new ArrayList<>();
+        for (int i = 0; i < players.size(); i++) {
+            if (used[i]) continue;
+            used[i] = true;
+            int match = -1;
+            for (int j = i + 1; j < players.size() && match < 0; j++) {
+                if (used[j]) continue;
+                if (allowRepeats || compatible(players.get(i), players.get(j), colors)) match = j;
+            }
+            if (match < 0) {
+                left.add(players.get(i));
+            } else {
+                used[match] = true;
+                pairs.add(new SwissPlayer[]{players.get(i), players.get(match)});
+            }
+        }
+        return left;
+    }
+
+    private static boolean compatible(SwissPlayer a, SwissPlayer b, boolean colors) {
+        if (a.hasPlayed(b.id())) return false;
+        if (!colors) return true;
+        int must = a.mustColor();
+        return must == 0 || must != b.mustColor();
+    }
+
+    /* ================= COLOURS ================= */
+
+    // a is the higher-ranked player
+    private static Pair orient(SwissPlayer a, SwissPlayer b, int board) {
+        int pa = a.colorPreference();
+        int pb = b.colorPreference();
+        boolean aWhite;
+        if (pa != pb) {
+            aWhite = pa > pb;
+        } else if (pa != 0) {
+            aWhite = pa > 0; // same wish: the higher-ranked player gets it
+        } else {
+            aWhite = board % 2 == 0; // first round: colours alternate down the boards
+        }
+        return aWhite ? new Pair(a.id(), b.id()) : new Pair(b.id(), a.id());
+    }
+}
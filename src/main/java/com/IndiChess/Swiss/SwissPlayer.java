@@ -0,0 +1,114 @@
+package com.IndiChess.Swiss;
+
+import java.util.Arrays;
+
+/**
+ * One player's Swiss history: opponents, colours and results in playing order.
+ * Scores are in half points (win 2, draw 1), like the arena.
+ */
+public final class SwissPlayer {
+
+    public static final int WHITE = 1;
+    public static final int BLACK = -1;
+
+    private final long id;
+    private final int rating;
+    private int score;
+    private boolean hadBye;
+
+    private long[] opponents = new long[16];
+    private byte[] colors = new byte[16];
+    private byte[] results = new byte[16];
+    private int games;
+
+    public SwissPlayer(long id, int rating) {
+        this.id = id;
+        this.rating = rating;
+    }
+
+    public void addGame(long opponent, boolean white, int points) {
+        if (games == opponents.length) {
+            opponents = Arrays.copyOf(opponents, games * 2);
+            colors = Arrays.copyOf(colors, games * 2);
+            results = Arrays.copyOf(results, games * 2);
+        }
+        opponents[games] = opponent;
+        colors[games] = (byte) (white ? WHITE : BLACK);
+        results[games] = (byte) points;
+        games++;
+        score += points;
+    }
+
+    // A game one side never played: counts as met and scores, but gives no colour
+    public void addForfeit(long opponent, int points) {
+        addGame(opponent, true, points);
+        colors[games - 1] = 0;
+    }
+
+    public void addBye() {
+        hadBye = true;
+        score += 2;
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public int rating() {
+        return rating;
+    }
+
+    public int score() {
+        return score;
+    }
+
+    public boolean hadBye() {
+        return hadBye;
+    }
+
+    public int games() {
+        return games;
+    }
+
+    public long opponent(int game) {
+        return opponents[game];
+    }
+
+    public int result(int game) {
+        return results[game];
+    }
+
+    public boolean hasPlayed(long other) {
+        for (int i = 0; i < games; i++) {
+            if (opponents[i] == other) return true;
+        }
+        return false;
+    }
+
+    /**
+     * +2 / -2: must get white / black (colour difference of two, or the same colour
+     * twice in a row); +1 / -1: prefers it; 0: no games yet. Forfeits carry no colour.
+     */
+    public int colorPreference() {
+        if (games == 0) return 0;
+        int diff = 0;
+        for (int i = 0; i < games; i++) diff += colors[i];
+        int last = colors[games - 1];
+        int previous = games > 1 ? colors[games - 2] : 0;
+
+        if (diff <= -2 || (last == BLACK && previous == BLACK)) return 2;
+        if (diff >= 2 || (last == WHITE && previous == WHITE)) return -2;
+        if (diff != 0) return diff < 0 ? 1 : -1;
+        return -last;
+    }
+
+    int mustColor() {
+        int preference = colorPreference();
+        return Math.abs(preference) == 2 ? Integer.signum(preference) : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "SwissPlayer{" + id + ", score=" + score + ", rating=" + rating + "}";
+    }
+}
@@ -0,0 +1,50 @@
+package com.IndiChess.Swiss;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Final order of a Swiss event: score, then Buchholz, then Sonneborn-Berger, then rating. */
+public final class SwissStandings {
+
+    /** Tiebreaks in points: Buchholz sums the opponents' scores; Sonneborn-Berger weights them by the result. */
+    public record Entry(SwissPlayer player, double buchholz, double sonnebornBerger) {
+        public double points() {
+            return player.score() / 2.0;
+        }
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingInt((Entry e) -> e.player().score()).reversed()
+            .thenComparing(Comparator.comparingDouble(Entry::buchholz).reversed())
+            .thenComparing(Comparator.comparingDouble(Entry::sonnebornBerger).reversed())
+            .thenComparing(Comparator.comparingInt((Entry e) -> e.player().rating()).reversed())
+            .thenComparingLong(e -> e.player().id());
+
+    private SwissStandings() {
+    }
+
+    public static List<Entry> rank(Collection<SwissPlayer> players) {
+        Map<Long, SwissPlayer> byId = new HashMap<>(players.size() * 2);
+        for (SwissPlayer p : players) byId.put(p.id(), p);
+
+        List<Entry> entries = new ArrayList<>(players.size());
+        for (SwissPlayer p : players) {
+            int buchholz = 0;
+            int weighted = 0;
+            for (int g = 0; g < p.games(); g++) {
+                SwissPlayer opponent = byId.get(p.opponent(g));
+                if (opponent == null) continue;
+                buchholz += opponent.score();
+                weighted += opponent.score() * p.result(g);
+            }
+            // Scores are half points, results 0-2: undo both factors of two
+            entries.add(new Entry(p, buchholz / 2.0, weighted / 4.0));
+        }
+        entries.sort(ORDER);
+        return entries;
+    }
+}
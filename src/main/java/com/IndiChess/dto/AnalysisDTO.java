@@ -0,0 +1,36 @@
+package com.IndiChess.dto;
+
+import com.IndiChess.Model.AnalysisStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class AnalysisDTO {
+    private Long matchId;
+    private AnalysisStatus status;
+    private Integer progress;
+    private Integer totalPlies;
+
+    // Only filled once the job is DONE
+    private List<PlyDTO> plies;
+
+    @Data
+    @AllArgsConstructor
+    public static class PlyDTO {
+        private Integer ply;
+        private String san;
+
+        // After the move, white's point of view; mateIn is non-zero instead for forced mates
+        private Integer evalCp;
+        private Integer mateIn;
+
+        private String bestUci;
+        private String bestSan;
+
+        // null, INACCURACY, MISTAKE or BLUNDER
+        private String mark;
+    }
+}
@@ -0,0 +1,20 @@
+package com.IndiChess.dto;
+
+import com.IndiChess.Model.TournamentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ArenaStandingsDTO {
+    private Long tournamentId;
+    private TournamentStatus status;
+    private Integer players;
+    private List<Row> standings;
+
+    public record Row(int rank, String email, String name, int score, int games,
+                      int wins, int draws, int losses, boolean onFire, boolean active) {
+    }
+}
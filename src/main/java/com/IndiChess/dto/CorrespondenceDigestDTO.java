@@ -0,0 +1,21 @@
+package com.IndiChess.dto;
+
+import com.IndiChess.Model.MatchStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CorrespondenceDigestDTO {
+    private String email;
+    private List<Item> items;
+
+    public enum Kind {YOUR_TURN, FINISHED}
+
+    // Only the latest event per game makes it into a digest
+    public record Item(Long matchId, Kind kind, String opponentEmail, String lastMoveUci, Long deadline,
+                       MatchStatus status) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.IndiChess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ImportReport {
+    private long gamesRead;
+    private long gamesImported;
+    private long gamesRejected;
+    private long elapsedMs;
+    private double gamesPerSecond;
+}
@@ -6,12 +6,15 @@ import com.IndiChess.Model.MatchStatus;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 public class MatchDTO {
     private Long id;
     private MatchStatus status;
     private GameType gameType;
+    private Integer engineLevel;
+    private Long tournamentId;
 
     // Player emails (not full User objects)
     private String player1Email;
@@ -22,8 +25,14 @@ public class MatchDTO {
     private String currentTurnEmail;
     private Integer currentPly;
     private String lastMoveUci;
+    // Set when one update carries two moves: the opponent's move and the premove that answered it
+    private List<String> appliedMoves;
 
     // Timers
+    private String timeControl;
+    private Long whiteClockMs;
+    private Long blackClockMs;
+    // Whole seconds, for clients that predate millisecond clocks
     private Integer whiteTime;
     private Integer blackTime;
     private Long lastMoveTime;
@@ -38,6 +47,8 @@ public class MatchDTO {
         dto.setId(match.getId());
         dto.setStatus(match.getStatus());
         dto.setGameType(match.getGameType());
+        dto.setEngineLevel(match.getEngineLevel());
+        dto.setTournamentId(match.getTournamentId());
 
         if (match.getPlayer1() != null) {
             dto.setPlayer1Email(match.getPlayer1().getEmail());
@@ -51,8 +62,13 @@ public class MatchDTO {
         dto.setCurrentPly(match.getCurrentPly());
         dto.setLastMoveUci(match.getLastMoveUci());
 
-        dto.setWhiteTime(match.getWhiteTime());
-        dto.setBlackTime(match.getBlackTime());
+        if (match.getTimeControl() != null) {
+            dto.setTimeControl(match.getTimeControl().notation());
+        }
+        dto.setWhiteClockMs(match.getWhiteClockMs());
+        dto.setBlackClockMs(match.getBlackClockMs());
+        dto.setWhiteTime(seconds(match.getWhiteClockMs()));
+        dto.setBlackTime(seconds(match.getBlackClockMs()));
         dto.setLastMoveTime(match.getLastMoveTime());
 
         dto.setStartedAt(match.getStartedAt());
@@ -60,4 +76,15 @@ public class MatchDTO {
 
         return dto;
     }
-}
\ No newline at end of file
+
+    // One broadcast for a move and the premove played in reply
+    public static MatchDTO combined(Match first, Match afterPremove) {
+        MatchDTO dto = fromMatch(afterPremove);
+        dto.setAppliedMoves(List.of(first.getLastMoveUci(), afterPremove.getLastMoveUci()));
+        return dto;
+    }
+
+    private static Integer seconds(Long millis) {
+        return millis == null ? null : (int) (millis / 1000);
+    }
+}
@@ -0,0 +1,31 @@
+package com.IndiChess.dto;
+
+import com.IndiChess.Model.GameType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class OpeningExplorerDTO {
+    private String fen;
+
+    // null when all game types are combined
+    private GameType gameType;
+
+    private Long totalGames;
+
+    private List<MoveStat> moves;
+
+    @Data
+    @AllArgsConstructor
+    public static class MoveStat {
+        private String uci;
+        private String san;
+        private Long games;
+        private Double whitePct;
+        private Double drawPct;
+        private Double blackPct;
+    }
+}
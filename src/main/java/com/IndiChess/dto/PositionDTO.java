@@ -0,0 +1,17 @@
+package com.IndiChess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PositionDTO {
+    private Long matchId;
+    private Integer ply;
+    private Integer totalPlies;
+    private String fen;
+
+    // Move that led to this position (null at ply 0)
+    private String lastMoveUci;
+    private String lastMoveSan;
+}
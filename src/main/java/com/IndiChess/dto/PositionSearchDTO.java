@@ -0,0 +1,24 @@
+package com.IndiChess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PositionSearchDTO {
+    private String fen;
+
+    // Indexed games that reach the position, each counted once
+    private Long total;
+
+    private List<GameHit> games;
+
+    @Data
+    @AllArgsConstructor
+    public static class GameHit {
+        private Long matchId;
+        private Integer ply;
+    }
+}
@@ -0,0 +1,17 @@
+package com.IndiChess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PresenceDTO {
+    private String email;
+    private Status status;
+    private int sessions;
+    private Long lastSeen;      // epoch ms of the last connect or disconnect, null if never seen
+    private Long graceEndsAt;   // set while DISCONNECTED: when the player counts as gone
+
+    // DISCONNECTED is the grace period after the last session closed; a reconnect makes it ONLINE again
+    public enum Status {ONLINE, DISCONNECTED, OFFLINE}
+}
@@ -0,0 +1,18 @@
+package com.IndiChess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PuzzleAttemptResult {
+    private Boolean solved;
+    private List<String> solution;
+    private Integer userRating;
+    private Integer puzzleRating;
+
+    // False for a repeat attempt, which leaves both ratings unchanged
+    private Boolean rated;
+}
@@ -0,0 +1,16 @@
+package com.IndiChess.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// What the solver sees; the solution stays on the server
+@Data
+@AllArgsConstructor
+public class PuzzleDTO {
+    private Long id;
+    private String fen;
+    private Integer rating;
+
+    // Number of moves the solver has to find
+    private Integer moves;
+}
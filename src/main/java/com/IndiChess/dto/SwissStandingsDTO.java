@@ -0,0 +1,21 @@
+package com.IndiChess.dto;
+
+import com.IndiChess.Model.TournamentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class SwissStandingsDTO {
+    private Long tournamentId;
+    private TournamentStatus status;
+    private Integer round;
+    private Integer rounds;
+    private List<Row> standings;
+
+    public record Row(int rank, String email, String name, double points, double buchholz, double sonnebornBerger,
+                      int games, int wins, int draws, int losses, int byes, boolean active) {
+    }
+}
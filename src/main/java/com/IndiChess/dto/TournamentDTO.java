@@ -0,0 +1,30 @@
+package com.IndiChess.dto;
+
+import com.IndiChess.Model.GameType;
+import com.IndiChess.Model.Tournament;
+import com.IndiChess.Model.TournamentFormat;
+import com.IndiChess.Model.TournamentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class TournamentDTO {
+    private Long id;
+    private String name;
+    private TournamentFormat format;
+    private GameType gameType;
+    private TournamentStatus status;
+    private LocalDateTime startsAt;
+    private LocalDateTime endsAt;
+    private Integer rounds;
+    private Integer currentRound;
+    private Long players;
+
+    public static TournamentDTO of(Tournament t, long players) {
+        return new TournamentDTO(t.getId(), t.getName(), t.getFormat(), t.getGameType(), t.getStatus(),
+                t.getStartsAt(), t.getEndsAt(), t.getRounds(), t.getCurrentRound(), players);
+    }
+}
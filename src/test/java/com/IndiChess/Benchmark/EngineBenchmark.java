@@ -0,0 +1,64 @@
+package com.IndiChess.Benchmark;
+
+import com.IndiChess.Chess.Board;
+import com.IndiChess.Chess.MoveCodec;
+import com.IndiChess.Engine.Engine;
+import com.IndiChess.Engine.SearchLimits;
+import com.IndiChess.Engine.SearchResult;
+import com.IndiChess.Engine.TranspositionTable;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Nodes/second of the Lazy SMP search for increasing thread counts, over a few
+ * middlegame and endgame positions with a fixed time per position.
+ *
+ * Run after mvn test-compile:
+ * java -cp target/classes:target/test-classes com.IndiChess.Benchmark.EngineBenchmark [msPerPosition]
+ */
+public class EngineBenchmark {
+
+    private static final String[] POSITIONS = {
+            Board.START_FEN,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r1bq1rk1/pp2bppp/2n2n2/2pp4/3P4/2PBPN2/PP1N1PPP/R2QK2R w KQ - 0 9",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1"
+    };
+
+    public static void main(String[] args) throws Exception {
+        long msPerPosition = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        int cores = Runtime.getRuntime().availableProcessors();
+        ExecutorService helpers = Executors.newFixedThreadPool(Math.max(1, cores - 1));
+
+        try {
+            // Warm up the JIT before measuring
+            run(helpers, 1, 500);
+
+            System.out.printf("%-8s %14s %12s %10s%n", "threads", "nodes", "nps", "avg depth");
+            for (int threads = 1; threads <= cores; threads *= 2) {
+                long[] totals = run(helpers, threads, msPerPosition);
+                System.out.printf("%-8d %14d %12d %10.1f%n",
+                        threads, totals[0], totals[0] * 1000 / Math.max(1, totals[1]),
+                        totals[2] / (double) POSITIONS.length);
+            }
+        } finally {
+            helpers.shutdownNow();
+        }
+    }
+
+    // Returns {nodes, elapsed ms, sum of completed depths}
+    private static long[] run(ExecutorService helpers, int threads, long ms) {
+        long[] totals = new long[3];
+        for (String fen : POSITIONS) {
+            Engine engine = new Engine(new TranspositionTable(64), helpers);
+            SearchResult result = engine.search(Board.fromFen(fen), new long[0], new SearchLimits(64, ms, threads, 0));
+            if (result.move() == MoveCodec.NONE) throw new IllegalStateException("No move for " + fen);
+            totals[0] += result.nodes();
+            totals[1] += result.timeMs();
+            totals[2] += result.depth();
+        }
+        return totals;
+    }
+}
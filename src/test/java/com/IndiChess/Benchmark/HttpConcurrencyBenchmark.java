@@ -0,0 +1,173 @@
+package com.IndiChess.Benchmark;
+
+import com.IndiChess.IndiChessApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Requests/second and latency of a blocking JPA endpoint (GET /match/{id}, which also
+ * loads the user in JwtFilter) at high concurrency, once on Tomcat's platform-thread
+ * pool and once on virtual threads with the DB concurrency limit at the pool size.
+ * The virtual-thread run is skipped on runtimes older than Java 21.
+ *
+ * Run after mvn test-compile, with the test classpath:
+ * java -cp target/classes:target/test-classes:$(cat cp.txt) com.IndiChess.Benchmark.HttpConcurrencyBenchmark [concurrency] [seconds]
+ */
+public class HttpConcurrencyBenchmark {
+
+    private static final String EMAIL = "bench@indichess.local";
+    private static final String PASSWORD = "bench-password";
+    private static final int POOL_SIZE = 32; // matches the loadtest profile
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+
+        System.out.printf("%-10s %8s %10s %10s %10s %10s %8s%n",
+                "mode", "clients", "req/s", "p50 ms", "p99 ms", "p999 ms", "errors");
+        run("platform", concurrency, seconds, "spring.threads.virtual.enabled=false");
+        if (Runtime.version().feature() >= 21) {
+            run("virtual", concurrency, seconds, "spring.threads.virtual.enabled=true",
+                    "indichess.db.concurrency-limit=" + POOL_SIZE);
+        } else {
+            System.out.println("virtual    skipped: needs a Java 21+ runtime, this is " + Runtime.version());
+        }
+    }
+
+    private static void run(String mode, int concurrency, int seconds, String... properties) throws Exception {
+        List<String> props = new ArrayList<>(Arrays.asList(properties));
+        props.add("server.port=0");
+        props.add("spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE);
+
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(IndiChessApplication.class)
+                .profiles("loadtest")
+                .properties(props.toArray(new String[0]))
+                .run()) {
+            String base = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+            send(http, post(base + "/auth/register",
+                    "{\"name\":\"bench\",\"email\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD + "\"}", null));
+            String login = send(http, post(base + "/auth/login",
+                    "{\"email\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD + "\"}", null));
+            String token = field(login, "token");
+            String match = send(http, post(base + "/match/create-private", "", token));
+            URI target = URI.create(base + "/match/" + numberField(match, "id"));
+
+            // Warm up the JIT and the pool before measuring
+            measure(http, target, token, Math.min(concurrency, 64), 5);
+            long[] result = measure(http, target, token, concurrency, seconds);
+
+            long errors = result[result.length - 1];
+            long[] latencies = Arrays.copyOf(result, result.length - 1);
+            Arrays.sort(latencies);
+            System.out.printf("%-10s %8d %10.0f %10.2f %10.2f %10.2f %8d%n", mode, concurrency,
+                    latencies.length / (double) seconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999), errors);
+        }
+    }
+
+    // Closed loop: each client sends its next request as soon as the previous one returns.
+    // Returns the latencies in nanos followed by the error count.
+    private static long[] measure(HttpClient http, URI target, String token, int concurrency, int seconds) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(target)
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong errors = new AtomicLong();
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(clients.submit(() -> {
+                    long[] samples = new long[256];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == samples.length) samples = Arrays.copyOf(samples, count * 2);
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(samples, count);
+                }));
+            }
+
+            List<long[]> parts = new ArrayList<>(concurrency);
+            int total = 0;
+            for (Future<long[]> future : futures) {
+                long[] part = future.get();
+                parts.add(part);
+                total += part.length;
+            }
+            long[] out = new long[total + 1];
+            int at = 0;
+            for (long[] part : parts) {
+                System.arraycopy(part, 0, out, at, part.length);
+                at += part.length;
+            }
+            out[total] = errors.get();
+            return out;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static HttpRequest post(String url, String json, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) request.header("Authorization", "Bearer " + token);
+        return request.build();
+    }
+
+    private static String send(HttpClient http, HttpRequest request) throws Exception {
+        return http.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static String field(String json, String name) {
+        int at = json.indexOf("\"" + name + "\":\"");
+        if (at < 0) throw new IllegalStateException("No " + name + " in " + json);
+        int start = at + name.length() + 4;
+        return json.substring(start, json.indexOf('"', start));
+    }
+
+    private static String numberField(String json, String name) {
+        int at = json.indexOf("\"" + name + "\":");
+        if (at < 0) throw new IllegalStateException("No " + name + " in " + json);
+        int start = at + name.length() + 3;
+        int end = start;
+        while (end < json.length() && Character.isDigit(json.charAt(end))) end++;
+        return json.substring(start, end);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0.0;
+        return sorted[Math.max(0, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,62 @@
+package com.IndiChess.Benchmark;
+
+import com.IndiChess.Chess.PgnParser;
+import com.IndiChess.Chess.PgnReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Games/second of the import parse stage (split + parse + validate) over the bundled
+ * sample file, for increasing fork-join parallelism. Database time is not included.
+ *
+ * Run after mvn test-compile:
+ * java -cp target/classes:target/test-classes com.IndiChess.Benchmark.PgnImportBenchmark [copies]
+ */
+public class PgnImportBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int copies = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        String sample = loadSample();
+        String input = sample.repeat(copies);
+
+        // Warm up the JIT before measuring
+        run(input, ForkJoinPool.commonPool().getParallelism());
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%-12s %10s %12s%n", "parallelism", "games", "games/s");
+        for (int parallelism = 1; parallelism <= cores; parallelism *= 2) {
+            long start = System.nanoTime();
+            long games = run(input, parallelism);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%-12d %10d %12.0f%n", parallelism, games, games / seconds);
+        }
+    }
+
+    private static long run(String input, int parallelism) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            PgnReader reader = new PgnReader(new StringReader(input));
+            long parsed = 0;
+            List<String> batch;
+            while (!(batch = reader.nextGames(500)).isEmpty()) {
+                List<String> texts = batch;
+                parsed += pool.submit(() -> texts.parallelStream().map(PgnParser::parse).count()).get();
+            }
+            return parsed;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static String loadSample() throws IOException {
+        try (InputStream in = PgnImportBenchmark.class.getResourceAsStream("/pgn/sample.pgn")) {
+            if (in == null) throw new IllegalStateException("pgn/sample.pgn not on the classpath");
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
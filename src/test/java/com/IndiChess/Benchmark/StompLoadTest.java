@@ -0,0 +1,335 @@
+package com.IndiChess.Benchmark;
+
+import com.IndiChess.Chess.Board;
+import com.IndiChess.Chess.MoveCodec;
+import com.IndiChess.IndiChessApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.JacksonJsonMessageConverter;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * End-to-end move latency under load. N STOMP clients register, log in, queue through
+ * /app/matchmaking/join and play random legal moves through /app/game/{id}/move. The
+ * round trip is measured from sending a move to receiving the broadcast that contains it.
+ *
+ * Without --url the application is started in-process with the "loadtest" profile
+ * (PostgreSQL in a Testcontainers container, so Docker is needed; background jobs off);
+ * the clients then share the JVM with the server, so compare runs made the same way.
+ *
+ * Run after mvn test-compile, with the test classpath:
+ * java -cp target/classes:target/test-classes:$(cat cp.txt) com.IndiChess.Benchmark.StompLoadTest \
+ *      [--clients=200] [--seconds=60] [--warmup=10] [--max-plies=80] [--url=http://localhost:8080] [--out=target/loadtest.json]
+ */
+public class StompLoadTest {
+
+    private static final String PASSWORD = "loadtest-password";
+
+    private final String baseUrl;
+    private final int maxPlies;
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final ScheduledExecutorService retries = Executors.newSingleThreadScheduledExecutor();
+    private final WebSocketStompClient stompClient;
+
+    private volatile boolean recording;
+    private final AtomicLong movesSent = new AtomicLong();
+    private final AtomicLong gamesStarted = new AtomicLong();
+    private final AtomicLong gamesFinished = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    private StompLoadTest(String baseUrl, int maxPlies) {
+        this.baseUrl = baseUrl;
+        this.maxPlies = maxPlies;
+        this.stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        this.stompClient.setMessageConverter(new JacksonJsonMessageConverter());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parseArgs(args);
+        int clients = Integer.parseInt(opts.getOrDefault("clients", "200")) & ~1; // players come in pairs
+        int seconds = Integer.parseInt(opts.getOrDefault("seconds", "60"));
+        int warmup = Integer.parseInt(opts.getOrDefault("warmup", "10"));
+        int maxPlies = Integer.parseInt(opts.getOrDefault("max-plies", "80"));
+        Path out = Path.of(opts.getOrDefault("out", "target/loadtest.json"));
+
+        ConfigurableApplicationContext app = null;
+        String url = opts.get("url");
+        if (url == null) {
+            app = new SpringApplicationBuilder(IndiChessApplication.class)
+                    .profiles("loadtest")
+                    .properties("server.port=0")
+                    .run();
+            url = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+        }
+
+        StompLoadTest test = new StompLoadTest(url, maxPlies);
+        try {
+            String report = test.run(clients, warmup, seconds);
+            Files.createDirectories(out.toAbsolutePath().getParent());
+            Files.writeString(out, report);
+            System.out.println(report);
+            System.out.println("Written to " + out.toAbsolutePath());
+        } finally {
+            test.retries.shutdownNow();
+            test.stompClient.stop();
+            if (app != null) app.close();
+        }
+    }
+
+    private String run(int clients, int warmupSeconds, int seconds) throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<Player> players = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            String email = "load-" + runId + "-" + i + "@indichess.local";
+            players.add(new Player(email, register(email, "load-" + runId + "-" + i)));
+        }
+        for (Player player : players) player.connect();
+        System.out.printf("%d clients connected to %s%n", clients, baseUrl);
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+        movesSent.set(0);
+        gamesStarted.set(0);
+        gamesFinished.set(0);
+        errors.set(0);
+        players.forEach(Player::resetLatencies);
+        recording = true;
+
+        long start = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+        recording = false;
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        for (Player player : players) player.disconnect();
+        return report(players, clients, elapsed);
+    }
+
+    /* ================= HTTP ================= */
+
+    private String register(String email, String name) throws Exception {
+        post("/auth/register", "{\"name\":\"" + name + "\",\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}", null);
+        String body = post("/auth/login", "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}", null);
+        int at = body.indexOf("\"token\":\"");
+        if (at < 0) throw new IllegalStateException("Login failed for " + email + ": " + body);
+        return body.substring(at + 9, body.indexOf('"', at + 9));
+    }
+
+    private String post(String path, String json, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) request.header("Authorization", "Bearer " + token);
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    /* ================= PLAYER ================= */
+
+    private final class Player extends StompSessionHandlerAdapter {
+
+        private final String email;
+        private final String token;
+        private StompSession session;
+        private StompSession.Subscription gameSubscription;
+
+        private long matchId = -1;
+        private int awaitingPly = -1;
+        private String pendingUci;
+        private long sentAt;
+        private long[] latencies = new long[1024];
+        private int latencyCount;
+
+        Player(String email, String token) {
+            this.email = email;
+            this.token = token;
+        }
+
+        void connect() throws Exception {
+            StompHeaders connectHeaders = new StompHeaders();
+            connectHeaders.add("Authorization", "Bearer " + token);
+            session = stompClient.connectAsync(baseUrl + "/ws", new WebSocketHttpHeaders(), connectHeaders, this)
+                    .get(30, TimeUnit.SECONDS);
+
+            session.subscribe("/topic/matchmaking/" + email, handler(this::onMatched));
+            session.subscribe("/user/queue/errors", handler(payload -> onError()));
+            joinQueue();
+        }
+
+        void disconnect() {
+            if (session != null && session.isConnected()) session.disconnect();
+        }
+
+        synchronized void resetLatencies() {
+            latencyCount = 0;
+        }
+
+        synchronized long[] latencies() {
+            return Arrays.copyOf(latencies, latencyCount);
+        }
+
+        private void joinQueue() {
+            session.send("/app/matchmaking/join", Map.of("gameType", "BLITZ"));
+        }
+
+        private synchronized void onMatched(Map<String, Object> match) {
+            if (gameSubscription != null) gameSubscription.unsubscribe();
+            matchId = ((Number) match.get("id")).longValue();
+            awaitingPly = -1;
+            gameSubscription = session.subscribe("/topic/game/" + matchId, handler(this::onGameState));
+            if (recording) gamesStarted.incrementAndGet();
+            if (email.equals(match.get("currentTurnEmail"))) {
+                sendMove(Board.START_FEN, 0);
+            }
+        }
+
+        private synchronized void onGameState(Map<String, Object> state) {
+            if (((Number) state.get("id")).longValue() != matchId) return;
+            int ply = ((Number) state.get("currentPly")).intValue();
+
+            if (awaitingPly >= 0 && ply >= awaitingPly) {
+                record(System.nanoTime() - sentAt);
+                awaitingPly = -1;
+            }
+
+            if (!"ONGOING".equals(state.get("status"))) {
+                if (recording && email.equals(state.get("player1Email"))) gamesFinished.incrementAndGet();
+                matchId = -1;
+                joinQueue();
+                return;
+            }
+            if (!email.equals(state.get("currentTurnEmail")) || awaitingPly >= 0) return;
+
+            if (ply >= maxPlies) {
+                long id = matchId;
+                retries.execute(() -> resign(id));
+            } else {
+                sendMove((String) state.get("fenCurrent"), ply);
+            }
+        }
+
+        private void sendMove(String fen, int ply) {
+            int[] moves = Board.fromFen(fen).legalMoves();
+            if (moves.length == 0) return;
+            pendingUci = MoveCodec.toUci(moves[ThreadLocalRandom.current().nextInt(moves.length)]);
+            awaitingPly = ply + 1;
+            send();
+        }
+
+        private void send() {
+            sentAt = System.nanoTime();
+            session.send("/app/game/" + matchId + "/move", Map.of("uci", pendingUci));
+            if (recording) movesSent.incrementAndGet();
+        }
+
+        // The pairing message can arrive before the match row commits, so a rejected move is retried once the row exists
+        private synchronized void onError() {
+            if (recording) errors.incrementAndGet();
+            if (awaitingPly < 0 || matchId < 0) return;
+            long id = matchId;
+            retries.schedule(() -> {
+                synchronized (Player.this) {
+                    if (matchId == id && awaitingPly >= 0) send();
+                }
+            }, 50, TimeUnit.MILLISECONDS);
+        }
+
+        private void resign(long id) {
+            try {
+                post("/match/" + id + "/resign", "{}", token);
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+        }
+
+        private void record(long nanos) {
+            if (!recording) return;
+            if (latencyCount == latencies.length) latencies = Arrays.copyOf(latencies, latencyCount * 2);
+            latencies[latencyCount++] = nanos;
+        }
+
+        private StompSessionHandlerAdapter handler(Consumer<Map<String, Object>> onMessage) {
+            return new StompSessionHandlerAdapter() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return Map.class;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    onMessage.accept((Map<String, Object>) payload);
+                }
+            };
+        }
+
+        @Override
+        public void handleTransportError(StompSession session, Throwable exception) {
+            errors.incrementAndGet();
+        }
+    }
+
+    /* ================= REPORT ================= */
+
+    private String report(List<Player> players, int clients, double seconds) {
+        long[] all = players.stream().map(Player::latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return String.format(Locale.ROOT, """
+                {
+                  "clients": %d,
+                  "seconds": %.1f,
+                  "movesSent": %d,
+                  "movesAcknowledged": %d,
+                  "movesPerSecond": %.1f,
+                  "gamesStarted": %d,
+                  "gamesFinished": %d,
+                  "errors": %d,
+                  "latencyMs": { "p50": %.2f, "p99": %.2f, "p999": %.2f, "max": %.2f }
+                }""",
+                clients, seconds, movesSent.get(), all.length, all.length / seconds,
+                gamesStarted.get(), gamesFinished.get(), errors.get(),
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999),
+                all.length == 0 ? 0.0 : all[all.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0.0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            opts.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return opts;
+    }
+}
@@ -0,0 +1,89 @@
+package com.IndiChess.Benchmark;
+
+import com.IndiChess.Swiss.SwissPairer;
+import com.IndiChess.Swiss.SwissPlayer;
+import com.IndiChess.Swiss.SwissStandings;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Round generation time of the Swiss pairer over synthetic fields. Each field plays a
+ * full event; results are drawn from the Elo expectation so the score groups look like
+ * a real tournament. Also counts repeat pairings and third-colour-in-a-row assignments,
+ * which should stay at zero except in tiny fields.
+ *
+ * Run after mvn test-compile:
+ * java -cp target/classes:target/test-classes com.IndiChess.Benchmark.SwissPairingBenchmark [rounds] [sizes...]
+ */
+public class SwissPairingBenchmark {
+
+    private static final double DRAW_RATE = 0.25;
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 9;
+        int[] sizes = {16, 101, 500, 2000, 5000};
+        if (args.length > 1) {
+            sizes = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) sizes[i - 1] = Integer.parseInt(args[i]);
+        }
+
+        // Warm up the JIT before measuring
+        for (int i = 0; i < 5; i++) play(2000, rounds, new Random(i));
+
+        System.out.printf("%-8s %7s %12s %12s %12s %9s %9s%n",
+                "players", "rounds", "avg ms", "max ms", "standings", "repeats", "colour");
+        for (int size : sizes) {
+            long[] r = play(size, rounds, new Random(42));
+            System.out.printf("%-8d %7d %12.2f %12.2f %12.2f %9d %9d%n",
+                    size, rounds, r[0] / 1e6 / rounds, r[1] / 1e6, r[2] / 1e6, r[3], r[4]);
+        }
+    }
+
+    // Returns {total pairing nanos, slowest round nanos, standings nanos, repeats, colour violations}
+    private static long[] play(int size, int rounds, Random random) {
+        Map<Long, SwissPlayer> players = new HashMap<>(size * 2);
+        List<SwissPlayer> field = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            SwissPlayer p = new SwissPlayer(id, (int) Math.round(1500 + random.nextGaussian() * 300));
+            players.put(id, p);
+            field.add(p);
+        }
+
+        long total = 0;
+        long slowest = 0;
+        long repeats = 0;
+        long colourViolations = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            SwissPairer.Round pairing = SwissPairer.pair(field);
+            long elapsed = System.nanoTime() - start;
+            total += elapsed;
+            slowest = Math.max(slowest, elapsed);
+
+            for (SwissPairer.Pair pair : pairing.pairs()) {
+                SwissPlayer white = players.get(pair.white());
+                SwissPlayer black = players.get(pair.black());
+                if (white.hasPlayed(black.id())) repeats++;
+                if (white.colorPreference() == -2) colourViolations++;
+                if (black.colorPreference() == 2) colourViolations++;
+
+                double expected = 1 / (1 + Math.pow(10, (black.rating() - white.rating()) / 400.0));
+                double roll = random.nextDouble();
+                int whitePoints = roll < DRAW_RATE ? 1 : (random.nextDouble() < expected ? 2 : 0);
+                white.addGame(black.id(), true, whitePoints);
+                black.addGame(white.id(), false, 2 - whitePoints);
+            }
+            if (pairing.bye() != null) players.get(pairing.bye()).addBye();
+        }
+
+        long start = System.nanoTime();
+        List<SwissStandings.Entry> standings = SwissStandings.rank(field);
+        long standingsNanos = System.nanoTime() - start;
+        if (standings.size() != size) throw new IllegalStateException("Standings lost players");
+        return new long[]{total, slowest, standingsNanos, repeats, colourViolations};
+    }
+}
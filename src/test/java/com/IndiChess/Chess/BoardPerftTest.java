@@ -0,0 +1,82 @@
+package com.IndiChess.Chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Move generation against the published perft counts (chessprogramming.org/Perft_Results).
+ * The positions cover castling through attacked squares, en passant with discovered
+ * checks, promotions with capture and pins.
+ */
+class BoardPerftTest {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    private static final String PROMOTIONS = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    private static final String CHECKS = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+
+    @Test
+    void startPosition() {
+        Board board = Board.startPosition();
+        assertEquals(20, perft(board, 1));
+        assertEquals(400, perft(board, 2));
+        assertEquals(8_902, perft(board, 3));
+        assertEquals(197_281, perft(board, 4));
+    }
+
+    @Test
+    void kiwipete() {
+        Board board = Board.fromFen(KIWIPETE);
+        assertEquals(48, perft(board, 1));
+        assertEquals(2_039, perft(board, 2));
+        assertEquals(97_862, perft(board, 3));
+    }
+
+    @Test
+    void rookEndgameWithEnPassant() {
+        Board board = Board.fromFen(ENDGAME);
+        assertEquals(14, perft(board, 1));
+        assertEquals(191, perft(board, 2));
+        assertEquals(2_812, perft(board, 3));
+        assertEquals(43_238, perft(board, 4));
+    }
+
+    @Test
+    void promotionsAndPins() {
+        Board board = Board.fromFen(PROMOTIONS);
+        assertEquals(6, perft(board, 1));
+        assertEquals(264, perft(board, 2));
+        assertEquals(9_467, perft(board, 3));
+    }
+
+    @Test
+    void checksAndUnderpromotion() {
+        Board board = Board.fromFen(CHECKS);
+        assertEquals(44, perft(board, 1));
+        assertEquals(1_486, perft(board, 2));
+        assertEquals(62_379, perft(board, 3));
+    }
+
+    @Test
+    void makeUnmakeRestoresThePosition() {
+        Board board = Board.fromFen(KIWIPETE);
+        String fen = board.toFen();
+        long hash = board.hash();
+        perft(board, 3);
+        assertEquals(fen, board.toFen());
+        assertEquals(hash, board.hash());
+    }
+
+    private static long perft(Board board, int depth) {
+        int[] moves = new int[256];
+        int n = board.generatePseudoLegal(moves);
+        long nodes = 0;
+        for (int i = 0; i < n; i++) {
+            if (!board.makeMove(moves[i])) continue;
+            nodes += depth == 1 ? 1 : perft(board, depth - 1);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+}
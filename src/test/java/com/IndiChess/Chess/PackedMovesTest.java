@@ -0,0 +1,104 @@
+package com.IndiChess.Chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The 16-bit move encoding and the packed game format round-trip: what MatchService
+ * appends is what GameCodec decodes, down to SAN and FEN.
+ */
+class PackedMovesTest {
+
+    // Castles on both sides and en passant (3. exf6)
+    private static final String[] GAME = {
+            "e2e4", "d7d5", "e4e5", "f7f5", "e5f6", "g8f6", "g1f3", "b8c6", "f1b5", "c8d7",
+            "e1g1", "e7e6", "b1c3", "d8e7", "d2d4", "e8c8", "f1e1"
+    };
+
+    private static final String[] FOOLS_MATE = {"f2f3", "e7e5", "g2g4", "d8h4"};
+
+    @Test
+    void everyLegalMoveSurvivesEncodingAndUci() {
+        for (String fen : new String[]{Board.START_FEN,
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3"}) {
+            Board board = Board.fromFen(fen);
+            for (int move : board.legalMoves()) {
+                int from = MoveCodec.from(move);
+                int to = MoveCodec.to(move);
+                assertEquals(move, MoveCodec.encode(from, to, MoveCodec.flags(move)));
+                assertEquals(move, board.parseUci(MoveCodec.toUci(move)), fen + " " + MoveCodec.toUci(move));
+                assertEquals(move, board.parseSan(board.toSan(move)), fen + " " + board.toSan(move));
+            }
+        }
+    }
+
+    @Test
+    void packedGameRoundTrip() {
+        List<GameCodec.DecodedMove> decoded = roundTrip(Board.START_FEN, GAME);
+        assertEquals("exf6", decoded.get(4).san());
+        assertEquals("O-O", decoded.get(10).san());
+        assertEquals("O-O-O", decoded.get(15).san());
+    }
+
+    @Test
+    void checkmateAndPromotionSan() {
+        assertEquals("Qh4#", roundTrip(Board.START_FEN, FOOLS_MATE).get(3).san());
+        assertEquals("bxa8=Q+", roundTrip("r3k3/1P6/8/8/8/8/8/4K3 w q - 0 1", new String[]{"b7a8q"}).get(0).san());
+    }
+
+    // Plays the moves, packs them both ways and checks that decoding gives back every move and position
+    private static List<GameCodec.DecodedMove> roundTrip(String startFen, String[] game) {
+        Board board = Board.fromFen(startFen);
+        int[] moves = new int[game.length];
+        byte[] appended = null;
+        List<String> fens = new ArrayList<>();
+        for (int i = 0; i < game.length; i++) {
+            moves[i] = board.parseUci(game[i]);
+            assertEquals(game[i], MoveCodec.toUci(moves[i]), "illegal test move");
+            board.play(moves[i]);
+            fens.add(board.toFen());
+            appended = PackedMoves.append(appended, moves[i]);
+        }
+
+        byte[] packed = PackedMoves.pack(moves, moves.length);
+        assertArrayEquals(packed, appended);
+        assertEquals(game.length, PackedMoves.size(packed));
+        assertArrayEquals(moves, PackedMoves.unpack(packed));
+        assertEquals(List.of(game), PackedMoves.toUci(packed));
+        for (int i = 0; i < game.length; i++) {
+            assertEquals(moves[i], PackedMoves.get(packed, i));
+        }
+
+        List<GameCodec.DecodedMove> decoded = GameCodec.decode(startFen, packed);
+        assertEquals(game.length, decoded.size());
+        String fenBefore = Board.fromFen(startFen).toFen();
+        for (int i = 0; i < game.length; i++) {
+            GameCodec.DecodedMove move = decoded.get(i);
+            assertEquals(i + 1, move.ply());
+            assertEquals(moves[i], move.move());
+            assertEquals(game[i], move.uci());
+            assertEquals(fenBefore, move.fenBefore());
+            assertEquals(fens.get(i), move.fenAfter());
+            fenBefore = move.fenAfter();
+        }
+        assertEquals(board.toFen(), GameCodec.replay(startFen, packed, game.length).toFen());
+        if (Board.START_FEN.equals(startFen)) {
+            assertEquals(GameCodec.toSan(packed), decoded.stream().map(GameCodec.DecodedMove::san).toList());
+        }
+        return decoded;
+    }
+
+    @Test
+    void emptyGame() {
+        assertEquals(0, PackedMoves.size(PackedMoves.EMPTY));
+        assertEquals(0, PackedMoves.size(null));
+        assertEquals(List.of(), GameCodec.decode(PackedMoves.EMPTY));
+    }
+}
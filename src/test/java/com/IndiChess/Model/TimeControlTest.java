@@ -0,0 +1,54 @@
+package com.IndiChess.Model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeControlTest {
+
+    @Test
+    void notationRoundTrips() {
+        for (String notation : new String[]{"3+2", "5+3d", "0.5+0", "10+0", "3days"}) {
+            assertEquals(notation, TimeControl.parse(notation).notation());
+        }
+        assertEquals("1+0", TimeControl.parse("1").notation());
+    }
+
+    @Test
+    void incrementAndDelayAreKeptApart() {
+        TimeControl increment = TimeControl.parse("3+2");
+        assertEquals(180_000L, increment.baseMs());
+        assertEquals(2_000L, increment.incrementMs());
+        assertEquals(0L, increment.delayMs());
+
+        TimeControl delay = TimeControl.parse("5+3d");
+        assertEquals(0L, delay.incrementMs());
+        assertEquals(3_000L, delay.delayMs());
+
+        assertThrows(IllegalArgumentException.class, () -> new TimeControl(60_000, 1_000, 1_000));
+        assertThrows(IllegalArgumentException.class, () -> TimeControl.parse("3+x"));
+    }
+
+    @Test
+    void categoriesCountFortyMovesOfIncrementOrDelay() {
+        assertEquals(GameType.BULLET, TimeControl.parse("1+0").gameType());
+        assertEquals(GameType.BULLET, TimeControl.parse("2+1").gameType());
+        assertEquals(GameType.BLITZ, TimeControl.parse("3+0").gameType());
+        assertEquals(GameType.BLITZ, TimeControl.parse("3+2d").gameType());
+        assertEquals(GameType.RAPID, TimeControl.parse("10+0").gameType());
+        assertEquals(GameType.CLASSICAL, TimeControl.parse("30+20").gameType());
+        assertEquals(GameType.CORRESPONDENCE, TimeControl.days(1).gameType());
+        assertTrue(TimeControl.days(1).isCorrespondence());
+    }
+
+    @Test
+    void pgnTagsUseTheFirstPeriod() {
+        assertEquals("3+2", TimeControl.fromPgn("180+2").notation());
+        assertEquals("120+0", TimeControl.fromPgn("40/7200:3600").notation());
+        assertNull(TimeControl.fromPgn("-"));
+        assertNull(TimeControl.fromPgn("?"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.IndiChess.Repository;
+
+import com.IndiChess.Model.ArchivedGame;
+import com.IndiChess.Model.FenCheckpoint;
+import com.IndiChess.Model.Match;
+import jakarta.persistence.Column;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.Transient;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The JDBC batch inserts bypass Hibernate, so a column added to an entity is silently
+ * missing from them until a NOT NULL constraint fails in production. Each INSERT_SQL
+ * must name exactly the entity's columns (minus generated ids), with one placeholder each.
+ */
+class BatchInsertSqlTest {
+
+    @Test
+    void matchInsertCoversEveryColumn() {
+        assertCovers(Match.class, MatchBatchRepoImpl.INSERT_SQL);
+    }
+
+    @Test
+    void checkpointInsertCoversEveryColumn() {
+        assertCovers(FenCheckpoint.class, FenCheckpointBatchRepoImpl.INSERT_SQL);
+    }
+
+    @Test
+    void archivedGameInsertCoversEveryColumn() {
+        assertCovers(ArchivedGame.class, ArchivedGameBatchRepoImpl.INSERT_SQL);
+    }
+
+    private static void assertCovers(Class<?> entity, String sql) {
+        int open = sql.indexOf('(');
+        int close = sql.indexOf(')', open);
+        List<String> columns = Arrays.stream(sql.substring(open + 1, close).split(",")).map(String::trim).toList();
+        String values = sql.substring(sql.indexOf("values"));
+
+        assertEquals(new TreeSet<>(columnsOf(entity)), new TreeSet<>(columns), entity.getSimpleName() + " columns");
+        assertEquals(columns.size(), (int) values.chars().filter(c -> c == '?').count(), "placeholders");
+    }
+
+    // Column names as Spring Boot's default naming strategy maps them
+    private static List<String> columnsOf(Class<?> entity) {
+        List<String> out = new ArrayList<>();
+        for (Field field : entity.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) continue;
+            if (field.isAnnotationPresent(Transient.class) || field.isAnnotationPresent(OneToMany.class)) continue;
+            if (field.isAnnotationPresent(GeneratedValue.class)) continue;
+
+            Column column = field.getAnnotation(Column.class);
+            JoinColumn join = field.getAnnotation(JoinColumn.class);
+            if (column != null && !column.name().isEmpty()) out.add(column.name());
+            else if (join != null && !join.name().isEmpty()) out.add(join.name());
+            else out.add(field.getName().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase());
+        }
+        return out;
+    }
+}
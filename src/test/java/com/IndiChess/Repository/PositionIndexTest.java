@@ -0,0 +1,64 @@
+package com.IndiChess.Repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Postings answer the same wherever they currently live (live buffer, frozen buffer,
+ * segment file), and every game is counted once however often it was added.
+ */
+class PositionIndexTest {
+
+    private static final long SHARED = 42;
+
+    // Reaches SHARED at plies 1, 11, 21 and 31; everything else is unique to the game
+    private static long[] game(long matchId) {
+        long[] hashes = new long[40];
+        for (int i = 0; i < hashes.length; i++) hashes[i] = i % 10 == 0 ? SHARED : matchId * 1000 + i;
+        return hashes;
+    }
+
+    @Test
+    void countsGamesOnceAcrossBufferAndSegments() throws IOException {
+        Path dir = Files.createTempDirectory("position-index");
+        PositionIndex index = new PositionIndex(dir.toString(), 1024, 2);
+        for (long m = 1; m <= 100; m++) index.addGame(m, game(m));
+        index.addGame(7, game(7)); // re-added, as the startup rebuild may do
+
+        PositionIndex.Hits live = index.search(SHARED, 5);
+        assertEquals(100, live.total());
+        assertEquals(5, live.postings().length);
+        assertEquals(7L, PositionIndex.matchIdOf(live.postings()[0])); // most recent first: the re-add
+        assertEquals(1, index.search(5 * 1000 + 3, 10).total());
+        assertEquals(0, index.search(-1, 10).total());
+
+        index.close(); // writes and compacts on the writer thread, then waits for it
+        PositionIndex reopened = new PositionIndex(dir.toString(), 1024, 2);
+        assertTrue(reopened.hadSegmentsOnStartup());
+        PositionIndex.Hits stored = reopened.search(SHARED, 200);
+        assertEquals(100, stored.total());
+        assertEquals(100, stored.postings().length);
+        reopened.close();
+    }
+
+    @Test
+    void emptyGameIsReportedDurable() throws IOException {
+        Path dir = Files.createTempDirectory("position-index");
+        PositionIndex index = new PositionIndex(dir.toString(), 1024, 2);
+        long[][] reported = new long[1][];
+        index.onDurable(ids -> reported[0] = ids);
+        assertFalse(index.hadSegmentsOnStartup());
+
+        index.addGame(9, new long[0]);
+        index.close();
+        assertEquals(1, reported[0].length);
+        assertEquals(9L, reported[0][0]);
+    }
+}
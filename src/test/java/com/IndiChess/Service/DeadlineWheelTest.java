@@ -0,0 +1,101 @@
+package com.IndiChess.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** A wheel of 8 one-second slots, so anything 8 s or more ahead starts in overflow. */
+class DeadlineWheelTest {
+
+    private final DeadlineWheel wheel = new DeadlineWheel(1_000, 8, 0);
+
+    private List<Long> advance(long nowMs) {
+        List<Long> fired = new ArrayList<>();
+        assertEquals(wheel.advance(nowMs, fired::add), fired.size());
+        return fired;
+    }
+
+    @Test
+    void firesAtTheDeadlineAndNotBefore() {
+        wheel.add(1, 2_500);
+        wheel.add(2, 2_700);
+        assertEquals(2L, wheel.size());
+
+        assertEquals(List.of(), advance(2_499));
+        assertEquals(List.of(1L), advance(2_500));
+        assertEquals(List.of(2L), advance(2_999));
+        assertEquals(0L, wheel.size());
+        assertEquals(List.of(), advance(5_000));
+    }
+
+    @Test
+    void pastDeadlineFiresOnTheNextTurn() {
+        advance(3_000);
+        wheel.add(1, 1_000);
+        assertEquals(List.of(1L), advance(3_000));
+    }
+
+    @Test
+    void laterLapInTheSameSlotWaits() {
+        wheel.add(1, 1_200);
+        wheel.add(2, 1_800);
+        assertEquals(List.of(1L), advance(1_500));
+        // Tick 9 shares slot 1 with the tick being scanned
+        wheel.add(3, 9_200);
+        assertEquals(List.of(2L), advance(1_900));
+        assertEquals(List.of(), advance(9_000));
+        assertEquals(List.of(3L), advance(9_200));
+    }
+
+    @Test
+    void overflowIsFiledBackAndFiresOnTime() {
+        wheel.add(1, 30_000);
+        wheel.add(2, 100_000);
+        for (long now = 1_000; now < 30_000; now += 1_000) {
+            assertEquals(List.of(), advance(now));
+        }
+        assertEquals(List.of(1L), advance(30_000));
+        for (long now = 31_000; now < 100_000; now += 1_000) {
+            assertEquals(List.of(), advance(now));
+        }
+        assertEquals(List.of(2L), advance(100_000));
+        assertEquals(0L, wheel.size());
+    }
+
+    @Test
+    void longPauseFiresEverythingDue() {
+        wheel.add(1, 3_000);
+        wheel.add(2, 7_900);
+        wheel.add(3, 20_000);
+        wheel.add(4, 60_000);
+        List<Long> fired = advance(50_000);
+        fired.sort(null);
+        assertEquals(List.of(1L, 2L, 3L), fired);
+        assertEquals(List.of(4L), advance(60_000));
+    }
+
+    @Test
+    void rescheduledDeadlineFiresBothTimes() {
+        // Entries are never removed: the stale one fires and the caller checks it against the game
+        wheel.add(1, 2_000);
+        wheel.add(1, 12_000);
+        assertEquals(List.of(1L), advance(2_000));
+        assertEquals(1L, wheel.size());
+        for (long now = 3_000; now < 12_000; now += 1_000) {
+            assertEquals(List.of(), advance(now));
+        }
+        assertEquals(List.of(1L), advance(12_000));
+    }
+
+    @Test
+    void deadlineMovedEarlierFiresAtTheNewTime() {
+        wheel.add(1, 40_000);
+        advance(1_000);
+        wheel.add(1, 4_000);
+        assertEquals(List.of(), advance(3_999));
+        assertEquals(List.of(1L), advance(4_000));
+    }
+}
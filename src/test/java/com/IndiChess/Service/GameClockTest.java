@@ -0,0 +1,134 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Model.Match;
+import com.IndiChess.Model.TimeControl;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clock arithmetic on a monotonic turn start. Elapsed time is produced by handing charge()
+ * a receive stamp in the future, so every expectation carries a small tolerance for the
+ * time the test itself takes.
+ */
+class GameClockTest {
+
+    private static final long MS = 1_000_000;
+    private static final long TOLERANCE_MS = 50;
+
+    private final GameClock clock = new GameClock(300, 100, 1000);
+
+    private static Match match(long id, TimeControl tc, int ply) {
+        Match match = new Match();
+        match.setId(id);
+        match.setTimeControl(tc);
+        match.setCurrentPly(ply);
+        match.setWhiteClockMs(tc.baseMs());
+        match.setBlackClockMs(tc.baseMs());
+        return match;
+    }
+
+    // Starts the turn now and charges a move that arrives elapsedMs later
+    private long chargeAfter(Match match, boolean white, long elapsedMs, long lagMs) {
+        clock.turnStarted(match.getId(), match.getCurrentPly());
+        return clock.charge(match, white, System.nanoTime() + elapsedMs * MS, lagMs);
+    }
+
+    private static void assertNear(long expected, long actual) {
+        assertTrue(actual <= expected && actual >= expected - TOLERANCE_MS,
+                "expected about " + expected + " got " + actual);
+    }
+
+    @Test
+    void incrementIsAddedAfterTheTimeUsed() {
+        Match match = match(1, TimeControl.parse("3+2"), 2);
+        assertNear(180_000 - 5_000 + 2_000, chargeAfter(match, true, 5_000, 0));
+    }
+
+    @Test
+    void delayAbsorbsShortThinksAndAddsNothing() {
+        Match quick = match(2, TimeControl.parse("5+3d"), 2);
+        assertEquals(300_000L, chargeAfter(quick, true, 2_000, 0));
+
+        Match slow = match(3, TimeControl.parse("5+3d"), 2);
+        assertNear(300_000 - 2_000, chargeAfter(slow, true, 5_000, 0));
+    }
+
+    @Test
+    void firstMoveIsNotTimed() {
+        Match match = match(4, TimeControl.parse("3+2"), 0);
+        assertEquals(180_000L, chargeAfter(match, true, 60_000, 0));
+    }
+
+    @Test
+    void flagFallsWhenTheMoveArrivesTooLate() {
+        Match match = match(5, TimeControl.parse("3+2"), 3);
+        match.setBlackClockMs(1_000L);
+        long left = chargeAfter(match, false, 1_500, 0);
+        // No increment once the flag is down
+        assertTrue(left <= -500 + TOLERANCE_MS && left > -500 - TOLERANCE_MS, "got " + left);
+    }
+
+    @Test
+    void remainingNowCountsTheRunningTurn() {
+        Match match = match(6, TimeControl.parse("3+0"), 2);
+        match.setWhiteClockMs(1_000L);
+        match.setLastMoveTime(System.currentTimeMillis() - 2_000);
+        // No turn stamped on this node: falls back to the persisted wall-clock start
+        long left = clock.remainingNow(match);
+        assertTrue(left <= -1_000 && left > -1_000 - TOLERANCE_MS, "got " + left);
+    }
+
+    @Test
+    void lagIsPaidFromAQuotaThatRunsOut() {
+        // quota 1000, +100 per move, at most 300 per move
+        long[] granted = {300, 300, 300, 300, 200, 100, 100};
+        Match match = match(7, TimeControl.parse("10+0"), 2);
+        for (long expected : granted) {
+            match.setWhiteClockMs(600_000L);
+            assertNear(600_000 - 1_000 + expected, chargeAfter(match, true, 1_000, 500));
+        }
+    }
+
+    @Test
+    void correspondenceGoesBackToTheBaseWithoutLag() {
+        TimeControl tc = TimeControl.days(3);
+        Match match = match(8, tc, 2);
+        match.setWhiteClockMs(tc.baseMs() - 10_000);
+        assertEquals(tc.baseMs(), chargeAfter(match, true, 60_000, 300));
+    }
+
+    @Test
+    void premoveUsesNoTimeButEarnsTheIncrement() {
+        Match match = match(9, TimeControl.parse("3+2"), 3);
+        match.setBlackClockMs(50_000L);
+        assertEquals(52_000L, clock.chargePremove(match, false));
+    }
+
+    @Test
+    void turnStartsOnlyWhenTheTransactionCommits() {
+        Match match = match(10, TimeControl.parse("3+0"), 2);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            clock.turnStarted(match.getId(), 2);
+            // Not stamped yet and no lastMoveTime: nothing to charge
+            assertEquals(180_000L, clock.charge(match, true, System.nanoTime() + 4_000 * MS, 0));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertNear(180_000 - 4_000, clock.charge(match, true, System.nanoTime() + 4_000 * MS, 0));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void releaseForgetsTheTurn() {
+        Match match = match(11, TimeControl.parse("3+0"), 2);
+        clock.turnStarted(match.getId(), 2);
+        clock.release(match.getId());
+        assertEquals(180_000L, clock.charge(match, true, System.nanoTime() + 4_000 * MS, 0));
+    }
+}
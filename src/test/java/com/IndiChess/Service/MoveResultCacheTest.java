@@ -0,0 +1,56 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.dto.MatchDTO;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MoveResultCacheTest {
+
+    private static MatchDTO afterPlies(int plies) {
+        MatchDTO dto = new MatchDTO();
+        dto.setCurrentPly(plies);
+        return dto;
+    }
+
+    @Test
+    void retryOfCommittedMoveIsDuplicate() {
+        MoveResultCache cache = new MoveResultCache(100);
+        assertEquals(MoveResultCache.Outcome.PROCEED, cache.admit(1, "w", "e2e4", 0).outcome());
+        assertEquals(MoveResultCache.Outcome.IN_FLIGHT, cache.admit(1, "w", "e2e4", 0).outcome());
+        cache.complete(1, "w", "e2e4", 0, afterPlies(1));
+
+        assertEquals(MoveResultCache.Outcome.DUPLICATE, cache.admit(1, "w", "e2e4", 0).outcome());
+        assertEquals(MoveResultCache.Outcome.STALE, cache.admit(1, "w", "d2d4", 0).outcome());
+    }
+
+    @Test
+    void olderPlyIsStaleWithoutItsOwnEntry() {
+        MoveResultCache cache = new MoveResultCache(100);
+        cache.admit(1, "b", "e7e5", 5);
+        cache.complete(1, "b", "e7e5", 5, afterPlies(6));
+
+        // Never cached for this key, yet below what the match has committed
+        assertEquals(MoveResultCache.Outcome.STALE, cache.admit(1, "w", "g1f3", 2).outcome());
+        assertEquals(MoveResultCache.Outcome.PROCEED, cache.admit(1, "w", "g1f3", 6).outcome());
+        // Other matches are unaffected
+        assertEquals(MoveResultCache.Outcome.PROCEED, cache.admit(2, "w", "e2e4", 0).outcome());
+    }
+
+    @Test
+    void premovesInTheResultRaiseTheFloor() {
+        MoveResultCache cache = new MoveResultCache(100);
+        cache.admit(1, "w", "e2e4", 0);
+        cache.complete(1, "w", "e2e4", 0, afterPlies(2)); // black's premove went in with it
+
+        assertEquals(MoveResultCache.Outcome.STALE, cache.admit(1, "b", "e7e5", 1).outcome());
+    }
+
+    @Test
+    void abandonedAttemptCanBeRetried() {
+        MoveResultCache cache = new MoveResultCache(100);
+        cache.admit(1, "w", "e2e4", 0);
+        cache.abandon(1, "w", 0);
+        assertEquals(MoveResultCache.Outcome.PROCEED, cache.admit(1, "w", "e2e4", 0).outcome());
+    }
+}
@@ -0,0 +1,77 @@
+package com.IndiChess.Service;
+
+import com.IndiChess.Model.MatchStatus;
+import com.IndiChess.Model.TournamentPlayer;
+import com.IndiChess.Repository.MatchRepo;
+import com.IndiChess.Swiss.SwissPlayer;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Replaying a tournament's games into Swiss history, in particular aborted games. */
+class SwissServiceTest {
+
+    private static TournamentPlayer row(long id, long userId) {
+        TournamentPlayer row = new TournamentPlayer();
+        row.setId(id);
+        row.setUserId(userId);
+        return row;
+    }
+
+    private static MatchRepo.TournamentGameView game(long white, long black, MatchStatus status, int ply) {
+        return new MatchRepo.TournamentGameView() {
+            public Long getId() { return white * 100 + black; }
+            public Long getWhiteId() { return white; }
+            public Long getBlackId() { return black; }
+            public MatchStatus getStatus() { return status; }
+            public Integer getCurrentPly() { return ply; }
+            public LocalDateTime getFinishedAt() { return null; }
+        };
+    }
+
+    @Test
+    void abortedGameIsAForfeitAgainstTheSideToMove() {
+        List<TournamentPlayer> rows = List.of(row(1, 10), row(2, 20), row(3, 30), row(4, 40));
+        Map<Long, SwissPlayer> field = SwissService.history(rows, List.of(
+                // White moved, black never answered
+                game(10, 20, MatchStatus.ABORTED, 1),
+                // White never moved
+                game(30, 40, MatchStatus.ABORTED, 0)));
+
+        assertEquals(2, field.get(10L).score());
+        assertEquals(0, field.get(20L).score());
+        assertEquals(0, field.get(30L).score());
+        assertEquals(2, field.get(40L).score());
+        assertTrue(field.get(10L).hasPlayed(20));
+        assertTrue(field.get(40L).hasPlayed(30));
+        // Nobody sat at the board: no colour is owed either way
+        assertEquals(0, field.get(10L).colorPreference());
+        assertEquals(0, field.get(40L).colorPreference());
+
+        assertEquals(2, rows.get(0).getScore());
+        assertEquals(1, rows.get(0).getWins());
+        assertEquals(1, rows.get(1).getLosses());
+    }
+
+    @Test
+    void finishedGamesAndByesAddUp() {
+        TournamentPlayer first = row(1, 10);
+        first.setByes(1);
+        List<TournamentPlayer> rows = List.of(first, row(2, 20));
+        Map<Long, SwissPlayer> field = SwissService.history(rows, List.of(
+                game(10, 20, MatchStatus.DRAW, 40),
+                game(20, 10, MatchStatus.BLACK_WIN, 61),
+                game(10, 20, MatchStatus.ONGOING, 12)));
+
+        assertEquals(2 + 1 + 2, field.get(10L).score());
+        assertEquals(1, field.get(20L).score());
+        assertEquals(2, field.get(10L).games());
+        assertEquals(5, first.getScore());
+        assertEquals(1, first.getStreak());
+    }
+}
@@ -0,0 +1,140 @@
+package com.IndiChess.Swiss;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plays whole events with deterministic results (the higher rating wins, close ratings
+ * draw) and checks every round against the pairing rules.
+ */
+class SwissPairerTest {
+
+    private static Map<Long, SwissPlayer> field(int players) {
+        Map<Long, SwissPlayer> field = new HashMap<>();
+        for (long id = 1; id <= players; id++) field.put(id, new SwissPlayer(id, 2000 - 10 * (int) id));
+        return field;
+    }
+
+    // Plays the round out and returns it
+    private static SwissPairer.Round play(Map<Long, SwissPlayer> field) {
+        SwissPairer.Round round = SwissPairer.pair(field.values());
+        for (SwissPairer.Pair pair : round.pairs()) {
+            SwissPlayer white = field.get(pair.white());
+            SwissPlayer black = field.get(pair.black());
+            int gap = white.rating() - black.rating();
+            int whitePoints = Math.abs(gap) <= 10 ? 1 : gap > 0 ? 2 : 0;
+            white.addGame(black.id(), true, whitePoints);
+            black.addGame(white.id(), false, 2 - whitePoints);
+        }
+        if (round.bye() != null) field.get(round.bye()).addBye();
+        return round;
+    }
+
+    private static void assertComplete(Map<Long, SwissPlayer> field, SwissPairer.Round round) {
+        Set<Long> seated = new HashSet<>();
+        for (SwissPairer.Pair pair : round.pairs()) {
+            assertTrue(seated.add(pair.white()), "seated twice: " + pair.white());
+            assertTrue(seated.add(pair.black()), "seated twice: " + pair.black());
+        }
+        if (round.bye() != null) assertTrue(seated.add(round.bye()), "bye also plays: " + round.bye());
+        assertEquals(field.size(), seated.size(), "players left out");
+    }
+
+    @Test
+    void noPairIsRepeated() {
+        for (int players : new int[]{8, 11, 16, 33}) {
+            Map<Long, SwissPlayer> field = field(players);
+            Set<String> met = new HashSet<>();
+            for (int r = 0; r < 5; r++) {
+                SwissPairer.Round round = play(field);
+                assertComplete(field, round);
+                for (SwissPairer.Pair pair : round.pairs()) {
+                    String key = Math.min(pair.white(), pair.black()) + "-" + Math.max(pair.white(), pair.black());
+                    assertTrue(met.add(key), players + " players, round " + (r + 1) + ": rematch " + key);
+                }
+            }
+        }
+    }
+
+    @Test
+    void nobodyGetsTheSameColourThreeTimesRunning() {
+        for (int players : new int[]{8, 11, 16, 33}) {
+            Map<Long, SwissPlayer> field = field(players);
+            Map<Long, List<Integer>> colours = new HashMap<>();
+            for (int r = 0; r < 6; r++) {
+                for (SwissPairer.Pair pair : play(field).pairs()) {
+                    colours.computeIfAbsent(pair.white(), id -> new ArrayList<>()).add(SwissPlayer.WHITE);
+                    colours.computeIfAbsent(pair.black(), id -> new ArrayList<>()).add(SwissPlayer.BLACK);
+                }
+            }
+            colours.forEach((id, seq) -> {
+                int diff = 0;
+                for (int i = 0; i < seq.size(); i++) {
+                    diff += seq.get(i);
+                    if (i >= 2) {
+                        assertFalse(seq.get(i).equals(seq.get(i - 1)) && seq.get(i).equals(seq.get(i - 2)),
+                                players + " players: " + id + " had " + seq);
+                    }
+                }
+                assertTrue(Math.abs(diff) <= 2, players + " players: " + id + " had " + seq);
+            });
+        }
+    }
+
+    @Test
+    void playerDueAColourGetsIt() {
+        SwissPlayer due = new SwissPlayer(1, 2000);
+        due.addGame(10, false, 2);
+        due.addGame(11, false, 2);
+        SwissPlayer other = new SwissPlayer(2, 1900);
+        other.addGame(12, true, 2);
+        other.addGame(13, false, 2);
+
+        assertEquals(2, due.colorPreference());
+        SwissPairer.Round round = SwissPairer.pair(List.of(due, other));
+        assertEquals(new SwissPairer.Pair(1, 2), round.pairs().get(0));
+        assertNull(round.bye());
+    }
+
+    @Test
+    void byeGoesToTheLowestRankedPlayerWithoutOne() {
+        Map<Long, SwissPlayer> field = field(5);
+        assertEquals(Long.valueOf(5), SwissPairer.pair(field.values()).bye());
+
+        field.get(5L).addBye();
+        field.get(4L).addGame(3, true, 2);
+        field.get(3L).addGame(4, false, 0);
+        // 5 now outscores 3 but already sat out; 3 is next from the bottom
+        assertEquals(Long.valueOf(3), SwissPairer.pair(field.values()).bye());
+
+        for (SwissPlayer p : field.values()) if (!p.hadBye()) p.addBye();
+        // Everyone has had one: the lowest-ranked (5, on rating) sits out again
+        assertEquals(Long.valueOf(5), SwissPairer.pair(field.values()).bye());
+    }
+
+    @Test
+    void forfeitScoresAndCountsAsMetButGivesNoColour() {
+        SwissPlayer winner = new SwissPlayer(1, 2000);
+        winner.addForfeit(2, 2);
+        SwissPlayer loser = new SwissPlayer(2, 1900);
+        loser.addForfeit(1, 0);
+
+        assertEquals(2, winner.score());
+        assertEquals(0, loser.score());
+        assertTrue(winner.hasPlayed(2));
+        assertTrue(loser.hasPlayed(1));
+        assertEquals(0, winner.colorPreference());
+        assertEquals(0, loser.colorPreference());
+    }
+}